@@ -0,0 +1,99 @@
+package LinearAlgebra.Benchmarks;
+
+import LinearAlgebra.Matrix;
+import LinearAlgebra.SparseMatrix;
+import LinearAlgebra.SparseMatrixBuilder;
+import LinearAlgebra.Vector;
+
+import java.util.Random;
+
+/**
+ * This class creates the matrices and vectors that the benchmarks work on. Every entry comes from
+ * a {@link Random} with a fixed seed, so each run of the benchmarks works on the same numbers and
+ * the results of different runs can be compared.
+ * @author Mark Angelot
+ * @since February 10, 2024
+ */
+final class BenchmarkData{
+    /** This is the seed from which every matrix and vector is generated. */
+    private static final long SEED=20240210L;
+
+    private BenchmarkData(){}
+
+    /**
+     * @param rows the amount of rows in the matrix
+     * @param columns the amount of columns in the matrix
+     * @param stream a number that makes this matrix different from the other matrices of the
+     *               same size
+     * @return a matrix whose entries are between -1 and 1
+     */
+    static Matrix randomMatrix(int rows,int columns,int stream){
+        Random random=new Random(SEED+stream);
+        double[][] entries=new double[rows][columns];
+        for(double[] row:entries){
+            for(int column=0;column<columns;column++){
+                row[column]=(2*random.nextDouble()-1);
+            }
+        }
+        return new Matrix(entries);
+    }
+
+    /**
+     * Creates a matrix whose main diagonal is greater than the sum of the rest of its row, so it
+     * is always invertible and elimination never has to swap rows.
+     * @param dimension the amount of rows and columns in the matrix
+     * @param stream a number that makes this matrix different from the other matrices of the
+     *               same size
+     * @return an invertible matrix
+     */
+    static Matrix invertibleMatrix(int dimension,int stream){
+        return randomMatrix(dimension,dimension,stream)
+                .plus(Matrix.generateIdentityMatrix(dimension).scaledBy(dimension));
+    }
+
+    /**
+     * @param height the amount of entries in the vector
+     * @param stream a number that makes this vector different from the other vectors of the same
+     *               height
+     * @return a vector whose entries are between -1 and 1
+     */
+    static Vector randomVector(int height,int stream){
+        Random random=new Random(SEED+stream);
+        double[] entries=new double[height];
+        for(int i=0;i<height;i++){
+            entries[i]=(2*random.nextDouble()-1);
+        }
+        return new Vector(entries);
+    }
+
+    /**
+     * Creates the matrix of the 5-point Laplacian on a square grid, which is the typical sparse
+     * matrix of a finite difference problem: each row has at most five entries.
+     * @param gridSize the amount of points along each side of the grid. The matrix has
+     *                 {@code gridSize*gridSize} rows and columns.
+     * @return a sparse matrix in CSR layout
+     */
+    static SparseMatrix laplacian(int gridSize){
+        final int n=(gridSize*gridSize);
+        SparseMatrixBuilder builder=new SparseMatrixBuilder(n,n,(5*n));
+        for(int i=0;i<gridSize;i++){
+            for(int j=0;j<gridSize;j++){
+                final int row=(i*gridSize+j);
+                builder.addEntry(row,row,4);
+                if(i>0){
+                    builder.addEntry(row,(row-gridSize),-1);
+                }
+                if(i<gridSize-1){
+                    builder.addEntry(row,(row+gridSize),-1);
+                }
+                if(j>0){
+                    builder.addEntry(row,(row-1),-1);
+                }
+                if(j<gridSize-1){
+                    builder.addEntry(row,(row+1),-1);
+                }
+            }
+        }
+        return builder.build();
+    }
+}
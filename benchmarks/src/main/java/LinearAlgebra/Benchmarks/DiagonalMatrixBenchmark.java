@@ -0,0 +1,73 @@
+package LinearAlgebra.Benchmarks;
+
+import LinearAlgebra.Exceptions.IncompatibleMatrixMultiplicationException;
+import LinearAlgebra.DiagonalMatrix;
+import LinearAlgebra.IdentityMatrix;
+import LinearAlgebra.Matrix;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class measures how long it takes to multiply a dense matrix by a diagonal matrix and to
+ * add an identity matrix to it, with the diagonal types against their dense forms.
+ * @author Mark Angelot
+ * @since May 18, 2024
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations=2,time=5)
+@Measurement(iterations=3,time=5)
+@Fork(value=1,jvmArgsAppend="--add-modules=jdk.incubator.vector")
+public class DiagonalMatrixBenchmark{
+    @Param({"500","1000"})
+    private int size;
+
+    private Matrix dense;
+    private DiagonalMatrix diagonal;
+    private Matrix denseDiagonal;
+    private IdentityMatrix identity;
+    private Matrix denseIdentity;
+
+    @Setup
+    public void createMatrices(){
+        dense=BenchmarkData.randomMatrix(size,size,0);
+        double[] entries=BenchmarkData.randomVector(size,1).asArray();
+        diagonal=new DiagonalMatrix(entries);
+        denseDiagonal=Matrix.generateDiagonalMatrix(entries);
+        identity=new IdentityMatrix(size);
+        denseIdentity=Matrix.generateIdentityMatrix(size);
+    }
+
+    @Benchmark
+    public Matrix diagonalProduct() throws IncompatibleMatrixMultiplicationException{
+        return dense.dotProduct(diagonal);
+    }
+
+    @Benchmark
+    public Matrix denseDiagonalProduct() throws IncompatibleMatrixMultiplicationException{
+        return dense.dotProduct(denseDiagonal);
+    }
+
+    @Benchmark
+    public Matrix identitySum(){
+        return dense.plus(identity);
+    }
+
+    @Benchmark
+    public Matrix denseIdentitySum(){
+        return dense.plus(denseIdentity);
+    }
+}
@@ -0,0 +1,77 @@
+package LinearAlgebra.Benchmarks;
+
+import LinearAlgebra.Exceptions.IncompatibleMatrixMultiplicationException;
+import LinearAlgebra.Exceptions.UndecomposableMatrixException;
+import LinearAlgebra.Exceptions.UninvertibleMatrixException;
+import LinearAlgebra.FloatMatrix;
+import LinearAlgebra.IterativeSolution;
+import LinearAlgebra.LUDecomposition;
+import LinearAlgebra.Matrix;
+import LinearAlgebra.MixedPrecisionSolver;
+import LinearAlgebra.ParallelismPolicy;
+import LinearAlgebra.Vector;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class measures how much faster {@link FloatMatrix} multiplies than {@link Matrix}, and
+ * how much faster {@link MixedPrecisionSolver} solves a system than an {@link LUDecomposition}
+ * in double precision, to the same accuracy.
+ * @author Mark Angelot
+ * @since April 6, 2024
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations=3,time=2)
+@Measurement(iterations=5,time=2)
+@Fork(value=1,jvmArgsAppend="--add-modules=jdk.incubator.vector")
+public class FloatMatrixBenchmark{
+    @Param({"256","1024"})
+    public int dimension;
+
+    private Matrix matrix;
+    private FloatMatrix floatMatrix;
+    private Vector vector;
+
+    @Setup
+    public void createMatrices(){
+        matrix=BenchmarkData.invertibleMatrix(dimension,0);
+        floatMatrix=new FloatMatrix(matrix);
+        vector=BenchmarkData.randomVector(dimension,1);
+    }
+
+    @Benchmark
+    public Matrix doubleProduct() throws IncompatibleMatrixMultiplicationException{
+        return matrix.dotProduct(matrix,ParallelismPolicy.SEQUENTIAL);
+    }
+
+    @Benchmark
+    public FloatMatrix floatProduct() throws IncompatibleMatrixMultiplicationException{
+        return floatMatrix.dotProduct(floatMatrix,ParallelismPolicy.SEQUENTIAL);
+    }
+
+    @Benchmark
+    public Vector doubleSolve() throws UndecomposableMatrixException,
+            UninvertibleMatrixException{
+        return new LUDecomposition(matrix).solve(vector);
+    }
+
+    @Benchmark
+    public IterativeSolution mixedPrecisionSolve() throws UndecomposableMatrixException,
+            UninvertibleMatrixException{
+        return new MixedPrecisionSolver(matrix).solve(vector);
+    }
+}
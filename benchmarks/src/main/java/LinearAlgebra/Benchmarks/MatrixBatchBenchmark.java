@@ -0,0 +1,98 @@
+package LinearAlgebra.Benchmarks;
+
+import LinearAlgebra.Exceptions.IncompatibleMatrixMultiplicationException;
+import LinearAlgebra.Exceptions.UndecomposableMatrixException;
+import LinearAlgebra.Exceptions.UninvertibleMatrixException;
+import LinearAlgebra.LUDecomposition;
+import LinearAlgebra.Matrix;
+import LinearAlgebra.MatrixBatch;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class measures how long {@link MatrixBatch} takes to work through 10,000 small matrices,
+ * against doing the same work one {@link Matrix} at a time.
+ * @author Mark Angelot
+ * @since March 30, 2024
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations=3,time=2)
+@Measurement(iterations=5,time=2)
+@Fork(value=1,jvmArgsAppend="--add-modules=jdk.incubator.vector")
+public class MatrixBatchBenchmark{
+    private static final int AMOUNT_OF_MATRICES=10000;
+
+    /** This is the amount of rows and columns in each matrix. */
+    @Param({"3","8","16"})
+    public int dimension;
+
+    private Matrix[] matrices;
+    private Matrix[] rightHandSides;
+    private MatrixBatch batch;
+    private MatrixBatch batchOfRightHandSides;
+
+    @Setup
+    public void createMatrices(){
+        matrices=new Matrix[AMOUNT_OF_MATRICES];
+        rightHandSides=new Matrix[AMOUNT_OF_MATRICES];
+        for(int k=0;k<AMOUNT_OF_MATRICES;k++){
+            matrices[k]=BenchmarkData.invertibleMatrix(dimension,k);
+            rightHandSides[k]=BenchmarkData.randomMatrix(dimension,1,(AMOUNT_OF_MATRICES+k));
+        }
+        batch=new MatrixBatch(matrices);
+        batchOfRightHandSides=new MatrixBatch(rightHandSides);
+    }
+
+    @Benchmark
+    public MatrixBatch batchedProduct() throws IncompatibleMatrixMultiplicationException{
+        return batch.dotProduct(batch);
+    }
+
+    @Benchmark
+    public Matrix[] oneProductAtATime() throws IncompatibleMatrixMultiplicationException{
+        Matrix[] products=new Matrix[AMOUNT_OF_MATRICES];
+        for(int k=0;k<AMOUNT_OF_MATRICES;k++){
+            products[k]=matrices[k].dotProduct(matrices[k]);
+        }
+        return products;
+    }
+
+    @Benchmark
+    public MatrixBatch batchedSolve() throws UninvertibleMatrixException{
+        return batch.solve(batchOfRightHandSides);
+    }
+
+    @Benchmark
+    public Matrix[] oneSolveAtATime() throws UndecomposableMatrixException,
+            UninvertibleMatrixException{
+        Matrix[] solutions=new Matrix[AMOUNT_OF_MATRICES];
+        for(int k=0;k<AMOUNT_OF_MATRICES;k++){
+            solutions[k]=new LUDecomposition(matrices[k]).solve(rightHandSides[k]);
+        }
+        return solutions;
+    }
+
+    @Benchmark
+    public MatrixBatch batchedInverse() throws UninvertibleMatrixException{
+        return batch.inverse();
+    }
+
+    @Benchmark
+    public double[] batchedDeterminants() throws UndecomposableMatrixException{
+        return batch.determinants();
+    }
+}
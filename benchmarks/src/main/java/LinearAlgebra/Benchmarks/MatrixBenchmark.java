@@ -0,0 +1,109 @@
+package LinearAlgebra.Benchmarks;
+
+import LinearAlgebra.Exceptions.IncompatibleMatrixAugmentationException;
+import LinearAlgebra.Exceptions.IncompatibleMatrixMultiplicationException;
+import LinearAlgebra.Exceptions.IndeterminableMatrixException;
+import LinearAlgebra.Exceptions.UninvertibleMatrixException;
+import LinearAlgebra.Matrix;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class measures the throughput of the operations of {@link Matrix} on square matrices of
+ * every size from 4×4 to 4096×4096. Run it with {@code -prof gc} to also see how many bytes each
+ * operation allocates.<br />
+ * The matrices are created once per trial, so only the operation itself is measured. Every
+ * benchmark returns its result so that the JIT compiler cannot remove the operation.
+ * @author Mark Angelot
+ * @since February 10, 2024
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations=3,time=2)
+@Measurement(iterations=5,time=2)
+@Fork(value=1,jvmArgsAppend="--add-modules=jdk.incubator.vector")
+public class MatrixBenchmark{
+    /** This is the amount of rows and columns in each matrix. */
+    @Param({"4","16","64","256","1024","4096"})
+    public int size;
+
+    private Matrix left;
+    private Matrix right;
+    private Matrix invertible;
+    private Matrix augmented;
+
+    @Setup
+    public void createMatrices() throws IncompatibleMatrixAugmentationException{
+        left=BenchmarkData.randomMatrix(size,size,0);
+        right=BenchmarkData.randomMatrix(size,size,1);
+        invertible=BenchmarkData.invertibleMatrix(size,2);
+        augmented=invertible.augmentedWith(BenchmarkData.randomVector(size,3));
+    }
+
+    @Benchmark
+    public Matrix dotProduct() throws IncompatibleMatrixMultiplicationException{
+        return left.dotProduct(right);
+    }
+
+    @Benchmark
+    public Matrix dotProductByStrassen() throws IncompatibleMatrixMultiplicationException{
+        return left.dotProductByStrassen(right);
+    }
+
+    @Benchmark
+    public Matrix transpose(){
+        return left.transpose();
+    }
+
+    /**
+     * Copying the transpose shows the cost of actually moving the entries, which
+     * {@link #transpose()} does not do because it returns a view.
+     */
+    @Benchmark
+    public Matrix transposeAndCopy(){
+        return left.transpose().copy();
+    }
+
+    @Benchmark
+    public Matrix plus(){
+        return left.plus(right);
+    }
+
+    @Benchmark
+    public Matrix minus(){
+        return left.minus(right);
+    }
+
+    @Benchmark
+    public Matrix scaledBy(){
+        return left.scaledBy(1.5);
+    }
+
+    @Benchmark
+    public double determinant() throws IndeterminableMatrixException{
+        return invertible.determinant();
+    }
+
+    @Benchmark
+    public Matrix inverse() throws UninvertibleMatrixException{
+        return invertible.inverse();
+    }
+
+    @Benchmark
+    public Matrix solveWithGaussianElimination(){
+        return augmented.solveWithGaussianElimination();
+    }
+}
@@ -0,0 +1,68 @@
+package LinearAlgebra.Benchmarks;
+
+import LinearAlgebra.Exceptions.IncompatibleMatrixMultiplicationException;
+import LinearAlgebra.Matrix;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class measures how long a chain of operations takes on {@link Matrix}, which creates a
+ * temporary matrix at every step, against the same chain on a
+ * {@link LinearAlgebra.MatrixExpression}, which calculates it in one pass.
+ * @author Mark Angelot
+ * @since May 4, 2024
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations=2,time=5)
+@Measurement(iterations=3,time=5)
+@Fork(value=1,jvmArgsAppend="--add-modules=jdk.incubator.vector")
+public class MatrixExpressionBenchmark{
+    /** This is the amount of rows and columns in each matrix. */
+    @Param({"500","2000"})
+    public int size;
+
+    private Matrix a;
+    private Matrix b;
+    private Matrix c;
+
+    @Setup
+    public void createMatrices(){
+        a=BenchmarkData.randomMatrix(size,size,0);
+        b=BenchmarkData.randomMatrix(size,size,1);
+        c=BenchmarkData.randomMatrix(size,size,2);
+    }
+
+    @Benchmark
+    public Matrix eagerChain(){
+        return a.transpose().plus(b).scaledBy(2).minus(c);
+    }
+
+    @Benchmark
+    public Matrix lazyChain(){
+        return a.lazy().transpose().plus(b).scaledBy(2).minus(c).evaluate();
+    }
+
+    @Benchmark
+    public Matrix eagerTransposedProduct() throws IncompatibleMatrixMultiplicationException{
+        return a.transpose().dotProduct(b);
+    }
+
+    @Benchmark
+    public Matrix lazyTransposedProduct() throws IncompatibleMatrixMultiplicationException{
+        return a.lazy().transpose().dotProduct(b).evaluate();
+    }
+}
@@ -0,0 +1,65 @@
+package LinearAlgebra.Benchmarks;
+
+import LinearAlgebra.Exceptions.UndecomposableMatrixException;
+import LinearAlgebra.Exceptions.UninvertibleMatrixException;
+import LinearAlgebra.Matrix;
+import LinearAlgebra.ParallelismPolicy;
+import LinearAlgebra.QRDecomposition;
+import LinearAlgebra.Vector;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class measures how long a least-squares fit of a tall matrix takes with a
+ * {@link QRDecomposition} on one thread, against the tall-skinny QR on every core.
+ * @author Mark Angelot
+ * @since April 20, 2024
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations=2,time=5)
+@Measurement(iterations=3,time=5)
+@Fork(value=1,jvmArgsAppend="--add-modules=jdk.incubator.vector")
+public class QRDecompositionBenchmark{
+    /** This is the amount of rows in the matrix. */
+    @Param({"10000","100000"})
+    public int rows;
+
+    /** This is the amount of columns in the matrix. */
+    @Param({"50","200"})
+    public int columns;
+
+    private Matrix matrix;
+    private Vector vector;
+
+    @Setup
+    public void createMatrix(){
+        matrix=BenchmarkData.randomMatrix(rows,columns,0);
+        vector=BenchmarkData.randomVector(rows,1);
+    }
+
+    @Benchmark
+    public Vector sequentialLeastSquares() throws UndecomposableMatrixException,
+            UninvertibleMatrixException{
+        return new QRDecomposition(matrix).solve(vector);
+    }
+
+    @Benchmark
+    public Vector tallSkinnyLeastSquares() throws UndecomposableMatrixException,
+            UninvertibleMatrixException{
+        return new QRDecomposition(matrix,ParallelismPolicy.getDefault()).solve(vector);
+    }
+}
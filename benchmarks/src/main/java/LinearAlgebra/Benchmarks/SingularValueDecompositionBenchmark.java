@@ -0,0 +1,66 @@
+package LinearAlgebra.Benchmarks;
+
+import LinearAlgebra.Matrix;
+import LinearAlgebra.ParallelismPolicy;
+import LinearAlgebra.SingularValueDecomposition;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class measures how long the full {@link SingularValueDecomposition} of a matrix takes,
+ * against the randomized decomposition that only finds its largest singular values.
+ * @author Mark Angelot
+ * @since April 27, 2024
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations=2,time=5)
+@Measurement(iterations=3,time=5)
+@Fork(value=1,jvmArgsAppend="--add-modules=jdk.incubator.vector")
+public class SingularValueDecompositionBenchmark{
+    /** This is the amount of rows in the matrix. */
+    @Param({"2000"})
+    public int rows;
+
+    /** This is the amount of columns in the matrix. */
+    @Param({"200","500"})
+    public int columns;
+
+    /** This is how many singular values the randomized decomposition finds. */
+    @Param({"10","50"})
+    public int rank;
+
+    private Matrix matrix;
+
+    @Setup
+    public void createMatrix(){
+        matrix=BenchmarkData.randomMatrix(rows,columns,0);
+    }
+
+    @Benchmark
+    public SingularValueDecomposition fullDecomposition(){
+        return new SingularValueDecomposition(matrix,ParallelismPolicy.getDefault());
+    }
+
+    @Benchmark
+    public SingularValueDecomposition randomizedDecomposition(){
+        return SingularValueDecomposition.randomized(matrix,rank,
+                SingularValueDecomposition.DEFAULT_OVERSAMPLING,
+                SingularValueDecomposition.DEFAULT_POWER_ITERATIONS,
+                ParallelismPolicy.getDefault(),new Random(1));
+    }
+}
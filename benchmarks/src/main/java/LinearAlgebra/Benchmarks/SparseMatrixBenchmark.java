@@ -0,0 +1,72 @@
+package LinearAlgebra.Benchmarks;
+
+import LinearAlgebra.Exceptions.IncompatibleMatrixMultiplicationException;
+import LinearAlgebra.Matrix;
+import LinearAlgebra.SparseMatrix;
+import LinearAlgebra.Vector;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class measures the throughput of the operations of {@link SparseMatrix} on the 5-point
+ * Laplacian of grids from 32×32 to 1024×1024, which have from about a thousand to about a million
+ * rows.
+ * @author Mark Angelot
+ * @since February 24, 2024
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations=3,time=2)
+@Measurement(iterations=5,time=2)
+@Fork(value=1,jvmArgsAppend="--add-modules=jdk.incubator.vector")
+public class SparseMatrixBenchmark{
+    /** This is the amount of points along each side of the grid. */
+    @Param({"32","128","1024"})
+    public int gridSize;
+
+    private SparseMatrix rows;
+    private SparseMatrix columns;
+    private Vector vector;
+    private Matrix block;
+
+    @Setup
+    public void createMatrices(){
+        rows=BenchmarkData.laplacian(gridSize);
+        columns=rows.toCompressedColumns();
+        vector=BenchmarkData.randomVector(rows.AMOUNT_OF_ROWS,0);
+        block=BenchmarkData.randomMatrix(rows.AMOUNT_OF_ROWS,8,1);
+    }
+
+    @Benchmark
+    public Vector compressedRowsTimesVector() throws IncompatibleMatrixMultiplicationException{
+        return rows.dotProduct(vector);
+    }
+
+    @Benchmark
+    public Vector compressedColumnsTimesVector() throws IncompatibleMatrixMultiplicationException{
+        return columns.dotProduct(vector);
+    }
+
+    @Benchmark
+    public Matrix timesDenseMatrix() throws IncompatibleMatrixMultiplicationException{
+        return rows.dotProduct(block);
+    }
+
+    @Benchmark
+    public SparseMatrix switchLayout(){
+        return rows.toCompressedColumns();
+    }
+}
@@ -0,0 +1,92 @@
+package LinearAlgebra.Benchmarks;
+
+import LinearAlgebra.Exceptions.UndecomposableMatrixException;
+import LinearAlgebra.Exceptions.UninvertibleMatrixException;
+import LinearAlgebra.BandMatrix;
+import LinearAlgebra.LUDecomposition;
+import LinearAlgebra.Matrix;
+import LinearAlgebra.TriangularMatrix;
+import LinearAlgebra.TridiagonalMatrix;
+import LinearAlgebra.Vector;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class measures how long systems take to solve with the triangular, tridiagonal and band
+ * matrix types, against the dense LU decomposition of the same triangular matrix.
+ * @author Mark Angelot
+ * @since May 11, 2024
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations=2,time=5)
+@Measurement(iterations=3,time=5)
+@Fork(value=1,jvmArgsAppend="--add-modules=jdk.incubator.vector")
+public class StructuredMatrixBenchmark{
+    /** This is the amount of rows in the tridiagonal and band systems. */
+    private static final int LONG_SYSTEM=1_000_000;
+    /** This is the amount of rows in the triangular system. */
+    private static final int TRIANGULAR_SYSTEM=2000;
+    /** This is the amount of diagonals on each side of the main diagonal of the band matrix. */
+    private static final int BANDWIDTH=5;
+
+    private TridiagonalMatrix tridiagonal;
+    private BandMatrix band;
+    private Vector longVector;
+    private Matrix dense;
+    private TriangularMatrix triangle;
+    private Vector shortVector;
+
+    @Setup
+    public void createMatrices(){
+        double[] offDiagonal=new double[(LONG_SYSTEM-1)];
+        double[] diagonal=new double[LONG_SYSTEM];
+        Arrays.fill(offDiagonal,-1);
+        Arrays.fill(diagonal,2.5);
+        tridiagonal=new TridiagonalMatrix(offDiagonal,diagonal,offDiagonal);
+        double[][] diagonals=new double[(2*BANDWIDTH+1)][];
+        for(int d=0;d<diagonals.length;d++){
+            diagonals[d]=new double[(LONG_SYSTEM-Math.abs(d-BANDWIDTH))];
+            Arrays.fill(diagonals[d],(d==BANDWIDTH)?(2*BANDWIDTH+1):-1);
+        }
+        band=new BandMatrix(BANDWIDTH,BANDWIDTH,diagonals);
+        longVector=BenchmarkData.randomVector(LONG_SYSTEM,0);
+        triangle=new TriangularMatrix(BenchmarkData.invertibleMatrix(TRIANGULAR_SYSTEM,1),true);
+        dense=triangle.toMatrix();
+        shortVector=BenchmarkData.randomVector(TRIANGULAR_SYSTEM,2);
+    }
+
+    @Benchmark
+    public Vector tridiagonalSolve() throws UninvertibleMatrixException{
+        return tridiagonal.solve(longVector);
+    }
+
+    @Benchmark
+    public Vector bandSolve() throws UninvertibleMatrixException{
+        return band.solve(longVector);
+    }
+
+    @Benchmark
+    public Vector triangularSolve() throws UninvertibleMatrixException{
+        return triangle.solve(shortVector);
+    }
+
+    @Benchmark
+    public Vector denseTriangularSolve() throws UndecomposableMatrixException,
+            UninvertibleMatrixException{
+        return new LUDecomposition(dense).solve(shortVector);
+    }
+}
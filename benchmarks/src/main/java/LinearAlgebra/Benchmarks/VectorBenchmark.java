@@ -0,0 +1,71 @@
+package LinearAlgebra.Benchmarks;
+
+import LinearAlgebra.Exceptions.IncompatibleVectorMultiplicationException;
+import LinearAlgebra.Vector;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class measures the throughput of the operations of {@link Vector} on vectors with every
+ * height from 4 to 4096, and on vectors with a million entries. Run it with {@code -prof gc} to also see how many bytes each operation
+ * allocates.
+ * @author Mark Angelot
+ * @since February 10, 2024
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations=3,time=2)
+@Measurement(iterations=5,time=2)
+@Fork(value=1,jvmArgsAppend="--add-modules=jdk.incubator.vector")
+public class VectorBenchmark{
+    /** This is the amount of entries in each vector. */
+    @Param({"4","16","64","256","1024","4096","1000000"})
+    public int size;
+
+    private Vector first;
+    private Vector second;
+
+    @Setup
+    public void createVectors(){
+        first=BenchmarkData.randomVector(size,0);
+        second=BenchmarkData.randomVector(size,1);
+    }
+
+    @Benchmark
+    public double dotProduct() throws IncompatibleVectorMultiplicationException{
+        return first.dotProduct(second);
+    }
+
+    @Benchmark
+    public double compensatedDotProduct() throws IncompatibleVectorMultiplicationException{
+        return first.dotProduct(second,true);
+    }
+
+    @Benchmark
+    public double length(){
+        return first.length();
+    }
+
+    @Benchmark
+    public double squaredLength(){
+        return first.squaredLength();
+    }
+
+    @Benchmark
+    public Vector projectionOnto() throws IncompatibleVectorMultiplicationException{
+        return first.projectionOnto(second);
+    }
+}
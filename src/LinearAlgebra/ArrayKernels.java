@@ -0,0 +1,259 @@
+package LinearAlgebra;
+
+/**
+ * This class holds the loops that the elementwise operations and reductions of matrices and
+ * vectors run on: adding, subtracting and scaling arrays, adding a multiple of one array to
+ * another (axpy), and dot products and sums of squares. Axpy and the dot product also have
+ * versions for the arrays of floats of a {@link FloatMatrix}.<br />
+ * If the JDK Vector API is available, which it is when the JVM is started with
+ * {@code --add-modules jdk.incubator.vector}, and the processor has vector registers of at least
+ * 256 bits, the loops run on {@link SimdArrayKernels}, which works on 4 or 8 entries per
+ * instruction. Otherwise, or if the system property {@value #DISABLE_SIMD_PROPERTY} is
+ * {@code true}, they run on plain loops. The plain reductions keep four separate sums, because
+ * the JIT compiler does not vectorize a floating-point sum on its own, and four independent
+ * additions can be in flight at once.<br />
+ * Both versions add up the entries of a reduction in a different order than a simple loop would,
+ * and the SIMD version uses fused multiply-adds, so the results can differ from a simple loop in
+ * the last few bits. When that matters, the compensated reductions keep track of the rounding
+ * error of every product and every addition and add it back at the end, which makes the result
+ * as accurate as if it had been calculated with twice the precision of a double.
+ * @author Mark Angelot
+ * @since February 17, 2024
+ */
+final class ArrayKernels{
+    /** Setting this system property to true makes every kernel use the plain loops. */
+    static final String DISABLE_SIMD_PROPERTY="LinearAlgebra.disableSimd";
+    /** Arrays shorter than this are always handled by the plain loops, which have no setup. */
+    private static final int SIMD_THRESHOLD=16;
+    /** This is true if the kernels run on the Vector API, or false if they run on plain loops. */
+    static final boolean USES_SIMD=simdIsUsable();
+
+    private ArrayKernels(){}
+
+    /**
+     * Checks whether the Vector API can be used. {@link SimdArrayKernels} is only loaded once the
+     * module is known to be present, so this class still works when it is not.
+     * @return true if the Vector API is present and has vectors of at least 4 doubles
+     */
+    private static boolean simdIsUsable(){
+        if(Boolean.getBoolean(DISABLE_SIMD_PROPERTY)){
+            return false;
+        }
+        if(ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()){
+            return false;
+        }
+        try{
+            return (SimdArrayKernels.laneCount()>=4);
+        }catch(LinkageError e){
+            return false;
+        }
+    }
+
+//--Elementwise Operations--//
+
+    /**
+     * Sets {@code destination[i]=a[i]+b[i]} for every index below {@code length}.
+     */
+    static void add(double[] a,double[] b,double[] destination,int length){
+        if(USES_SIMD && length>=SIMD_THRESHOLD){
+            SimdArrayKernels.add(a,b,destination,length);
+            return;
+        }
+        for(int i=0;i<length;i++){
+            destination[i]=(a[i]+b[i]);
+        }
+    }
+
+    /**
+     * Sets {@code destination[i]=a[i]-b[i]} for every index below {@code length}.
+     */
+    static void subtract(double[] a,double[] b,double[] destination,int length){
+        if(USES_SIMD && length>=SIMD_THRESHOLD){
+            SimdArrayKernels.subtract(a,b,destination,length);
+            return;
+        }
+        for(int i=0;i<length;i++){
+            destination[i]=(a[i]-b[i]);
+        }
+    }
+
+    /**
+     * Sets {@code destination[destinationOffset+i]=scalar*source[sourceOffset+i]} for every index
+     * below {@code length}. The source and the destination can be the same array.
+     */
+    static void scale(double[] source,int sourceOffset,double scalar,double[] destination,
+                      int destinationOffset,int length){
+        if(USES_SIMD && length>=SIMD_THRESHOLD){
+            SimdArrayKernels.scale(source,sourceOffset,scalar,destination,destinationOffset,length);
+            return;
+        }
+        for(int i=0;i<length;i++){
+            destination[(destinationOffset+i)]=(scalar*source[(sourceOffset+i)]);
+        }
+    }
+
+    /**
+     * Adds a multiple of one array to another: {@code y[yOffset+i]+=alpha*x[xOffset+i]} for every
+     * index below {@code length}. This is the inner loop of elimination, where x and y are two
+     * rows of the same array, so they can be the same array as long as the ranges do not
+     * overlap.
+     */
+    static void axpy(double alpha,double[] x,int xOffset,double[] y,int yOffset,int length){
+        if(USES_SIMD && length>=SIMD_THRESHOLD){
+            SimdArrayKernels.axpy(alpha,x,xOffset,y,yOffset,length);
+            return;
+        }
+        for(int i=0;i<length;i++){
+            y[(yOffset+i)]+=(alpha*x[(xOffset+i)]);
+        }
+    }
+
+    /**
+     * Adds a multiple of one array of floats to another, the same way as
+     * {@link #axpy(double,double[],int,double[],int,int)}. A vector holds twice as many floats
+     * as doubles, so this does twice as many entries per instruction.
+     */
+    static void axpy(float alpha,float[] x,int xOffset,float[] y,int yOffset,int length){
+        if(USES_SIMD && length>=SIMD_THRESHOLD){
+            SimdArrayKernels.axpy(alpha,x,xOffset,y,yOffset,length);
+            return;
+        }
+        for(int i=0;i<length;i++){
+            y[(yOffset+i)]+=(alpha*x[(xOffset+i)]);
+        }
+    }
+
+//--Reductions--//
+
+    /**
+     * @return the sum of {@code a[aOffset+i]*b[bOffset+i]} for every index below {@code length}
+     */
+    static double dot(double[] a,int aOffset,double[] b,int bOffset,int length){
+        if(USES_SIMD && length>=SIMD_THRESHOLD){
+            return SimdArrayKernels.dot(a,aOffset,b,bOffset,length);
+        }
+        double sum0=0,sum1=0,sum2=0,sum3=0;
+        int i=0;
+        for(;i<=(length-4);i+=4){
+            sum0+=(a[(aOffset+i)]*b[(bOffset+i)]);
+            sum1+=(a[(aOffset+i+1)]*b[(bOffset+i+1)]);
+            sum2+=(a[(aOffset+i+2)]*b[(bOffset+i+2)]);
+            sum3+=(a[(aOffset+i+3)]*b[(bOffset+i+3)]);
+        }
+        for(;i<length;i++){
+            sum0+=(a[(aOffset+i)]*b[(bOffset+i)]);
+        }
+        return ((sum0+sum1)+(sum2+sum3));
+    }
+
+    /**
+     * @return the sum of {@code a[aOffset+i]*b[bOffset+i]} for every index below
+     * {@code length}, added up in single precision
+     */
+    static float dot(float[] a,int aOffset,float[] b,int bOffset,int length){
+        if(USES_SIMD && length>=SIMD_THRESHOLD){
+            return SimdArrayKernels.dot(a,aOffset,b,bOffset,length);
+        }
+        float sum0=0,sum1=0,sum2=0,sum3=0;
+        int i=0;
+        for(;i<=(length-4);i+=4){
+            sum0+=(a[(aOffset+i)]*b[(bOffset+i)]);
+            sum1+=(a[(aOffset+i+1)]*b[(bOffset+i+1)]);
+            sum2+=(a[(aOffset+i+2)]*b[(bOffset+i+2)]);
+            sum3+=(a[(aOffset+i+3)]*b[(bOffset+i+3)]);
+        }
+        for(;i<length;i++){
+            sum0+=(a[(aOffset+i)]*b[(bOffset+i)]);
+        }
+        return ((sum0+sum1)+(sum2+sum3));
+    }
+
+    /**
+     * @return the sum of the squares of {@code a[offset+i]} for every index below
+     * {@code length}
+     */
+    static double sumOfSquares(double[] a,int offset,int length){
+        if(USES_SIMD && length>=SIMD_THRESHOLD){
+            return SimdArrayKernels.sumOfSquares(a,offset,length);
+        }
+        double sum0=0,sum1=0,sum2=0,sum3=0;
+        int i=0;
+        for(;i<=(length-4);i+=4){
+            final double entry0=a[(offset+i)];
+            final double entry1=a[(offset+i+1)];
+            final double entry2=a[(offset+i+2)];
+            final double entry3=a[(offset+i+3)];
+            sum0+=(entry0*entry0);
+            sum1+=(entry1*entry1);
+            sum2+=(entry2*entry2);
+            sum3+=(entry3*entry3);
+        }
+        for(;i<length;i++){
+            final double entry=a[(offset+i)];
+            sum0+=(entry*entry);
+        }
+        return ((sum0+sum1)+(sum2+sum3));
+    }
+
+    /**
+     * @return the sum of {@code a[aOffset+i*aStride]*b[bOffset+i*bStride]} for every index below
+     * {@code length}
+     */
+    static double dot(double[] a,int aOffset,int aStride,double[] b,int bOffset,int bStride,
+                      int length){
+        if(aStride==1 && bStride==1){
+            return dot(a,aOffset,b,bOffset,length);
+        }
+        double sum0=0,sum1=0;
+        int i=0;
+        for(;i<=(length-2);i+=2){
+            sum0+=(a[(aOffset+i*aStride)]*b[(bOffset+i*bStride)]);
+            sum1+=(a[(aOffset+(i+1)*aStride)]*b[(bOffset+(i+1)*bStride)]);
+        }
+        if(i<length){
+            sum0+=(a[(aOffset+i*aStride)]*b[(bOffset+i*bStride)]);
+        }
+        return (sum0+sum1);
+    }
+
+    /**
+     * @return the sum of the squares of {@code a[offset+i*stride]} for every index below
+     * {@code length}
+     */
+    static double sumOfSquares(double[] a,int offset,int stride,int length){
+        if(stride==1){
+            return sumOfSquares(a,offset,length);
+        }
+        return dot(a,offset,stride,a,offset,stride,length);
+    }
+
+    /**
+     * Calculates the same sum as {@link #dot(double[],int,int,double[],int,int,int)}, but with
+     * compensated summation (the Dot2 algorithm of Ogita, Rump and Oishi). The exact rounding
+     * error of each product is found with a fused multiply-add, and the exact rounding error of
+     * each addition is found with the TwoSum algorithm. These errors are added up separately and
+     * added to the sum at the end.<br />
+     * This is about four times slower than the plain dot product, but its result is as accurate as
+     * if the sum had been calculated with twice the precision and then rounded, so it stays
+     * accurate for long vectors and for sums where most of the terms cancel each other out.
+     * @return the sum of {@code a[aOffset+i*aStride]*b[bOffset+i*bStride]} for every index below
+     * {@code length}
+     */
+    static double compensatedDot(double[] a,int aOffset,int aStride,double[] b,int bOffset,
+                                 int bStride,int length){
+        double sum=0;
+        double error=0;
+        for(int i=0;i<length;i++){
+            final double x=a[(aOffset+i*aStride)];
+            final double y=b[(bOffset+i*bStride)];
+            final double product=(x*y);
+            final double productError=Math.fma(x,y,-product);
+            final double newSum=(sum+product);
+            final double part=(newSum-sum);
+            final double sumError=((sum-(newSum-part))+(product-part));
+            sum=newSum;
+            error+=(productError+sumError);
+        }
+        return (sum+error);
+    }
+}
@@ -0,0 +1,392 @@
+package LinearAlgebra;
+
+import LinearAlgebra.Exceptions.IncompatibleMatrixMultiplicationException;
+import LinearAlgebra.Exceptions.UninvertibleMatrixException;
+
+/**
+ * This class represents a square matrix whose only entries that are not 0 are within a band
+ * around its main diagonal: at most {@link #LOWER_BANDWIDTH} diagonals below it and at most
+ * {@link #UPPER_BANDWIDTH} diagonals above it. Such matrices come from finite differences and
+ * finite elements on grids that are numbered row by row, where the bandwidth is the width of the
+ * grid. Only the band is stored, one row after another: row i holds its columns from
+ * i-{@link #LOWER_BANDWIDTH} to i+{@link #UPPER_BANDWIDTH}, so an n×n matrix with bandwidths l
+ * and u takes n(l+u+1) numbers, and each row of the band is contiguous.<br />
+ * Systems are solved with an LU decomposition with partial pivoting that only works inside the
+ * band. Swapping rows can move entries up to l more diagonals above the main diagonal, so U has
+ * an upper bandwidth of l+u, and the decomposition takes O(n·l·(l+u)) time instead of O(n³).
+ * Each solve after that takes O(n·(2l+u)) time. The decomposition is calculated the first time
+ * that a system is solved, and is then kept for every later system. This class is immutable.
+ * @author Mark Angelot
+ * @since May 11, 2024
+ */
+public final class BandMatrix implements LinearOperator{
+//--Fields--//
+
+    /** This array holds the band, one row after another. The entry at (row, column) is at index
+     * {@code row*BAND_WIDTH+column-row+LOWER_BANDWIDTH}. Positions outside the matrix are 0. */
+    private final double[] ENTRIES;
+    /** This is the amount of entries that are stored for each row. */
+    private final int BAND_WIDTH;
+    /** This holds how many diagonals below the main diagonal can have entries that are not 0. */
+    public final int LOWER_BANDWIDTH;
+    /** This holds how many diagonals above the main diagonal can have entries that are not 0. */
+    public final int UPPER_BANDWIDTH;
+    /** This holds how many rows and columns are in this matrix. */
+    public final int DIMENSION;
+
+    /** This is the LU decomposition of this matrix, which is only calculated once it is
+     * needed. */
+    private volatile Factors factors;
+
+//--Constructors--//
+
+    /**
+     * Constructs a band matrix with the passed diagonals, which are copied. The diagonal at
+     * index d of {@code diagonals} is the one that is d-{@code lowerBandwidth} places above the
+     * main diagonal, so the first array is the lowest diagonal, the array at index
+     * {@code lowerBandwidth} is the main diagonal, and the last array is the highest diagonal. A
+     * diagonal that is k places away from the main diagonal has k entries fewer than it, and its
+     * entries are listed from the top row down.
+     * @param lowerBandwidth the amount of diagonals below the main diagonal
+     * @param upperBandwidth the amount of diagonals above the main diagonal
+     * @param diagonals the diagonals of the band, from the lowest to the highest
+     * @throws IllegalArgumentException if a bandwidth is negative, if the amount of diagonals
+     * does not match the bandwidths, if the main diagonal is empty, or if another diagonal does
+     * not have the right length
+     */
+    public BandMatrix(int lowerBandwidth,int upperBandwidth,double[][] diagonals){
+        if(lowerBandwidth<0 || upperBandwidth<0){
+            throw new IllegalArgumentException("Bandwidths cannot be negative");
+        }
+        if(diagonals.length!=(lowerBandwidth+upperBandwidth+1)){
+            throw new IllegalArgumentException("A band with "+lowerBandwidth+" diagonals below "+
+                    "the main diagonal and "+upperBandwidth+" above it has "+
+                    (lowerBandwidth+upperBandwidth+1)+" diagonals, but "+diagonals.length+
+                    " were passed");
+        }
+        final int n=diagonals[lowerBandwidth].length;
+        if(n<1){
+            throw new IllegalArgumentException("A matrix must have at least one row and one "+
+                    "column");
+        }
+        LOWER_BANDWIDTH=lowerBandwidth;
+        UPPER_BANDWIDTH=upperBandwidth;
+        DIMENSION=n;
+        BAND_WIDTH=(lowerBandwidth+upperBandwidth+1);
+        ENTRIES=new double[checkedSize(n,BAND_WIDTH)];
+        for(int d=0;d<diagonals.length;d++){
+            final int shift=(d-lowerBandwidth);
+            final int length=Math.max(0,(n-Math.abs(shift)));
+            if(diagonals[d].length!=length){
+                throw new IllegalArgumentException("The diagonal "+shift+" places above the "+
+                        "main diagonal of a "+n+"×"+n+" matrix has "+length+" entries, but "+
+                        diagonals[d].length+" were passed");
+            }
+            final int firstRow=Math.max(0,-shift);
+            for(int t=0;t<length;t++){
+                ENTRIES[((firstRow+t)*BAND_WIDTH+d)]=diagonals[d][t];
+            }
+        }
+    }
+
+    /**
+     * Constructs a band matrix from the band of a square matrix. The entries outside the band
+     * are ignored.
+     * @param matrix the matrix whose band is to be stored
+     * @param lowerBandwidth the amount of diagonals below the main diagonal that are stored
+     * @param upperBandwidth the amount of diagonals above the main diagonal that are stored
+     * @throws IllegalArgumentException if the matrix is not square, or if a bandwidth is
+     * negative
+     */
+    public BandMatrix(Matrix matrix,int lowerBandwidth,int upperBandwidth){
+        if(!matrix.isSquare()){
+            throw new IllegalArgumentException("This is a "+matrix.getDimensions()+" matrix, but "+
+                    "only square matrices can be stored as band matrices");
+        }
+        if(lowerBandwidth<0 || upperBandwidth<0){
+            throw new IllegalArgumentException("Bandwidths cannot be negative");
+        }
+        final int n=matrix.AMOUNT_OF_ROWS;
+        LOWER_BANDWIDTH=lowerBandwidth;
+        UPPER_BANDWIDTH=upperBandwidth;
+        DIMENSION=n;
+        BAND_WIDTH=(lowerBandwidth+upperBandwidth+1);
+        ENTRIES=new double[checkedSize(n,BAND_WIDTH)];
+        for(int row=0;row<n;row++){
+            for(int column=firstColumn(row);column<=lastColumn(row);column++){
+                ENTRIES[index(row,column)]=matrix.getEntry(row,column);
+            }
+        }
+    }
+
+    /**
+     * @return the amount of numbers in a band with the passed size
+     * @throws IllegalArgumentException if the band has too many entries to fit in one array
+     */
+    private static int checkedSize(int dimension,int bandWidth){
+        final long size=((long)dimension*bandWidth);
+        if(size>Integer.MAX_VALUE){
+            throw new IllegalArgumentException("A band of "+bandWidth+" diagonals of a "+
+                    dimension+"×"+dimension+" matrix has too many entries to be stored in one "+
+                    "array");
+        }
+        return (int)size;
+    }
+
+    private int index(int row,int column){
+        return (row*BAND_WIDTH+column-row+LOWER_BANDWIDTH);
+    }
+
+    /**
+     * @return the column of the first entry of a row that is inside both the band and the matrix
+     */
+    private int firstColumn(int row){
+        return Math.max(0,(row-LOWER_BANDWIDTH));
+    }
+
+    /**
+     * @return the column of the last entry of a row that is inside both the band and the matrix
+     */
+    private int lastColumn(int row){
+        return Math.min((DIMENSION-1),(row+UPPER_BANDWIDTH));
+    }
+
+//--Getters--//
+
+    /**
+     * @param row the row of the entry
+     * @param column the column of the entry
+     * @return the entry at the passed row and column, which is 0 if it is outside the band
+     * @throws IndexOutOfBoundsException if the row or the column is outside this matrix
+     */
+    public double getEntry(int row,int column){
+        if(row<0 || row>=DIMENSION || column<0 || column>=DIMENSION){
+            throw new IndexOutOfBoundsException("("+row+", "+column+") is outside a "+
+                    getDimensions()+" matrix");
+        }
+        if(column<(row-LOWER_BANDWIDTH) || column>(row+UPPER_BANDWIDTH)){
+            return 0;
+        }
+        return ENTRIES[index(row,column)];
+    }
+
+    @Override
+    public int getAmountOfRows(){
+        return DIMENSION;
+    }
+
+    @Override
+    public int getAmountOfColumns(){
+        return DIMENSION;
+    }
+
+    /**
+     * @return the dimensions of this matrix in an "n×n" format
+     */
+    public String getDimensions(){
+        return DIMENSION+"×"+DIMENSION;
+    }
+
+    @Override
+    public String toString(){
+        return "Band "+getDimensions()+" matrix with "+LOWER_BANDWIDTH+" diagonals below and "+
+                UPPER_BANDWIDTH+" above the main diagonal";
+    }
+
+    /**
+     * @return a dense matrix with the same entries as this matrix
+     */
+    public Matrix toMatrix(){
+        final int n=DIMENSION;
+        double[] entries=new double[(n*n)];
+        for(int row=0;row<n;row++){
+            final int first=firstColumn(row);
+            System.arraycopy(ENTRIES,index(row,first),entries,(row*n+first),
+                    (lastColumn(row)-first+1));
+        }
+        return new Matrix(n,n,Matrix.DEFAULT_AUGMENT_INDEX,entries);
+    }
+
+//--Multiplication--//
+
+    /**
+     * Creates and returns the product of this matrix and a vector in O(n·(l+u)) time.
+     * @param vector the vector by which this matrix is to be multiplied
+     * @return the product of this matrix and the passed vector
+     * @throws IncompatibleMatrixMultiplicationException if the dimension of this matrix does not
+     * match the height of the vector
+     */
+    public Vector dotProduct(Vector vector) throws IncompatibleMatrixMultiplicationException{
+        if(vector.AMOUNT_OF_ROWS!=DIMENSION){
+            throw new IncompatibleMatrixMultiplicationException("A "+getDimensions()+" matrix "+
+                    "cannot be multiplied by a "+vector.getDimensions()+" vector");
+        }
+        double[] product=new double[DIMENSION];
+        apply(vector.denseEntries(false),product);
+        return new Vector(DIMENSION,product,0,1);
+    }
+
+    /**
+     * Multiplies a vector by this matrix. Each entry of the product is the dot product of the
+     * band of a row with the matching entries of the vector.
+     * @param vector the entries of the vector that is to be multiplied
+     * @param product the array into which the product is written
+     */
+    @Override
+    public void apply(double[] vector,double[] product){
+        for(int row=0;row<DIMENSION;row++){
+            final int first=firstColumn(row);
+            product[row]=ArrayKernels.dot(ENTRIES,index(row,first),vector,first,
+                    (lastColumn(row)-first+1));
+        }
+    }
+
+//--Solving--//
+
+    /**
+     * @return the determinant of this matrix, which is calculated from its LU decomposition
+     */
+    public double determinant(){
+        Factors decomposition=factors();
+        double determinant=decomposition.PERMUTATION_SIGN;
+        for(int i=0;i<DIMENSION;i++){
+            determinant*=decomposition.U[(i*decomposition.WIDTH+LOWER_BANDWIDTH)];
+        }
+        return determinant;
+    }
+
+    /**
+     * Solves the system A·x=b with the LU decomposition of this matrix, which is calculated the
+     * first time that this is called.
+     * @param vector the right-hand side b of the system
+     * @return the solution x of the system
+     * @throws IllegalArgumentException if the height of the vector does not match the dimension
+     * of this matrix
+     * @throws UninvertibleMatrixException if this matrix is singular
+     */
+    public Vector solve(Vector vector) throws UninvertibleMatrixException{
+        final int n=DIMENSION;
+        if(vector.AMOUNT_OF_ROWS!=n){
+            throw new IllegalArgumentException("A system with a "+getDimensions()+" matrix "+
+                    "cannot be solved for a right-hand side with "+vector.AMOUNT_OF_ROWS+" rows");
+        }
+        Factors decomposition=factors();
+        if(decomposition.IS_SINGULAR){
+            throw new UninvertibleMatrixException("The band matrix is singular, so the system "+
+                    "does not have a unique solution");
+        }
+        final int l=LOWER_BANDWIDTH;
+        final int width=decomposition.WIDTH;
+        final double[] u=decomposition.U;
+        double[] solution=vector.denseEntries(true);
+        // Forward substitution with L, applying each row swap in the order it was made
+        for(int k=0;k<n;k++){
+            final int pivotRow=decomposition.PIVOTS[k];
+            if(pivotRow!=k){
+                double temp=solution[k];
+                solution[k]=solution[pivotRow];
+                solution[pivotRow]=temp;
+            }
+            final int below=(Math.min((n-1),(k+l))-k);
+            if(below>0 && solution[k]!=0){
+                ArrayKernels.axpy(-solution[k],decomposition.MULTIPLIERS,(k*l),solution,(k+1),
+                        below);
+            }
+        }
+        // Back substitution with U, whose rows hold their columns from i to i+l+u
+        for(int row=(n-1);row>=0;row--){
+            final int diagonalIndex=(row*width+l);
+            final int right=(Math.min((n-1),(row+l+UPPER_BANDWIDTH))-row);
+            solution[row]=((solution[row]-ArrayKernels.dot(u,(diagonalIndex+1),solution,(row+1),
+                    right))/u[diagonalIndex]);
+        }
+        return new Vector(n,solution,0,1);
+    }
+
+    private Factors factors(){
+        Factors decomposition=factors;
+        if(decomposition==null){
+            decomposition=new Factors(this);
+            factors=decomposition;
+        }
+        return decomposition;
+    }
+
+    /**
+     * This class holds the LU decomposition of a band matrix with partial pivoting. Row i of U
+     * holds its columns from i-l to i+l+u, so that rows can be swapped without moving entries
+     * out of the band; only the columns from i on are used once the decomposition is done. The
+     * multipliers of step k, which eliminated the entries below the pivot in column k, are kept
+     * in their own array in the order that they were used, so the rows that were swapped after
+     * step k do not move them.
+     */
+    private static final class Factors{
+        /** The entry at (row, column) of U is at index {@code row*WIDTH+column-row+l}. */
+        final double[] U;
+        /** This is the amount of entries that are stored for each row of U. */
+        final int WIDTH;
+        /** Entry {@code k*l+i} of this array is the multiplier of row k+1+i in step k. */
+        final double[] MULTIPLIERS;
+        /** In step k, row k was swapped with the row at {@code PIVOTS[k]}. */
+        final int[] PIVOTS;
+        /** This is 1 if the rows were swapped an even amount of times, or -1 otherwise. */
+        final int PERMUTATION_SIGN;
+        /** This is true if a pivot is 0. */
+        final boolean IS_SINGULAR;
+
+        Factors(BandMatrix matrix){
+            final int n=matrix.DIMENSION;
+            final int l=matrix.LOWER_BANDWIDTH;
+            final int u=matrix.UPPER_BANDWIDTH;
+            WIDTH=((2*l)+u+1);
+            U=new double[checkedSize(n,WIDTH)];
+            for(int row=0;row<n;row++){
+                final int first=matrix.firstColumn(row);
+                System.arraycopy(matrix.ENTRIES,matrix.index(row,first),U,
+                        (row*WIDTH+first-row+l),(matrix.lastColumn(row)-first+1));
+            }
+            MULTIPLIERS=new double[(n*l)];
+            PIVOTS=new int[n];
+
+            int sign=1;
+            boolean isSingular=false;
+            for(int k=0;k<n;k++){
+                final int lastRow=Math.min((n-1),(k+l));
+                int pivotRow=k;
+                for(int row=(k+1);row<=lastRow;row++){
+                    if(Math.abs(U[(row*WIDTH+k-row+l)])>Math.abs(U[(pivotRow*WIDTH+k-pivotRow+l)])){
+                        pivotRow=row;
+                    }
+                }
+                PIVOTS[k]=pivotRow;
+                final int lastColumn=Math.min((n-1),(k+l+u));
+                if(pivotRow!=k){
+                    for(int column=k;column<=lastColumn;column++){
+                        final int a=(k*WIDTH+column-k+l);
+                        final int b=(pivotRow*WIDTH+column-pivotRow+l);
+                        double temp=U[a];
+                        U[a]=U[b];
+                        U[b]=temp;
+                    }
+                    sign=-sign;
+                }
+                final double pivot=U[(k*WIDTH+l)];
+                if(pivot==0){
+                    // The column is 0 from here down, so there is nothing to eliminate
+                    isSingular=true;
+                    continue;
+                }
+                for(int row=(k+1);row<=lastRow;row++){
+                    final double multiplier=(U[(row*WIDTH+k-row+l)]/pivot);
+                    MULTIPLIERS[(k*l+row-k-1)]=multiplier;
+                    if(multiplier!=0){
+                        ArrayKernels.axpy(-multiplier,U,(k*WIDTH+l+1),U,(row*WIDTH+k+1-row+l),
+                                (lastColumn-k));
+                    }
+                }
+            }
+            PERMUTATION_SIGN=sign;
+            IS_SINGULAR=isSingular;
+        }
+    }
+}
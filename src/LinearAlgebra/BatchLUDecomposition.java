@@ -0,0 +1,338 @@
+package LinearAlgebra;
+
+import LinearAlgebra.Exceptions.UndecomposableMatrixException;
+import LinearAlgebra.Exceptions.UninvertibleMatrixException;
+
+/**
+ * This class holds the {@link LUDecomposition LU decompositions} of every matrix in a
+ * {@link MatrixBatch}. Each matrix is decomposed with partial pivoting, exactly as an
+ * LUDecomposition would decompose it, but the factors of every matrix are kept in one array and
+ * the loops are written for matrices that are too small for the kernels of {@link ArrayKernels}
+ * to pay off, so a batch of thousands of 3×3 to 16×16 matrices is decomposed without creating
+ * any objects per matrix.<br />
+ * Once a batch has been decomposed, each of its systems can be solved in O(n²) time for any
+ * amount of right-hand sides. This class is immutable.
+ * @author Mark Angelot
+ * @since March 30, 2024
+ */
+public final class BatchLUDecomposition{
+//--Fields--//
+
+    /** This array holds L and U of every matrix packed together the same way that an
+     * LUDecomposition packs them, one matrix after another. */
+    private final double[] lu;
+    /** Entry {@code k*DIMENSION+i} is the index of the row of matrix k that was moved to row
+     * i. */
+    private final int[] pivots;
+    /** Entry k is 1 if the rows of matrix k were swapped an even amount of times, or -1
+     * otherwise. */
+    private final int[] permutationSigns;
+    /** This holds how many matrices were decomposed. */
+    public final int AMOUNT_OF_MATRICES;
+    /** This holds how many rows and columns are in each decomposed matrix. */
+    public final int DIMENSION;
+
+//--Constructors--//
+
+    /**
+     * Calculates the LU decomposition of every matrix in a batch, splitting the batch across
+     * threads if it is large enough for the {@link ParallelismPolicy#getDefault() default
+     * policy}.
+     * @param batch the batch whose matrices are to be decomposed
+     * @throws UndecomposableMatrixException if the matrices in the batch are not square
+     */
+    public BatchLUDecomposition(MatrixBatch batch) throws UndecomposableMatrixException{
+        this(batch,ParallelismPolicy.getDefault());
+    }
+
+    /**
+     * Calculates the LU decomposition of every matrix in a batch.
+     * @param batch the batch whose matrices are to be decomposed
+     * @param policy decides whether the batch is split into ranges of matrices that are
+     *               decomposed in parallel
+     * @throws UndecomposableMatrixException if the matrices in the batch are not square
+     */
+    public BatchLUDecomposition(MatrixBatch batch,ParallelismPolicy policy)
+            throws UndecomposableMatrixException{
+        if(!batch.isSquare()){
+            throw new UndecomposableMatrixException("This batch holds "+batch.getDimensions()+
+                    " matrices, so they cannot be decomposed. Only square matrices can be "+
+                    "decomposed.");
+        }
+        final int n=batch.AMOUNT_OF_ROWS;
+        AMOUNT_OF_MATRICES=batch.AMOUNT_OF_MATRICES;
+        DIMENSION=n;
+        lu=batch.ENTRIES.clone();
+        pivots=new int[(AMOUNT_OF_MATRICES*n)];
+        permutationSigns=new int[AMOUNT_OF_MATRICES];
+        policy.forEachRange(AMOUNT_OF_MATRICES,((long)n*n*n),(first,last)->{
+            for(int k=first;k<last;k++){
+                decompose(k);
+            }
+        });
+    }
+
+    /**
+     * Decomposes one matrix in place.
+     * @param k the index of the matrix in the batch
+     */
+    private void decompose(int k){
+        final int n=DIMENSION;
+        final int start=(k*n*n);
+        final int pivotStart=(k*n);
+        for(int i=0;i<n;i++){
+            pivots[(pivotStart+i)]=i;
+        }
+        int sign=1;
+        for(int column=0;column<n;column++){
+            int pivotRow=column;
+            double greatest=Math.abs(lu[(start+column*n+column)]);
+            for(int row=(column+1);row<n;row++){
+                final double magnitude=Math.abs(lu[(start+row*n+column)]);
+                if(magnitude>greatest){
+                    greatest=magnitude;
+                    pivotRow=row;
+                }
+            }
+            if(pivotRow!=column){
+                final int offset1=(start+pivotRow*n);
+                final int offset2=(start+column*n);
+                for(int j=0;j<n;j++){
+                    final double temp=lu[(offset1+j)];
+                    lu[(offset1+j)]=lu[(offset2+j)];
+                    lu[(offset2+j)]=temp;
+                }
+                final int temp=pivots[(pivotStart+pivotRow)];
+                pivots[(pivotStart+pivotRow)]=pivots[(pivotStart+column)];
+                pivots[(pivotStart+column)]=temp;
+                sign=-sign;
+            }
+
+            final int pivotOffset=(start+column*n);
+            final double pivot=lu[(pivotOffset+column)];
+            if(pivot==0){
+                // The whole column is 0 from here down, so there is nothing to eliminate
+                continue;
+            }
+            for(int row=(column+1);row<n;row++){
+                final int rowOffset=(start+row*n);
+                final double multiplier=(lu[(rowOffset+column)]/pivot);
+                lu[(rowOffset+column)]=multiplier;
+                if(multiplier!=0){
+                    for(int j=(column+1);j<n;j++){
+                        lu[(rowOffset+j)]-=multiplier*lu[(pivotOffset+j)];
+                    }
+                }
+            }
+        }
+        permutationSigns[k]=sign;
+    }
+
+//--Properties--//
+
+    /**
+     * @param index the index of a matrix in the batch
+     * @return true if the matrix at the passed index is singular, or false otherwise
+     */
+    public boolean isSingular(int index){
+        checkIndex(index);
+        final int n=DIMENSION;
+        final int start=(index*n*n);
+        for(int i=0;i<n;i++){
+            if(lu[(start+i*n+i)]==0){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param index the index of a matrix in the batch
+     * @return the determinant of the matrix at the passed index
+     */
+    public double determinant(int index){
+        checkIndex(index);
+        final int n=DIMENSION;
+        final int start=(index*n*n);
+        double determinant=permutationSigns[index];
+        for(int i=0;i<n;i++){
+            determinant*=lu[(start+i*n+i)];
+        }
+        return determinant;
+    }
+
+    /**
+     * @return an array whose entry k is the determinant of matrix k
+     */
+    public double[] determinants(){
+        double[] determinants=new double[AMOUNT_OF_MATRICES];
+        for(int k=0;k<AMOUNT_OF_MATRICES;k++){
+            determinants[k]=determinant(k);
+        }
+        return determinants;
+    }
+
+    /**
+     * @param index the index of a matrix in the batch
+     * @return the LU decomposition of the matrix at the passed index, as an LUDecomposition
+     */
+    public LUDecomposition getDecomposition(int index){
+        checkIndex(index);
+        final int size=(DIMENSION*DIMENSION);
+        double[] entries=new double[size];
+        System.arraycopy(lu,(index*size),entries,0,size);
+        int[] matrixPivots=new int[DIMENSION];
+        System.arraycopy(pivots,(index*DIMENSION),matrixPivots,0,DIMENSION);
+        return new LUDecomposition(DIMENSION,entries,matrixPivots,permutationSigns[index]);
+    }
+
+    private void checkIndex(int index){
+        if(index<0 || index>=AMOUNT_OF_MATRICES){
+            throw new IndexOutOfBoundsException(index+" is outside a batch of "+
+                    AMOUNT_OF_MATRICES+" matrices");
+        }
+    }
+
+//--Solving--//
+
+    /**
+     * Solves A<sub>k</sub>·X<sub>k</sub>=B<sub>k</sub> for every decomposed matrix
+     * A<sub>k</sub>, where B<sub>k</sub> is the matrix at the same index in the passed batch. The
+     * batch is split across threads if it is large enough for the
+     * {@link ParallelismPolicy#getDefault() default policy}.
+     * @param batch the right-hand sides, which can have any amount of columns
+     * @return a batch of the solutions, which are the same size as the right-hand sides
+     * @throws UninvertibleMatrixException if any of the decomposed matrices is singular
+     * @throws IllegalArgumentException if the right-hand sides do not have as many rows as the
+     * decomposed matrices, or if there are not as many of them as there are matrices
+     */
+    public MatrixBatch solve(MatrixBatch batch) throws UninvertibleMatrixException{
+        return solve(batch,ParallelismPolicy.getDefault());
+    }
+
+    /**
+     * Solves A<sub>k</sub>·X<sub>k</sub>=B<sub>k</sub> for every decomposed matrix
+     * A<sub>k</sub>, where B<sub>k</sub> is the matrix at the same index in the passed batch.
+     * @param batch the right-hand sides, which can have any amount of columns
+     * @param policy decides whether the batch is split into ranges of systems that are solved
+     *               in parallel
+     * @return a batch of the solutions, which are the same size as the right-hand sides
+     * @throws UninvertibleMatrixException if any of the decomposed matrices is singular
+     * @throws IllegalArgumentException if the right-hand sides do not have as many rows as the
+     * decomposed matrices, or if there are not as many of them as there are matrices
+     */
+    public MatrixBatch solve(MatrixBatch batch,ParallelismPolicy policy)
+            throws UninvertibleMatrixException{
+        if(batch.AMOUNT_OF_ROWS!=DIMENSION || batch.AMOUNT_OF_MATRICES!=AMOUNT_OF_MATRICES){
+            throw new IllegalArgumentException("A batch of "+AMOUNT_OF_MATRICES+" "+DIMENSION+
+                    "×"+DIMENSION+" systems cannot be solved for a batch of "+batch+" as its "+
+                    "right-hand sides");
+        }
+        checkInvertible();
+        final int n=DIMENSION;
+        final int columns=batch.AMOUNT_OF_COLUMNS;
+        final double[] rightHandSides=batch.ENTRIES;
+        double[] solutions=new double[rightHandSides.length];
+        policy.forEachRange(AMOUNT_OF_MATRICES,((long)n*n*columns),(first,last)->{
+            for(int k=first;k<last;k++){
+                final int start=(k*n*columns);
+                for(int i=0;i<n;i++){
+                    // The rows are too short for System.arraycopy to be worth calling
+                    final int source=(start+pivots[(k*n+i)]*columns);
+                    final int destination=(start+i*columns);
+                    for(int j=0;j<columns;j++){
+                        solutions[(destination+j)]=rightHandSides[(source+j)];
+                    }
+                }
+                solveInPlace(k,solutions,columns);
+            }
+        });
+        return new MatrixBatch(AMOUNT_OF_MATRICES,n,columns,solutions);
+    }
+
+    /**
+     * Calculates and returns the inverse of every decomposed matrix. The batch is split across
+     * threads if it is large enough for the {@link ParallelismPolicy#getDefault() default
+     * policy}.
+     * @return a batch of the inverses
+     * @throws UninvertibleMatrixException if any of the decomposed matrices is singular
+     */
+    public MatrixBatch inverse() throws UninvertibleMatrixException{
+        return inverse(ParallelismPolicy.getDefault());
+    }
+
+    /**
+     * Calculates and returns the inverse of every decomposed matrix.
+     * @param policy decides whether the batch is split into ranges of matrices that are inverted
+     *               in parallel
+     * @return a batch of the inverses
+     * @throws UninvertibleMatrixException if any of the decomposed matrices is singular
+     */
+    public MatrixBatch inverse(ParallelismPolicy policy) throws UninvertibleMatrixException{
+        checkInvertible();
+        final int n=DIMENSION;
+        double[] inverses=new double[lu.length];
+        policy.forEachRange(AMOUNT_OF_MATRICES,((long)n*n*n),(first,last)->{
+            for(int k=first;k<last;k++){
+                final int start=(k*n*n);
+                for(int i=0;i<n;i++){
+                    inverses[(start+i*n+pivots[(k*n+i)])]=1.0;
+                }
+                solveInPlace(k,inverses,n);
+            }
+        });
+        return new MatrixBatch(AMOUNT_OF_MATRICES,n,n,inverses);
+    }
+
+    private void checkInvertible() throws UninvertibleMatrixException{
+        for(int k=0;k<AMOUNT_OF_MATRICES;k++){
+            if(isSingular(k)){
+                throw new UninvertibleMatrixException("Matrix "+k+" of the batch is singular, so "+
+                        "its system does not have a unique solution");
+            }
+        }
+    }
+
+    /**
+     * Solves L·U·X=B in place for one matrix, where the rows of B have already been permuted.
+     * @param k the index of the matrix in the batch
+     * @param b the right-hand sides of every matrix, of which those of matrix k are replaced by
+     *          the solution
+     * @param columns the amount of columns in each right-hand side
+     */
+    private void solveInPlace(int k,double[] b,int columns){
+        final int n=DIMENSION;
+        final int start=(k*n*n);
+        final int bStart=(k*n*columns);
+        // Forward substitution with L, whose main diagonal is all 1s
+        for(int row=1;row<n;row++){
+            final int rowOffset=(bStart+row*columns);
+            for(int i=0;i<row;i++){
+                final double multiplier=lu[(start+row*n+i)];
+                if(multiplier!=0){
+                    final int otherOffset=(bStart+i*columns);
+                    for(int j=0;j<columns;j++){
+                        b[(rowOffset+j)]-=multiplier*b[(otherOffset+j)];
+                    }
+                }
+            }
+        }
+        // Back substitution with U
+        for(int row=(n-1);row>=0;row--){
+            final int rowOffset=(bStart+row*columns);
+            for(int i=(row+1);i<n;i++){
+                final double multiplier=lu[(start+row*n+i)];
+                if(multiplier!=0){
+                    final int otherOffset=(bStart+i*columns);
+                    for(int j=0;j<columns;j++){
+                        b[(rowOffset+j)]-=multiplier*b[(otherOffset+j)];
+                    }
+                }
+            }
+            final double reciprocal=(1.0/lu[(start+row*n+row)]);
+            for(int j=0;j<columns;j++){
+                b[(rowOffset+j)]*=reciprocal;
+            }
+        }
+    }
+}
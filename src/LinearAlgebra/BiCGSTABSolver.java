@@ -0,0 +1,87 @@
+package LinearAlgebra;
+
+/**
+ * This solver uses the biconjugate gradient stabilized method (BiCGSTAB) of van der Vorst, which
+ * solves systems with any invertible matrix. Each iteration needs two products with the matrix
+ * and two applications of the preconditioner, and the method keeps eight vectors in memory no
+ * matter how many iterations it performs. The preconditioner is applied on the right, so the
+ * residual that is checked against the tolerance is the residual of the original system.<br />
+ * The residual of BiCGSTAB can go up and down from one iteration to the next. In rare cases, the
+ * method breaks down by dividing by 0, in which case the returned solution has not converged;
+ * {@link GMRESSolver} does not break down.
+ * @author Mark Angelot
+ * @since March 2, 2024
+ */
+public class BiCGSTABSolver extends IterativeSolver{
+    /**
+     * Constructs a BiCGSTAB solver with the default tolerance, the default maximum amount of
+     * iterations, and no preconditioner.
+     */
+    public BiCGSTABSolver(){}
+
+    @Override
+    IterativeSolution iterate(LinearOperator operator,double[] b,double[] x,double lengthOfB){
+        final int n=b.length;
+        final double target=(getTolerance()*lengthOfB);
+        final Preconditioner preconditioner=getPreconditioner();
+        double[] r=new double[n];
+        double residual=residual(operator,b,x,r);
+        if(residual<=target){
+            return new IterativeSolution(x,0,(residual/lengthOfB),true);
+        }
+        // The shadow residual stays fixed for the whole solve
+        final double[] shadow=r.clone();
+        double[] p=new double[n];
+        double[] v=new double[n];
+        double[] s=new double[n];
+        double[] t=new double[n];
+        double[] preconditionedP=new double[n];
+        double[] preconditionedS=new double[n];
+        double rho=1,alpha=1,omega=1;
+
+        int iteration=0;
+        while(iteration<getMaximumIterations()){
+            iteration++;
+            final double newRho=ArrayKernels.dot(shadow,0,r,0,n);
+            if(newRho==0){
+                break;
+            }
+            // p=r+beta*(p-omega*v)
+            final double beta=((newRho/rho)*(alpha/omega));
+            ArrayKernels.axpy(-omega,v,0,p,0,n);
+            scaleAndAdd(r,beta,p);
+            preconditioner.apply(p,preconditionedP);
+            operator.apply(preconditionedP,v);
+            final double shadowV=ArrayKernels.dot(shadow,0,v,0,n);
+            if(shadowV==0){
+                break;
+            }
+            alpha=(newRho/shadowV);
+            System.arraycopy(r,0,s,0,n);
+            ArrayKernels.axpy(-alpha,v,0,s,0,n);
+            ArrayKernels.axpy(alpha,preconditionedP,0,x,0,n);
+            residual=Math.sqrt(ArrayKernels.sumOfSquares(s,0,n));
+            if(residual<=target){
+                report(iteration,(residual/lengthOfB));
+                return new IterativeSolution(x,iteration,(residual/lengthOfB),true);
+            }
+            preconditioner.apply(s,preconditionedS);
+            operator.apply(preconditionedS,t);
+            final double tt=ArrayKernels.sumOfSquares(t,0,n);
+            omega=(tt==0)?0:(ArrayKernels.dot(t,0,s,0,n)/tt);
+            ArrayKernels.axpy(omega,preconditionedS,0,x,0,n);
+            System.arraycopy(s,0,r,0,n);
+            ArrayKernels.axpy(-omega,t,0,r,0,n);
+            residual=Math.sqrt(ArrayKernels.sumOfSquares(r,0,n));
+            report(iteration,(residual/lengthOfB));
+            if(residual<=target){
+                return new IterativeSolution(x,iteration,(residual/lengthOfB),true);
+            }
+            if(omega==0){
+                break;
+            }
+            rho=newRho;
+        }
+        return new IterativeSolution(x,iteration,(residual/lengthOfB),false);
+    }
+}
@@ -0,0 +1,64 @@
+package LinearAlgebra;
+
+/**
+ * This solver uses the preconditioned conjugate gradient method, which solves systems whose
+ * matrix is symmetric and positive-definite. Each iteration finds the best solution in a new
+ * direction that is conjugate to all the directions before it, which needs one product with the
+ * matrix, one application of the preconditioner and a few dot products, and keeps only four
+ * vectors in memory.<br />
+ * In exact arithmetic, the method finds the solution in at most n iterations, but it usually
+ * reaches the tolerance much sooner; how much sooner depends on the condition number of the
+ * preconditioned matrix. The preconditioner must also be symmetric and positive-definite. If
+ * the matrix is not symmetric positive-definite, the method can stop making progress or break
+ * down, in which case the returned solution has not converged.
+ * @author Mark Angelot
+ * @since March 2, 2024
+ */
+public class ConjugateGradientSolver extends IterativeSolver{
+    /**
+     * Constructs a conjugate gradient solver with the default tolerance, the default maximum
+     * amount of iterations, and no preconditioner.
+     */
+    public ConjugateGradientSolver(){}
+
+    @Override
+    IterativeSolution iterate(LinearOperator operator,double[] b,double[] x,double lengthOfB){
+        final int n=b.length;
+        final double target=(getTolerance()*lengthOfB);
+        final Preconditioner preconditioner=getPreconditioner();
+        double[] r=new double[n];
+        double[] z=new double[n];
+        double[] q=new double[n];
+        double residual=residual(operator,b,x,r);
+        if(residual<=target){
+            return new IterativeSolution(x,0,(residual/lengthOfB),true);
+        }
+        preconditioner.apply(r,z);
+        double[] p=z.clone();
+        double rz=ArrayKernels.dot(r,0,z,0,n);
+
+        int iteration=0;
+        while(iteration<getMaximumIterations()){
+            iteration++;
+            operator.apply(p,q);
+            final double pq=ArrayKernels.dot(p,0,q,0,n);
+            if(pq<=0 || rz==0){
+                // The matrix or the preconditioner is not positive-definite
+                break;
+            }
+            final double alpha=(rz/pq);
+            ArrayKernels.axpy(alpha,p,0,x,0,n);
+            ArrayKernels.axpy(-alpha,q,0,r,0,n);
+            residual=Math.sqrt(ArrayKernels.sumOfSquares(r,0,n));
+            report(iteration,(residual/lengthOfB));
+            if(residual<=target){
+                return new IterativeSolution(x,iteration,(residual/lengthOfB),true);
+            }
+            preconditioner.apply(r,z);
+            final double newRz=ArrayKernels.dot(r,0,z,0,n);
+            scaleAndAdd(z,(newRz/rz),p);
+            rz=newRz;
+        }
+        return new IterativeSolution(x,iteration,(residual/lengthOfB),false);
+    }
+}
@@ -0,0 +1,229 @@
+package LinearAlgebra;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class reads and writes dense matrices as CSV files, in which each line holds one row and
+ * the entries of a row are separated by a delimiter, which is usually a comma. Spaces around the
+ * entries and empty lines are ignored, and both Unix and Windows line endings can be read, but
+ * every entry must be a number and every row must have the same amount of entries.<br />
+ * Files are streamed: they are read through a small buffer and each number is parsed straight
+ * from its bytes into the entries of the matrix, so no line of the file is ever made into a
+ * String. A file that is large enough for a {@link ParallelismPolicy} is split into pieces at
+ * line breaks, and the pieces are parsed at the same time.<br />
+ * A CSV file only holds entries, so a matrix is always read back unaugmented.
+ * @author Mark Angelot
+ * @since March 23, 2024
+ */
+public final class CsvIO{
+//--Fields--//
+
+    /** This is the delimiter that is used when none is passed. */
+    public static final char DEFAULT_DELIMITER=',';
+    /** This is the size of the buffer through which files are written. */
+    private static final int BUFFER_SIZE=(1<<16);
+
+    private CsvIO(){}
+
+//--Reading--//
+
+    /**
+     * Reads a matrix from a CSV file whose entries are separated by commas and which has no header
+     * line. The file is parsed in parallel if it is large enough for the
+     * {@link ParallelismPolicy#getDefault() default policy}.
+     * @param file the file from which the matrix is read
+     * @return the matrix in the file
+     * @throws IOException if the file cannot be read, holds no rows, or is not a CSV file of
+     * numbers with the same amount of entries in every row
+     */
+    public static Matrix read(Path file) throws IOException{
+        return read(file,DEFAULT_DELIMITER,false,ParallelismPolicy.getDefault());
+    }
+
+    /**
+     * Reads a matrix from a CSV file.
+     * @param file the file from which the matrix is read
+     * @param delimiter the character between the entries of a row
+     * @param hasHeader true if the first line of the file is a header, which is skipped
+     * @param policy decides whether the file is parsed in parallel. The work of parsing a file is
+     *               its size in bytes.
+     * @return the matrix in the file
+     * @throws IOException if the file cannot be read, holds no rows, or is not a CSV file of
+     * numbers with the same amount of entries in every row
+     * @throws IllegalArgumentException if the delimiter could be part of a number or a line break
+     */
+    public static Matrix read(Path file,char delimiter,boolean hasHeader,ParallelismPolicy policy)
+            throws IOException{
+        checkDelimiter(delimiter);
+        List<Rows> pieces;
+        try(FileChannel channel=FileChannel.open(file,StandardOpenOption.READ)){
+            long start=0;
+            if(hasHeader){
+                TextScanner scanner=new TextScanner(channel,0,channel.size());
+                scanner.skipLine();
+                start=scanner.position();
+            }
+            pieces=TextScanner.parse(channel,start,channel.size(),policy,
+                    (scanner)->parseRows(scanner,delimiter));
+        }
+        int rows=0;
+        int columns=-1;
+        for(Rows piece:pieces){
+            if(piece.amountOfRows==0){
+                continue;
+            }
+            if(columns>=0 && piece.amountOfColumns!=columns){
+                throw new IOException("The row at byte "+piece.firstRowPosition+" of "+file+
+                        " has "+piece.amountOfColumns+" entries, but the rows before it have "+
+                        columns);
+            }
+            columns=piece.amountOfColumns;
+            rows+=piece.amountOfRows;
+        }
+        if(rows==0){
+            throw new IOException(file+" holds no rows");
+        }
+        if(pieces.size()==1){
+            Rows piece=pieces.get(0);
+            return new Matrix(rows,columns,Matrix.DEFAULT_AUGMENT_INDEX,
+                    (piece.size==piece.entries.length)?piece.entries:
+                            Arrays.copyOf(piece.entries,piece.size));
+        }
+        if(((long)rows*columns)>Integer.MAX_VALUE){
+            throw new IOException("A "+rows+"×"+columns+" matrix has too many entries to be read "+
+                    "into the heap");
+        }
+        double[] entries=new double[(rows*columns)];
+        int start=0;
+        for(Rows piece:pieces){
+            System.arraycopy(piece.entries,0,entries,start,piece.size);
+            start+=piece.size;
+        }
+        return new Matrix(rows,columns,Matrix.DEFAULT_AUGMENT_INDEX,entries);
+    }
+
+    /**
+     * Parses every row in one piece of a file.
+     */
+    private static Rows parseRows(TextScanner scanner,char delimiter) throws IOException{
+        Rows rows=new Rows();
+        final boolean tabIsDelimiter=(delimiter=='\t');
+        while(scanner.skipBlankLines()){
+            final long rowPosition=scanner.position();
+            int count=0;
+            while(true){
+                if(tabIsDelimiter){
+                    scanner.skipSpaces();
+                }
+                else{
+                    scanner.skipWhitespace();
+                }
+                rows.add(scanner.nextDouble());
+                count++;
+                if(tabIsDelimiter){
+                    scanner.skipSpaces();
+                }
+                else{
+                    scanner.skipWhitespace();
+                }
+                final int c=scanner.peek();
+                if(c==delimiter){
+                    scanner.skip();
+                }
+                else if(c=='\n' || c==-1){
+                    break;
+                }
+                else{
+                    throw new IOException("Expected '"+delimiter+"' or the end of a line at byte "+
+                            scanner.position()+" but found '"+(char)c+"'");
+                }
+            }
+            if(rows.amountOfRows==0){
+                rows.amountOfColumns=count;
+                rows.firstRowPosition=rowPosition;
+            }
+            else if(count!=rows.amountOfColumns){
+                throw new IOException("The row at byte "+rowPosition+" has "+count+" entries, "+
+                        "but the rows before it have "+rows.amountOfColumns);
+            }
+            rows.amountOfRows++;
+        }
+        return rows;
+    }
+
+    private static void checkDelimiter(char delimiter){
+        if(Character.isLetterOrDigit(delimiter) || "+-.\r\n ".indexOf(delimiter)>=0){
+            throw new IllegalArgumentException("'"+delimiter+"' cannot be used as a delimiter");
+        }
+    }
+
+    /**
+     * This class holds the rows that were parsed from one piece of a file.
+     */
+    private static final class Rows{
+        private double[] entries=new double[1024];
+        private int size;
+        private int amountOfRows;
+        private int amountOfColumns;
+        /** This is the position in the file of the first row, for error messages. */
+        private long firstRowPosition;
+
+        private void add(double entry){
+            if(size==entries.length){
+                entries=Arrays.copyOf(entries,(entries.length+(entries.length>>1)));
+            }
+            entries[size++]=entry;
+        }
+    }
+
+//--Writing--//
+
+    /**
+     * Writes a matrix to a CSV file, separating the entries of each row with commas. If the file
+     * already exists, it is replaced. Every entry is written with as many digits as it takes to
+     * read it back exactly.
+     * @param matrix the matrix that is to be written. This can be a {@link Vector}.
+     * @param file the file to which the matrix is written
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Matrix matrix,Path file) throws IOException{
+        write(matrix,file,DEFAULT_DELIMITER);
+    }
+
+    /**
+     * Writes a matrix to a CSV file. If the file already exists, it is replaced. Every entry is
+     * written with as many digits as it takes to read it back exactly.
+     * @param matrix the matrix that is to be written. This can be a {@link Vector}.
+     * @param file the file to which the matrix is written
+     * @param delimiter the character between the entries of a row
+     * @throws IOException if the file cannot be written
+     * @throws IllegalArgumentException if the delimiter could be part of a number or a line break
+     */
+    public static void write(Matrix matrix,Path file,char delimiter) throws IOException{
+        checkDelimiter(delimiter);
+        final double[] entries=matrix.denseEntries(false);
+        final int columns=matrix.AMOUNT_OF_COLUMNS;
+        try(Writer writer=new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(file),
+                StandardCharsets.US_ASCII),BUFFER_SIZE)){
+            for(int row=0;row<matrix.AMOUNT_OF_ROWS;row++){
+                for(int column=0;column<columns;column++){
+                    if(column>0){
+                        writer.write(delimiter);
+                    }
+                    writer.write(Double.toString(entries[(row*columns+column)]));
+                }
+                writer.write('\n');
+            }
+        }
+    }
+}
@@ -0,0 +1,370 @@
+package LinearAlgebra;
+
+import LinearAlgebra.Exceptions.IncompatibleMatrixMultiplicationException;
+import LinearAlgebra.Exceptions.UninvertibleMatrixException;
+
+/**
+ * This class represents a square matrix whose entries are all 0 except on its main diagonal.
+ * Only the n entries of the diagonal are stored, instead of the n² entries that
+ * {@link Matrix#generateDiagonalMatrix(double...)} stores, and every operation is done on the
+ * diagonal alone: multiplying two diagonal matrices, inverting one, or finding its determinant
+ * takes O(n) time.<br />
+ * Multiplying a dense matrix by a diagonal matrix on the left scales its rows, and multiplying
+ * it on the right scales its columns, so {@link #dotProduct(Matrix)} and
+ * {@link Matrix#dotProduct(DiagonalMatrix)} take O(n²) time instead of O(n³). Adding a diagonal
+ * matrix to a dense matrix only changes the diagonal of a copy of the dense matrix. An
+ * {@link IdentityMatrix} is a diagonal matrix whose products give back the other matrix without
+ * doing anything. This class is immutable.
+ * @author Mark Angelot
+ * @since May 18, 2024
+ */
+public class DiagonalMatrix implements LinearOperator{
+//--Fields--//
+
+    /** Entry i of this array is the entry at (i, i). */
+    final double[] ENTRIES;
+    /** This holds how many rows and columns are in this matrix. */
+    public final int DIMENSION;
+
+//--Constructors--//
+
+    /**
+     * Constructs a diagonal matrix with the passed entries, which are copied.
+     * @param entries the entries of the main diagonal, with the first entry in the top-left
+     *                corner and the last entry in the bottom-right corner
+     * @throws IllegalArgumentException if no entries are passed
+     */
+    public DiagonalMatrix(double... entries){
+        this(entries.length,entries.clone());
+    }
+
+    /**
+     * Constructs a diagonal matrix with the entries of the passed vector.
+     * @param vector the vector whose entries are to be put on the main diagonal, from top to
+     *               bottom
+     */
+    public DiagonalMatrix(Vector vector){
+        this(vector.AMOUNT_OF_ROWS,vector.asArray());
+    }
+
+    /**
+     * Constructs a diagonal matrix that uses the passed array, without copying it.
+     * @param dimension the amount of rows and columns in the matrix
+     * @param entries the entries of the main diagonal
+     * @throws IllegalArgumentException if the dimension is less than 1
+     */
+    DiagonalMatrix(int dimension,double[] entries){
+        if(dimension<1){
+            throw new IllegalArgumentException("A matrix must have at least one row and one "+
+                    "column");
+        }
+        DIMENSION=dimension;
+        ENTRIES=entries;
+    }
+
+//--Getters--//
+
+    /**
+     * @param row the row of the entry
+     * @param column the column of the entry
+     * @return the entry at the passed row and column, which is 0 if it is not on the main
+     * diagonal
+     * @throws IndexOutOfBoundsException if the row or the column is outside this matrix
+     */
+    public double getEntry(int row,int column){
+        if(row<0 || row>=DIMENSION || column<0 || column>=DIMENSION){
+            throw new IndexOutOfBoundsException("("+row+", "+column+") is outside a "+
+                    getDimensions()+" matrix");
+        }
+        return (row==column)?ENTRIES[row]:0;
+    }
+
+    /**
+     * @return a copy of the entries on the main diagonal
+     */
+    public double[] getDiagonal(){
+        return ENTRIES.clone();
+    }
+
+    @Override
+    public int getAmountOfRows(){
+        return DIMENSION;
+    }
+
+    @Override
+    public int getAmountOfColumns(){
+        return DIMENSION;
+    }
+
+    /**
+     * @return the dimensions of this matrix in an "n×n" format
+     */
+    public String getDimensions(){
+        return DIMENSION+"×"+DIMENSION;
+    }
+
+    @Override
+    public String toString(){
+        return "Diagonal "+getDimensions()+" matrix";
+    }
+
+    /**
+     * @return a dense matrix with the same entries as this matrix
+     */
+    public Matrix toMatrix(){
+        return Matrix.generateDiagonalMatrix(ENTRIES);
+    }
+
+    /**
+     * @return this matrix, which is its own transpose
+     */
+    public DiagonalMatrix transpose(){
+        return this;
+    }
+
+//--Properties--//
+
+    /**
+     * @return the determinant of this matrix, which is the product of its diagonal entries
+     */
+    public double determinant(){
+        double determinant=1;
+        for(double entry:ENTRIES){
+            determinant*=entry;
+        }
+        return determinant;
+    }
+
+    /**
+     * @return the inverse of this matrix, whose diagonal entries are the reciprocals of the
+     * diagonal entries of this matrix
+     * @throws UninvertibleMatrixException if a diagonal entry is 0
+     */
+    public DiagonalMatrix inverse() throws UninvertibleMatrixException{
+        double[] inverse=new double[DIMENSION];
+        for(int i=0;i<DIMENSION;i++){
+            if(ENTRIES[i]==0){
+                throw new UninvertibleMatrixException("The diagonal matrix has a 0 on its "+
+                        "diagonal, so it cannot be inverted");
+            }
+            inverse[i]=(1.0/ENTRIES[i]);
+        }
+        return new DiagonalMatrix(DIMENSION,inverse);
+    }
+
+//--Operations--//
+
+    /**
+     * @param scalar the number by which every entry is to be multiplied
+     * @return a diagonal matrix whose entries are the entries of this matrix times the passed
+     * number
+     */
+    public DiagonalMatrix scaledBy(double scalar){
+        double[] scaled=new double[DIMENSION];
+        ArrayKernels.scale(ENTRIES,0,scalar,scaled,0,DIMENSION);
+        return new DiagonalMatrix(DIMENSION,scaled);
+    }
+
+    /**
+     * @param matrix the diagonal matrix that is to be added to this matrix
+     * @return the sum of this matrix and the passed matrix, which is diagonal
+     * @throws IllegalArgumentException if the two matrices do not have the same size
+     */
+    public DiagonalMatrix plus(DiagonalMatrix matrix){
+        checkSameSize(matrix.DIMENSION,matrix.DIMENSION);
+        double[] sum=new double[DIMENSION];
+        ArrayKernels.add(ENTRIES,matrix.ENTRIES,sum,DIMENSION);
+        return new DiagonalMatrix(DIMENSION,sum);
+    }
+
+    /**
+     * @param matrix the diagonal matrix that is to be subtracted from this matrix
+     * @return the difference of this matrix and the passed matrix, which is diagonal
+     * @throws IllegalArgumentException if the two matrices do not have the same size
+     */
+    public DiagonalMatrix minus(DiagonalMatrix matrix){
+        checkSameSize(matrix.DIMENSION,matrix.DIMENSION);
+        double[] difference=new double[DIMENSION];
+        ArrayKernels.subtract(ENTRIES,matrix.ENTRIES,difference,DIMENSION);
+        return new DiagonalMatrix(DIMENSION,difference);
+    }
+
+    /**
+     * Adds this matrix to a dense matrix by copying the dense matrix and changing only its
+     * diagonal. {@link Matrix#plus(DiagonalMatrix)} does the same thing.
+     * @param matrix the dense matrix that is to be added to this matrix
+     * @return the sum of this matrix and the passed matrix
+     * @throws IllegalArgumentException if the two matrices do not have the same size
+     */
+    public Matrix plus(Matrix matrix){
+        return addTo(matrix,1,1);
+    }
+
+    /**
+     * @param matrix the dense matrix that is to be subtracted from this matrix
+     * @return the difference of this matrix and the passed matrix
+     * @throws IllegalArgumentException if the two matrices do not have the same size
+     */
+    public Matrix minus(Matrix matrix){
+        return addTo(matrix,-1,1);
+    }
+
+    /**
+     * Calculates {@code sign·matrix+scalar·D}, where D is this matrix, by copying the passed
+     * matrix and changing only its diagonal. The sign is applied while the matrix is copied, so
+     * only one new array is created.
+     * @param sign 1 or -1
+     * @throws IllegalArgumentException if the two matrices do not have the same size
+     */
+    Matrix addTo(Matrix matrix,double sign,double scalar){
+        checkSameSize(matrix.AMOUNT_OF_ROWS,matrix.AMOUNT_OF_COLUMNS);
+        final int n=DIMENSION;
+        double[] entries=matrix.denseEntries(false);
+        // The entries are only a new array if the matrix is a view, in which case they can be
+        // changed in place
+        double[] sum=(entries==matrix.matrixArray)?new double[entries.length]:entries;
+        if(sign==1){
+            if(sum!=entries){
+                System.arraycopy(entries,0,sum,0,entries.length);
+            }
+        }
+        else{
+            ArrayKernels.scale(entries,0,sign,sum,0,entries.length);
+        }
+        for(int i=0;i<n;i++){
+            sum[(i*n+i)]+=(scalar*ENTRIES[i]);
+        }
+        return new Matrix(n,n,Matrix.DEFAULT_AUGMENT_INDEX,sum);
+    }
+
+    private void checkSameSize(int rows,int columns){
+        if(rows!=DIMENSION || columns!=DIMENSION){
+            throw new IllegalArgumentException("A "+rows+"×"+columns+" matrix cannot be added "+
+                    "to or subtracted from a "+getDimensions()+" matrix");
+        }
+    }
+
+//--Multiplication--//
+
+    /**
+     * @param matrix the diagonal matrix by which this matrix is to be multiplied
+     * @return the product of this matrix and the passed matrix, which is diagonal
+     * @throws IncompatibleMatrixMultiplicationException if the two matrices do not have the same
+     * size
+     */
+    public DiagonalMatrix dotProduct(DiagonalMatrix matrix)
+            throws IncompatibleMatrixMultiplicationException{
+        checkCanMultiply(matrix.DIMENSION,matrix.getDimensions());
+        double[] product=new double[DIMENSION];
+        for(int i=0;i<DIMENSION;i++){
+            product[i]=(ENTRIES[i]*matrix.ENTRIES[i]);
+        }
+        return new DiagonalMatrix(DIMENSION,product);
+    }
+
+    /**
+     * Multiplies a dense matrix by this matrix on the left, which multiplies row i of the dense
+     * matrix by the entry at (i, i) of this matrix. This takes O(n²) time.
+     * @param matrix the matrix by which this matrix is to be multiplied
+     * @return the product of this matrix and the passed matrix
+     * @throws IncompatibleMatrixMultiplicationException if the dimension of this matrix does not
+     * match the amount of rows in the passed matrix
+     */
+    public Matrix dotProduct(Matrix matrix) throws IncompatibleMatrixMultiplicationException{
+        checkCanMultiply(matrix.AMOUNT_OF_ROWS,matrix.getDimensions());
+        return scaleRowsOf(matrix);
+    }
+
+    /**
+     * @param vector the vector by which this matrix is to be multiplied
+     * @return the product of this matrix and the passed vector, whose entries are the entries
+     * of the vector times the matching diagonal entries
+     * @throws IncompatibleMatrixMultiplicationException if the dimension of this matrix does not
+     * match the height of the vector
+     */
+    public Vector dotProduct(Vector vector) throws IncompatibleMatrixMultiplicationException{
+        checkCanMultiply(vector.AMOUNT_OF_ROWS,vector.getDimensions());
+        double[] product=new double[DIMENSION];
+        apply(vector.denseEntries(false),product);
+        return new Vector(DIMENSION,product,0,1);
+    }
+
+    @Override
+    public void apply(double[] vector,double[] product){
+        for(int i=0;i<DIMENSION;i++){
+            product[i]=(ENTRIES[i]*vector[i]);
+        }
+    }
+
+    /**
+     * @return the product of this matrix and the passed matrix, whose amount of rows must match
+     * the dimension of this matrix
+     */
+    Matrix scaleRowsOf(Matrix matrix){
+        final int columns=matrix.AMOUNT_OF_COLUMNS;
+        double[] entries=matrix.denseEntries(false);
+        double[] product=new double[(DIMENSION*columns)];
+        for(int row=0;row<DIMENSION;row++){
+            ArrayKernels.scale(entries,(row*columns),ENTRIES[row],product,(row*columns),columns);
+        }
+        return new Matrix(DIMENSION,columns,Matrix.DEFAULT_AUGMENT_INDEX,product);
+    }
+
+    /**
+     * Multiplies a dense matrix by this matrix on the right, which multiplies column j of the
+     * dense matrix by the entry at (j, j) of this matrix. {@link Matrix#dotProduct(DiagonalMatrix)}
+     * calls this once it has checked the sizes.
+     * @return the product of the passed matrix and this matrix, whose amount of columns must
+     * match the dimension of this matrix
+     */
+    Matrix scaleColumnsOf(Matrix matrix){
+        final int rows=matrix.AMOUNT_OF_ROWS;
+        final int n=DIMENSION;
+        double[] entries=matrix.denseEntries(false);
+        double[] product=new double[(rows*n)];
+        for(int row=0;row<rows;row++){
+            final int offset=(row*n);
+            for(int column=0;column<n;column++){
+                product[(offset+column)]=(entries[(offset+column)]*ENTRIES[column]);
+            }
+        }
+        return new Matrix(rows,n,Matrix.DEFAULT_AUGMENT_INDEX,product);
+    }
+
+    void checkCanMultiply(int rows,String dimensions)
+            throws IncompatibleMatrixMultiplicationException{
+        if(rows!=DIMENSION){
+            throw new IncompatibleMatrixMultiplicationException("Matrices of incompatible "+
+                    "dimensions attempted to be multiplied. A "+getDimensions()+" matrix cannot "+
+                    "be multiplied by a "+dimensions+" matrix. The amount of columns in the "+
+                    "first matrix must match the amount of rows in the second matrix");
+        }
+    }
+
+//--Solving--//
+
+    /**
+     * Solves the system D·x=b in O(n) time by dividing each entry of b by the matching diagonal
+     * entry.
+     * @param vector the right-hand side b of the system
+     * @return the solution x of the system
+     * @throws IllegalArgumentException if the height of the vector does not match the dimension
+     * of this matrix
+     * @throws UninvertibleMatrixException if a diagonal entry is 0
+     */
+    public Vector solve(Vector vector) throws UninvertibleMatrixException{
+        if(vector.AMOUNT_OF_ROWS!=DIMENSION){
+            throw new IllegalArgumentException("A system with a "+getDimensions()+" matrix "+
+                    "cannot be solved for a right-hand side with "+vector.AMOUNT_OF_ROWS+" rows");
+        }
+        double[] solution=vector.denseEntries(true);
+        for(int i=0;i<DIMENSION;i++){
+            if(ENTRIES[i]==0){
+                throw new UninvertibleMatrixException("The diagonal matrix has a 0 on its "+
+                        "diagonal, so the system does not have a unique solution");
+            }
+            solution[i]/=ENTRIES[i];
+        }
+        return new Vector(DIMENSION,solution,0,1);
+    }
+}
@@ -0,0 +1,1023 @@
+package LinearAlgebra;
+
+import LinearAlgebra.Exceptions.UndecomposableMatrixException;
+
+import java.util.Arrays;
+
+/**
+ * This class holds the eigenvalues and eigenvectors of a square matrix. An eigenvector of a
+ * matrix A is a nonzero vector v such that A·v=λ·v, where the number λ is its eigenvalue.<br />
+ * If the matrix is symmetric, it is reduced to a tridiagonal matrix with Householder
+ * reflections, and the tridiagonal matrix is then diagonalized with the implicit QL algorithm
+ * (QR with the rows and columns in reverse order). The eigenvalues of a symmetric matrix are
+ * always real, and its eigenvectors are orthonormal.<br />
+ * Otherwise, the matrix is reduced to upper Hessenberg form with Householder reflections, and
+ * the Hessenberg matrix is reduced to real Schur form with the shifted double QR algorithm of
+ * Francis. The eigenvalues can then be complex, in which case they come in conjugate pairs. The
+ * eigenvectors are found by back substitution on the Schur form.<br />
+ * Both algorithms work in place, the symmetric one on a single n×n workspace that becomes the
+ * eigenvectors and the general one on the Hessenberg matrix and the eigenvectors, so they need
+ * O(n²) memory and O(n³) time. These are the algorithms from EISPACK, by way of JAMA, with the
+ * eigenvectors stored as rows so that their updates run along memory. The row updates of the
+ * general algorithm run on {@link ArrayKernels}, and its column updates are done for a few rows
+ * at a time, so that they run along memory as well.<br />
+ * Most of the time goes into the eigenvectors, so {@link Matrix#eigenvalues()} skips them. None
+ * of the transformations are accumulated, so both algorithms work on the single n×n workspace
+ * of the matrix, and the QR steps of the general one only transform the block of the matrix
+ * that has not converged yet. This class is immutable.
+ * @author Mark Angelot
+ * @since February 3, 2024
+ */
+public class EigenDecomposition{
+//--Fields--//
+
+    /** This is the smallest number that can be added to 1 to get a different number. */
+    private static final double EPSILON=Math.ulp(1.0);
+    /** The rows above a double QR step are transformed in blocks of this many rows. */
+    private static final int ROW_BLOCK_SIZE=16;
+
+    /** This holds the real parts of the eigenvalues. */
+    private final double[] realEigenvalues;
+    /** This holds the imaginary parts of the eigenvalues. */
+    private final double[] imaginaryEigenvalues;
+    /** This holds the eigenvectors as the columns of a matrix, or null if they were skipped. */
+    private final Matrix eigenvectors;
+    /** This is true if the decomposed matrix is symmetric, or false otherwise. */
+    private final boolean IS_SYMMETRIC;
+    /** This holds how many rows and columns are in the decomposed matrix. */
+    public final int DIMENSION;
+
+//--Constructors--//
+
+    /**
+     * Calculates the eigenvalues and eigenvectors of a matrix. The symmetric algorithm is used
+     * if the matrix is exactly symmetric.
+     * @param matrix the matrix that is to be decomposed
+     * @throws UndecomposableMatrixException if the matrix is not square
+     */
+    public EigenDecomposition(Matrix matrix) throws UndecomposableMatrixException{
+        this(matrix,true);
+    }
+
+    /**
+     * Calculates the eigenvalues of a matrix, and its eigenvectors if they are wanted. Without
+     * the eigenvectors, this takes only the matrix itself as its workspace, and
+     * {@link #getV()} cannot be called.
+     * @param matrix the matrix that is to be decomposed
+     * @param computeEigenvectors true if the eigenvectors are to be calculated, or false if only
+     *                            the eigenvalues are needed
+     * @throws UndecomposableMatrixException if the matrix is not square
+     */
+    EigenDecomposition(Matrix matrix,boolean computeEigenvectors)
+            throws UndecomposableMatrixException{
+        if(!matrix.isSquare()){
+            throw new UndecomposableMatrixException(matrix);
+        }
+        final int n=matrix.AMOUNT_OF_ROWS;
+        DIMENSION=n;
+        IS_SYMMETRIC=matrix.isSymmetric();
+        realEigenvalues=new double[n];
+        imaginaryEigenvalues=new double[n];
+
+        // In both algorithms, the eigenvectors are stored as the rows of the workspace instead of
+        // its columns, so that the transformations that are applied to them move through memory
+        // in order. The matrix of eigenvectors is then a transposed view of the workspace.
+        double[][] z=new double[n][n];
+        for(int row=0;row<n;row++){
+            matrix.copyRowInto(row,z[row],0);
+        }
+        if(IS_SYMMETRIC){
+            // A symmetric matrix is its own transpose, so the workspace starts as its transpose
+            tridiagonalize(z,realEigenvalues,imaginaryEigenvalues,computeEigenvectors);
+            if(!computeEigenvectors){
+                z=null;
+            }
+            diagonalizeTridiagonal(z,realEigenvalues,imaginaryEigenvalues);
+            Arrays.fill(imaginaryEigenvalues,0);
+        }
+        else{
+            double[][] h=z;
+            z=computeEigenvectors?new double[n][]:null;
+            reduceToHessenberg(h,z);
+            reduceToSchurForm(h,z,realEigenvalues,imaginaryEigenvalues);
+        }
+        if(z==null){
+            eigenvectors=null;
+            return;
+        }
+        double[] entries=new double[(n*n)];
+        for(int row=0;row<n;row++){
+            System.arraycopy(z[row],0,entries,(row*n),n);
+        }
+        eigenvectors=new Matrix(n,n,Matrix.DEFAULT_AUGMENT_INDEX,entries).transpose();
+    }
+
+//--Getters--//
+
+    /**
+     * @return the real parts of the eigenvalues. If the decomposed matrix is symmetric, the
+     * eigenvalues are in order from least to greatest.
+     */
+    public double[] getRealEigenvalues(){
+        return realEigenvalues.clone();
+    }
+
+    /**
+     * @return the imaginary parts of the eigenvalues, in the same order as
+     * {@link #getRealEigenvalues()}. Complex eigenvalues come in conjugate pairs, with the
+     * positive imaginary part first.
+     */
+    public double[] getImaginaryEigenvalues(){
+        return imaginaryEigenvalues.clone();
+    }
+
+    /**
+     * Returns the eigenvectors as the columns of a matrix V. If the eigenvalue at index i is
+     * real, column i is its eigenvector. If the eigenvalues at indexes i and i+1 are a complex
+     * conjugate pair, columns i and i+1 are the real and imaginary parts of the eigenvector of
+     * the eigenvalue at index i. This way, A·V=V·D, where D is {@link #getD()}.
+     * @return the eigenvectors as the columns of a matrix
+     * @throws IllegalStateException if only the eigenvalues were calculated
+     */
+    public Matrix getV(){
+        if(eigenvectors==null){
+            throw new IllegalStateException("The eigenvectors were not calculated");
+        }
+        return eigenvectors;
+    }
+
+    /**
+     * Returns the block diagonal matrix D such that A·V=V·D. Real eigenvalues are on the main
+     * diagonal, and each complex pair a±bi is a 2×2 block [a b; -b a].
+     * @return the block diagonal matrix of eigenvalues
+     */
+    public Matrix getD(){
+        MatrixBuilder d=new MatrixBuilder(DIMENSION,DIMENSION);
+        for(int i=0;i<DIMENSION;i++){
+            d.setEntry(i,i,realEigenvalues[i]);
+            if(imaginaryEigenvalues[i]>0){
+                d.setEntry(i,(i+1),imaginaryEigenvalues[i]);
+            }
+            else if(imaginaryEigenvalues[i]<0){
+                d.setEntry(i,(i-1),imaginaryEigenvalues[i]);
+            }
+        }
+        return d.build();
+    }
+
+//--Properties--//
+
+    /**
+     * @return true if the decomposed matrix is symmetric, or false otherwise
+     */
+    public boolean isSymmetric(){
+        return IS_SYMMETRIC;
+    }
+
+    /**
+     * @return true if any of the eigenvalues are complex, or false if they are all real
+     */
+    public boolean hasComplexEigenvalues(){
+        for(double imaginaryPart:imaginaryEigenvalues){
+            if(imaginaryPart!=0){
+                return true;
+            }
+        }
+        return false;
+    }
+
+//--Symmetric Algorithm--//
+
+    /**
+     * Reduces a symmetric matrix to tridiagonal form with Householder reflections, and
+     * accumulates the reflections. This is the tred2 procedure of EISPACK, except that the
+     * accumulated transformation is stored transposed. The procedure walks down the columns of
+     * its transformation, so this way it walks along rows instead. Without the accumulation,
+     * this is the tred1 procedure.
+     * @param z the matrix, which is replaced by the transpose of the accumulated orthogonal
+     *          transformation, or used as scratch space if it is not accumulated
+     * @param d this is filled with the main diagonal of the tridiagonal matrix
+     * @param e this is filled with the subdiagonal of the tridiagonal matrix, starting at index 1
+     * @param accumulate true if the transformation is to be accumulated, or false otherwise
+     */
+    private static void tridiagonalize(double[][] z,double[] d,double[] e,boolean accumulate){
+        final int n=d.length;
+        for(int j=0;j<n;j++){
+            d[j]=z[j][(n-1)];
+        }
+
+        for(int i=(n-1);i>0;i--){
+            // Scale to avoid underflow
+            double scale=0;
+            double h=0;
+            for(int k=0;k<i;k++){
+                scale+=Math.abs(d[k]);
+            }
+            if(scale==0){
+                e[i]=d[(i-1)];
+                for(int j=0;j<i;j++){
+                    d[j]=z[j][(i-1)];
+                    z[j][i]=0;
+                    z[i][j]=0;
+                }
+            }
+            else{
+                // Generate the Householder vector
+                for(int k=0;k<i;k++){
+                    d[k]/=scale;
+                    h+=(d[k]*d[k]);
+                }
+                double f=d[(i-1)];
+                double g=Math.sqrt(h);
+                if(f>0){
+                    g=-g;
+                }
+                e[i]=(scale*g);
+                h-=(f*g);
+                d[(i-1)]=(f-g);
+                Arrays.fill(e,0,i,0);
+
+                // Apply the similarity transformation to the remaining columns
+                for(int j=0;j<i;j++){
+                    double[] rowJ=z[j];
+                    f=d[j];
+                    z[i][j]=f;
+                    g=(e[j]+rowJ[j]*f);
+                    for(int k=(j+1);k<i;k++){
+                        g+=(rowJ[k]*d[k]);
+                        e[k]+=(rowJ[k]*f);
+                    }
+                    e[j]=g;
+                }
+                f=0;
+                for(int j=0;j<i;j++){
+                    e[j]/=h;
+                    f+=(e[j]*d[j]);
+                }
+                double hh=(f/(h+h));
+                for(int j=0;j<i;j++){
+                    e[j]-=(hh*d[j]);
+                }
+                for(int j=0;j<i;j++){
+                    double[] rowJ=z[j];
+                    f=d[j];
+                    g=e[j];
+                    for(int k=j;k<i;k++){
+                        rowJ[k]-=((f*e[k])+(g*d[k]));
+                    }
+                    d[j]=rowJ[(i-1)];
+                    rowJ[i]=0;
+                }
+            }
+            d[i]=h;
+        }
+        e[0]=0;
+        if(!accumulate){
+            // The main diagonal is left on the main diagonal of the workspace
+            for(int j=0;j<n;j++){
+                d[j]=z[j][j];
+            }
+            return;
+        }
+
+        // Accumulate the transformations
+        for(int i=0;i<(n-1);i++){
+            double[] rowI=z[i];
+            double[] rowNext=z[(i+1)];
+            rowI[(n-1)]=rowI[i];
+            rowI[i]=1;
+            double h=d[(i+1)];
+            if(h!=0){
+                for(int k=0;k<=i;k++){
+                    d[k]=(rowNext[k]/h);
+                }
+                for(int j=0;j<=i;j++){
+                    double[] rowJ=z[j];
+                    double g=0;
+                    for(int k=0;k<=i;k++){
+                        g+=(rowNext[k]*rowJ[k]);
+                    }
+                    for(int k=0;k<=i;k++){
+                        rowJ[k]-=(g*d[k]);
+                    }
+                }
+            }
+            Arrays.fill(rowNext,0,(i+1),0);
+        }
+        for(int j=0;j<n;j++){
+            d[j]=z[j][(n-1)];
+            z[j][(n-1)]=0;
+        }
+        z[(n-1)][(n-1)]=1;
+    }
+
+    /**
+     * Diagonalizes a symmetric tridiagonal matrix with the implicit QL algorithm, and applies
+     * the same rotations to the eigenvectors. The eigenvalues and eigenvectors are then sorted
+     * from the least eigenvalue to the greatest. This is the tql2 procedure of EISPACK, except
+     * that the eigenvectors are stored as rows instead of columns. Without eigenvectors, this is
+     * the tql1 procedure.
+     * @param z the transpose of the transformation from {@link #tridiagonalize}, which is
+     *          replaced by the eigenvectors, one per row, or null to skip the eigenvectors
+     * @param d the main diagonal, which is replaced by the eigenvalues
+     * @param e the subdiagonal, starting at index 1. This is used as scratch space.
+     */
+    private static void diagonalizeTridiagonal(double[][] z,double[] d,double[] e){
+        final int n=d.length;
+        for(int i=1;i<n;i++){
+            e[(i-1)]=e[i];
+        }
+        e[(n-1)]=0;
+
+        double f=0;
+        double greatestMagnitude=0;
+        for(int l=0;l<n;l++){
+            // Find a small subdiagonal entry
+            greatestMagnitude=Math.max(greatestMagnitude,(Math.abs(d[l])+Math.abs(e[l])));
+            int m=l;
+            while(m<n){
+                if(Math.abs(e[m])<=(EPSILON*greatestMagnitude)){
+                    break;
+                }
+                m++;
+            }
+
+            // If m==l, d[l] is already an eigenvalue. Otherwise, iterate until it is.
+            if(m>l){
+                do{
+                    // Compute the implicit shift
+                    double g=d[l];
+                    double p=((d[(l+1)]-g)/(2*e[l]));
+                    double r=hypotenuse(p,1);
+                    if(p<0){
+                        r=-r;
+                    }
+                    d[l]=(e[l]/(p+r));
+                    d[(l+1)]=(e[l]*(p+r));
+                    double dl1=d[(l+1)];
+                    double h=(g-d[l]);
+                    for(int i=(l+2);i<n;i++){
+                        d[i]-=h;
+                    }
+                    f+=h;
+
+                    // Implicit QL transformation
+                    p=d[m];
+                    double c=1;
+                    double c2=c;
+                    double c3=c;
+                    double el1=e[(l+1)];
+                    double s=0;
+                    double s2=0;
+                    for(int i=(m-1);i>=l;i--){
+                        c3=c2;
+                        c2=c;
+                        s2=s;
+                        g=(c*e[i]);
+                        h=(c*p);
+                        r=hypotenuse(p,e[i]);
+                        e[(i+1)]=(s*r);
+                        s=(e[i]/r);
+                        c=(p/r);
+                        p=((c*d[i])-(s*g));
+                        d[(i+1)]=(h+s*((c*g)+(s*d[i])));
+
+                        // Rotate eigenvectors i and i+1
+                        if(z!=null){
+                            double[] eigenvector=z[i];
+                            double[] nextEigenvector=z[(i+1)];
+                            for(int k=0;k<n;k++){
+                                h=nextEigenvector[k];
+                                nextEigenvector[k]=((s*eigenvector[k])+(c*h));
+                                eigenvector[k]=((c*eigenvector[k])-(s*h));
+                            }
+                        }
+                    }
+                    p=(-s*s2*c3*el1*e[l]/dl1);
+                    e[l]=(s*p);
+                    d[l]=(c*p);
+                }while(Math.abs(e[l])>(EPSILON*greatestMagnitude));
+            }
+            d[l]+=f;
+            e[l]=0;
+        }
+
+        // Sort the eigenvalues and eigenvectors from least to greatest
+        for(int i=0;i<(n-1);i++){
+            int k=i;
+            double p=d[i];
+            for(int j=(i+1);j<n;j++){
+                if(d[j]<p){
+                    k=j;
+                    p=d[j];
+                }
+            }
+            if(k!=i){
+                d[k]=d[i];
+                d[i]=p;
+                if(z!=null){
+                    double[] temp=z[i];
+                    z[i]=z[k];
+                    z[k]=temp;
+                }
+            }
+        }
+    }
+
+//--Nonsymmetric Algorithm--//
+
+    /**
+     * Reduces a matrix to upper Hessenberg form with Householder reflections, and accumulates
+     * the reflections. This is the orthes and ortran procedures of EISPACK, except that the
+     * accumulated transformation is stored transposed, and that the columns of the matrix are
+     * combined with the Householder vector one row at a time.
+     * @param h the matrix, which is replaced by its upper Hessenberg form
+     * @param vt this is filled with the transpose of the accumulated orthogonal transformation,
+     *           or null to skip the accumulation
+     */
+    private static void reduceToHessenberg(double[][] h,double[][] vt){
+        final int n=h.length;
+        final int high=(n-1);
+        double[] ort=new double[n];
+        double[] columnSums=new double[n];
+
+        for(int m=1;m<=(high-1);m++){
+            // Scale the column
+            double scale=0;
+            for(int i=m;i<=high;i++){
+                scale+=Math.abs(h[i][(m-1)]);
+            }
+            if(scale!=0){
+                // Compute the Householder transformation
+                double sum=0;
+                for(int i=high;i>=m;i--){
+                    ort[i]=(h[i][(m-1)]/scale);
+                    sum+=(ort[i]*ort[i]);
+                }
+                double g=Math.sqrt(sum);
+                if(ort[m]>0){
+                    g=-g;
+                }
+                sum-=(ort[m]*g);
+                ort[m]-=g;
+
+                // Apply the similarity transformation H=(I-u·uᵀ/h)·H·(I-u·uᵀ/h)
+                Arrays.fill(columnSums,m,n,0);
+                for(int i=m;i<=high;i++){
+                    ArrayKernels.axpy(ort[i],h[i],m,columnSums,m,(n-m));
+                }
+                for(int i=m;i<=high;i++){
+                    ArrayKernels.axpy(-(ort[i]/sum),columnSums,m,h[i],m,(n-m));
+                }
+                for(int i=0;i<=high;i++){
+                    double[] row=h[i];
+                    final double f=(ArrayKernels.dot(ort,m,row,m,(high-m+1))/sum);
+                    ArrayKernels.axpy(-f,ort,m,row,m,(high-m+1));
+                }
+                ort[m]*=scale;
+                h[m][(m-1)]=(scale*g);
+            }
+        }
+
+        // Accumulate the transformations
+        if(vt==null){
+            return;
+        }
+        for(int i=0;i<n;i++){
+            vt[i]=new double[n];
+            vt[i][i]=1;
+        }
+        for(int m=(high-1);m>=1;m--){
+            if(h[m][(m-1)]!=0){
+                for(int i=(m+1);i<=high;i++){
+                    ort[i]=h[i][(m-1)];
+                }
+                for(int j=m;j<=high;j++){
+                    double[] column=vt[j];
+                    double g=0;
+                    for(int i=m;i<=high;i++){
+                        g+=(ort[i]*column[i]);
+                    }
+                    // Double division avoids possible underflow
+                    g=((g/ort[m])/h[m][(m-1)]);
+                    for(int i=m;i<=high;i++){
+                        column[i]+=(g*ort[i]);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Reduces an upper Hessenberg matrix to real Schur form with the shifted double QR
+     * algorithm, and then finds the eigenvectors by back substitution. This is the hqr2
+     * procedure of EISPACK, except that the eigenvectors are stored as rows instead of columns.
+     * Without eigenvectors, this is the hqr procedure, which only transforms the rows and columns
+     * of the block that has not converged yet.
+     * @param h the upper Hessenberg matrix, which is used as scratch space
+     * @param vt the transposed transformation from {@link #reduceToHessenberg}, which is replaced
+     *           by the eigenvectors, one per row, or null to skip the eigenvectors
+     * @param d this is filled with the real parts of the eigenvalues
+     * @param e this is filled with the imaginary parts of the eigenvalues
+     */
+    private static void reduceToSchurForm(double[][] h,double[][] vt,double[] d,double[] e){
+        final int nn=h.length;
+        int n=(nn-1);
+        double exshift=0;
+        double p=0,q=0,r=0,s=0,z=0,t,w,x,y;
+        final boolean computeEigenvectors=(vt!=null);
+        // The reflections of a QR step, as x, y, z, q, and r for each step k
+        double[] reflections=new double[(5*nn)];
+        boolean[] isReflected=new boolean[nn];
+        double[] rowSums=new double[nn];
+
+        // Compute the norm of the matrix
+        double norm=0;
+        for(int i=0;i<nn;i++){
+            for(int j=Math.max((i-1),0);j<nn;j++){
+                norm+=Math.abs(h[i][j]);
+            }
+        }
+
+        // Find one or two eigenvalues at a time, from the bottom-right corner up
+        int iteration=0;
+        while(n>=0){
+            // Look for a single small subdiagonal entry
+            int l=n;
+            while(l>0){
+                s=(Math.abs(h[(l-1)][(l-1)])+Math.abs(h[l][l]));
+                if(s==0){
+                    s=norm;
+                }
+                if(Math.abs(h[l][(l-1)])<(EPSILON*s)){
+                    break;
+                }
+                l--;
+            }
+
+            if(l==n){
+                // One root was found
+                h[n][n]+=exshift;
+                d[n]=h[n][n];
+                e[n]=0;
+                n--;
+                iteration=0;
+            }
+            else if(l==(n-1)){
+                // Two roots were found
+                w=(h[n][(n-1)]*h[(n-1)][n]);
+                p=((h[(n-1)][(n-1)]-h[n][n])/2);
+                q=((p*p)+w);
+                z=Math.sqrt(Math.abs(q));
+                h[n][n]+=exshift;
+                h[(n-1)][(n-1)]+=exshift;
+                x=h[n][n];
+
+                if(q>=0){
+                    // They are a real pair
+                    z=(p>=0)?(p+z):(p-z);
+                    d[(n-1)]=(x+z);
+                    d[n]=d[(n-1)];
+                    if(z!=0){
+                        d[n]=(x-(w/z));
+                    }
+                    e[(n-1)]=0;
+                    e[n]=0;
+                    // Transform the Schur form and the eigenvectors to match
+                    if(computeEigenvectors){
+                        x=h[n][(n-1)];
+                        s=(Math.abs(x)+Math.abs(z));
+                        p=(x/s);
+                        q=(z/s);
+                        r=Math.sqrt((p*p)+(q*q));
+                        p/=r;
+                        q/=r;
+
+                        // Row modification
+                        for(int j=(n-1);j<nn;j++){
+                            z=h[(n-1)][j];
+                            h[(n-1)][j]=((q*z)+(p*h[n][j]));
+                            h[n][j]=((q*h[n][j])-(p*z));
+                        }
+                        // Column modification
+                        for(int i=0;i<=n;i++){
+                            z=h[i][(n-1)];
+                            h[i][(n-1)]=((q*z)+(p*h[i][n]));
+                            h[i][n]=((q*h[i][n])-(p*z));
+                        }
+                        // Accumulate the transformation
+                        double[] first=vt[(n-1)];
+                        double[] second=vt[n];
+                        for(int i=0;i<nn;i++){
+                            z=first[i];
+                            first[i]=((q*z)+(p*second[i]));
+                            second[i]=((q*second[i])-(p*z));
+                        }
+                    }
+                }
+                else{
+                    // They are a complex pair
+                    d[(n-1)]=(x+p);
+                    d[n]=(x+p);
+                    e[(n-1)]=z;
+                    e[n]=-z;
+                }
+                n-=2;
+                iteration=0;
+            }
+            else{
+                // There is no convergence yet, so form a shift
+                x=h[n][n];
+                y=0;
+                w=0;
+                if(l<n){
+                    y=h[(n-1)][(n-1)];
+                    w=(h[n][(n-1)]*h[(n-1)][n]);
+                }
+
+                // Wilkinson's original ad hoc shift
+                if(iteration==10){
+                    exshift+=x;
+                    for(int i=0;i<=n;i++){
+                        h[i][i]-=x;
+                    }
+                    s=(Math.abs(h[n][(n-1)])+Math.abs(h[(n-1)][(n-2)]));
+                    x=y=(0.75*s);
+                    w=(-0.4375*s*s);
+                }
+
+                // MATLAB's ad hoc shift
+                if(iteration==30){
+                    s=((y-x)/2);
+                    s=((s*s)+w);
+                    if(s>0){
+                        s=Math.sqrt(s);
+                        if(y<x){
+                            s=-s;
+                        }
+                        s=(x-(w/(((y-x)/2)+s)));
+                        for(int i=0;i<=n;i++){
+                            h[i][i]-=s;
+                        }
+                        exshift+=s;
+                        x=y=w=0.964;
+                    }
+                }
+
+                iteration++;
+
+                // Look for two consecutive small subdiagonal entries
+                int m=(n-2);
+                while(m>=l){
+                    z=h[m][m];
+                    r=(x-z);
+                    s=(y-z);
+                    p=((((r*s)-w)/h[(m+1)][m])+h[m][(m+1)]);
+                    q=(h[(m+1)][(m+1)]-z-r-s);
+                    r=h[(m+2)][(m+1)];
+                    s=(Math.abs(p)+Math.abs(q)+Math.abs(r));
+                    p/=s;
+                    q/=s;
+                    r/=s;
+                    if(m==l){
+                        break;
+                    }
+                    if((Math.abs(h[m][(m-1)])*(Math.abs(q)+Math.abs(r)))<
+                       (EPSILON*(Math.abs(p)*(Math.abs(h[(m-1)][(m-1)])+Math.abs(z)+
+                                              Math.abs(h[(m+1)][(m+1)]))))){
+                        break;
+                    }
+                    m--;
+                }
+
+                for(int i=(m+2);i<=n;i++){
+                    h[i][(i-2)]=0;
+                    if(i>(m+2)){
+                        h[i][(i-3)]=0;
+                    }
+                }
+
+                // Double QR step involving rows l to n and columns m to n
+                for(int k=m;k<=(n-1);k++){
+                    boolean notLast=(k!=(n-1));
+                    isReflected[k]=false;
+                    if(k!=m){
+                        p=h[k][(k-1)];
+                        q=h[(k+1)][(k-1)];
+                        r=notLast?h[(k+2)][(k-1)]:0;
+                        x=(Math.abs(p)+Math.abs(q)+Math.abs(r));
+                        if(x==0){
+                            continue;
+                        }
+                        p/=x;
+                        q/=x;
+                        r/=x;
+                    }
+
+                    s=Math.sqrt((p*p)+(q*q)+(r*r));
+                    if(p<0){
+                        s=-s;
+                    }
+                    if(s!=0){
+                        if(k!=m){
+                            h[k][(k-1)]=(-s*x);
+                        }
+                        else if(l!=m){
+                            h[k][(k-1)]=-h[k][(k-1)];
+                        }
+                        p+=s;
+                        x=(p/s);
+                        y=(q/s);
+                        z=(r/s);
+                        q/=p;
+                        r/=p;
+
+                        // Row modification, where rowSums holds p for every column. The
+                        // eigenvalues only need the columns of the unconverged block.
+                        final int length=((computeEigenvectors?nn:(n+1))-k);
+                        double[] rowK=h[k];
+                        double[] rowNext=h[(k+1)];
+                        System.arraycopy(rowK,k,rowSums,k,length);
+                        ArrayKernels.axpy(q,rowNext,k,rowSums,k,length);
+                        if(notLast){
+                            double[] rowAfterNext=h[(k+2)];
+                            ArrayKernels.axpy(r,rowAfterNext,k,rowSums,k,length);
+                            ArrayKernels.axpy(-z,rowSums,k,rowAfterNext,k,length);
+                        }
+                        ArrayKernels.axpy(-x,rowSums,k,rowK,k,length);
+                        ArrayKernels.axpy(-y,rowSums,k,rowNext,k,length);
+
+                        // Column modification of the rows that later steps still read. The rows
+                        // above them are modified after the last step.
+                        isReflected[k]=true;
+                        reflections[(5*k)]=x;
+                        reflections[(5*k+1)]=y;
+                        reflections[(5*k+2)]=z;
+                        reflections[(5*k+3)]=q;
+                        reflections[(5*k+4)]=r;
+                        for(int i=k;i<=Math.min(n,(k+3));i++){
+                            double[] row=h[i];
+                            p=((x*row[k])+(y*row[(k+1)]));
+                            if(notLast){
+                                p+=(z*row[(k+2)]);
+                                row[(k+2)]-=(p*r);
+                            }
+                            row[k]-=p;
+                            row[(k+1)]-=(p*q);
+                        }
+
+                        // Accumulate the transformation, the same way as the row modification
+                        if(computeEigenvectors){
+                            double[] first=vt[k];
+                            double[] second=vt[(k+1)];
+                            ArrayKernels.scale(first,0,x,rowSums,0,nn);
+                            ArrayKernels.axpy(y,second,0,rowSums,0,nn);
+                            if(notLast){
+                                double[] third=vt[(k+2)];
+                                ArrayKernels.axpy(z,third,0,rowSums,0,nn);
+                                ArrayKernels.axpy(-r,rowSums,0,third,0,nn);
+                            }
+                            ArrayKernels.axpy(-1,rowSums,0,first,0,nn);
+                            ArrayKernels.axpy(-q,rowSums,0,second,0,nn);
+                        }
+                    }
+                }
+
+                // Column modification of the rows above each step
+                transformRowsAbove(h,reflections,isReflected,(computeEigenvectors?0:l),m,n);
+            }
+        }
+
+        // Back substitute to find the vectors of the upper triangular form
+        if(!computeEigenvectors||(norm==0)){
+            return;
+        }
+        double[] quotient=new double[2];
+        for(n=(nn-1);n>=0;n--){
+            p=d[n];
+            q=e[n];
+
+            if(q==0){
+                // Real vector
+                int l=n;
+                h[n][n]=1;
+                for(int i=(n-1);i>=0;i--){
+                    w=(h[i][i]-p);
+                    r=0;
+                    for(int j=l;j<=n;j++){
+                        r+=(h[i][j]*h[j][n]);
+                    }
+                    if(e[i]<0){
+                        z=w;
+                        s=r;
+                    }
+                    else{
+                        l=i;
+                        if(e[i]==0){
+                            h[i][n]=(w!=0)?(-r/w):(-r/(EPSILON*norm));
+                        }
+                        else{
+                            // Solve the real equations
+                            x=h[i][(i+1)];
+                            y=h[(i+1)][i];
+                            q=(((d[i]-p)*(d[i]-p))+(e[i]*e[i]));
+                            t=(((x*s)-(z*r))/q);
+                            h[i][n]=t;
+                            h[(i+1)][n]=(Math.abs(x)>Math.abs(z))?((-r-(w*t))/x):((-s-(y*t))/z);
+                        }
+
+                        // Overflow control
+                        t=Math.abs(h[i][n]);
+                        if(((EPSILON*t)*t)>1){
+                            for(int j=i;j<=n;j++){
+                                h[j][n]/=t;
+                            }
+                        }
+                    }
+                }
+            }
+            else if(q<0){
+                // Complex vector
+                int l=(n-1);
+
+                // The last vector component is imaginary, so the matrix is triangular
+                if(Math.abs(h[n][(n-1)])>Math.abs(h[(n-1)][n])){
+                    h[(n-1)][(n-1)]=(q/h[n][(n-1)]);
+                    h[(n-1)][n]=(-(h[n][n]-p)/h[n][(n-1)]);
+                }
+                else{
+                    divideComplex(0,-h[(n-1)][n],(h[(n-1)][(n-1)]-p),q,quotient);
+                    h[(n-1)][(n-1)]=quotient[0];
+                    h[(n-1)][n]=quotient[1];
+                }
+                h[n][(n-1)]=0;
+                h[n][n]=1;
+                for(int i=(n-2);i>=0;i--){
+                    double ra=0;
+                    double sa=0;
+                    for(int j=l;j<=n;j++){
+                        ra+=(h[i][j]*h[j][(n-1)]);
+                        sa+=(h[i][j]*h[j][n]);
+                    }
+                    w=(h[i][i]-p);
+
+                    if(e[i]<0){
+                        z=w;
+                        r=ra;
+                        s=sa;
+                    }
+                    else{
+                        l=i;
+                        if(e[i]==0){
+                            divideComplex(-ra,-sa,w,q,quotient);
+                            h[i][(n-1)]=quotient[0];
+                            h[i][n]=quotient[1];
+                        }
+                        else{
+                            // Solve the complex equations
+                            x=h[i][(i+1)];
+                            y=h[(i+1)][i];
+                            double vr=(((d[i]-p)*(d[i]-p))+(e[i]*e[i])-(q*q));
+                            double vi=((d[i]-p)*2*q);
+                            if(vr==0 && vi==0){
+                                vr=(EPSILON*norm*(Math.abs(w)+Math.abs(q)+Math.abs(x)+
+                                                  Math.abs(y)+Math.abs(z)));
+                            }
+                            divideComplex(((x*r)-(z*ra)+(q*sa)),((x*s)-(z*sa)-(q*ra)),vr,vi,
+                                    quotient);
+                            h[i][(n-1)]=quotient[0];
+                            h[i][n]=quotient[1];
+                            if(Math.abs(x)>(Math.abs(z)+Math.abs(q))){
+                                h[(i+1)][(n-1)]=((-ra-(w*h[i][(n-1)])+(q*h[i][n]))/x);
+                                h[(i+1)][n]=((-sa-(w*h[i][n])-(q*h[i][(n-1)]))/x);
+                            }
+                            else{
+                                divideComplex((-r-(y*h[i][(n-1)])),(-s-(y*h[i][n])),z,q,
+                                        quotient);
+                                h[(i+1)][(n-1)]=quotient[0];
+                                h[(i+1)][n]=quotient[1];
+                            }
+                        }
+
+                        // Overflow control
+                        t=Math.max(Math.abs(h[i][(n-1)]),Math.abs(h[i][n]));
+                        if(((EPSILON*t)*t)>1){
+                            for(int j=i;j<=n;j++){
+                                h[j][(n-1)]/=t;
+                                h[j][n]/=t;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        // Back transformation to get the eigenvectors of the original matrix. Eigenvector j only
+        // depends on the transformations at indexes up to j, so they are replaced from the last
+        // to the first.
+        for(int j=(nn-1);j>=0;j--){
+            double[] eigenvector=vt[j];
+            final double diagonal=h[j][j];
+            for(int i=0;i<nn;i++){
+                eigenvector[i]*=diagonal;
+            }
+            for(int k=0;k<j;k++){
+                final double factor=h[k][j];
+                if(factor!=0){
+                    double[] transformation=vt[k];
+                    for(int i=0;i<nn;i++){
+                        eigenvector[i]+=(factor*transformation[i]);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies the column modifications of a double QR step to the rows above the ones that the
+     * step itself modified, which are the rows that no later step reads. Row i is only changed
+     * by steps after i. This is done for a few rows at a time, one step after another, so that
+     * it runs along the rows instead of down the columns.
+     * @param h the upper Hessenberg matrix
+     * @param reflections the reflections of the steps, as x, y, z, q, and r for each step k
+     * @param isReflected this is true at each step k that has a reflection
+     * @param firstRow the first row that is to be modified
+     * @param m the first step
+     * @param n the last row of the unconverged block, which is one past the last step
+     */
+    private static void transformRowsAbove(double[][] h,double[] reflections,
+            boolean[] isReflected,int firstRow,int m,int n){
+        for(int blockStart=firstRow;blockStart<(n-1);blockStart+=ROW_BLOCK_SIZE){
+            final int blockEnd=Math.min((blockStart+ROW_BLOCK_SIZE),(n-1));
+            for(int k=Math.max(m,(blockStart+1));k<=(n-1);k++){
+                if(!isReflected[k]){
+                    continue;
+                }
+                final double x=reflections[(5*k)];
+                final double y=reflections[(5*k+1)];
+                final double z=reflections[(5*k+2)];
+                final double q=reflections[(5*k+3)];
+                final double r=reflections[(5*k+4)];
+                final int lastRow=Math.min(blockEnd,k);
+                if(k!=(n-1)){
+                    for(int i=blockStart;i<lastRow;i++){
+                        double[] row=h[i];
+                        final double p=((x*row[k])+(y*row[(k+1)])+(z*row[(k+2)]));
+                        row[k]-=p;
+                        row[(k+1)]-=(p*q);
+                        row[(k+2)]-=(p*r);
+                    }
+                }
+                else{
+                    for(int i=blockStart;i<lastRow;i++){
+                        double[] row=h[i];
+                        final double p=((x*row[k])+(y*row[(k+1)]));
+                        row[k]-=p;
+                        row[(k+1)]-=(p*q);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Calculates √(a²+b²) without overflowing or underflowing in the squares. This is used
+     * instead of {@link Math#hypot}, which is much slower because it is exact to the last bit.
+     */
+    private static double hypotenuse(double a,double b){
+        final double absoluteA=Math.abs(a);
+        final double absoluteB=Math.abs(b);
+        if(absoluteA>absoluteB){
+            final double ratio=(absoluteB/absoluteA);
+            return (absoluteA*Math.sqrt(1+(ratio*ratio)));
+        }
+        if(absoluteB!=0){
+            final double ratio=(absoluteA/absoluteB);
+            return (absoluteB*Math.sqrt(1+(ratio*ratio)));
+        }
+        return 0;
+    }
+
+    /**
+     * Divides one complex number by another.
+     * @param xr the real part of the dividend
+     * @param xi the imaginary part of the dividend
+     * @param yr the real part of the divisor
+     * @param yi the imaginary part of the divisor
+     * @param quotient this is filled with the real and imaginary parts of the quotient
+     */
+    private static void divideComplex(double xr,double xi,double yr,double yi,double[] quotient){
+        if(Math.abs(yr)>Math.abs(yi)){
+            double r=(yi/yr);
+            double d=(yr+(r*yi));
+            quotient[0]=((xr+(r*xi))/d);
+            quotient[1]=((xi-(r*xr))/d);
+        }
+        else{
+            double r=(yr/yi);
+            double d=(yi+(r*yr));
+            quotient[0]=(((r*xr)+xi)/d);
+            quotient[1]=(((r*xi)-xr)/d);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package LinearAlgebra.Exceptions;
 
+import LinearAlgebra.Vector;
+
 /**
  * Similarly to {@link IncompatibleMatrixMultiplicationException}, this exception is thrown when
  * two vectors of incompatible dimensions are attempted to be dot-multiplied. Two vectors are
@@ -18,4 +20,19 @@ public class IncompatibleVectorMultiplicationException extends IncompatibleMatri
     public IncompatibleVectorMultiplicationException(IncompatibleMatrixMultiplicationException e){
 
     }
+
+    /**
+     * Constructs an IncompatibleVectorMultiplicationException with a message that names the
+     * dimensions of both vectors.
+     * @param vector1 the vector that was being multiplied
+     * @param vector2 the vector by which it was being multiplied
+     */
+    public IncompatibleVectorMultiplicationException(Vector vector1,Vector vector2){
+        super("Vectors of different dimensions attempted to be dot-multiplied. A vector with " +
+                vector1.getAmountOfRows()+" entries cannot be multiplied by a vector with " +
+                vector2.getAmountOfRows()+" entries"
+        );
+        this.matrix1=vector1;
+        this.matrix2=vector2;
+    }
 }
@@ -0,0 +1,32 @@
+package LinearAlgebra.Exceptions;
+
+import LinearAlgebra.Matrix;
+
+/**
+ * This exception is thrown when an attempt is made to decompose a matrix that cannot be
+ * decomposed in the requested way. For example, only square matrices have an LU decomposition.
+ * @author Mark Angelot
+ * @since January 20, 2024
+ */
+public class UndecomposableMatrixException extends NonSquareMatrixException{
+    /**
+     * Constructs an UndecomposableMatrixException
+     */
+    public UndecomposableMatrixException(){
+        super();
+    }
+
+    /**
+     * Constructs an UndecomposableMatrixException with a message
+     * @param message the detail message. The detail message is saved for later retrieval by the
+     *                getMessage() method.
+     */
+    public UndecomposableMatrixException(String message){
+        super(message);
+    }
+
+    public UndecomposableMatrixException(Matrix matrix){
+        super("This is a " + matrix.getDimensions() +
+                " matrix so it cannot be decomposed. Only square matrices can be decomposed.");
+    }
+}
@@ -0,0 +1,302 @@
+package LinearAlgebra;
+
+import LinearAlgebra.Exceptions.UndecomposableMatrixException;
+import LinearAlgebra.Exceptions.UninvertibleMatrixException;
+
+/**
+ * This class holds the LU decomposition of a square {@link FloatMatrix}, calculated in single
+ * precision with partial pivoting the same way as {@link LUDecomposition}. Decomposing in
+ * single precision moves half as many bytes and does twice as many multiplications per vector
+ * instruction, but the factors only have the accuracy of a float. To get the accuracy of a
+ * double back from these factors, use a {@link MixedPrecisionSolver}. This class is immutable.
+ * @author Mark Angelot
+ * @since April 6, 2024
+ */
+public final class FloatLUDecomposition{
+//--Fields--//
+
+    /** This array holds L and U packed together, one row after another, the same way as in
+     * {@link LUDecomposition}. */
+    private final float[] lu;
+    /** The row at index i of the permuted matrix is the row at index {@code pivots[i]} of the
+     * original matrix. */
+    private final int[] pivots;
+    /** This is 1 if the rows were swapped an even amount of times, or -1 otherwise. */
+    private final int permutationSign;
+    /** This holds how many rows and columns are in the decomposed matrix. */
+    public final int DIMENSION;
+
+//--Constructors--//
+
+    /**
+     * Calculates the LU decomposition of a matrix of floats.
+     * @param matrix the matrix that is to be decomposed
+     * @throws UndecomposableMatrixException if the matrix is not square
+     */
+    public FloatLUDecomposition(FloatMatrix matrix) throws UndecomposableMatrixException{
+        this(matrix.AMOUNT_OF_ROWS,matrix.AMOUNT_OF_COLUMNS,matrix.ENTRIES.clone());
+    }
+
+    /**
+     * Calculates the LU decomposition of a matrix of doubles after rounding its entries to
+     * floats. This does not keep a copy of the matrix of doubles.
+     * @param matrix the matrix that is to be rounded and decomposed
+     * @throws UndecomposableMatrixException if the matrix is not square
+     */
+    public FloatLUDecomposition(Matrix matrix) throws UndecomposableMatrixException{
+        this(matrix.AMOUNT_OF_ROWS,matrix.AMOUNT_OF_COLUMNS,new FloatMatrix(matrix).ENTRIES);
+    }
+
+    /**
+     * Decomposes the passed entries in place.
+     */
+    private FloatLUDecomposition(int rows,int columns,float[] entries)
+            throws UndecomposableMatrixException{
+        if(rows!=columns){
+            throw new UndecomposableMatrixException("This is a "+rows+"×"+columns+" matrix so "+
+                    "it cannot be decomposed. Only square matrices can be decomposed.");
+        }
+        final int n=rows;
+        DIMENSION=n;
+        lu=entries;
+        pivots=new int[n];
+        for(int i=0;i<n;i++){
+            pivots[i]=i;
+        }
+
+        int sign=1;
+        for(int column=0;column<n;column++){
+            int pivotRow=column;
+            for(int row=(column+1);row<n;row++){
+                if(Math.abs(lu[(row*n+column)])>Math.abs(lu[(pivotRow*n+column)])){
+                    pivotRow=row;
+                }
+            }
+            if(pivotRow!=column){
+                FloatMatrix.swapRows(lu,n,pivotRow,column);
+                int temp=pivots[pivotRow];
+                pivots[pivotRow]=pivots[column];
+                pivots[column]=temp;
+                sign=-sign;
+            }
+
+            final int pivotOffset=(column*n);
+            final float pivot=lu[(pivotOffset+column)];
+            if(pivot==0){
+                // The whole column is 0 from here down, so there is nothing to eliminate
+                continue;
+            }
+            for(int row=(column+1);row<n;row++){
+                final int rowOffset=(row*n);
+                final float multiplier=(lu[(rowOffset+column)]/pivot);
+                lu[(rowOffset+column)]=multiplier;
+                if(multiplier!=0){
+                    ArrayKernels.axpy(-multiplier,lu,(pivotOffset+column+1),
+                            lu,(rowOffset+column+1),(n-column-1));
+                }
+            }
+        }
+        permutationSign=sign;
+    }
+
+//--Getters--//
+
+    /**
+     * @return the lower triangular factor L, which has 1s on its main diagonal
+     */
+    public FloatMatrix getL(){
+        final int n=DIMENSION;
+        float[] l=new float[(n*n)];
+        for(int row=0;row<n;row++){
+            System.arraycopy(lu,(row*n),l,(row*n),row);
+            l[(row*n+row)]=1f;
+        }
+        return new FloatMatrix(n,n,l);
+    }
+
+    /**
+     * @return the upper triangular factor U
+     */
+    public FloatMatrix getU(){
+        final int n=DIMENSION;
+        float[] u=new float[(n*n)];
+        for(int row=0;row<n;row++){
+            System.arraycopy(lu,(row*n+row),u,(row*n+row),(n-row));
+        }
+        return new FloatMatrix(n,n,u);
+    }
+
+    /**
+     * @return an array in which the entry at index i is the index of the row in the original
+     * matrix that was moved to row i
+     */
+    public int[] getPivots(){
+        return pivots.clone();
+    }
+
+//--Properties--//
+
+    /**
+     * @return true if a pivot of the decomposition is exactly 0, or false otherwise. A matrix of
+     * doubles that is nearly singular can become exactly singular once it is rounded to floats.
+     */
+    public boolean isSingular(){
+        for(int i=0;i<DIMENSION;i++){
+            if(lu[(i*DIMENSION+i)]==0){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Calculates and returns the determinant of the decomposed matrix. The pivots are multiplied
+     * together in double precision.
+     * @return the determinant of the decomposed matrix
+     */
+    public double determinant(){
+        double determinant=permutationSign;
+        for(int i=0;i<DIMENSION;i++){
+            determinant*=lu[(i*DIMENSION+i)];
+        }
+        return determinant;
+    }
+
+//--Solving--//
+
+    /**
+     * Solves the system A·x=b in single precision, where A is the decomposed matrix. The entries
+     * of b are rounded to floats first, and the entries of the solution are widened back to
+     * doubles.
+     * @param vector the right-hand side b of the system
+     * @return the solution x of the system
+     * @throws IllegalArgumentException if the height of the vector does not match the dimension
+     * of the decomposed matrix
+     * @throws UninvertibleMatrixException if the decomposed matrix is singular
+     */
+    public Vector solve(Vector vector) throws UninvertibleMatrixException{
+        checkHeight(vector.AMOUNT_OF_ROWS);
+        final int n=DIMENSION;
+        float[] solution=new float[n];
+        for(int i=0;i<n;i++){
+            solution[i]=(float)vector.getEntry(pivots[i]);
+        }
+        solveInPlace(solution,1);
+        double[] entries=new double[n];
+        for(int i=0;i<n;i++){
+            entries[i]=solution[i];
+        }
+        return new Vector(n,entries,0,1);
+    }
+
+    /**
+     * Solves the system A·X=B, where A is the decomposed matrix, for every column of B at once.
+     * @param matrix the right-hand side B of the system
+     * @return the solution X of the system, which has the same size as B
+     * @throws IllegalArgumentException if the amount of rows in the matrix does not match the
+     * dimension of the decomposed matrix
+     * @throws UninvertibleMatrixException if the decomposed matrix is singular
+     */
+    public FloatMatrix solve(FloatMatrix matrix) throws UninvertibleMatrixException{
+        checkHeight(matrix.AMOUNT_OF_ROWS);
+        final int n=DIMENSION;
+        final int columns=matrix.AMOUNT_OF_COLUMNS;
+        float[] solution=new float[(n*columns)];
+        for(int i=0;i<n;i++){
+            System.arraycopy(matrix.ENTRIES,(pivots[i]*columns),solution,(i*columns),columns);
+        }
+        solveInPlace(solution,columns);
+        return new FloatMatrix(n,columns,solution);
+    }
+
+    /**
+     * Calculates and returns the inverse of the decomposed matrix by solving A·X=I.
+     * @return the inverse of the decomposed matrix
+     * @throws UninvertibleMatrixException if the decomposed matrix is singular
+     */
+    public FloatMatrix inverse() throws UninvertibleMatrixException{
+        final int n=DIMENSION;
+        float[] inverse=new float[(n*n)];
+        for(int i=0;i<n;i++){
+            inverse[(i*n+pivots[i])]=1f;
+        }
+        solveInPlace(inverse,n);
+        return new FloatMatrix(n,n,inverse);
+    }
+
+    /**
+     * Solves the system for a single right-hand side of doubles, as
+     * {@link MixedPrecisionSolver} does for every correction. The right-hand side is permuted
+     * and rounded into {@code workspace}, which holds the solution afterward.
+     * @param b the right-hand side, which is not changed
+     * @param scale the factor by which each entry of b is multiplied before it is rounded
+     * @param workspace an array with {@link #DIMENSION} entries
+     * @throws UninvertibleMatrixException if the decomposed matrix is singular
+     */
+    void solve(double[] b,double scale,float[] workspace) throws UninvertibleMatrixException{
+        for(int i=0;i<DIMENSION;i++){
+            workspace[i]=(float)(scale*b[pivots[i]]);
+        }
+        solveInPlace(workspace,1);
+    }
+
+    /**
+     * Solves L·U·X=B in place, where the rows of B have already been permuted, the same way as
+     * {@link LUDecomposition}.
+     * @param b the permuted right-hand side, which is replaced by the solution
+     * @param columns the amount of columns in B
+     * @throws UninvertibleMatrixException if the decomposed matrix is singular
+     */
+    private void solveInPlace(float[] b,int columns) throws UninvertibleMatrixException{
+        if(isSingular()){
+            throw new UninvertibleMatrixException("The matrix is singular in single precision, "+
+                    "so the system does not have a unique solution");
+        }
+        final int n=DIMENSION;
+        if(columns==1){
+            // With one column, each row of the substitution is a dot product with a row of lu
+            for(int row=1;row<n;row++){
+                b[row]-=ArrayKernels.dot(lu,(row*n),b,0,row);
+            }
+            for(int row=(n-1);row>=0;row--){
+                final int luOffset=(row*n);
+                b[row]=((b[row]-ArrayKernels.dot(lu,(luOffset+row+1),b,(row+1),(n-row-1)))/
+                        lu[(luOffset+row)]);
+            }
+            return;
+        }
+        // Forward substitution with L, whose main diagonal is all 1s
+        for(int row=1;row<n;row++){
+            final int luOffset=(row*n);
+            final int rowOffset=(row*columns);
+            for(int k=0;k<row;k++){
+                final float multiplier=lu[(luOffset+k)];
+                if(multiplier!=0){
+                    ArrayKernels.axpy(-multiplier,b,(k*columns),b,rowOffset,columns);
+                }
+            }
+        }
+        // Back substitution with U
+        for(int row=(n-1);row>=0;row--){
+            final int luOffset=(row*n);
+            final int rowOffset=(row*columns);
+            for(int k=(row+1);k<n;k++){
+                final float multiplier=lu[(luOffset+k)];
+                if(multiplier!=0){
+                    ArrayKernels.axpy(-multiplier,b,(k*columns),b,rowOffset,columns);
+                }
+            }
+            final float reciprocal=(1f/lu[(luOffset+row)]);
+            for(int i=rowOffset;i<(rowOffset+columns);i++){
+                b[i]*=reciprocal;
+            }
+        }
+    }
+
+    private void checkHeight(int rows){
+        if(rows!=DIMENSION){
+            throw new IllegalArgumentException("A system with a "+DIMENSION+"×"+DIMENSION+
+                    " matrix cannot be solved for a right-hand side with "+rows+" rows");
+        }
+    }
+}
@@ -0,0 +1,445 @@
+package LinearAlgebra;
+
+import LinearAlgebra.Exceptions.IncompatibleMatrixMultiplicationException;
+import LinearAlgebra.Exceptions.IndeterminableMatrixException;
+import LinearAlgebra.Exceptions.UndecomposableMatrixException;
+import LinearAlgebra.Exceptions.UninvertibleMatrixException;
+
+/**
+ * This class represents a matrix whose entries are single-precision floats instead of doubles.
+ * A float takes half the memory of a double, so the operations that spend most of their time
+ * waiting for memory, such as multiplication, can read twice as many entries in the same time,
+ * and a vector register holds twice as many floats as doubles. In return, a float only has about
+ * 7 significant digits instead of about 16, so this class is meant for data that is not known
+ * more precisely than that, or for the inner work of a calculation that corrects its own
+ * rounding errors, like {@link MixedPrecisionSolver}.<br />
+ * The entries are stored one row after another. Like {@link Matrix}, this class is immutable,
+ * so any operations done with this matrix create and return a new matrix.
+ * @author Mark Angelot
+ * @since April 6, 2024
+ */
+public final class FloatMatrix implements LinearOperator{
+//--Fields--//
+
+    /** This array contains the entries of the matrix, one row after another. The entry at
+     * (row, column) is at index {@code row*AMOUNT_OF_COLUMNS+column}. */
+    final float[] ENTRIES;
+    /** This holds how many rows are in the matrix. */
+    public final int AMOUNT_OF_ROWS;
+    /** This holds how many columns are in the matrix. */
+    public final int AMOUNT_OF_COLUMNS;
+
+//--Constructors--//
+
+    /**
+     * Constructs a matrix of 0s with the specified size.
+     * @param rows the amount of rows in the matrix
+     * @param columns the amount of columns in the matrix
+     * @throws IllegalArgumentException if {@code rows} or {@code columns} is negative or zero
+     */
+    public FloatMatrix(int rows,int columns){
+        this(rows,columns,new float[checkedSize(rows,columns)]);
+    }
+
+    /**
+     * Constructs a matrix with the entries in a two-dimensional array.
+     * @param entries the entries of the matrix, one row after another. Every row must have the
+     *                same length.
+     * @throws IllegalArgumentException if the array is empty or its rows have different lengths
+     */
+    public FloatMatrix(float[][] entries){
+        this(entries.length,((entries.length==0)?0:entries[0].length),
+                new float[checkedSize(entries.length,((entries.length==0)?0:entries[0].length))]);
+        for(int row=0;row<AMOUNT_OF_ROWS;row++){
+            if(entries[row].length!=AMOUNT_OF_COLUMNS){
+                throw new IllegalArgumentException("Row "+row+" has "+entries[row].length+
+                        " entries, but row 0 has "+AMOUNT_OF_COLUMNS);
+            }
+            System.arraycopy(entries[row],0,ENTRIES,(row*AMOUNT_OF_COLUMNS),AMOUNT_OF_COLUMNS);
+        }
+    }
+
+    /**
+     * Constructs a matrix whose entries are the entries of a matrix of doubles, each rounded to
+     * the nearest float. Entries beyond the range of a float become infinite.
+     * @param matrix the matrix whose entries are to be rounded
+     */
+    public FloatMatrix(Matrix matrix){
+        this(matrix.AMOUNT_OF_ROWS,matrix.AMOUNT_OF_COLUMNS,
+                new float[(matrix.AMOUNT_OF_ROWS*matrix.AMOUNT_OF_COLUMNS)]);
+        double[] entries=matrix.denseEntries(false);
+        for(int i=0;i<ENTRIES.length;i++){
+            ENTRIES[i]=(float)entries[i];
+        }
+    }
+
+    /**
+     * Constructs a matrix that uses the passed array as its entries. The array is not copied, so
+     * it must not be changed afterward.
+     */
+    FloatMatrix(int rows,int columns,float[] entries){
+        AMOUNT_OF_ROWS=rows;
+        AMOUNT_OF_COLUMNS=columns;
+        ENTRIES=entries;
+    }
+
+    private static int checkedSize(int rows,int columns){
+        if(rows<=0 || columns<=0){
+            throw new IllegalArgumentException("A matrix must have at least one row and one "+
+                    "column, but "+rows+"×"+columns+" was requested");
+        }
+        final long size=((long)rows*columns);
+        if(size>Integer.MAX_VALUE){
+            throw new IllegalArgumentException("A "+rows+"×"+columns+" matrix has too many "+
+                    "entries to be stored in one array");
+        }
+        return (int)size;
+    }
+
+//--Getters--//
+
+    /**
+     * @param row the index of the row of the entry
+     * @param column the index of the column of the entry
+     * @return the entry at the passed row and column
+     */
+    public float getEntry(int row,int column){
+        if(row<0 || row>=AMOUNT_OF_ROWS || column<0 || column>=AMOUNT_OF_COLUMNS){
+            throw new IndexOutOfBoundsException("("+row+", "+column+") is not in a "+
+                    getDimensions()+" matrix");
+        }
+        return ENTRIES[(row*AMOUNT_OF_COLUMNS+column)];
+    }
+
+    /**
+     * @return a copy of the entries of this matrix, one row after another
+     */
+    public float[] getEntries(){
+        return ENTRIES.clone();
+    }
+
+    @Override
+    public int getAmountOfRows(){
+        return AMOUNT_OF_ROWS;
+    }
+
+    @Override
+    public int getAmountOfColumns(){
+        return AMOUNT_OF_COLUMNS;
+    }
+
+    /**
+     * @return the dimensions of this matrix in an "m×n" format (where m is the amount of rows
+     * and n is the amount of columns)
+     */
+    public String getDimensions(){
+        return ""+AMOUNT_OF_ROWS+'×'+AMOUNT_OF_COLUMNS;
+    }
+
+    /**
+     * Converts this matrix to a matrix of doubles. Every float can be written exactly as a
+     * double, so this does not change any entries.
+     * @return a matrix of doubles with the same entries as this matrix
+     */
+    public Matrix toMatrix(){
+        double[] entries=new double[ENTRIES.length];
+        for(int i=0;i<entries.length;i++){
+            entries[i]=ENTRIES[i];
+        }
+        return new Matrix(AMOUNT_OF_ROWS,AMOUNT_OF_COLUMNS,Matrix.DEFAULT_AUGMENT_INDEX,entries);
+    }
+
+//--Overridden Methods--//
+
+    /**
+     * Two matrices are equal if they have the same dimensions and the entries in matching rows
+     * and columns are equal.
+     * @param otherMatrix the matrix to be compared to this matrix
+     * @return true if this matrix is equal to {@code otherMatrix} or false otherwise
+     */
+    public boolean equals(FloatMatrix otherMatrix){
+        if(this.AMOUNT_OF_ROWS!=otherMatrix.AMOUNT_OF_ROWS ||
+           this.AMOUNT_OF_COLUMNS!=otherMatrix.AMOUNT_OF_COLUMNS
+        ){
+            return false;
+        }
+        for(int i=0;i<ENTRIES.length;i++){
+            if(this.ENTRIES[i]!=otherMatrix.ENTRIES[i]){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns a string where all the entries are written in order, from the first row to the
+     * last row, in the same format as {@link Matrix#toString()}.
+     * @return the matrix in block form
+     */
+    @Override
+    public String toString(){
+        StringBuilder toString=new StringBuilder();
+        for(int row=0;row<AMOUNT_OF_ROWS;row++){
+            for(int column=0;column<AMOUNT_OF_COLUMNS;column++){
+                toString.append(' ').append(ENTRIES[(row*AMOUNT_OF_COLUMNS+column)]);
+            }
+            toString.append('\n');
+        }
+        toString.deleteCharAt(toString.length()-1); // to remove the last '\n'
+        return toString.toString();
+    }
+
+//--Properties--//
+
+    /**
+     * A matrix is square if it has the same number of rows and columns.
+     * @return true if this matrix is square, or false otherwise
+     */
+    public boolean isSquare(){
+        return (AMOUNT_OF_ROWS==AMOUNT_OF_COLUMNS);
+    }
+
+    /**
+     * Calculates and returns the determinant of this matrix using a
+     * {@link FloatLUDecomposition}. The product of the pivots is taken in double precision, so it
+     * does not overflow as soon as a product of floats would.
+     * @return the determinant of this matrix
+     * @throws IndeterminableMatrixException if this matrix is not square
+     */
+    public double determinant() throws IndeterminableMatrixException{
+        if(!isSquare()){
+            throw new IndeterminableMatrixException("This is a "+getDimensions()+" matrix, so "+
+                    "it does not have a determinant. Only square matrices have determinants.");
+        }
+        return luDecomposition().determinant();
+    }
+
+    private FloatLUDecomposition luDecomposition(){
+        try{
+            return new FloatLUDecomposition(this);
+        }
+        catch(UndecomposableMatrixException e){
+            // This is only called after checking that this matrix is square
+            throw new IllegalStateException(e);
+        }
+    }
+
+//--Operations--//
+
+    /**
+     * Creates and returns the transpose of this matrix. Unlike {@link Matrix#transpose()}, this
+     * copies the entries, in square tiles so that neither matrix is walked down a column for
+     * long.
+     * @return the transpose of this matrix
+     */
+    public FloatMatrix transpose(){
+        final int rows=AMOUNT_OF_ROWS;
+        final int columns=AMOUNT_OF_COLUMNS;
+        final int tile=32;
+        float[] transpose=new float[ENTRIES.length];
+        for(int rowStart=0;rowStart<rows;rowStart+=tile){
+            final int rowEnd=Math.min((rowStart+tile),rows);
+            for(int columnStart=0;columnStart<columns;columnStart+=tile){
+                final int columnEnd=Math.min((columnStart+tile),columns);
+                for(int row=rowStart;row<rowEnd;row++){
+                    for(int column=columnStart;column<columnEnd;column++){
+                        transpose[(column*rows+row)]=ENTRIES[(row*columns+column)];
+                    }
+                }
+            }
+        }
+        return new FloatMatrix(columns,rows,transpose);
+    }
+
+    /**
+     * Creates and returns a matrix which is the sum of this matrix and another matrix
+     * @param matrix the matrix that is to be added to this matrix
+     * @return a matrix which is the sum of this matrix and another matrix
+     * @throws IllegalArgumentException if the matrices have different dimensions
+     */
+    public FloatMatrix plus(FloatMatrix matrix){
+        checkSameDimensions(matrix);
+        float[] sum=ENTRIES.clone();
+        ArrayKernels.axpy(1f,matrix.ENTRIES,0,sum,0,sum.length);
+        return new FloatMatrix(AMOUNT_OF_ROWS,AMOUNT_OF_COLUMNS,sum);
+    }
+
+    /**
+     * Creates and returns a matrix which is the difference of this matrix and another matrix
+     * @param matrix the matrix that is to be subtracted from this matrix
+     * @return a matrix which is the difference of this matrix and another matrix
+     * @throws IllegalArgumentException if the matrices have different dimensions
+     */
+    public FloatMatrix minus(FloatMatrix matrix){
+        checkSameDimensions(matrix);
+        float[] difference=ENTRIES.clone();
+        ArrayKernels.axpy(-1f,matrix.ENTRIES,0,difference,0,difference.length);
+        return new FloatMatrix(AMOUNT_OF_ROWS,AMOUNT_OF_COLUMNS,difference);
+    }
+
+    /**
+     * Creates and returns a matrix whose entries are the entries of this matrix multiplied by a
+     * number
+     * @param scalar the number by which every entry is to be multiplied
+     * @return a matrix which is this matrix multiplied by the passed number
+     */
+    public FloatMatrix scaledBy(float scalar){
+        float[] scaled=new float[ENTRIES.length];
+        ArrayKernels.axpy(scalar,ENTRIES,0,scaled,0,scaled.length);
+        return new FloatMatrix(AMOUNT_OF_ROWS,AMOUNT_OF_COLUMNS,scaled);
+    }
+
+    private void checkSameDimensions(FloatMatrix matrix){
+        if(AMOUNT_OF_ROWS!=matrix.AMOUNT_OF_ROWS || AMOUNT_OF_COLUMNS!=matrix.AMOUNT_OF_COLUMNS){
+            throw new IllegalArgumentException("A "+getDimensions()+" matrix cannot be added to "+
+                    "a "+matrix.getDimensions()+" matrix");
+        }
+    }
+
+    /**
+     * Creates and returns the product of this matrix and another matrix. The
+     * {@link ParallelismPolicy#getDefault() default parallelism policy} decides whether the
+     * product is calculated in parallel.
+     * @param matrix the matrix by which this matrix is to be multiplied
+     * @return the product of this matrix and the passed matrix
+     * @throws IncompatibleMatrixMultiplicationException if the amount of columns in this matrix
+     * does not match the amount of rows in the passed matrix
+     */
+    public FloatMatrix dotProduct(FloatMatrix matrix)
+            throws IncompatibleMatrixMultiplicationException{
+        return dotProduct(matrix,ParallelismPolicy.getDefault());
+    }
+
+    /**
+     * Creates and returns the product of this matrix and another matrix. Each entry of the
+     * product is added up in single precision, so its rounding error grows with the amount of
+     * columns in this matrix about as fast as the rounding error of {@link Matrix#dotProduct}
+     * does, but starting from the precision of a float.
+     * @param matrix the matrix by which this matrix is to be multiplied
+     * @param policy decides whether the product is calculated in parallel
+     * @return the product of this matrix and the passed matrix
+     * @throws IncompatibleMatrixMultiplicationException if the amount of columns in this matrix
+     * does not match the amount of rows in the passed matrix
+     */
+    public FloatMatrix dotProduct(FloatMatrix matrix,ParallelismPolicy policy)
+            throws IncompatibleMatrixMultiplicationException{
+        if(AMOUNT_OF_COLUMNS!=matrix.AMOUNT_OF_ROWS){
+            throw new IncompatibleMatrixMultiplicationException("Matrices of incompatible "+
+                    "dimensions attempted to be multiplied. A "+getDimensions()+" matrix cannot "+
+                    "be multiplied by a "+matrix.getDimensions()+" matrix. The amount of columns "+
+                    "in the first matrix must match the amount of rows in the second matrix");
+        }
+        float[] product=MultiplicationKernel.multiply(ENTRIES,AMOUNT_OF_ROWS,AMOUNT_OF_COLUMNS,
+                matrix.ENTRIES,matrix.AMOUNT_OF_COLUMNS,policy);
+        return new FloatMatrix(AMOUNT_OF_ROWS,matrix.AMOUNT_OF_COLUMNS,product);
+    }
+
+    /**
+     * Multiplies a vector of doubles by this matrix without creating any objects, for use by the
+     * iterative solvers. The entries of this matrix are widened to doubles and the sums are
+     * added up in double precision, so only the rounding of the entries themselves is lost.
+     * @param vector the entries of the vector that is to be multiplied
+     * @param product the array into which the product is written
+     */
+    @Override
+    public void apply(double[] vector,double[] product){
+        for(int row=0;row<AMOUNT_OF_ROWS;row++){
+            final int offset=(row*AMOUNT_OF_COLUMNS);
+            double sum0=0,sum1=0;
+            int column=0;
+            for(;column+1<AMOUNT_OF_COLUMNS;column+=2){
+                sum0+=(ENTRIES[(offset+column)]*vector[column]);
+                sum1+=(ENTRIES[(offset+column+1)]*vector[(column+1)]);
+            }
+            if(column<AMOUNT_OF_COLUMNS){
+                sum0+=(ENTRIES[(offset+column)]*vector[column]);
+            }
+            product[row]=(sum0+sum1);
+        }
+    }
+
+//--Solving--//
+
+    /**
+     * Reduces this matrix to reduced row echelon form with Gauss-Jordan elimination and partial
+     * pivoting, the same way as {@link Matrix#solveWithGaussianElimination()}, but in single
+     * precision. Entries within a few float rounding errors of 0 are not used as pivots.
+     * @return a congruent matrix that has been reduced using Gaussian Elimination
+     */
+    public FloatMatrix solveWithGaussianElimination(){
+        final int rows=AMOUNT_OF_ROWS;
+        final int columns=AMOUNT_OF_COLUMNS;
+        float[] entries=ENTRIES.clone();
+        float greatestMagnitude=0;
+        for(float entry:entries){
+            greatestMagnitude=Math.max(greatestMagnitude,Math.abs(entry));
+        }
+        final float tolerance=(Math.ulp(1f)*Math.max(rows,columns)*greatestMagnitude);
+
+        int pivotRow=0;
+        for(int column=0;column<columns && pivotRow<rows;column++){
+            int greatestRow=pivotRow;
+            for(int row=(pivotRow+1);row<rows;row++){
+                if(Math.abs(entries[(row*columns+column)])>
+                   Math.abs(entries[(greatestRow*columns+column)])){
+                    greatestRow=row;
+                }
+            }
+            if(Math.abs(entries[(greatestRow*columns+column)])<=tolerance){
+                // There is no pivot in this column, so it is cleared and the next column is tried
+                for(int row=pivotRow;row<rows;row++){
+                    entries[(row*columns+column)]=0;
+                }
+                continue;
+            }
+            swapRows(entries,columns,pivotRow,greatestRow);
+
+            final int pivotOffset=(pivotRow*columns);
+            final float reciprocal=(1f/entries[(pivotOffset+column)]);
+            for(int i=(pivotOffset+column+1);i<(pivotOffset+columns);i++){
+                entries[i]*=reciprocal;
+            }
+            entries[(pivotOffset+column)]=1; // this avoids a rounding error in the pivot itself
+
+            for(int row=0;row<rows;row++){
+                final int rowOffset=(row*columns);
+                final float entry=entries[(rowOffset+column)];
+                if(row!=pivotRow && entry!=0){
+                    ArrayKernels.axpy(-entry,entries,(pivotOffset+column+1),
+                            entries,(rowOffset+column+1),(columns-column-1));
+                    entries[(rowOffset+column)]=0;
+                }
+            }
+            pivotRow++;
+        }
+        return new FloatMatrix(rows,columns,entries);
+    }
+
+    static void swapRows(float[] entries,int columns,int row1,int row2){
+        if(row1==row2){
+            return;
+        }
+        final int offset1=(row1*columns);
+        final int offset2=(row2*columns);
+        for(int column=0;column<columns;column++){
+            float temp=entries[(offset1+column)];
+            entries[(offset1+column)]=entries[(offset2+column)];
+            entries[(offset2+column)]=temp;
+        }
+    }
+
+    /**
+     * Calculates and returns the inverse of this matrix using a {@link FloatLUDecomposition}.
+     * The inverse is only as accurate as single precision allows, which for a matrix with a
+     * condition number of about 10⁴ already leaves only about 3 correct digits.
+     * @return the inverse of this matrix
+     * @throws UninvertibleMatrixException if this matrix is not square or is singular
+     */
+    public FloatMatrix inverse() throws UninvertibleMatrixException{
+        if(!isSquare()){
+            throw new UninvertibleMatrixException("This is a "+getDimensions()+" matrix, so "+
+                    "it cannot be inverted. Only square matrices can be inverted.");
+        }
+        return luDecomposition().inverse();
+    }
+}
@@ -0,0 +1,141 @@
+package LinearAlgebra;
+
+import java.util.Arrays;
+
+/**
+ * This solver uses the restarted generalized minimal residual method, GMRES(m), which solves
+ * systems with any invertible matrix. Each iteration adds a vector to an orthonormal basis of
+ * the Krylov subspace (built with modified Gram-Schmidt), and the solution is the vector in that
+ * subspace with the smallest residual, so the residual never goes up. The least-squares problem
+ * for that vector is kept in triangular form with Givens rotations, so the residual is known
+ * after every iteration without calculating the solution.<br />
+ * The basis takes one vector of memory per iteration, and each iteration takes longer than the
+ * one before it, so after {@link #getRestart() m} iterations the solution is calculated and the
+ * method starts over from it. A larger restart length usually means fewer iterations but more
+ * memory. The preconditioner is applied on the right, so the residual that is checked against
+ * the tolerance is the residual of the original system.
+ * @author Mark Angelot
+ * @since March 2, 2024
+ */
+public class GMRESSolver extends IterativeSolver{
+    /** This is the restart length of a solver that is constructed without one. */
+    public static final int DEFAULT_RESTART=30;
+
+    /** This is how many iterations are performed before the method restarts. */
+    private final int RESTART;
+
+    /**
+     * Constructs a GMRES solver that restarts every {@value #DEFAULT_RESTART} iterations, with the
+     * default tolerance, the default maximum amount of iterations, and no preconditioner.
+     */
+    public GMRESSolver(){
+        this(DEFAULT_RESTART);
+    }
+
+    /**
+     * Constructs a GMRES solver with the passed restart length, the default tolerance, the
+     * default maximum amount of iterations, and no preconditioner.
+     * @param restart how many iterations are performed before the method restarts
+     * @throws IllegalArgumentException if {@code restart} is less than 1
+     */
+    public GMRESSolver(int restart){
+        if(restart<1){
+            throw new IllegalArgumentException("Restart length must be at least 1");
+        }
+        RESTART=restart;
+    }
+
+    /**
+     * @return how many iterations are performed before the method restarts
+     */
+    public int getRestart(){
+        return RESTART;
+    }
+
+    @Override
+    IterativeSolution iterate(LinearOperator operator,double[] b,double[] x,double lengthOfB){
+        final int n=b.length;
+        final int m=Math.min(RESTART,n);
+        final double target=(getTolerance()*lengthOfB);
+        final Preconditioner preconditioner=getPreconditioner();
+        // The basis vectors and the rows of the Hessenberg matrix are separate arrays, so each
+        // one is contiguous
+        double[][] basis=new double[(m+1)][n];
+        double[][] hessenberg=new double[(m+1)][m];
+        double[] cosines=new double[m];
+        double[] sines=new double[m];
+        double[] g=new double[(m+1)];
+        double[] y=new double[m];
+        double[] w=new double[n];
+        double[] preconditioned=new double[n];
+
+        int iteration=0;
+        double residual=residual(operator,b,x,basis[0]);
+        while(residual>target && iteration<getMaximumIterations()){
+            ArrayKernels.scale(basis[0],0,(1/residual),basis[0],0,n);
+            Arrays.fill(g,0);
+            g[0]=residual;
+            int size=0;
+            while(size<m && iteration<getMaximumIterations()){
+                final int j=size;
+                iteration++;
+                size++;
+                preconditioner.apply(basis[j],preconditioned);
+                operator.apply(preconditioned,w);
+                for(int i=0;i<=j;i++){
+                    final double h=ArrayKernels.dot(w,0,basis[i],0,n);
+                    hessenberg[i][j]=h;
+                    ArrayKernels.axpy(-h,basis[i],0,w,0,n);
+                }
+                final double lengthOfW=Math.sqrt(ArrayKernels.sumOfSquares(w,0,n));
+                hessenberg[(j+1)][j]=lengthOfW;
+                if(lengthOfW!=0){
+                    ArrayKernels.scale(w,0,(1/lengthOfW),basis[(j+1)],0,n);
+                }
+
+                // Apply the earlier rotations to the new column, then find the rotation that
+                // removes its entry below the diagonal
+                for(int i=0;i<j;i++){
+                    final double upper=hessenberg[i][j];
+                    final double lower=hessenberg[(i+1)][j];
+                    hessenberg[i][j]=(cosines[i]*upper+sines[i]*lower);
+                    hessenberg[(i+1)][j]=(-sines[i]*upper+cosines[i]*lower);
+                }
+                final double diagonal=hessenberg[j][j];
+                final double below=hessenberg[(j+1)][j];
+                final double radius=Math.hypot(diagonal,below);
+                cosines[j]=(radius==0)?1:(diagonal/radius);
+                sines[j]=(radius==0)?0:(below/radius);
+                hessenberg[j][j]=radius;
+                hessenberg[(j+1)][j]=0;
+                g[(j+1)]=(-sines[j]*g[j]);
+                g[j]=(cosines[j]*g[j]);
+                residual=Math.abs(g[(j+1)]);
+                report(iteration,(residual/lengthOfB));
+                if(residual<=target || lengthOfW==0){
+                    break;
+                }
+            }
+
+            // Solve the triangular system for the coefficients of the basis vectors, and add
+            // their combination to x through the preconditioner
+            for(int i=size-1;i>=0;i--){
+                double sum=g[i];
+                for(int k=i+1;k<size;k++){
+                    sum-=(hessenberg[i][k]*y[k]);
+                }
+                y[i]=(hessenberg[i][i]==0)?0:(sum/hessenberg[i][i]);
+            }
+            Arrays.fill(w,0);
+            for(int i=0;i<size;i++){
+                ArrayKernels.axpy(y[i],basis[i],0,w,0,n);
+            }
+            preconditioner.apply(w,preconditioned);
+            ArrayKernels.axpy(1,preconditioned,0,x,0,n);
+            // The true residual starts the next cycle, and replaces the estimate if this was the
+            // last one
+            residual=residual(operator,b,x,basis[0]);
+        }
+        return new IterativeSolution(x,iteration,(residual/lengthOfB),(residual<=target));
+    }
+}
@@ -0,0 +1,39 @@
+package LinearAlgebra;
+
+import LinearAlgebra.Exceptions.UndecomposableMatrixException;
+
+/**
+ * This preconditioner is the incomplete LU factorization with no fill-in, ILU(0), of a sparse
+ * matrix. Its factors L and U have stored entries only where the matrix does, so they take no
+ * more memory than the matrix itself, and applying the preconditioner is one forward and one back
+ * substitution, which takes about as long as multiplying the matrix by a vector. It usually
+ * reduces the amount of iterations much more than a {@link JacobiPreconditioner}.<br />
+ * If the matrix is symmetric, U is the diagonal of U times the transpose of L, so this
+ * preconditioner is symmetric as well (it is the incomplete Cholesky factorization with no
+ * fill-in) and it can be used with {@link ConjugateGradientSolver} as long as the diagonal of U
+ * is positive.
+ * @author Mark Angelot
+ * @since March 2, 2024
+ */
+public class ILUPreconditioner implements Preconditioner{
+    /** This matrix holds the strictly lower triangle of L and the upper triangle of U, in CSR
+     * layout. */
+    private final SparseMatrix FACTORS;
+
+    /**
+     * Calculates the ILU(0) factorization of a sparse matrix.
+     * @param matrix the square matrix that is to be factorized
+     * @throws UndecomposableMatrixException if the matrix is not square, or if a diagonal entry
+     * is not stored or becomes 0 during the factorization
+     */
+    public ILUPreconditioner(SparseMatrix matrix) throws UndecomposableMatrixException{
+        FACTORS=matrix.incompleteLU();
+    }
+
+    @Override
+    public void apply(double[] residual,double[] result){
+        System.arraycopy(residual,0,result,0,FACTORS.AMOUNT_OF_ROWS);
+        FACTORS.substitute(result,true,true);
+        FACTORS.substitute(result,false,false);
+    }
+}
@@ -0,0 +1,110 @@
+package LinearAlgebra;
+
+import LinearAlgebra.Exceptions.IncompatibleMatrixMultiplicationException;
+
+import java.util.Arrays;
+
+/**
+ * This class represents an identity matrix, which is a diagonal matrix with ones on its main
+ * diagonal. Multiplying a matrix by an identity matrix on either side gives back the same
+ * matrix, so the products here return the other matrix without copying it, and an identity
+ * matrix is its own inverse. Unlike {@link Matrix#generateIdentityMatrix(int)}, this does not
+ * store the n² zeroes of the matrix.
+ * @author Mark Angelot
+ * @since May 18, 2024
+ */
+public final class IdentityMatrix extends DiagonalMatrix{
+//--Constructors--//
+
+    /**
+     * Constructs an identity matrix of the passed size.
+     * @param dimension the amount of rows and columns in the matrix
+     * @throws IllegalArgumentException if the dimension is less than 1
+     */
+    public IdentityMatrix(int dimension){
+        super(dimension,ones(dimension));
+    }
+
+    private static double[] ones(int dimension){
+        double[] ones=new double[Math.max(dimension,0)];
+        Arrays.fill(ones,1.0);
+        return ones;
+    }
+
+//--Getters--//
+
+    @Override
+    public String toString(){
+        return "Identity "+getDimensions()+" matrix";
+    }
+
+    @Override
+    public Matrix toMatrix(){
+        return Matrix.generateIdentityMatrix(DIMENSION);
+    }
+
+//--Properties--//
+
+    /**
+     * @return 1, which is the determinant of every identity matrix
+     */
+    @Override
+    public double determinant(){
+        return 1;
+    }
+
+    /**
+     * @return this matrix, which is its own inverse
+     */
+    @Override
+    public IdentityMatrix inverse(){
+        return this;
+    }
+
+//--Multiplication--//
+
+    /**
+     * @param matrix the diagonal matrix by which this matrix is to be multiplied
+     * @return the passed matrix, which is the product
+     * @throws IncompatibleMatrixMultiplicationException if the two matrices do not have the same
+     * size
+     */
+    @Override
+    public DiagonalMatrix dotProduct(DiagonalMatrix matrix)
+            throws IncompatibleMatrixMultiplicationException{
+        checkCanMultiply(matrix.DIMENSION,matrix.getDimensions());
+        return matrix;
+    }
+
+    @Override
+    Matrix scaleRowsOf(Matrix matrix){
+        return matrix;
+    }
+
+    @Override
+    Matrix scaleColumnsOf(Matrix matrix){
+        return matrix;
+    }
+
+    @Override
+    public void apply(double[] vector,double[] product){
+        System.arraycopy(vector,0,product,0,DIMENSION);
+    }
+
+//--Solving--//
+
+    /**
+     * @param vector the right-hand side b of the system I·x=b
+     * @return the passed vector, which is the solution of the system
+     * @throws IllegalArgumentException if the height of the vector does not match the dimension
+     * of this matrix
+     */
+    @Override
+    public Vector solve(Vector vector){
+        if(vector.AMOUNT_OF_ROWS!=DIMENSION){
+            throw new IllegalArgumentException("A system with a "+getDimensions()+" matrix "+
+                    "cannot be solved for a right-hand side with "+vector.AMOUNT_OF_ROWS+" rows");
+        }
+        return vector;
+    }
+}
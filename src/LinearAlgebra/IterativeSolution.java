@@ -0,0 +1,61 @@
+package LinearAlgebra;
+
+/**
+ * This class holds the result of solving a system with an {@link IterativeSolver}: the
+ * solution, how many iterations it took, and whether the solver reached its tolerance before
+ * running out of iterations. This class is immutable.
+ * @author Mark Angelot
+ * @since March 2, 2024
+ */
+public class IterativeSolution{
+    private final Vector SOLUTION;
+    private final int ITERATIONS;
+    private final double RELATIVE_RESIDUAL;
+    private final boolean HAS_CONVERGED;
+
+    IterativeSolution(double[] solution,int iterations,double relativeResidual,
+                      boolean hasConverged){
+        SOLUTION=new Vector(solution);
+        ITERATIONS=iterations;
+        RELATIVE_RESIDUAL=relativeResidual;
+        HAS_CONVERGED=hasConverged;
+    }
+
+    /**
+     * @return the last approximation of the solution, which is only as accurate as
+     * {@link #getRelativeResidual()} says if the solver did not converge
+     */
+    public Vector getSolution(){
+        return SOLUTION;
+    }
+
+    /**
+     * @return how many iterations the solver performed
+     */
+    public int getIterations(){
+        return ITERATIONS;
+    }
+
+    /**
+     * @return the length of the residual b-Ax of the solution divided by the length of b. This is
+     * the residual that the solver kept track of while iterating, which can drift slightly from
+     * the residual calculated from the solution directly.
+     */
+    public double getRelativeResidual(){
+        return RELATIVE_RESIDUAL;
+    }
+
+    /**
+     * @return true if the relative residual reached the tolerance of the solver, or false if the
+     * solver ran out of iterations or broke down first
+     */
+    public boolean hasConverged(){
+        return HAS_CONVERGED;
+    }
+
+    @Override
+    public String toString(){
+        return (HAS_CONVERGED?"Converged":"Did not converge")+" after "+ITERATIONS+
+                " iterations with a relative residual of "+RELATIVE_RESIDUAL;
+    }
+}
@@ -0,0 +1,193 @@
+package LinearAlgebra;
+
+/**
+ * This is the superclass of the iterative solvers, which solve a system Ax=b using nothing but
+ * products of A with vectors. Each iteration takes time in proportion to the time it takes to
+ * multiply by A, so for a sparse matrix with a few entries per row an iteration takes time in
+ * proportion to the amount of rows, instead of the {@code n³} time that elimination takes on a
+ * dense matrix.<br />
+ * A solver stops when the length of the residual b-Ax divided by the length of b is at most its
+ * tolerance, or when it has performed its maximum amount of iterations. Which solver to use
+ * depends on A:
+ * <ul>
+ *     <li>{@link ConjugateGradientSolver} for symmetric positive-definite matrices. It needs the
+ *     least work and memory per iteration.</li>
+ *     <li>{@link BiCGSTABSolver} for any other matrix. It needs a fixed amount of memory, but its
+ *     residual does not always go down smoothly.</li>
+ *     <li>{@link GMRESSolver} for any other matrix. Its residual never goes up, but it needs one
+ *     more vector of memory for every iteration before it restarts.</li>
+ * </ul>
+ * The settings of a solver are changed with its setters, which return the solver so that they
+ * can be chained. Solving a system does not change the solver, so one solver can solve many
+ * systems, even on several threads at once as long as its settings are not changed meanwhile.
+ * @author Mark Angelot
+ * @since March 2, 2024
+ */
+public abstract class IterativeSolver{
+//--Fields--//
+
+    /** This is the tolerance of a solver whose tolerance has not been set. */
+    public static final double DEFAULT_TOLERANCE=1e-10;
+    /** This is the maximum amount of iterations of a solver whose maximum has not been set. */
+    public static final int DEFAULT_MAXIMUM_ITERATIONS=1000;
+
+    private double tolerance=DEFAULT_TOLERANCE;
+    private int maximumIterations=DEFAULT_MAXIMUM_ITERATIONS;
+    private Preconditioner preconditioner=Preconditioner.NONE;
+    private ResidualListener listener;
+
+//--Constructors--//
+
+    IterativeSolver(){}
+
+//--Getters and Setters--//
+
+    /**
+     * Sets the tolerance of this solver. The solver stops once the length of the residual b-Ax
+     * divided by the length of b is at most the tolerance.
+     * @param tolerance the new tolerance
+     * @return this solver
+     * @throws IllegalArgumentException if {@code tolerance} is negative or not a number
+     */
+    public IterativeSolver setTolerance(double tolerance){
+        if(!(tolerance>=0)){
+            throw new IllegalArgumentException("Tolerance must be a nonnegative number");
+        }
+        this.tolerance=tolerance;
+        return this;
+    }
+
+    /**
+     * @param maximumIterations the most iterations that this solver can perform before it gives
+     *                          up
+     * @return this solver
+     * @throws IllegalArgumentException if {@code maximumIterations} is negative
+     */
+    public IterativeSolver setMaximumIterations(int maximumIterations){
+        if(maximumIterations<0){
+            throw new IllegalArgumentException("Maximum amount of iterations cannot be negative");
+        }
+        this.maximumIterations=maximumIterations;
+        return this;
+    }
+
+    /**
+     * @param preconditioner the preconditioner that this solver applies in every iteration, or
+     *                       {@link Preconditioner#NONE} to use no preconditioner
+     * @return this solver
+     * @throws NullPointerException if {@code preconditioner} is null
+     */
+    public IterativeSolver setPreconditioner(Preconditioner preconditioner){
+        if(preconditioner==null){
+            throw new NullPointerException("Use Preconditioner.NONE instead of null");
+        }
+        this.preconditioner=preconditioner;
+        return this;
+    }
+
+    /**
+     * @param listener the listener that is told the residual after each iteration, or null to
+     *                 stop telling a listener
+     * @return this solver
+     */
+    public IterativeSolver setResidualListener(ResidualListener listener){
+        this.listener=listener;
+        return this;
+    }
+
+    public double getTolerance(){
+        return tolerance;
+    }
+
+    public int getMaximumIterations(){
+        return maximumIterations;
+    }
+
+    public Preconditioner getPreconditioner(){
+        return preconditioner;
+    }
+
+//--Solving--//
+
+    /**
+     * Solves the system Ax=b, starting from x=0.
+     * @param operator the square matrix A, or anything else that can multiply a vector
+     * @param vector the right-hand side b
+     * @return the solution, and how the solver got to it
+     * @throws IllegalArgumentException if the operator is not square or its size does not
+     * match the height of the vector
+     */
+    public IterativeSolution solve(LinearOperator operator,Vector vector){
+        return solve(operator,vector,new Vector(vector.AMOUNT_OF_ROWS));
+    }
+
+    /**
+     * Solves the system Ax=b, starting from the passed guess. A good guess, such as the solution
+     * of a similar system, can save many iterations.
+     * @param operator the square matrix A, or anything else that can multiply a vector
+     * @param vector the right-hand side b
+     * @param initialGuess the approximation of x from which the solver starts
+     * @return the solution, and how the solver got to it
+     * @throws IllegalArgumentException if the operator is not square or its size does not
+     * match the height of the vectors
+     */
+    public IterativeSolution solve(LinearOperator operator,Vector vector,Vector initialGuess){
+        final int n=operator.getAmountOfRows();
+        if(operator.getAmountOfColumns()!=n){
+            throw new IllegalArgumentException("Only square systems can be solved, but this "+
+                    "operator is "+n+"×"+operator.getAmountOfColumns());
+        }
+        if(vector.AMOUNT_OF_ROWS!=n || initialGuess.AMOUNT_OF_ROWS!=n){
+            throw new IllegalArgumentException("A system with "+n+" rows cannot be solved for "+
+                    "a vector with "+vector.AMOUNT_OF_ROWS+" entries from a guess with "+
+                    initialGuess.AMOUNT_OF_ROWS+" entries");
+        }
+        double[] b=vector.asArray();
+        double[] x=initialGuess.asArray();
+        final double lengthOfB=Math.sqrt(ArrayKernels.sumOfSquares(b,0,n));
+        if(lengthOfB==0){
+            return new IterativeSolution(new double[n],0,0,true);
+        }
+        return iterate(operator,b,x,lengthOfB);
+    }
+
+    /**
+     * Performs the iterations of this solver.
+     * @param operator the operator A
+     * @param b the right-hand side
+     * @param x the initial guess, which is overwritten with the solution
+     * @param lengthOfB the length of b, which is not 0
+     * @return the solution, and how the solver got to it
+     */
+    abstract IterativeSolution iterate(LinearOperator operator,double[] b,double[] x,
+                                       double lengthOfB);
+
+//--Helpers for Subclasses--//
+
+    /**
+     * Calculates the residual b-Ax into {@code residual}.
+     * @return the length of the residual
+     */
+    static double residual(LinearOperator operator,double[] b,double[] x,double[] residual){
+        operator.apply(x,residual);
+        ArrayKernels.subtract(b,residual,residual,b.length);
+        return Math.sqrt(ArrayKernels.sumOfSquares(residual,0,b.length));
+    }
+
+    /**
+     * Sets {@code p=r+beta*p}.
+     */
+    static void scaleAndAdd(double[] r,double beta,double[] p){
+        ArrayKernels.scale(p,0,beta,p,0,p.length);
+        ArrayKernels.axpy(1,r,0,p,0,p.length);
+    }
+
+    /**
+     * Tells the listener, if there is one, the residual after an iteration.
+     */
+    final void report(int iteration,double relativeResidual){
+        if(listener!=null){
+            listener.iterationCompleted(iteration,relativeResidual);
+        }
+    }
+}
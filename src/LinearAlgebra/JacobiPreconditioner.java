@@ -0,0 +1,60 @@
+package LinearAlgebra;
+
+/**
+ * This preconditioner is the main diagonal of a matrix, so applying it divides each entry of the
+ * residual by the diagonal entry in its row. It is the cheapest preconditioner there is, and it
+ * helps most when the rows of the matrix have very different scales.
+ * @author Mark Angelot
+ * @since March 2, 2024
+ */
+public class JacobiPreconditioner implements Preconditioner{
+    /** This array holds the reciprocal of each entry on the main diagonal of the matrix. */
+    private final double[] INVERSE_DIAGONAL;
+
+    /**
+     * Constructs the Jacobi preconditioner of a dense matrix.
+     * @param matrix the square matrix whose diagonal is used
+     * @throws IllegalArgumentException if the matrix is not square or has a 0 on its diagonal
+     */
+    public JacobiPreconditioner(Matrix matrix){
+        if(!matrix.isSquare()){
+            throw new IllegalArgumentException("Only a square matrix has a Jacobi "+
+                    "preconditioner, but this is a "+matrix.getDimensions()+" matrix");
+        }
+        INVERSE_DIAGONAL=new double[matrix.AMOUNT_OF_ROWS];
+        for(int i=0;i<INVERSE_DIAGONAL.length;i++){
+            INVERSE_DIAGONAL[i]=reciprocal(matrix.getEntry(i,i),i);
+        }
+    }
+
+    /**
+     * Constructs the Jacobi preconditioner of a sparse matrix.
+     * @param matrix the square matrix whose diagonal is used
+     * @throws IllegalArgumentException if the matrix is not square or has a 0 on its diagonal
+     */
+    public JacobiPreconditioner(SparseMatrix matrix){
+        if(matrix.AMOUNT_OF_ROWS!=matrix.AMOUNT_OF_COLUMNS){
+            throw new IllegalArgumentException("Only a square matrix has a Jacobi "+
+                    "preconditioner, but this is a "+matrix.getDimensions()+" matrix");
+        }
+        INVERSE_DIAGONAL=matrix.diagonal();
+        for(int i=0;i<INVERSE_DIAGONAL.length;i++){
+            INVERSE_DIAGONAL[i]=reciprocal(INVERSE_DIAGONAL[i],i);
+        }
+    }
+
+    private static double reciprocal(double diagonalEntry,int index){
+        if(diagonalEntry==0){
+            throw new IllegalArgumentException("The entry at ("+index+", "+index+") is 0, so "+
+                    "the matrix has no Jacobi preconditioner");
+        }
+        return (1/diagonalEntry);
+    }
+
+    @Override
+    public void apply(double[] residual,double[] result){
+        for(int i=0;i<INVERSE_DIAGONAL.length;i++){
+            result[i]=(INVERSE_DIAGONAL[i]*residual[i]);
+        }
+    }
+}
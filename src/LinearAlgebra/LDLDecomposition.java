@@ -0,0 +1,246 @@
+package LinearAlgebra;
+
+import LinearAlgebra.Exceptions.UndecomposableMatrixException;
+import LinearAlgebra.Exceptions.UninvertibleMatrixException;
+
+/**
+ * This class holds the LDLᵀ decomposition of a symmetric matrix. The LDLᵀ decomposition of a
+ * matrix A is a lower triangular matrix L with 1s on its main diagonal and a diagonal matrix D
+ * such that A=L·D·Lᵀ. Unlike a {@link CholeskyDecomposition}, it does not take any square roots,
+ * so it also works for symmetric matrices that are not positive-definite, as long as no pivot is
+ * 0. No rows are swapped, so some nonsingular indefinite matrices, such as [[0, 1], [1, 0]], do
+ * not have this decomposition, and the constructor throws an exception for them; an
+ * {@link LUDecomposition} works for those. This class is best suited to matrices that are known
+ * to be positive-definite or diagonally dominant.<br />
+ * Only the lower triangle of the decomposed matrix is read, so the upper triangle is assumed to
+ * match it. Only the n(n+1)/2 entries of the lower triangle of L are stored, so this takes about
+ * half as much memory as an {@link LUDecomposition}. This class is immutable.
+ * @author Mark Angelot
+ * @since January 27, 2024
+ */
+public class LDLDecomposition{
+//--Fields--//
+
+    /** This array holds the lower triangle of L one row after another with no gaps, with D
+     * stored on its main diagonal in place of the 1s of L. Row i starts at index i(i+1)/2. */
+    private final double[] ld;
+    /** This holds how many rows and columns are in the decomposed matrix. */
+    public final int DIMENSION;
+
+//--Constructors--//
+
+    /**
+     * Calculates the LDLᵀ decomposition of a matrix. Only the lower triangle of the matrix is
+     * read.
+     * @param matrix the symmetric matrix that is to be decomposed
+     * @throws UndecomposableMatrixException if the matrix is not square, or if a pivot is 0 while
+     * an entry below it is not, in which case the matrix has no LDLᵀ decomposition unless rows
+     * and columns are swapped
+     */
+    public LDLDecomposition(Matrix matrix) throws UndecomposableMatrixException{
+        if(!matrix.isSquare()){
+            throw new UndecomposableMatrixException(matrix);
+        }
+        final int n=matrix.AMOUNT_OF_ROWS;
+        DIMENSION=n;
+        ld=new double[rowStart(n)];
+        for(int row=0;row<n;row++){
+            final int rowStart=rowStart(row);
+            for(int column=0;column<=row;column++){
+                ld[(rowStart+column)]=matrix.getEntry(row,column);
+            }
+        }
+
+        // This holds the entries of the current row of L multiplied by D, so that they only have
+        // to be calculated once per row
+        double[] scaledRow=new double[n];
+        for(int row=0;row<n;row++){
+            final int rowStart=rowStart(row);
+            for(int column=0;column<row;column++){
+                final int columnStart=rowStart(column);
+                final double sum=(ld[(rowStart+column)]-
+                        ArrayKernels.dot(scaledRow,0,ld,columnStart,column));
+                scaledRow[column]=sum;
+                final double pivot=ld[(columnStart+column)];
+                if(pivot==0 && sum!=0){
+                    throw new UndecomposableMatrixException("Pivot "+column+" of the LDLᵀ "+
+                            "decomposition is 0, but an entry below it is not, so the matrix "+
+                            "cannot be decomposed without swapping rows");
+                }
+                // A pivot of 0 with only 0s below it leaves the column of L free, so it is 0
+                ld[(rowStart+column)]=(pivot==0)?0:(sum/pivot);
+            }
+            ld[(rowStart+row)]-=ArrayKernels.dot(scaledRow,0,ld,rowStart,row);
+        }
+    }
+
+    /**
+     * @return the index in {@link #ld} of the first entry of a row
+     */
+    private static int rowStart(int row){
+        return CholeskyDecomposition.rowStart(row);
+    }
+
+    /**
+     * @return the entry of D in the passed row
+     */
+    private double diagonalEntry(int row){
+        return ld[(rowStart(row)+row)];
+    }
+
+//--Getters--//
+
+    /**
+     * @return the lower triangular factor L, which has 1s on its main diagonal
+     */
+    public Matrix getL(){
+        final int n=DIMENSION;
+        double[] l=new double[(n*n)];
+        for(int row=0;row<n;row++){
+            System.arraycopy(ld,rowStart(row),l,(row*n),row);
+            l[(row*n+row)]=1.0;
+        }
+        return new Matrix(n,n,Matrix.DEFAULT_AUGMENT_INDEX,l);
+    }
+
+    /**
+     * @return the entries of the diagonal factor D, from top-left to bottom-right
+     */
+    public double[] getD(){
+        double[] d=new double[DIMENSION];
+        for(int i=0;i<DIMENSION;i++){
+            d[i]=diagonalEntry(i);
+        }
+        return d;
+    }
+
+//--Properties--//
+
+    /**
+     * A symmetric matrix is positive-definite if and only if every entry of D is positive.
+     * @return true if the decomposed matrix is positive-definite, or false otherwise
+     */
+    public boolean isPositiveDefinite(){
+        for(int i=0;i<DIMENSION;i++){
+            if(!(diagonalEntry(i)>0)){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return true if the decomposed matrix is singular, which is when an entry of D is 0
+     */
+    public boolean isSingular(){
+        for(int i=0;i<DIMENSION;i++){
+            if(diagonalEntry(i)==0){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the determinant of the decomposed matrix, which is the product of the entries of D
+     */
+    public double determinant(){
+        double determinant=1;
+        for(int i=0;i<DIMENSION;i++){
+            determinant*=diagonalEntry(i);
+        }
+        return determinant;
+    }
+
+    /**
+     * Calculates and returns the natural logarithm of the absolute value of the determinant of
+     * the decomposed matrix. This does not overflow or underflow for large matrices.
+     * @return the natural logarithm of the absolute value of the determinant, or negative
+     * infinity if the decomposed matrix is singular
+     */
+    public double logDeterminant(){
+        double logDeterminant=0;
+        for(int i=0;i<DIMENSION;i++){
+            logDeterminant+=Math.log(Math.abs(diagonalEntry(i)));
+        }
+        return logDeterminant;
+    }
+
+    /**
+     * @return 1 if the determinant of the decomposed matrix is positive, -1 if it is negative, or
+     * 0 if the decomposed matrix is singular
+     */
+    public int signOfDeterminant(){
+        double sign=1;
+        for(int i=0;i<DIMENSION;i++){
+            sign*=Math.signum(diagonalEntry(i));
+        }
+        return (int)sign;
+    }
+
+//--Solving--//
+
+    /**
+     * Solves the system A·x=b, where A is the decomposed matrix, by solving L·y=b, then D·z=y,
+     * and then Lᵀ·x=z.
+     * @param vector the right-hand side b of the system
+     * @return the solution x of the system
+     * @throws IllegalArgumentException if the height of the vector does not match the dimension
+     * of the decomposed matrix
+     * @throws UninvertibleMatrixException if the decomposed matrix is singular
+     */
+    public Vector solve(Vector vector) throws UninvertibleMatrixException{
+        Matrix solution=solve((Matrix)vector);
+        return new Vector(DIMENSION,solution.matrixArray,0,1);
+    }
+
+    /**
+     * Solves the system A·X=B, where A is the decomposed matrix, for every column of B at once.
+     * @param matrix the right-hand side B of the system
+     * @return the solution X of the system, which has the same size as B
+     * @throws IllegalArgumentException if the amount of rows in the matrix does not match the
+     * dimension of the decomposed matrix
+     * @throws UninvertibleMatrixException if the decomposed matrix is singular
+     */
+    public Matrix solve(Matrix matrix) throws UninvertibleMatrixException{
+        if(matrix.AMOUNT_OF_ROWS!=DIMENSION){
+            throw new IllegalArgumentException("A system with a "+DIMENSION+"×"+DIMENSION+
+                    " matrix cannot be solved for a right-hand side with "+
+                    matrix.AMOUNT_OF_ROWS+" rows");
+        }
+        if(isSingular()){
+            throw new UninvertibleMatrixException("The matrix is singular, so the system does "+
+                    "not have a unique solution");
+        }
+        final int n=DIMENSION;
+        final int columns=matrix.AMOUNT_OF_COLUMNS;
+        double[] b=matrix.denseEntries(true);
+        // Forward substitution with L, whose main diagonal is all 1s
+        for(int row=1;row<n;row++){
+            final int ldStart=rowStart(row);
+            final int rowOffset=(row*columns);
+            for(int k=0;k<row;k++){
+                final double multiplier=ld[(ldStart+k)];
+                if(multiplier!=0){
+                    ArrayKernels.axpy(-multiplier,b,(k*columns),b,rowOffset,columns);
+                }
+            }
+        }
+        // Division by D
+        for(int row=0;row<n;row++){
+            final int rowOffset=(row*columns);
+            ArrayKernels.scale(b,rowOffset,(1.0/diagonalEntry(row)),b,rowOffset,columns);
+        }
+        // Back substitution with Lᵀ, whose entry at (row, k) is the entry of L at (k, row)
+        for(int row=(n-2);row>=0;row--){
+            final int rowOffset=(row*columns);
+            for(int k=(row+1);k<n;k++){
+                final double multiplier=ld[(rowStart(k)+row)];
+                if(multiplier!=0){
+                    ArrayKernels.axpy(-multiplier,b,(k*columns),b,rowOffset,columns);
+                }
+            }
+        }
+        return new Matrix(n,columns,Matrix.DEFAULT_AUGMENT_INDEX,b);
+    }
+}
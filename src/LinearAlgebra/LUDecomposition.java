@@ -0,0 +1,306 @@
+package LinearAlgebra;
+
+import LinearAlgebra.Exceptions.UndecomposableMatrixException;
+import LinearAlgebra.Exceptions.UninvertibleMatrixException;
+
+/**
+ * This class holds the LU decomposition of a square matrix. The LU decomposition of a matrix A
+ * is a lower triangular matrix L with 1s on its main diagonal, an upper triangular matrix U, and
+ * a permutation of the rows of A such that the permuted A is equal to L·U.<br />
+ * The decomposition is calculated once, in O(n³) time, using partial pivoting: in every column,
+ * the row with the entry of the greatest magnitude is swapped into the pivot position, which
+ * keeps the entries of L from growing past 1. After that, each system with the same matrix can
+ * be solved in O(n²) time with {@link #solve(Vector)}, so a matrix that is used to solve many
+ * systems only needs to be decomposed once. This class is immutable.
+ * @author Mark Angelot
+ * @since January 20, 2024
+ */
+public class LUDecomposition{
+//--Fields--//
+
+    /** This array holds L and U packed together, one row after another. The entries below the
+     * main diagonal belong to L, and the entries on and above the main diagonal belong to U.
+     * The 1s on the main diagonal of L are not stored. */
+    private final double[] lu;
+    /** The row at index i of the permuted matrix is the row at index {@code pivots[i]} of the
+     * original matrix. */
+    private final int[] pivots;
+    /** This is 1 if the rows were swapped an even amount of times, or -1 otherwise. */
+    private final int permutationSign;
+    /** This holds how many rows and columns are in the decomposed matrix. */
+    public final int DIMENSION;
+
+//--Constructors--//
+
+    /**
+     * Calculates the LU decomposition of a matrix.
+     * @param matrix the matrix that is to be decomposed
+     * @throws UndecomposableMatrixException if the matrix is not square
+     */
+    public LUDecomposition(Matrix matrix) throws UndecomposableMatrixException{
+        if(!matrix.isSquare()){
+            throw new UndecomposableMatrixException(matrix);
+        }
+        final int n=matrix.AMOUNT_OF_ROWS;
+        DIMENSION=n;
+        lu=matrix.denseEntries(true);
+        pivots=new int[n];
+        for(int i=0;i<n;i++){
+            pivots[i]=i;
+        }
+
+        int sign=1;
+        for(int column=0;column<n;column++){
+            int pivotRow=column;
+            for(int row=(column+1);row<n;row++){
+                if(Math.abs(lu[(row*n+column)])>Math.abs(lu[(pivotRow*n+column)])){
+                    pivotRow=row;
+                }
+            }
+            if(pivotRow!=column){
+                swapRows(lu,n,pivotRow,column);
+                int temp=pivots[pivotRow];
+                pivots[pivotRow]=pivots[column];
+                pivots[column]=temp;
+                sign=-sign;
+            }
+
+            final int pivotOffset=(column*n);
+            final double pivot=lu[(pivotOffset+column)];
+            if(pivot==0){
+                // The whole column is 0 from here down, so there is nothing to eliminate
+                continue;
+            }
+            for(int row=(column+1);row<n;row++){
+                final int rowOffset=(row*n);
+                final double multiplier=(lu[(rowOffset+column)]/pivot);
+                lu[(rowOffset+column)]=multiplier;
+                if(multiplier!=0){
+                    ArrayKernels.axpy(-multiplier,lu,(pivotOffset+column+1),
+                            lu,(rowOffset+column+1),(n-column-1));
+                }
+            }
+        }
+        permutationSign=sign;
+    }
+
+    /**
+     * Constructs a decomposition from factors that have already been calculated, such as those
+     * of one matrix in a {@link BatchLUDecomposition}.
+     */
+    LUDecomposition(int dimension,double[] lu,int[] pivots,int permutationSign){
+        DIMENSION=dimension;
+        this.lu=lu;
+        this.pivots=pivots;
+        this.permutationSign=permutationSign;
+    }
+
+    private static void swapRows(double[] entries,int columns,int row1,int row2){
+        final int offset1=(row1*columns);
+        final int offset2=(row2*columns);
+        for(int column=0;column<columns;column++){
+            double temp=entries[(offset1+column)];
+            entries[(offset1+column)]=entries[(offset2+column)];
+            entries[(offset2+column)]=temp;
+        }
+    }
+
+//--Getters--//
+
+    /**
+     * @return the lower triangular factor L, which has 1s on its main diagonal
+     */
+    public Matrix getL(){
+        final int n=DIMENSION;
+        MatrixBuilder l=new MatrixBuilder(n,n);
+        for(int row=0;row<n;row++){
+            for(int column=0;column<row;column++){
+                l.setEntry(row,column,lu[(row*n+column)]);
+            }
+            l.setEntry(row,row,1.0);
+        }
+        return l.build();
+    }
+
+    /**
+     * @return the upper triangular factor U
+     */
+    public Matrix getU(){
+        final int n=DIMENSION;
+        MatrixBuilder u=new MatrixBuilder(n,n);
+        for(int row=0;row<n;row++){
+            for(int column=row;column<n;column++){
+                u.setEntry(row,column,lu[(row*n+column)]);
+            }
+        }
+        return u.build();
+    }
+
+    /**
+     * @return an array in which the entry at index i is the index of the row in the original
+     * matrix that was moved to row i
+     */
+    public int[] getPivots(){
+        return pivots.clone();
+    }
+
+//--Properties--//
+
+    /**
+     * A matrix is singular if its determinant is 0. Singular matrices cannot be inverted, and the
+     * systems that they describe do not have a unique solution.
+     * @return true if the decomposed matrix is singular, or false otherwise
+     */
+    public boolean isSingular(){
+        for(int i=0;i<DIMENSION;i++){
+            if(lu[(i*DIMENSION+i)]==0){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Calculates and returns the determinant of the decomposed matrix, which is the product of
+     * the entries on the main diagonal of U, negated if the rows were swapped an odd amount of
+     * times.
+     * @return the determinant of the decomposed matrix
+     */
+    public double determinant(){
+        double determinant=permutationSign;
+        for(int i=0;i<DIMENSION;i++){
+            determinant*=lu[(i*DIMENSION+i)];
+        }
+        return determinant;
+    }
+
+    /**
+     * Calculates and returns the natural logarithm of the absolute value of the determinant of
+     * the decomposed matrix. This does not overflow or underflow for large matrices.
+     * @return the natural logarithm of the absolute value of the determinant, or negative
+     * infinity if the decomposed matrix is singular
+     */
+    public double logDeterminant(){
+        double logDeterminant=0;
+        for(int i=0;i<DIMENSION;i++){
+            logDeterminant+=Math.log(Math.abs(lu[(i*DIMENSION+i)]));
+        }
+        return logDeterminant;
+    }
+
+    /**
+     * @return 1 if the determinant of the decomposed matrix is positive, -1 if it is negative, or
+     * 0 if the decomposed matrix is singular
+     */
+    public int signOfDeterminant(){
+        double sign=permutationSign;
+        for(int i=0;i<DIMENSION;i++){
+            sign*=Math.signum(lu[(i*DIMENSION+i)]);
+        }
+        return (int)sign;
+    }
+
+//--Solving--//
+
+    /**
+     * Solves the system A·x=b, where A is the decomposed matrix. This runs in O(n²) time.
+     * @param vector the right-hand side b of the system
+     * @return the solution x of the system
+     * @throws IllegalArgumentException if the height of the vector does not match the dimension
+     * of the decomposed matrix
+     * @throws UninvertibleMatrixException if the decomposed matrix is singular
+     */
+    public Vector solve(Vector vector) throws UninvertibleMatrixException{
+        checkHeight(vector);
+        final int n=DIMENSION;
+        double[] solution=new double[n];
+        for(int i=0;i<n;i++){
+            solution[i]=vector.getEntry(pivots[i]);
+        }
+        solveInPlace(solution,1);
+        return new Vector(n,solution,0,1);
+    }
+
+    /**
+     * Solves the system A·X=B, where A is the decomposed matrix, for every column of B at once.
+     * This runs in O(n²·k) time, where k is the amount of columns in B.
+     * @param matrix the right-hand side B of the system
+     * @return the solution X of the system, which has the same size as B
+     * @throws IllegalArgumentException if the amount of rows in the matrix does not match the
+     * dimension of the decomposed matrix
+     * @throws UninvertibleMatrixException if the decomposed matrix is singular
+     */
+    public Matrix solve(Matrix matrix) throws UninvertibleMatrixException{
+        checkHeight(matrix);
+        final int n=DIMENSION;
+        final int columns=matrix.AMOUNT_OF_COLUMNS;
+        double[] solution=new double[(n*columns)];
+        for(int i=0;i<n;i++){
+            matrix.copyRowInto(pivots[i],solution,(i*columns));
+        }
+        solveInPlace(solution,columns);
+        return new Matrix(n,columns,Matrix.DEFAULT_AUGMENT_INDEX,solution);
+    }
+
+    /**
+     * Calculates and returns the inverse of the decomposed matrix by solving A·X=I.
+     * @return the inverse of the decomposed matrix
+     * @throws UninvertibleMatrixException if the decomposed matrix is singular
+     */
+    public Matrix inverse() throws UninvertibleMatrixException{
+        final int n=DIMENSION;
+        double[] inverse=new double[(n*n)];
+        for(int i=0;i<n;i++){
+            inverse[(i*n+pivots[i])]=1.0;
+        }
+        solveInPlace(inverse,n);
+        return new Matrix(n,n,Matrix.DEFAULT_AUGMENT_INDEX,inverse);
+    }
+
+    /**
+     * Solves L·U·X=B in place, where the rows of B have already been permuted. B is stored one
+     * row after another, so forward and back substitution subtract whole rows from each other
+     * instead of walking down columns.
+     * @param b the permuted right-hand side, which is replaced by the solution
+     * @param columns the amount of columns in B
+     * @throws UninvertibleMatrixException if the decomposed matrix is singular
+     */
+    private void solveInPlace(double[] b,int columns) throws UninvertibleMatrixException{
+        if(isSingular()){
+            throw new UninvertibleMatrixException("The matrix is singular, so the system does "+
+                    "not have a unique solution");
+        }
+        final int n=DIMENSION;
+        // Forward substitution with L, whose main diagonal is all 1s
+        for(int row=1;row<n;row++){
+            final int luOffset=(row*n);
+            final int rowOffset=(row*columns);
+            for(int k=0;k<row;k++){
+                final double multiplier=lu[(luOffset+k)];
+                if(multiplier!=0){
+                    ArrayKernels.axpy(-multiplier,b,(k*columns),b,rowOffset,columns);
+                }
+            }
+        }
+        // Back substitution with U
+        for(int row=(n-1);row>=0;row--){
+            final int luOffset=(row*n);
+            final int rowOffset=(row*columns);
+            for(int k=(row+1);k<n;k++){
+                final double multiplier=lu[(luOffset+k)];
+                if(multiplier!=0){
+                    ArrayKernels.axpy(-multiplier,b,(k*columns),b,rowOffset,columns);
+                }
+            }
+            ArrayKernels.scale(b,rowOffset,(1.0/lu[(luOffset+row)]),b,rowOffset,columns);
+        }
+    }
+
+    private void checkHeight(Matrix matrix){
+        if(matrix.AMOUNT_OF_ROWS!=DIMENSION){
+            throw new IllegalArgumentException("A system with a "+DIMENSION+"×"+DIMENSION+
+                    " matrix cannot be solved for a right-hand side with "+
+                    matrix.AMOUNT_OF_ROWS+" rows");
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package LinearAlgebra;
+
+/**
+ * A linear operator is anything that can multiply a vector. The iterative solvers, such as
+ * {@link ConjugateGradientSolver}, never look at the entries of a matrix; they only multiply
+ * vectors by it, so they work with any class that implements this interface. Both
+ * {@link Matrix} and {@link SparseMatrix} implement it, and so can a matrix that is never stored
+ * at all, such as one whose product with a vector is calculated from a formula.
+ * @author Mark Angelot
+ * @since March 2, 2024
+ */
+public interface LinearOperator{
+    /**
+     * @return the amount of entries in the product of this operator and a vector
+     */
+    int getAmountOfRows();
+
+    /**
+     * @return the amount of entries in a vector that this operator can multiply
+     */
+    int getAmountOfColumns();
+
+    /**
+     * Multiplies a vector by this operator. This is called once or twice in each iteration of an
+     * iterative solver, so it should not create any objects.
+     * @param vector the entries of the vector that is to be multiplied, which has
+     *               {@link #getAmountOfColumns()} entries. This must not be changed.
+     * @param product the array into which the product is written, which has
+     *                {@link #getAmountOfRows()} entries. Its previous entries are overwritten.
+     */
+    void apply(double[] vector,double[] product);
+}
@@ -0,0 +1,302 @@
+package LinearAlgebra;
+
+import LinearAlgebra.Exceptions.IncompatibleMatrixMultiplicationException;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * This class represents a dense matrix whose entries are stored in a file instead of in the
+ * heap, so it can be much larger than the memory of the JVM. The file is mapped read-only into
+ * memory, and the operating system reads the parts of it that are used and drops them again when
+ * it needs the memory. A MappedMatrix is immutable, just like a {@link Matrix}: operations that
+ * create a matrix write it to a new file, and matrices are written with a
+ * {@link MappedMatrixBuilder}.<br />
+ * The entries are stored as little-endian doubles in square tiles. The tiles of each band of rows
+ * are stored from left to right, and the entries of each tile are stored one row after another,
+ * so each tile is one contiguous range of the file. The operations work one tile, or one block
+ * the size of a tile, at a time, which keeps their working set a few tiles large no matter how
+ * large the matrix is, and makes the file be read mostly in order.<br />
+ * The mapping is released when the matrix is garbage collected; on some operating systems, the
+ * file cannot be deleted until then.
+ * @author Mark Angelot
+ * @since March 9, 2024
+ */
+public final class MappedMatrix implements LinearOperator{
+//--Fields--//
+
+    /** This is the amount of rows and columns in a tile when no tile size is passed. A tile of
+     * this size takes 512 KB, so the three blocks of a multiplication fit in the L2 or L3
+     * cache. */
+    public static final int DEFAULT_TILE_SIZE=256;
+
+    private final MappedTiles TILES;
+    /** This holds a buffer of one tile for each thread that applies this matrix to a vector, so
+     * that {@link #apply} does not create one on every call. */
+    private final ThreadLocal<double[]> TILE_BUFFER;
+    /** This holds how many rows are in this matrix. */
+    public final int AMOUNT_OF_ROWS;
+    /** This holds how many columns are in this matrix. */
+    public final int AMOUNT_OF_COLUMNS;
+
+//--Constructors--//
+
+    private MappedMatrix(MappedTiles tiles){
+        TILES=tiles;
+        AMOUNT_OF_ROWS=tiles.ROWS;
+        AMOUNT_OF_COLUMNS=tiles.COLUMNS;
+        TILE_BUFFER=ThreadLocal.withInitial(()->new double[(blockHeight()*blockWidth())]);
+    }
+
+    /**
+     * Maps a matrix from a file that holds only its entries, in tiles of the passed size.
+     * @param file the file that holds the matrix
+     * @param rows the amount of rows in the matrix
+     * @param columns the amount of columns in the matrix
+     * @param tileSize the amount of rows and columns in each tile of the file
+     * @return the mapped matrix
+     * @throws IOException if the file cannot be opened or mapped, or is too short
+     */
+    public static MappedMatrix open(Path file,int rows,int columns,int tileSize)
+            throws IOException{
+        return open(file,0,rows,columns,tileSize,tileSize);
+    }
+
+    /**
+     * Maps a matrix from a file, starting at the passed position so that a header can come
+     * before the entries.
+     */
+    static MappedMatrix open(Path file,long dataOffset,int rows,int columns,int tileHeight,
+                             int tileWidth) throws IOException{
+        try(FileChannel channel=FileChannel.open(file,StandardOpenOption.READ)){
+            final long size=(dataOffset+MappedTiles.sizeInBytes(rows,columns));
+            if(channel.size()<size){
+                throw new IOException(file+" is "+channel.size()+" bytes long, but a "+rows+"×"+
+                        columns+" matrix needs "+size+" bytes");
+            }
+            return new MappedMatrix(new MappedTiles(channel,FileChannel.MapMode.READ_ONLY,
+                    dataOffset,rows,columns,tileHeight,tileWidth));
+        }
+    }
+
+    /**
+     * Writes the entries of a matrix to a file in tiles of the default size and maps them.
+     * @param matrix the matrix that is to be written
+     * @param file the file to which it is written. If it already exists, it is replaced.
+     * @return the mapped matrix
+     * @throws IOException if the file cannot be written or mapped
+     */
+    public static MappedMatrix copyOf(Matrix matrix,Path file) throws IOException{
+        return new MappedMatrixBuilder(file,matrix.AMOUNT_OF_ROWS,matrix.AMOUNT_OF_COLUMNS)
+                .setBlock(0,0,matrix)
+                .build();
+    }
+
+//--Getters--//
+
+    /**
+     * @param row the row in which to find the entry
+     * @param column the column in which to find the entry
+     * @return the entry at the passed row and column
+     * @throws IndexOutOfBoundsException if the row or the column is outside this matrix
+     */
+    public double getEntry(int row,int column){
+        if(row<0 || row>=AMOUNT_OF_ROWS || column<0 || column>=AMOUNT_OF_COLUMNS){
+            throw new IndexOutOfBoundsException("("+row+", "+column+") is outside a "+
+                    getDimensions()+" matrix");
+        }
+        return TILES.get(row,column);
+    }
+
+    /**
+     * Copies a block of this matrix into the heap.
+     * @param row the row of the top left entry of the block
+     * @param column the column of the top left entry of the block
+     * @param height the amount of rows in the block
+     * @param width the amount of columns in the block
+     * @return a matrix with the entries of the block
+     * @throws IndexOutOfBoundsException if the block is not inside this matrix
+     */
+    public Matrix getBlock(int row,int column,int height,int width){
+        if(row<0 || column<0 || height<1 || width<1 || (row+height)>AMOUNT_OF_ROWS ||
+                (column+width)>AMOUNT_OF_COLUMNS){
+            throw new IndexOutOfBoundsException("A "+height+"×"+width+" block at ("+row+", "+
+                    column+") is not inside a "+getDimensions()+" matrix");
+        }
+        double[] entries=new double[(height*width)];
+        TILES.read(row,column,height,width,entries,0,width);
+        return new Matrix(height,width,Matrix.DEFAULT_AUGMENT_INDEX,entries);
+    }
+
+    /**
+     * Copies the whole matrix into the heap.
+     * @return a matrix with the same entries as this matrix
+     * @throws IllegalStateException if this matrix has too many entries for one array
+     */
+    public Matrix toMatrix(){
+        if(((long)AMOUNT_OF_ROWS*AMOUNT_OF_COLUMNS)>Integer.MAX_VALUE){
+            throw new IllegalStateException("A "+getDimensions()+" matrix has too many entries "+
+                    "to be copied into the heap");
+        }
+        return getBlock(0,0,AMOUNT_OF_ROWS,AMOUNT_OF_COLUMNS);
+    }
+
+    @Override
+    public int getAmountOfRows(){
+        return AMOUNT_OF_ROWS;
+    }
+
+    @Override
+    public int getAmountOfColumns(){
+        return AMOUNT_OF_COLUMNS;
+    }
+
+    /**
+     * @return the amount of rows in each tile, except for the tiles at the bottom edge
+     */
+    public int getTileHeight(){
+        return TILES.TILE_HEIGHT;
+    }
+
+    /**
+     * @return the amount of columns in each tile, except for the tiles at the right edge
+     */
+    public int getTileWidth(){
+        return TILES.TILE_WIDTH;
+    }
+
+    /**
+     * The operations work on blocks that are the size of a tile, but no larger than
+     * {@value #DEFAULT_TILE_SIZE}, so that a file in row-major layout, whose tiles are as wide as
+     * the matrix, is still worked on in blocks that fit in the cache.
+     * @return the amount of rows in a block
+     */
+    private int blockHeight(){
+        return Math.min(TILES.TILE_HEIGHT,DEFAULT_TILE_SIZE);
+    }
+
+    /**
+     * @return the amount of columns in a block
+     */
+    private int blockWidth(){
+        return Math.min(TILES.TILE_WIDTH,DEFAULT_TILE_SIZE);
+    }
+
+    /**
+     * @return the dimensions of this matrix in an "m×n" format (where m is the amount of rows
+     * and n is the amount of columns)
+     */
+    public String getDimensions(){
+        return AMOUNT_OF_ROWS+"×"+AMOUNT_OF_COLUMNS;
+    }
+
+//--Operations--//
+
+    /**
+     * Writes the transpose of this matrix to a file. Each block is read, transposed in the heap,
+     * and written as one tile of the transpose, whose tiles have the height and width of the
+     * blocks switched.
+     * @param file the file to which the transpose is written. If it already exists, it is
+     *             replaced.
+     * @return the transpose of this matrix
+     * @throws IOException if the file cannot be written or mapped
+     */
+    public MappedMatrix transpose(Path file) throws IOException{
+        final int tileHeight=blockHeight();
+        final int tileWidth=blockWidth();
+        MappedMatrixBuilder builder=new MappedMatrixBuilder(file,0,AMOUNT_OF_COLUMNS,
+                AMOUNT_OF_ROWS,tileWidth,tileHeight);
+        double[] tile=new double[(tileHeight*tileWidth)];
+        double[] transposed=new double[(tileHeight*tileWidth)];
+        for(int row=0;row<AMOUNT_OF_ROWS;row+=tileHeight){
+            final int height=Math.min(tileHeight,(AMOUNT_OF_ROWS-row));
+            for(int column=0;column<AMOUNT_OF_COLUMNS;column+=tileWidth){
+                final int width=Math.min(tileWidth,(AMOUNT_OF_COLUMNS-column));
+                TILES.read(row,column,height,width,tile,0,width);
+                for(int i=0;i<height;i++){
+                    for(int j=0;j<width;j++){
+                        transposed[(j*height+i)]=tile[(i*width+j)];
+                    }
+                }
+                builder.writeBlock(column,row,width,height,transposed);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Writes the product of this matrix and another mapped matrix to a file. The product is
+     * calculated one block at a time: for each block, the matching blocks of this matrix and the
+     * other matrix are read into the heap one pair at a time and multiplied into it, so only three
+     * blocks are in the heap at once. Each block has the height of the tiles of this matrix and
+     * the width of the tiles of the other matrix.
+     * @param matrix the matrix by which this matrix is to be multiplied
+     * @param file the file to which the product is written. If it already exists, it is replaced.
+     * @return the product of this matrix and the passed matrix
+     * @throws IncompatibleMatrixMultiplicationException if the amount of columns in this matrix
+     * does not match the amount of rows in the passed matrix
+     * @throws IOException if the file cannot be written or mapped
+     */
+    public MappedMatrix dotProduct(MappedMatrix matrix,Path file)
+            throws IncompatibleMatrixMultiplicationException,IOException{
+        if(AMOUNT_OF_COLUMNS!=matrix.AMOUNT_OF_ROWS){
+            throw new IncompatibleMatrixMultiplicationException("Matrices of incompatible "+
+                    "dimensions attempted to be multiplied. A "+getDimensions()+" matrix cannot "+
+                    "be multiplied by a "+matrix.getDimensions()+" matrix. The amount of columns "+
+                    "in the first matrix must match the amount of rows in the second matrix");
+        }
+        final int blockHeight=blockHeight();
+        final int blockWidth=matrix.blockWidth();
+        final int innerBlock=blockWidth();
+        final int columns=matrix.AMOUNT_OF_COLUMNS;
+        MappedMatrixBuilder builder=new MappedMatrixBuilder(file,0,AMOUNT_OF_ROWS,columns,
+                blockHeight,blockWidth);
+        double[] left=new double[(blockHeight*innerBlock)];
+        double[] right=new double[(innerBlock*blockWidth)];
+        double[] product=new double[(blockHeight*blockWidth)];
+        for(int row=0;row<AMOUNT_OF_ROWS;row+=blockHeight){
+            final int height=Math.min(blockHeight,(AMOUNT_OF_ROWS-row));
+            for(int column=0;column<columns;column+=blockWidth){
+                final int width=Math.min(blockWidth,(columns-column));
+                Arrays.fill(product,0);
+                for(int inner=0;inner<AMOUNT_OF_COLUMNS;inner+=innerBlock){
+                    final int depth=Math.min(innerBlock,(AMOUNT_OF_COLUMNS-inner));
+                    TILES.read(row,inner,height,depth,left,0,depth);
+                    matrix.TILES.read(inner,column,depth,width,right,0,width);
+                    MultiplicationKernel.multiplyNaively(left,height,depth,right,width,product);
+                }
+                builder.writeBlock(row,column,height,width,product);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Multiplies a vector by this matrix, reading this matrix one tile at a time. This lets the
+     * iterative solvers, such as {@link ConjugateGradientSolver}, solve systems whose matrix does
+     * not fit in the heap. The tiles are read into a buffer that each thread creates the first
+     * time it calls this and then reuses, so later calls do not create any objects.
+     * @param vector the entries of the vector that is to be multiplied
+     * @param product the array into which the product is written
+     */
+    @Override
+    public void apply(double[] vector,double[] product){
+        final int tileHeight=blockHeight();
+        final int tileWidth=blockWidth();
+        double[] tile=TILE_BUFFER.get();
+        for(int row=0;row<AMOUNT_OF_ROWS;row+=tileHeight){
+            final int height=Math.min(tileHeight,(AMOUNT_OF_ROWS-row));
+            Arrays.fill(product,row,(row+height),0);
+            for(int column=0;column<AMOUNT_OF_COLUMNS;column+=tileWidth){
+                final int width=Math.min(tileWidth,(AMOUNT_OF_COLUMNS-column));
+                TILES.read(row,column,height,width,tile,0,width);
+                for(int i=0;i<height;i++){
+                    product[(row+i)]+=ArrayKernels.dot(tile,(i*width),vector,column,width);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package LinearAlgebra;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This class is a mutable workspace for building a {@link MappedMatrix}, the same way that a
+ * {@link MatrixBuilder} is for a {@link Matrix}. The entries are written straight to a file
+ * through a read-write mapping, so the matrix that is being built never has to fit in the heap;
+ * the row operations read and write one row at a time.<br />
+ * A file cannot be shared without being copied the way the array of a MatrixBuilder is, so
+ * {@link #build()} hands the file over to the MappedMatrix that it returns, and this builder
+ * cannot be used after that.
+ * @author Mark Angelot
+ * @since March 9, 2024
+ */
+public class MappedMatrixBuilder{
+//--Fields--//
+
+    /** This holds the read-write mapping of the file, or null once the matrix has been
+     * built. */
+    private MappedTiles tiles;
+    /** This is the file to which the entries are written. */
+    private final Path FILE;
+    /** This is the position in the file of the first entry. */
+    private final long DATA_OFFSET;
+    /** This holds how many rows are in the matrix that is being built. */
+    public final int AMOUNT_OF_ROWS;
+    /** This holds how many columns are in the matrix that is being built. */
+    public final int AMOUNT_OF_COLUMNS;
+
+//--Constructors--//
+
+    /**
+     * Constructs a builder that writes a matrix of the specified size to a file in tiles of
+     * {@value MappedMatrix#DEFAULT_TILE_SIZE}×{@value MappedMatrix#DEFAULT_TILE_SIZE} entries.
+     * If the file already exists, it is replaced. Every entry starts as 0.
+     * @param file the file to which the matrix is written
+     * @param rows the amount of rows in the matrix
+     * @param columns the amount of columns in the matrix
+     * @throws IOException if the file cannot be created or mapped
+     * @throws IllegalArgumentException if {@code rows} or {@code columns} is negative or zero,
+     * in which case the file is left as it is
+     */
+    public MappedMatrixBuilder(Path file,int rows,int columns) throws IOException{
+        this(file,rows,columns,MappedMatrix.DEFAULT_TILE_SIZE);
+    }
+
+    /**
+     * Constructs a builder that writes a matrix of the specified size to a file in square tiles
+     * of the specified size. If the file already exists, it is replaced. Every entry starts as 0.
+     * @param file the file to which the matrix is written
+     * @param rows the amount of rows in the matrix
+     * @param columns the amount of columns in the matrix
+     * @param tileSize the amount of rows and columns in each tile
+     * @throws IOException if the file cannot be created or mapped
+     * @throws IllegalArgumentException if {@code rows}, {@code columns} or {@code tileSize} is
+     * negative or zero, in which case the file is left as it is
+     */
+    public MappedMatrixBuilder(Path file,int rows,int columns,int tileSize) throws IOException{
+        this(file,0,rows,columns,tileSize,tileSize);
+    }
+
+    /**
+     * Constructs a builder that writes the entries of a matrix to a file, starting at the passed
+     * position so that a header can come before them.
+     */
+    MappedMatrixBuilder(Path file,long dataOffset,int rows,int columns,int tileHeight,
+                        int tileWidth) throws IOException{
+        // The file is only opened once the arguments are known to be valid, so that an existing
+        // file is not truncated for nothing
+        MappedTiles.checkDimensions(rows,columns,tileHeight,tileWidth);
+        try(FileChannel channel=FileChannel.open(file,StandardOpenOption.CREATE,
+                StandardOpenOption.READ,StandardOpenOption.WRITE)){
+            // Shrinking the file to the data offset keeps a header that has already been written
+            // and makes every entry start as 0
+            channel.truncate(dataOffset);
+            tiles=new MappedTiles(channel,FileChannel.MapMode.READ_WRITE,dataOffset,rows,columns,
+                    tileHeight,tileWidth);
+        }
+        FILE=file;
+        DATA_OFFSET=dataOffset;
+        AMOUNT_OF_ROWS=rows;
+        AMOUNT_OF_COLUMNS=columns;
+    }
+
+//--Getters and Setters--//
+
+    /**
+     * @param row the row in which to find the entry
+     * @param column the column in which to find the entry
+     * @return the entry at the passed row and column
+     */
+    public double getEntry(int row,int column){
+        checkPosition(row,column);
+        return tiles().get(row,column);
+    }
+
+    /**
+     * Sets the entry at the passed row and column to the passed value.
+     * @param row the row of the entry
+     * @param column the column of the entry
+     * @param newValue the new value of the entry
+     * @return this builder
+     */
+    public MappedMatrixBuilder setEntry(int row,int column,double newValue){
+        checkPosition(row,column);
+        tiles().put(row,column,newValue);
+        return this;
+    }
+
+    /**
+     * Copies the entries of a matrix into this builder, so that its top left entry is at the
+     * passed row and column.
+     * @param row the row of the top left entry of the block
+     * @param column the column of the top left entry of the block
+     * @param matrix the matrix whose entries are copied
+     * @return this builder
+     * @throws IndexOutOfBoundsException if the block does not fit in this builder
+     */
+    public MappedMatrixBuilder setBlock(int row,int column,Matrix matrix){
+        checkPosition(row,column);
+        checkPosition((row+matrix.AMOUNT_OF_ROWS-1),(column+matrix.AMOUNT_OF_COLUMNS-1));
+        tiles().write(row,column,matrix.AMOUNT_OF_ROWS,matrix.AMOUNT_OF_COLUMNS,
+                matrix.denseEntries(false),0,matrix.AMOUNT_OF_COLUMNS);
+        return this;
+    }
+
+    /**
+     * Copies a block of entries from an array, one row after another.
+     */
+    void writeBlock(int row,int column,int height,int width,double[] entries){
+        tiles().write(row,column,height,width,entries,0,width);
+    }
+
+    private MappedTiles tiles(){
+        if(tiles==null){
+            throw new IllegalStateException("This builder cannot be used after its matrix has "+
+                    "been built");
+        }
+        return tiles;
+    }
+
+    private void checkPosition(int row,int column){
+        if(row<0 || row>=AMOUNT_OF_ROWS || column<0 || column>=AMOUNT_OF_COLUMNS){
+            throw new IndexOutOfBoundsException("("+row+", "+column+") is outside a "+
+                    AMOUNT_OF_ROWS+"×"+AMOUNT_OF_COLUMNS+" matrix");
+        }
+    }
+
+//--Row Operations--//
+
+    /**
+     * Swaps two rows.
+     * @param index1 the index of one of the rows
+     * @param index2 the index of the other row
+     * @return this builder
+     */
+    public MappedMatrixBuilder swapRows(int index1,int index2){
+        checkPosition(index1,0);
+        checkPosition(index2,0);
+        double[] row1=readRow(index1);
+        double[] row2=readRow(index2);
+        writeRow(index1,row2);
+        writeRow(index2,row1);
+        return this;
+    }
+
+    /**
+     * Multiplies every entry in a row by a factor.
+     * @param rowIndex the index of the row
+     * @param factor the factor by which the row is multiplied
+     * @return this builder
+     */
+    public MappedMatrixBuilder scaleRow(int rowIndex,double factor){
+        checkPosition(rowIndex,0);
+        double[] row=readRow(rowIndex);
+        ArrayKernels.scale(row,0,factor,row,0,row.length);
+        writeRow(rowIndex,row);
+        return this;
+    }
+
+    /**
+     * Adds a multiple of another row to a row.
+     * @param row the index of the row that is changed
+     * @param otherRow the index of the row whose multiple is added
+     * @param scale the factor by which the other row is multiplied before it is added
+     * @return this builder
+     */
+    public MappedMatrixBuilder addScaledOtherRow(int row,int otherRow,double scale){
+        checkPosition(row,0);
+        checkPosition(otherRow,0);
+        double[] entries=readRow(row);
+        ArrayKernels.axpy(scale,readRow(otherRow),0,entries,0,entries.length);
+        writeRow(row,entries);
+        return this;
+    }
+
+    private double[] readRow(int row){
+        double[] entries=new double[AMOUNT_OF_COLUMNS];
+        tiles().read(row,0,1,AMOUNT_OF_COLUMNS,entries,0,AMOUNT_OF_COLUMNS);
+        return entries;
+    }
+
+    private void writeRow(int row,double[] entries){
+        tiles().write(row,0,1,AMOUNT_OF_COLUMNS,entries,0,AMOUNT_OF_COLUMNS);
+    }
+
+//--Building--//
+
+    /**
+     * Writes every entry to the file and returns a read-only matrix that is mapped from it.
+     * @return the matrix that was built
+     * @throws IOException if the file cannot be mapped again
+     * @throws IllegalStateException if the matrix has already been built
+     */
+    public MappedMatrix build() throws IOException{
+        MappedTiles built=tiles();
+        built.force();
+        tiles=null;
+        return MappedMatrix.open(FILE,DATA_OFFSET,AMOUNT_OF_ROWS,AMOUNT_OF_COLUMNS,
+                built.TILE_HEIGHT,built.TILE_WIDTH);
+    }
+}
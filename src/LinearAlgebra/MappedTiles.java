@@ -0,0 +1,178 @@
+package LinearAlgebra;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * This class finds the entries of a {@link MappedMatrix} or a {@link MappedMatrixBuilder} in the
+ * file that they are mapped from. The entries are stored as little-endian doubles in tiles of
+ * {@code TILE_HEIGHT} rows by {@code TILE_WIDTH} columns. The tiles of a band of
+ * {@code TILE_HEIGHT} rows are stored one after another from left to right, and the entries in
+ * each tile are stored one row after another, so every tile is one contiguous range of the file.
+ * The tiles at the bottom and right edges are only as large as they need to be, so the file
+ * holds exactly {@code rows*columns} doubles. A tile width of at least the amount of columns
+ * makes the layout plain row-major.<br />
+ * A single mapping cannot be larger than 2 GB, so the file is mapped in chunks of whole bands
+ * that are at most {@value #MAXIMUM_CHUNK_BYTES} bytes each. Mapping a chunk reserves address
+ * space; the operating system only reads the pages of the file that are used, and it can drop
+ * them again when memory is needed, which is what lets a matrix be larger than the heap.
+ * @author Mark Angelot
+ * @since March 9, 2024
+ */
+final class MappedTiles{
+    /** This is the most bytes that are mapped by one mapping. */
+    static final long MAXIMUM_CHUNK_BYTES=(1L<<30);
+
+    final int ROWS;
+    final int COLUMNS;
+    final int TILE_HEIGHT;
+    final int TILE_WIDTH;
+    /** This is how many bands of tiles are in each chunk, except maybe the last one. */
+    private final int BANDS_PER_CHUNK;
+    private final MappedByteBuffer[] MAPPINGS;
+    /** These are views of {@link #MAPPINGS} as doubles. Their absolute get and put methods do
+     * not change the position of the buffer, so several threads can read them at once. */
+    private final DoubleBuffer[] CHUNKS;
+
+    /**
+     * Maps the entries of a matrix from a file.
+     * @param channel the channel of the file, which can be closed once this constructor returns
+     * @param mode {@link FileChannel.MapMode#READ_ONLY} or {@link FileChannel.MapMode#READ_WRITE}.
+     *             A read-write mapping makes the file larger if it is too short.
+     * @param dataOffset the position in the file of the first entry
+     * @throws IOException if the file cannot be mapped
+     * @throws IllegalArgumentException if a dimension is not positive, or if one band of tiles
+     * would be larger than a chunk
+     */
+    MappedTiles(FileChannel channel,FileChannel.MapMode mode,long dataOffset,int rows,
+                int columns,int tileHeight,int tileWidth) throws IOException{
+        checkDimensions(rows,columns,tileHeight,tileWidth);
+        ROWS=rows;
+        COLUMNS=columns;
+        TILE_HEIGHT=Math.min(tileHeight,rows);
+        TILE_WIDTH=Math.min(tileWidth,columns);
+        BANDS_PER_CHUNK=(int)(MAXIMUM_CHUNK_BYTES/((long)TILE_HEIGHT*COLUMNS*Double.BYTES));
+        final int bands=((ROWS+TILE_HEIGHT-1)/TILE_HEIGHT);
+        final int chunks=((bands+BANDS_PER_CHUNK-1)/BANDS_PER_CHUNK);
+        MAPPINGS=new MappedByteBuffer[chunks];
+        CHUNKS=new DoubleBuffer[chunks];
+        final long rowsPerChunk=((long)BANDS_PER_CHUNK*TILE_HEIGHT);
+        for(int chunk=0;chunk<chunks;chunk++){
+            final long firstRow=(chunk*rowsPerChunk);
+            final long lastRow=Math.min(ROWS,(firstRow+rowsPerChunk));
+            final long rowBytes=((long)COLUMNS*Double.BYTES);
+            MAPPINGS[chunk]=channel.map(mode,(dataOffset+firstRow*rowBytes),
+                    ((lastRow-firstRow)*rowBytes));
+            CHUNKS[chunk]=MAPPINGS[chunk].order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+        }
+    }
+
+    /**
+     * Checks that a matrix and its tiles can be mapped, so that callers can check this before
+     * they open or change the file.
+     * @throws IllegalArgumentException if a dimension is not positive, or if one band of tiles
+     * would be larger than a chunk
+     */
+    static void checkDimensions(int rows,int columns,int tileHeight,int tileWidth){
+        if(rows<1 || columns<1){
+            throw new IllegalArgumentException("Matrix must have positive, nonzero dimensions");
+        }
+        if(tileHeight<1 || tileWidth<1){
+            throw new IllegalArgumentException("Tiles must have positive, nonzero dimensions");
+        }
+        final int bandHeight=Math.min(tileHeight,rows);
+        if(((long)bandHeight*columns*Double.BYTES)>MAXIMUM_CHUNK_BYTES){
+            throw new IllegalArgumentException("A band of "+bandHeight+" rows of "+columns+
+                    " columns is larger than "+MAXIMUM_CHUNK_BYTES+" bytes; use shorter tiles");
+        }
+    }
+
+    /**
+     * @return the amount of bytes that the entries of a matrix of this size take in a file
+     */
+    static long sizeInBytes(int rows,int columns){
+        return ((long)rows*columns*Double.BYTES);
+    }
+
+    private DoubleBuffer chunkOf(int row){
+        return CHUNKS[((row/TILE_HEIGHT)/BANDS_PER_CHUNK)];
+    }
+
+    /**
+     * @return the index of the entry at (row, column) in {@link #chunkOf(int) its chunk}
+     */
+    private int indexOf(int row,int column){
+        final int band=(row/TILE_HEIGHT);
+        final int bandRow=(band*TILE_HEIGHT);
+        final int chunkRow=((band/BANDS_PER_CHUNK)*BANDS_PER_CHUNK*TILE_HEIGHT);
+        final int bandHeight=Math.min(TILE_HEIGHT,(ROWS-bandRow));
+        final int tileColumn=(column/TILE_WIDTH);
+        final int tileStart=(tileColumn*TILE_WIDTH);
+        final int tileWidth=Math.min(TILE_WIDTH,(COLUMNS-tileStart));
+        return ((bandRow-chunkRow)*COLUMNS+tileStart*bandHeight+(row-bandRow)*tileWidth+
+                (column-tileStart));
+    }
+
+    double get(int row,int column){
+        return chunkOf(row).get(indexOf(row,column));
+    }
+
+    void put(int row,int column,double value){
+        chunkOf(row).put(indexOf(row,column),value);
+    }
+
+    /**
+     * Copies a block of entries into an array. Each row of the block is copied in as many bulk
+     * reads as there are tiles that it crosses.
+     * @param firstRow the row of the top left entry of the block
+     * @param firstColumn the column of the top left entry of the block
+     * @param height the amount of rows in the block
+     * @param width the amount of columns in the block
+     * @param destination the array into which the block is copied, one row after another
+     * @param offset the index in the array of the top left entry of the block
+     * @param stride the distance in the array between the start of a row and the next row
+     */
+    void read(int firstRow,int firstColumn,int height,int width,double[] destination,int offset,
+              int stride){
+        for(int row=firstRow;row<(firstRow+height);row++){
+            final DoubleBuffer chunk=chunkOf(row);
+            final int rowOffset=(offset+(row-firstRow)*stride-firstColumn);
+            int column=firstColumn;
+            while(column<(firstColumn+width)){
+                final int end=Math.min((((column/TILE_WIDTH)+1)*TILE_WIDTH),(firstColumn+width));
+                chunk.get(indexOf(row,column),destination,(rowOffset+column),(end-column));
+                column=end;
+            }
+        }
+    }
+
+    /**
+     * Copies a block of entries from an array. This is the reverse of
+     * {@link #read(int,int,int,int,double[],int,int)}.
+     */
+    void write(int firstRow,int firstColumn,int height,int width,double[] source,int offset,
+               int stride){
+        for(int row=firstRow;row<(firstRow+height);row++){
+            final DoubleBuffer chunk=chunkOf(row);
+            final int rowOffset=(offset+(row-firstRow)*stride-firstColumn);
+            int column=firstColumn;
+            while(column<(firstColumn+width)){
+                final int end=Math.min((((column/TILE_WIDTH)+1)*TILE_WIDTH),(firstColumn+width));
+                chunk.put(indexOf(row,column),source,(rowOffset+column),(end-column));
+                column=end;
+            }
+        }
+    }
+
+    /**
+     * Writes every change to the file.
+     */
+    void force(){
+        for(MappedByteBuffer mapping:MAPPINGS){
+            mapping.force();
+        }
+    }
+}
@@ -3,6 +3,7 @@ package LinearAlgebra;
 import LinearAlgebra.Exceptions.IncompatibleMatrixAugmentationException;
 import LinearAlgebra.Exceptions.IncompatibleMatrixMultiplicationException;
 import LinearAlgebra.Exceptions.IndeterminableMatrixException;
+import LinearAlgebra.Exceptions.UndecomposableMatrixException;
 import LinearAlgebra.Exceptions.UninvertibleMatrixException;
 
 import java.util.Arrays;
@@ -13,12 +14,21 @@ import java.util.Arrays;
  * @author Mark Angelot
  * @since August 30, 2023
  */
-public class Matrix{
+public class Matrix implements LinearOperator{
 //--Fields--//
 
-    /** This array contains the entire matrix. The first dimension represents the rows, and the
-     * second dimension represents the columns. */
-    protected final double[][] matrixArray;
+    /** This array contains the entries of the matrix. The entry at (row, column) is at index
+     * {@code OFFSET+row*ROW_STRIDE+column*COLUMN_STRIDE}. A matrix that was constructed
+     * directly holds its rows one after another, but a view can share this array with the
+     * matrix that it was taken from. */
+    protected final double[] matrixArray;
+    /** This is the index in {@link #matrixArray} of the entry in the top-left corner. */
+    protected final int OFFSET;
+    /** This is the distance in {@link #matrixArray} between an entry and the entry below it. */
+    protected final int ROW_STRIDE;
+    /** This is the distance in {@link #matrixArray} between an entry and the entry to its
+     * right. This is 1 unless the matrix is a transposed view. */
+    protected final int COLUMN_STRIDE;
     /** This is true if the matrix is augmented, or false otherwise. */
     private final boolean IS_AUGMENTED;
     /** This is the index at which the augmentation begins. This is -1 if the matrix is not
@@ -29,9 +39,13 @@ public class Matrix{
     /** This holds how many columns are in the matrix. */
     public final int AMOUNT_OF_COLUMNS;
 
+    /** This is the cutoff of {@link #dotProductByStrassen(Matrix)}. Quadrants with this many
+     * rows or fewer are multiplied classically. */
+    public static final int DEFAULT_STRASSEN_CUTOFF=256;
+
     /** Any unaugmented matrix should have this value as its augment index. */
     // If this value is changed, fix the documentation for AUGMENT_INDEX.
-    private static final int DEFAULT_AUGMENT_INDEX=-1;
+    static final int DEFAULT_AUGMENT_INDEX=-1;
 
 //--Constructors--//
 
@@ -56,7 +70,48 @@ public class Matrix{
         if(rows<1 || columns<1){
             throw new IllegalArgumentException("Matrix must have positive, nonzero dimensions");
         }
-        matrixArray=new double[rows][columns];
+        matrixArray=new double[(rows*columns)];
+        OFFSET=0;
+        ROW_STRIDE=columns;
+        COLUMN_STRIDE=1;
+        AUGMENT_INDEX=augmentIndex;
+        IS_AUGMENTED=isAugmented();
+        AMOUNT_OF_ROWS=rows;
+        AMOUNT_OF_COLUMNS=columns;
+    }
+
+    /**
+     * Constructs a matrix that uses the passed array as its entries without copying it. The
+     * array must not be changed after this matrix is constructed, because this class is
+     * immutable.
+     * @param rows the amount of rows in the matrix
+     * @param columns the amount of columns in the matrix
+     * @param augmentIndex the index after which the augmentation begins
+     * @param entries the entries of the matrix, one row after another
+     */
+    Matrix(int rows,int columns,int augmentIndex,double[] entries){
+        this(rows,columns,augmentIndex,entries,0,columns,1);
+    }
+
+    /**
+     * Constructs a view of the passed array. The entry at (row, column) of this matrix is the
+     * entry at index {@code offset+row*rowStride+column*columnStride} of the array, so views
+     * that skip rows, skip columns, or swap rows with columns can all share the array of the
+     * matrix that they were taken from.
+     * @param rows the amount of rows in the matrix
+     * @param columns the amount of columns in the matrix
+     * @param augmentIndex the index after which the augmentation begins
+     * @param entries the array that holds the entries of the matrix
+     * @param offset the index of the entry in the top-left corner
+     * @param rowStride the distance between an entry and the entry below it
+     * @param columnStride the distance between an entry and the entry to its right
+     */
+    Matrix(int rows,int columns,int augmentIndex,double[] entries,int offset,int rowStride,
+           int columnStride){
+        matrixArray=entries;
+        OFFSET=offset;
+        ROW_STRIDE=rowStride;
+        COLUMN_STRIDE=columnStride;
         AUGMENT_INDEX=augmentIndex;
         IS_AUGMENTED=isAugmented();
         AMOUNT_OF_ROWS=rows;
@@ -64,7 +119,8 @@ public class Matrix{
     }
 
     /**
-     * Constructs a matrix out of a two-dimensional array.
+     * Constructs a matrix out of a two-dimensional array. The entries are copied, so changing
+     * the array afterward does not change this matrix.
      * @param matrixArray the array from which this matrix is constructed
      * @throws IllegalArgumentException if the passed array is empty
      * @throws IllegalArgumentException if the rows of the array are of different lengths
@@ -83,19 +139,31 @@ public class Matrix{
             }
             length=matrixArray[i].length;
         }
-        this.matrixArray=matrixArray.clone();
-        AUGMENT_INDEX=augmentIndex;
-        IS_AUGMENTED=isAugmented();
         AMOUNT_OF_ROWS=matrixArray.length;
         AMOUNT_OF_COLUMNS=matrixArray[0].length;
+        OFFSET=0;
+        ROW_STRIDE=AMOUNT_OF_COLUMNS;
+        COLUMN_STRIDE=1;
+        this.matrixArray=new double[(AMOUNT_OF_ROWS*AMOUNT_OF_COLUMNS)];
+        for(int row=0;row<AMOUNT_OF_ROWS;row++){
+            System.arraycopy(matrixArray[row],0,this.matrixArray,(row*ROW_STRIDE),
+                    AMOUNT_OF_COLUMNS);
+        }
+        AUGMENT_INDEX=augmentIndex;
+        IS_AUGMENTED=isAugmented();
     }
 
     /**
-     * Constructs a new Matrix that is an exact copy of another matrix
+     * Constructs a new Matrix that is an exact copy of another matrix. If the other matrix is a
+     * view, only the entries that it can see are copied, so the new Matrix does not share
+     * memory with any other matrix.
      * @param matrix the matrix that is to be copied into this new Matrix
      */
     public Matrix(Matrix matrix){
-        matrixArray=matrix.matrixArray.clone();
+        matrixArray=matrix.denseEntries(true);
+        OFFSET=0;
+        ROW_STRIDE=matrix.AMOUNT_OF_COLUMNS;
+        COLUMN_STRIDE=1;
         AUGMENT_INDEX=matrix.AUGMENT_INDEX;
         IS_AUGMENTED=matrix.isAugmented();
         AMOUNT_OF_ROWS=matrix.AMOUNT_OF_ROWS;
@@ -114,13 +182,16 @@ public class Matrix{
     public Matrix(int augmentIndex,Vector... vectors){
         final int VECTOR0_HEIGHT=vectors[0].AMOUNT_OF_ROWS; // this is recorded to make sure that
                                                             // every vector has the same height
-        matrixArray=new double[VECTOR0_HEIGHT][vectors.length];
+        matrixArray=new double[(VECTOR0_HEIGHT*vectors.length)];
+        OFFSET=0;
+        ROW_STRIDE=vectors.length;
+        COLUMN_STRIDE=1;
         for(int i=0;i<vectors.length;i++){
             if(vectors[i].AMOUNT_OF_ROWS!=VECTOR0_HEIGHT){
                 throw new IllegalArgumentException("All vectors must have the same height");
             }
             for(int j=0;j<VECTOR0_HEIGHT;j++){
-                matrixArray[j][i]=vectors[i].getEntry(j);
+                matrixArray[(j*ROW_STRIDE+i)]=vectors[i].getEntry(j);
             }
         }
         AUGMENT_INDEX=augmentIndex;
@@ -138,29 +209,28 @@ public class Matrix{
      * @return a matrix of a given size where each entry is set to a random number
      */
     public static Matrix generateRandomMatrix(int rows,int columns){
-        double[][] matrix=new double[rows][columns];
+        Matrix matrix=new Matrix(rows,columns);
 
         final int MAX_VALUE=20;
-        for(int row=0;row<rows;row++){
-            for(int column=0;column<columns;column++){
-                matrix[row][column]=randomNumber(0,MAX_VALUE);
-            }
+        for(int i=0;i<matrix.matrixArray.length;i++){
+            matrix.matrixArray[i]=randomNumber(0,MAX_VALUE);
         }
-        return new Matrix(matrix);
+        return matrix;
     }
 
     /**
-     * Creates and returns a diagonal matrix from the passed entries
+     * Creates and returns a diagonal matrix from the passed entries. This stores all n² entries;
+     * a {@link DiagonalMatrix} only stores the n entries of the diagonal.
      * @param entries these values will be put on the main diagonal, with the first entry in the
      *                top-left corner and the last entry in the bottom-right corner
      * @return a diagonal matrix from the given entries
      */
     public static Matrix generateDiagonalMatrix(double... entries){
-        double[][] matrix=new double[entries.length][entries.length];
+        Matrix matrix=new Matrix(entries.length,entries.length);
         for(int i=0;i<entries.length;i++){
-            matrix[i][i]=entries[i];
+            matrix.matrixArray[(i*matrix.ROW_STRIDE+i)]=entries[i];
         }
-        return new Matrix(matrix);
+        return matrix;
     }
 
     /**
@@ -177,7 +247,7 @@ public class Matrix{
      * Creates and returns an identity matrix of a specified size. An identity matrix is a matrix
      * with ones on the main diagonal and zeroes everywhere else. Because identity matrices are
      * always square, the dimension parameter will set both the width amount of rows and the amount
-     * of columns.
+     * of columns. This stores all n² entries; an {@link IdentityMatrix} only stores the diagonal.
      * @param dimension the amount of rows and columns in this matrix
      * @return an identity matrix of the specified size
      * @throws IllegalArgumentException if {@code dimension} is negative or zero
@@ -190,12 +260,12 @@ public class Matrix{
          generateDiagonalMatrix() (which runs in O(n) time), so this whole method would run in
          O(2n).
          */
-        double[][] identityMatrixArray=new double[dimension][dimension];
+        Matrix identityMatrix=new Matrix(dimension,dimension);
 
         for(int i=0;i<dimension;i++){
-            identityMatrixArray[i][i]=1.0;
+            identityMatrix.matrixArray[(i*identityMatrix.ROW_STRIDE+i)]=1.0;
         }
-        return new Matrix(identityMatrixArray);
+        return identityMatrix;
     }
 
 //--Getters and Setters--//
@@ -207,7 +277,62 @@ public class Matrix{
      * @return the entry at the passed row and column
      */
     public double getEntry(int row,int column){
-        return matrixArray[row][column];
+        return matrixArray[indexOf(row,column)];
+    }
+
+    /**
+     * @param row the row of an entry
+     * @param column the column of an entry
+     * @return the index in {@link #matrixArray} at which the entry at the passed row and column
+     * is stored
+     */
+    protected final int indexOf(int row,int column){
+        return (OFFSET+row*ROW_STRIDE+column*COLUMN_STRIDE);
+    }
+
+    /**
+     * A matrix is contiguous if {@link #matrixArray} holds exactly its entries, one row after
+     * another. Views of part of a matrix and transposed views are not contiguous.
+     * @return true if this matrix is contiguous, or false otherwise
+     */
+    protected final boolean isContiguous(){
+        return (OFFSET==0 && COLUMN_STRIDE==1 && ROW_STRIDE==AMOUNT_OF_COLUMNS &&
+                matrixArray.length==(AMOUNT_OF_ROWS*AMOUNT_OF_COLUMNS));
+    }
+
+    /**
+     * Returns the entries of this matrix, one row after another with no gaps between the rows.
+     * @param copy if this is false and this matrix is contiguous, {@link #matrixArray} itself is
+     *             returned, so the caller must not change it. Otherwise, a new array is returned.
+     * @return the entries of this matrix, one row after another
+     */
+    final double[] denseEntries(boolean copy){
+        if(isContiguous()){
+            return copy?matrixArray.clone():matrixArray;
+        }
+        double[] entries=new double[(AMOUNT_OF_ROWS*AMOUNT_OF_COLUMNS)];
+        for(int row=0;row<AMOUNT_OF_ROWS;row++){
+            copyRowInto(row,entries,(row*AMOUNT_OF_COLUMNS));
+        }
+        return entries;
+    }
+
+    /**
+     * Copies the entries of a row of this matrix into an array.
+     * @param row the index of the row that is to be copied
+     * @param destination the array into which the row is to be copied
+     * @param destinationIndex the index in {@code destination} at which the first entry of the
+     *                         row is to be put
+     */
+    final void copyRowInto(int row,double[] destination,int destinationIndex){
+        final int start=indexOf(row,0);
+        if(COLUMN_STRIDE==1){
+            System.arraycopy(matrixArray,start,destination,destinationIndex,AMOUNT_OF_COLUMNS);
+            return;
+        }
+        for(int column=0;column<AMOUNT_OF_COLUMNS;column++){
+            destination[(destinationIndex+column)]=matrixArray[(start+column*COLUMN_STRIDE)];
+        }
     }
 
     /**
@@ -216,7 +341,9 @@ public class Matrix{
      * @return an array of the entries in the row at the passed index
      */
     public double[] getRow(int index){
-        return Arrays.copyOf(matrixArray[index],matrixArray[index].length);
+        double[] row=new double[AMOUNT_OF_COLUMNS];
+        copyRowInto(index,row,0);
+        return row;
     }
     /**
      * Returns an array of the entries in the column at the passed index
@@ -224,13 +351,43 @@ public class Matrix{
      * @return an array of the entries in the column at the passed index
      */
     public double[] getColumn(int index){
-        double[] column=new double[AMOUNT_OF_COLUMNS];
+        double[] column=new double[AMOUNT_OF_ROWS];
         for(int i=0;i<AMOUNT_OF_ROWS;i++){
-            column[i]=matrixArray[i][index];
+            column[i]=matrixArray[indexOf(i,index)];
         }
         return column;
     }
 
+    /**
+     * Returns a vector whose entries are the entries in the row at the passed index. The vector
+     * is a view of this matrix, so nothing is copied.
+     * @param index the index of the row
+     * @return a vector whose entries are the entries in the row at the passed index, from left to
+     * right
+     */
+    public Vector getRowView(int index){
+        if(index<0 || index>=AMOUNT_OF_ROWS){
+            throw new IndexOutOfBoundsException("Row "+index+" is not in a "+getDimensions()+
+                    " matrix");
+        }
+        return new Vector(AMOUNT_OF_COLUMNS,matrixArray,indexOf(index,0),COLUMN_STRIDE);
+    }
+
+    /**
+     * Returns a vector whose entries are the entries in the column at the passed index. The
+     * vector is a view of this matrix, so nothing is copied.
+     * @param index the index of the column
+     * @return a vector whose entries are the entries in the column at the passed index, from top
+     * to bottom
+     */
+    public Vector getColumnView(int index){
+        if(index<0 || index>=AMOUNT_OF_COLUMNS){
+            throw new IndexOutOfBoundsException("Column "+index+" is not in a "+getDimensions()+
+                    " matrix");
+        }
+        return new Vector(AMOUNT_OF_ROWS,matrixArray,indexOf(0,index),ROW_STRIDE);
+    }
+
     /**
      * @return the amount of rows in this matrix
      */
@@ -251,6 +408,13 @@ public class Matrix{
         return (AUGMENT_INDEX!=DEFAULT_AUGMENT_INDEX);
     }
 
+    /**
+     * @return the index at which the augmentation begins, or -1 if this matrix is not augmented
+     */
+    public int getAugmentIndex(){
+        return AUGMENT_INDEX;
+    }
+
     /**
      * Sets an entry in the matrix to a new value
      * @param newValue the new value to be in the specified row and column.
@@ -260,7 +424,18 @@ public class Matrix{
      */
     @Deprecated
     private void _setEntry(double newValue,int row,int column){
-        matrixArray[row][column]=newValue;
+        matrixArray[indexOf(row,column)]=newValue;
+    }
+
+    /**
+     * Creates and returns a copy of this matrix that does not share memory with any other
+     * matrix. Views such as {@link #submatrix}, {@link #transpose()} and
+     * {@link #augmentation()} keep the whole array of the matrix that they were taken from in
+     * memory, so a small view of a large matrix should be copied if it is kept for a long time.
+     * @return a copy of this matrix whose entries are stored one row after another
+     */
+    public Matrix copy(){
+        return new Matrix(this);
     }
 
 //--Overridden Methods--//
@@ -279,8 +454,10 @@ public class Matrix{
             return false;
         }
         for(int i=0;i<AMOUNT_OF_ROWS;i++){
-            if(Arrays.equals(matrixArray[i],otherMatrix.matrixArray[i])){
-                return false;
+            for(int j=0;j<AMOUNT_OF_COLUMNS;j++){
+                if(this.getEntry(i,j)!=otherMatrix.getEntry(i,j)){
+                    return false;
+                }
             }
         }
         return true;
@@ -298,9 +475,9 @@ public class Matrix{
     public String toString(){
         // TODO: make the matrix look cleaner
         StringBuilder toString=new StringBuilder();
-        for(double[] row:matrixArray){
-            for(int i=0;i<row.length;i++){
-                toString.append((IS_AUGMENTED && AUGMENT_INDEX == i)? "|":" ").append(row[i]);
+        for(int row=0;row<AMOUNT_OF_ROWS;row++){
+            for(int i=0;i<AMOUNT_OF_COLUMNS;i++){
+                toString.append((IS_AUGMENTED && AUGMENT_INDEX == i)? "|":" ").append(getEntry(row,i));
             }
             toString.append('\n');
         }
@@ -351,151 +528,104 @@ public class Matrix{
      * @return a congruent matrix that has been reduced using Gaussian Elimination
      */
     public Matrix solveWithGaussianElimination(){
-        Matrix newMatrix=new Matrix(this);
-        newMatrix=newMatrix.createPivots();
-        newMatrix=newMatrix.clearColumns();
-        return newMatrix;
+        return new MatrixBuilder(this).reduceToRowEchelonForm().build();
     }
 
-    private Matrix createPivots(){
-        int beginningIndexOfTrivialSolutions=AMOUNT_OF_ROWS;
-        // This represents the index of the first row, all of whose entries are 0
-
-        /* When a row only has 0's, it is to be moved to the end by swapping it with the last
-        non-trivial row */
+    /**
+     * Increments a number, but increments the number again to avoid the avoided number. This is
+     * useful for "for" loops where the incrementer needs to skip a certain value.
+     * @param avoided the number that is to be avoided
+     * @param number the number that is to be incremented
+     * @return the next integer that is not the avoided number
+     * Note: this function might not be necessary
+     */
+    private int nextNumberThatIsNot(int avoided,int number){
+        return (++number==avoided)?number:++number;
+    }
 
-        Matrix newMatrix=new Matrix(this);
 
-        rowIteration:for(int row=0;row<AMOUNT_OF_ROWS;row++){
-            for(int column=0;column<AMOUNT_OF_COLUMNS;column++){
-                if(matrixArray[row][column]!=0){
-                    // This loop is here to see if this row is only made of 0s. If a nonzero
-                    // entry is found, this loop can stop and the next row can be searched
-                    continue rowIteration;
-                }
-            }
-            // At this point, all entries in this row are found to be 0. This row can be
-            // swapped with another row
-            beginningIndexOfTrivialSolutions--;
-            newMatrix=newMatrix.swapRows(row,(beginningIndexOfTrivialSolutions-1));
+    /**
+     * Calculates and returns the determinant of this matrix. Matrices larger than 2×2 are reduced
+     * to upper triangular form using an {@link LUDecomposition}, so this runs in O(n³) time. The
+     * determinant is then the product of the entries on the main diagonal of the upper triangular
+     * factor, negated once for every row swap.
+     * @return the determinant of this matrix. This can overflow to infinity for large matrices, in
+     * which case {@link #logDeterminant()} and {@link #signOfDeterminant()} should be used instead.
+     * @throws IndeterminableMatrixException if this matrix is not square
+     */
+    public double determinant() throws IndeterminableMatrixException{
+        if(!isSquare()){
+            throw new IndeterminableMatrixException();
         }
 
-        rowIteration:for(int row=0;row<beginningIndexOfTrivialSolutions;row++){
-            int column=0;
-            for(;column<row;column++){
-                if(matrixArray[row][column]!=0){
-                    newMatrix=newMatrix.makeEntryZero(row,column);
-                }
-            }
-            for(;column<AMOUNT_OF_COLUMNS;column++){
-                // Make first nonzero number in row 1 by multiplying that row by the reciprocal
-                // of the first nonzero number
-                double currentEntry=matrixArray[row][column];
-                System.err.println("("+row+","+column+") ~ "+AMOUNT_OF_COLUMNS);
-                if(currentEntry != 0){
-                    System.err.println("("+row+","+column+") - "+currentEntry);
-                    newMatrix=newMatrix.scaleRow(row,1.0/currentEntry);
-                    continue rowIteration;
-                }
-            }
+        if(AMOUNT_OF_ROWS==2 && AMOUNT_OF_COLUMNS==2){
+            return ((getEntry(0,0)*getEntry(1,1))-(getEntry(0,1)*getEntry(1,0)));
         }
-        return newMatrix;
-    }
-/*
 
- 1. Make sure the matrix isn't just 0's
-    - Maybe sort the matrix in order of the least to greatest first number
-    - Keep track of the first nonzero column
- 2. Starting from the first nonzero column, move diagonally from top-left to bottom-right to make
-    pivots.
-    - Every time a row operation is done (replacing a row with itself added to a factor of another
-      row
+        return luDecomposition().determinant();
+    }
 
- */
-    private Matrix clearColumns(){
-        // go through every row
-        // using the first nonzero number (should be 1), add a multiple of this row to another
-        //   row (if that entry isn't already 0) to make it 0
-        Matrix newMatrix=new Matrix(this);
-        rowIteration:for(int row=(newMatrix.getAmountOfRows()-1);row>=0;row--){
-            for(int column=0;column<newMatrix.getAmountOfColumns();column++){
-                // maybe throw an exception if this isn't 1
-                if(newMatrix.getEntry(row,column)!=0){
-                    for(int row2=(row-1);row2>=0;row2--){
-                        if(newMatrix.getEntry(row2,column)!=0){
-                            double scale=
-                                -(
-                                    newMatrix.getEntry(row2,column)
-                                    /
-                                    newMatrix.getEntry(row,column)
-                                );
-                            addScaledOtherRow(row2,row,scale);
-                        }
-                    }
-                    continue rowIteration;
-                }
-            }
+    /**
+     * Calculates and returns the natural logarithm of the absolute value of the determinant of
+     * this matrix. Because this adds logarithms instead of multiplying the entries on the
+     * diagonal, it does not overflow or underflow for large matrices.
+     * @return the natural logarithm of the absolute value of the determinant of this matrix. This
+     * is negative infinity if the matrix is singular.
+     * @throws IndeterminableMatrixException if this matrix is not square
+     */
+    public double logDeterminant() throws IndeterminableMatrixException{
+        if(!isSquare()){
+            throw new IndeterminableMatrixException();
         }
-
-        return newMatrix;
+        return luDecomposition().logDeterminant();
     }
 
     /**
-     * Makes an entry by adding its row to and the negative quotient of that entry and another
-     * entry on that column<br />
-     * For example, given two rows:<br />
-     * <code>
-     *     [2 8 4 6]<br />
-     *     [3 7 8 2],
-     * </code>
-     * The first entry in the second row can be made 0 by adding the second row to -3/2 of the
-     * first row. That will give this result:<br />
-     * <code>
-     *      [2  8 4  6]<br />
-     *      [0 -5 2 -7].
-     * </code>
-     * @param row the row in which the entry is found
-     * @param column the column in which the entry is found
-     * @return A new matrix in which the entry at ({@code row},{@code column}) is 0. Because this
-     * is achieved using a row operation, the rest of the row will be affected too
-     */
-    private Matrix makeEntryZero(int row, int column){
-        Matrix newMatrix=new Matrix(this);
-        for(int r=(row-1);r>=0;r--){
-            // Look for the first nonzero entry in this column. This is the entry that needs to be 0
-            if(newMatrix.getEntry(r,column)!=0){
-                double a=newMatrix.getEntry(row,column);
-                double b=newMatrix.getEntry(r,column);
-                double scale=(-(a/b));
-                return newMatrix.addScaledOtherRow(row,r,scale);
-            }
+     * Calculates and returns the sign of the determinant of this matrix. Together with
+     * {@link #logDeterminant()}, this describes the determinant of a matrix that is too large to
+     * be returned by {@link #determinant()}.
+     * @return 1 if the determinant is positive, -1 if it is negative, or 0 if the matrix is
+     * singular
+     * @throws IndeterminableMatrixException if this matrix is not square
+     */
+    public int signOfDeterminant() throws IndeterminableMatrixException{
+        if(!isSquare()){
+            throw new IndeterminableMatrixException();
         }
-        // If this point is reached, then the entry is already a pivot and does not need to made
-        // to zero. An exception might need to be thrown, as this method could possibly be used
-        // for other purposes besides creating pivots.
-        return this;
+        return luDecomposition().signOfDeterminant();
     }
 
     /**
-     * Increments a number, but increments the number again to avoid the avoided number. This is
-     * useful for "for" loops where the incrementer needs to skip a certain value.
-     * @param avoided the number that is to be avoided
-     * @param number the number that is to be incremented
-     * @return the next integer that is not the avoided number
-     * Note: this function might not be necessary
+     * Decomposes this matrix, which must already be known to be square.
+     * @return the LU decomposition of this matrix
      */
-    private int nextNumberThatIsNot(int avoided,int number){
-        return (++number==avoided)?number:++number;
+    private LUDecomposition luDecomposition(){
+        try{
+            return new LUDecomposition(this);
+        }
+        catch(UndecomposableMatrixException e){
+            // this is impossible, because every caller checks that this matrix is square
+            throw new IllegalStateException(e);
+        }
     }
 
-
-    public double determinant() throws IndeterminableMatrixException{
+    /**
+     * Calculates and returns the determinant of this matrix using cofactor expansion along the
+     * top row. This runs in O(n!) time, so it is only practical for small matrices. It is kept to
+     * verify the results of {@link #determinant()}.
+     * @return the determinant of this matrix
+     * @throws IndeterminableMatrixException if this matrix is not square
+     */
+    public double determinantByCofactorExpansion() throws IndeterminableMatrixException{
         if(!isSquare()){
             throw new IndeterminableMatrixException();
         }
 
+        if(AMOUNT_OF_ROWS==1){
+            return getEntry(0,0);
+        }
         if(AMOUNT_OF_ROWS==2 && AMOUNT_OF_COLUMNS==2){
-            return ((matrixArray[0][0]*matrixArray[1][1])-(matrixArray[0][1]*matrixArray[1][0]));
+            return ((getEntry(0,0)*getEntry(1,1))-(getEntry(0,1)*getEntry(1,0)));
         }
 
         double sum=0;
@@ -504,8 +634,8 @@ public class Matrix{
             efficient way is found. */
             Matrix subMatrix=this.removeRowAndColumn(0,i);
             sum+=(
-                matrixArray[0][i] *
-                subMatrix.determinant() *
+                getEntry(0,i) *
+                subMatrix.determinantByCofactorExpansion() *
                 ((i%2==0)?1:-1)
             );
         }
@@ -529,7 +659,8 @@ public class Matrix{
             if(row1!=row){
                 for(int column1=0,column2=0;column1<AMOUNT_OF_COLUMNS;column1++){
                     if(column1!=column){
-                        newMatrix.matrixArray[row2][column2]=this.matrixArray[row1][column1];
+                        newMatrix.matrixArray[newMatrix.indexOf(row2,column2)]=
+                                this.getEntry(row1,column1);
                         column2++;
                     }
                 }
@@ -539,21 +670,27 @@ public class Matrix{
         return newMatrix;
     }
 
+    /**
+     * Calculates and returns the inverse of this matrix. This matrix is decomposed with an
+     * {@link LUDecomposition}, which is then solved for every column of the identity matrix. To
+     * solve systems with this matrix, it is faster and more accurate to use
+     * {@link LUDecomposition#solve(Vector)} than to multiply by the inverse.
+     * @return the inverse of this matrix
+     * @throws UninvertibleMatrixException if this matrix is not square or is singular
+     */
     public Matrix inverse() throws UninvertibleMatrixException{
         if(!isSquare()){
             throw new UninvertibleMatrixException(this);
         }
-        try{
-            return this.augmentedWith(generateIdentityMatrix(AMOUNT_OF_ROWS))
-                    .solveWithGaussianElimination()
-                    .augmentation();
-        }
-        catch(IncompatibleMatrixAugmentationException e){
-            // this is impossible
-            throw new UninvertibleMatrixException();
-        }
+        return luDecomposition().inverse();
     }
 
+    /**
+     * Returns the augmentation of this matrix. The augmentation is a view of this matrix, so
+     * nothing is copied.
+     * @return the columns of this matrix from the augment index onward, or null if this matrix is
+     * not augmented
+     */
     public Matrix augmentation(){
         if(!isAugmented()){
             return null; //maybe throw an exception
@@ -562,13 +699,15 @@ public class Matrix{
     }
 
     /**
-     * Return a matrix whose entries are from a subsection of this matrix.
-     * TODO: finish documenting this
-     * @param startingRow
-     * @param startingColumn
-     * @param endingRow
-     * @param endingColumn
-     * @return
+     * Return a matrix whose entries are from a subsection of this matrix. The submatrix is a view
+     * of this matrix, so this runs in O(1) time and nothing is copied.
+     * @param startingRow the index of the first row that is in the submatrix
+     * @param startingColumn the index of the first column that is in the submatrix
+     * @param endingRow the index after the last row that is in the submatrix
+     * @param endingColumn the index after the last column that is in the submatrix
+     * @return a view of the entries in the passed rows and columns of this matrix
+     * @throws IllegalArgumentException if an ending index is less than its starting index, or if
+     * any index is outside of this matrix
      */
     public Matrix submatrix(int startingRow,int startingColumn,int endingRow,int endingColumn){
         if(endingRow<startingRow){
@@ -580,18 +719,20 @@ public class Matrix{
         if((startingRow<0) || (startingColumn<0)){
             throw new IllegalArgumentException(("All indexes must be non-negative"));
         }
-
-        double[][] newMatrixArray=new double[(endingRow-startingRow)][(endingColumn-startingColumn)];
-        for(int x=0;x<newMatrixArray.length;x++){
-            System.arraycopy(
-                this.matrixArray[(x+startingRow)],
-                startingColumn,
-                newMatrixArray[x],
-                0,
-                newMatrixArray[0].length
-            );
+        if((endingRow>AMOUNT_OF_ROWS) || (endingColumn>AMOUNT_OF_COLUMNS)){
+            throw new IllegalArgumentException("A submatrix cannot go past the end of a "+
+                    getDimensions()+" matrix");
         }
-        return new Matrix(newMatrixArray);
+
+        return new Matrix(
+            (endingRow-startingRow),
+            (endingColumn-startingColumn),
+            DEFAULT_AUGMENT_INDEX,
+            matrixArray,
+            indexOf(startingRow,startingColumn),
+            ROW_STRIDE,
+            COLUMN_STRIDE
+        );
     }
 
     public Matrix submatrix(int startingRow,int startingColumn){
@@ -618,14 +759,10 @@ public class Matrix{
         );
 
         for(int y=0;y<AMOUNT_OF_ROWS;y++){
-            for(int x=0;x<AMOUNT_OF_COLUMNS;x++){
-                // this loop iterates through the columns of this matrix
-                newMatrix.matrixArray[x][y]=this.matrixArray[x][y];
-            }
-            for(int x=0;x<AMOUNT_OF_COLUMNS;x++){
-                // this loop iterates through the columns of the augmentation
-                newMatrix.matrixArray[x][(y+AMOUNT_OF_COLUMNS)]=augmentation.matrixArray[x][y];
-            }
+            // this copies the row of this matrix, and then the row of the augmentation after it
+            this.copyRowInto(y,newMatrix.matrixArray,newMatrix.indexOf(y,0));
+            augmentation.copyRowInto(y,newMatrix.matrixArray,
+                    newMatrix.indexOf(y,AMOUNT_OF_COLUMNS));
         }
 
         return newMatrix;
@@ -633,27 +770,58 @@ public class Matrix{
 
     /**
      * Creates and returns the transpose of this matrix. The transpose of a matrix is a matrix
-     * whose columns match the rows of that matrix.
+     * whose columns match the rows of that matrix. The transpose is a view of this matrix whose
+     * row and column strides are swapped, so this runs in O(1) time and nothing is copied.
      * @return the transpose of this matrix
      */
     public Matrix transpose(){
-        Matrix newMatrix=new Matrix(AMOUNT_OF_COLUMNS,AMOUNT_OF_ROWS);
-        for(int i=0;i<AMOUNT_OF_ROWS;i++){
-            for(int j=0;j<AMOUNT_OF_COLUMNS;j++){
-                newMatrix.matrixArray[j][i]=this.matrixArray[i][j];
-            }
-        }
-        return newMatrix;
+        return new Matrix(
+            AMOUNT_OF_COLUMNS,
+            AMOUNT_OF_ROWS,
+            DEFAULT_AUGMENT_INDEX,
+            matrixArray,
+            OFFSET,
+            COLUMN_STRIDE,
+            ROW_STRIDE
+        );
     }
 
-    public int[] eigenvalues(){
-        // TODO: implement this
-        throw new UnsupportedOperationException();
+    /**
+     * Calculates and returns the eigenvalues of this matrix. The eigenvectors are not calculated,
+     * which saves most of the time. For complex eigenvalues, use an {@link EigenDecomposition}
+     * instead.
+     * @return the eigenvalues of this matrix, which are in order from least to greatest if this
+     * matrix is symmetric
+     * @throws UndecomposableMatrixException if this matrix is not square
+     * @throws ArithmeticException if any of the eigenvalues are complex
+     */
+    public double[] eigenvalues() throws UndecomposableMatrixException{
+        return realEigenDecomposition(false).getRealEigenvalues();
     }
 
-    public Vector[] eigenvectors(){
-        // TODO: implement this
-        throw new UnsupportedOperationException();
+    /**
+     * Calculates and returns the eigenvectors of this matrix, in the same order as
+     * {@link #eigenvalues()}. If this matrix is symmetric, the eigenvectors are orthonormal.
+     * @return the eigenvectors of this matrix
+     * @throws UndecomposableMatrixException if this matrix is not square
+     * @throws ArithmeticException if any of the eigenvalues are complex
+     */
+    public Vector[] eigenvectors() throws UndecomposableMatrixException{
+        Matrix v=realEigenDecomposition(true).getV();
+        Vector[] eigenvectors=new Vector[AMOUNT_OF_COLUMNS];
+        for(int i=0;i<AMOUNT_OF_COLUMNS;i++){
+            eigenvectors[i]=v.getColumnView(i);
+        }
+        return eigenvectors;
+    }
+
+    private EigenDecomposition realEigenDecomposition(boolean computeEigenvectors)
+            throws UndecomposableMatrixException{
+        EigenDecomposition decomposition=new EigenDecomposition(this,computeEigenvectors);
+        if(decomposition.hasComplexEigenvalues()){
+            throw new ArithmeticException("This matrix has complex eigenvalues");
+        }
+        return decomposition;
     }
 
 //--Operations--//
@@ -662,78 +830,240 @@ public class Matrix{
      * Creates and returns a matrix which is the sum of this matrix and another matrix
      * @param matrix the matrix that is to be added to this matrix
      * @return a matrix which is the sum of this matrix and another matrix
+     * @throws IllegalArgumentException if the two matrices do not have the same size
      */
     public Matrix plus(Matrix matrix){
+        checkSameSize(matrix,"added to");
+        double[] left=this.denseEntries(false);
+        double[] right=matrix.denseEntries(false);
         Matrix newMatrix=new Matrix(AMOUNT_OF_ROWS,AMOUNT_OF_COLUMNS);
-        for(int i=0;i<AMOUNT_OF_ROWS;i++){
-            for(int j=0;j<AMOUNT_OF_COLUMNS;j++){
-                newMatrix.matrixArray[i][j]=(this.matrixArray[i][j]+matrix.matrixArray[i][j]);
-            }
-        }
+        ArrayKernels.add(left,right,newMatrix.matrixArray,newMatrix.matrixArray.length);
         return newMatrix;
     }
     /**
      * Creates and returns a matrix which is the difference of this matrix and another matrix
      * @param matrix the matrix that is to be subtracted from this matrix
      * @return a matrix which is the difference of this matrix and another matrix
+     * @throws IllegalArgumentException if the two matrices do not have the same size
      */
     public Matrix minus(Matrix matrix){
+        checkSameSize(matrix,"subtracted from");
+        double[] left=this.denseEntries(false);
+        double[] right=matrix.denseEntries(false);
         Matrix newMatrix=new Matrix(AMOUNT_OF_ROWS,AMOUNT_OF_COLUMNS);
-        for(int i=0;i<AMOUNT_OF_ROWS;i++){
-            for(int j=0;j<AMOUNT_OF_COLUMNS;j++){
-                newMatrix.matrixArray[i][j]=(this.matrixArray[i][j]-matrix.matrixArray[i][j]);
-            }
-        }
+        ArrayKernels.subtract(left,right,newMatrix.matrixArray,newMatrix.matrixArray.length);
         return newMatrix;
     }
 
+    private void checkSameSize(Matrix matrix,String operation){
+        if(matrix.AMOUNT_OF_ROWS!=AMOUNT_OF_ROWS || matrix.AMOUNT_OF_COLUMNS!=AMOUNT_OF_COLUMNS){
+            throw new IllegalArgumentException("A "+matrix.getDimensions()+" matrix cannot be "+
+                    operation+" a "+getDimensions()+" matrix");
+        }
+    }
+
+    /**
+     * Creates and returns the sum of this matrix and a diagonal matrix. Only the diagonal of a
+     * copy of this matrix is changed, so this does not create the dense form of the diagonal
+     * matrix.
+     * @param matrix the diagonal matrix that is to be added to this matrix
+     * @return a matrix which is the sum of this matrix and the diagonal matrix
+     * @throws IllegalArgumentException if the two matrices do not have the same size
+     */
+    public Matrix plus(DiagonalMatrix matrix){
+        return matrix.addTo(this,1,1);
+    }
+
+    /**
+     * Creates and returns the difference of this matrix and a diagonal matrix. Only the diagonal
+     * of a copy of this matrix is changed.
+     * @param matrix the diagonal matrix that is to be subtracted from this matrix
+     * @return a matrix which is the difference of this matrix and the diagonal matrix
+     * @throws IllegalArgumentException if the two matrices do not have the same size
+     */
+    public Matrix minus(DiagonalMatrix matrix){
+        return matrix.addTo(this,1,-1);
+    }
+
+    /**
+     * Creates and returns the product of this matrix and another matrix. Small products are
+     * calculated with a simple triple loop, while larger products use a cache-blocked kernel
+     * that packs the transpose of {@code matrix} into contiguous memory first. The
+     * {@link ParallelismPolicy#getDefault() default parallelism policy} decides whether the
+     * product is calculated in parallel.
+     * @param matrix the matrix by which this matrix is to be multiplied
+     * @return the product of this matrix and the passed matrix
+     * @throws IncompatibleMatrixMultiplicationException if the amount of columns in this matrix
+     * does not match the amount of rows in the passed matrix
+     */
     public Matrix dotProduct(Matrix matrix) throws IncompatibleMatrixMultiplicationException{
+        return dotProduct(matrix,ParallelismPolicy.getDefault());
+    }
+
+    /**
+     * Creates and returns the product of this matrix and another matrix. If the product is
+     * large enough for the passed policy, its rows are split into bands that are calculated in
+     * parallel.
+     * @param matrix the matrix by which this matrix is to be multiplied
+     * @param policy decides whether the product is calculated in parallel
+     * @return the product of this matrix and the passed matrix
+     * @throws IncompatibleMatrixMultiplicationException if the amount of columns in this matrix
+     * does not match the amount of rows in the passed matrix
+     */
+    public Matrix dotProduct(Matrix matrix,ParallelismPolicy policy)
+            throws IncompatibleMatrixMultiplicationException{
         if(!matricesCanBeMultiplied(this,matrix)){
             throw new IncompatibleMatrixMultiplicationException(this,matrix);
         }
-        final int rows=this.AMOUNT_OF_ROWS;
-        final int columns=matrix.AMOUNT_OF_COLUMNS;
-        double[][] product=new double[rows][columns];
+        double[] product=MultiplicationKernel.multiply(
+                this.denseEntries(false),this.AMOUNT_OF_ROWS,this.AMOUNT_OF_COLUMNS,
+                matrix,
+                policy
+        );
 
-        for(int row=0;row<rows;row++){
-            for(int column=0;column<columns;column++){
-                product[row][column]=rowColumnProduct(this,row,matrix,column);
-            }
+        return new Matrix(AMOUNT_OF_ROWS,matrix.AMOUNT_OF_COLUMNS,AUGMENT_INDEX,product);
+    }
+
+    /**
+     * Creates and returns the product of this matrix and another matrix with the Winograd
+     * variant of Strassen's algorithm, which recursively splits the matrices into quadrants
+     * until they have at most {@link #DEFAULT_STRASSEN_CUTOFF} rows, inner columns or columns.
+     * See {@link #dotProductByStrassen(Matrix,int,ParallelismPolicy)} for when this is faster
+     * than {@link #dotProduct(Matrix)}, and how much less accurate it is.
+     * @param matrix the matrix by which this matrix is to be multiplied
+     * @return the product of this matrix and the passed matrix
+     * @throws IncompatibleMatrixMultiplicationException if the amount of columns in this matrix
+     * does not match the amount of rows in the passed matrix
+     */
+    public Matrix dotProductByStrassen(Matrix matrix)
+            throws IncompatibleMatrixMultiplicationException{
+        return dotProductByStrassen(matrix,DEFAULT_STRASSEN_CUTOFF,ParallelismPolicy.getDefault());
+    }
+
+    /**
+     * Creates and returns the product of this matrix and another matrix with the Winograd
+     * variant of Strassen's algorithm. Each level of recursion replaces 8 products of quadrants
+     * with 7, and some additions, so a product that takes L levels to get down to the cutoff
+     * does about (7/8)<sup>L</sup> as many multiplications as {@link #dotProduct(Matrix)}.
+     * The additions are limited by how fast memory can be read, so this is only faster for
+     * matrices that are several times larger than the cutoff in every dimension; matrices that
+     * are no larger than the cutoff in some dimension are multiplied classically. The best
+     * cutoff depends on the processor, and is usually a few hundred.<br /><br />
+     * Strassen's algorithm is less accurate than the classical algorithm. Let u be the precision
+     * of a double (about 1.1·10⁻¹⁶), n the size of square matrices, n₀ the size of the quadrants
+     * at the cutoff, and ‖·‖ the largest magnitude of an entry. The error of each entry of the
+     * classical product is bounded in proportion to that entry's own row and column:
+     * <blockquote>|C-Ĉ| ≤ n·u·|A|·|B|</blockquote>
+     * while the Winograd variant can only be bounded over the whole matrix (Higham, <i>Accuracy
+     * and Stability of Numerical Algorithms</i>, section 23.2.2):
+     * <blockquote>‖C-Ĉ‖ ≤ [(n/n₀)<sup>log₂18</sup>·(n₀²+6n₀)-6n]·u·‖A‖·‖B‖</blockquote>
+     * Doubling n adds a level, which multiplies this bound by 18, but it only multiplies the
+     * classical bound by 2. In practice, the errors are far below both bounds, but each level
+     * still makes the largest error about 3 times as large, so a product that takes 3 levels is
+     * about 20 times less accurate than the classical product. The difference matters most when
+     * the entries of a product are much smaller than the entries of the matrices because of
+     * cancellation, or when the rows or columns of a matrix have very different scales: the bound
+     * is relative to the largest entries of A and B, so small entries of the product can lose all
+     * of their accuracy. Scaling the rows of A and the columns of B to similar magnitudes first
+     * helps.
+     * @param matrix the matrix by which this matrix is to be multiplied
+     * @param cutoff the recursion stops once the amount of rows, inner columns or columns of the
+     *               quadrants is at most this
+     * @param policy decides whether the products of quadrants at the cutoff are calculated in
+     *               parallel
+     * @return the product of this matrix and the passed matrix
+     * @throws IncompatibleMatrixMultiplicationException if the amount of columns in this matrix
+     * does not match the amount of rows in the passed matrix
+     * @throws IllegalArgumentException if {@code cutoff} is less than 1
+     */
+    public Matrix dotProductByStrassen(Matrix matrix,int cutoff,ParallelismPolicy policy)
+            throws IncompatibleMatrixMultiplicationException{
+        if(!matricesCanBeMultiplied(this,matrix)){
+            throw new IncompatibleMatrixMultiplicationException(this,matrix);
         }
+        if(cutoff<1){
+            throw new IllegalArgumentException("The cutoff must be at least 1, but it was "+
+                    cutoff);
+        }
+        double[] product=StrassenKernel.multiply(
+                this.denseEntries(false),this.AMOUNT_OF_ROWS,this.AMOUNT_OF_COLUMNS,
+                matrix.denseEntries(false),matrix.AMOUNT_OF_COLUMNS,
+                cutoff,
+                policy
+        );
+        return new Matrix(AMOUNT_OF_ROWS,matrix.AMOUNT_OF_COLUMNS,AUGMENT_INDEX,product);
+    }
 
-        return new Matrix(product,AUGMENT_INDEX);
+    /**
+     * Multiplies a vector by this matrix without creating any objects, for use by the iterative
+     * solvers. Each entry of the product is the dot product of a row of this matrix with the
+     * vector.
+     * @param vector the entries of the vector that is to be multiplied
+     * @param product the array into which the product is written
+     */
+    @Override
+    public void apply(double[] vector,double[] product){
+        for(int row=0;row<AMOUNT_OF_ROWS;row++){
+            product[row]=ArrayKernels.dot(matrixArray,indexOf(row,0),COLUMN_STRIDE,vector,0,1,
+                    AMOUNT_OF_COLUMNS);
+        }
     }
 
     /**
-     * Multiplies the entries in the <i>row</i>th row of <code>matrix1</code> by the entries in
-     * the <i>column</i>th column of <code>matrix2</code>
-     * @param matrix1 the first matrix in the multiplication
-     * @param row the index of the row from {@code matrix1} that is to be multiplied
-     * @param matrix2 the second matrix in the multiplication
-     * @param column the index of the column from {@code matrix2} that is to be multiplied
-     * @return the dot product of the <i>row</i>th row of <code>matrix1</code> and the
-     * <i>column</i>th column of <code>matrix2</code>
+     * Creates and returns the product of this matrix and a sparse matrix. This is calculated as
+     * the transpose of the product of the transpose of the sparse matrix and the transpose of this
+     * matrix, so that the sparse matrix can add whole rows at a time; the returned matrix is a
+     * transposed view of that product.
+     * @param matrix the sparse matrix by which this matrix is to be multiplied
+     * @return the product of this matrix and the passed matrix
+     * @throws IncompatibleMatrixMultiplicationException if the amount of columns in this matrix
+     * does not match the amount of rows in the passed matrix
      */
-    private double rowColumnProduct(Matrix matrix1,int row,Matrix matrix2,int column){
-        //maybe verify that the two matrices can be multiplied
-        //this might not be needed because this method should only be accessed by other methods
-        // that should already verify this
+    public Matrix dotProduct(SparseMatrix matrix) throws IncompatibleMatrixMultiplicationException{
+        if(AMOUNT_OF_COLUMNS!=matrix.AMOUNT_OF_ROWS){
+            throw new IncompatibleMatrixMultiplicationException("Matrices of incompatible "+
+                    "dimensions attempted to be multiplied. A "+getDimensions()+" matrix cannot "+
+                    "be multiplied by a "+matrix.getDimensions()+" matrix. The amount of columns "+
+                    "in the first matrix must match the amount of rows in the second matrix");
+        }
+        return matrix.transpose().dotProduct(this.transpose()).transpose();
+    }
 
-        double sum=0;
-        for(int i=0;i<matrix1.AMOUNT_OF_COLUMNS;i++){
-            sum+=(matrix1.getEntry(row,i)*matrix2.getEntry(i,column));
+    /**
+     * Creates and returns the product of this matrix and a diagonal matrix, which multiplies
+     * each column of this matrix by the matching diagonal entry in O(mn) time. If the diagonal
+     * matrix is an {@link IdentityMatrix}, this matrix is returned.
+     * @param matrix the diagonal matrix by which this matrix is to be multiplied
+     * @return the product of this matrix and the passed matrix
+     * @throws IncompatibleMatrixMultiplicationException if the amount of columns in this matrix
+     * does not match the dimension of the diagonal matrix
+     */
+    public Matrix dotProduct(DiagonalMatrix matrix)
+            throws IncompatibleMatrixMultiplicationException{
+        if(AMOUNT_OF_COLUMNS!=matrix.DIMENSION){
+            throw new IncompatibleMatrixMultiplicationException("Matrices of incompatible "+
+                    "dimensions attempted to be multiplied. A "+getDimensions()+" matrix cannot "+
+                    "be multiplied by a "+matrix.getDimensions()+" matrix. The amount of columns "+
+                    "in the first matrix must match the amount of rows in the second matrix");
         }
-        return sum;
+        return matrix.scaleColumnsOf(this);
+    }
+
+    /**
+     * Creates an expression that holds this matrix. Operations on the expression are recorded
+     * instead of calculated, and {@link MatrixExpression#evaluate()} calculates them all in one
+     * pass, without the temporary matrices that a chain of operations on this class creates.
+     * @return an expression whose result is this matrix
+     */
+    public MatrixExpression lazy(){
+        return MatrixExpression.of(this);
     }
 
     public Matrix scaledBy(double scalar){
-        Matrix newMatrix=new Matrix(this);
-        for(int i=0;i<AMOUNT_OF_ROWS;i++){
-            for(int j=0;j<AMOUNT_OF_COLUMNS;j++){
-                newMatrix.matrixArray[i][j]*=scalar;
-            }
-        }
-        return newMatrix;
+        double[] entries=this.denseEntries(false);
+        double[] scaled=new double[entries.length];
+        ArrayKernels.scale(entries,0,scalar,scaled,0,entries.length);
+        return new Matrix(AMOUNT_OF_ROWS,AMOUNT_OF_COLUMNS,AUGMENT_INDEX,scaled);
     }
 
     private static boolean matricesCanBeMultiplied(Matrix matrix1,Matrix matrix2){
@@ -758,18 +1088,7 @@ public class Matrix{
      * @return a new matrix with the row at {@code index1} swapped with the row at {@code index2}
      */
     public Matrix swapRows(int index1,int index2){
-        Matrix newMatrix=new Matrix(this);
-        double[] row1=newMatrix.matrixArray[index1];
-        double[] row2=newMatrix.matrixArray[index2];
-        double[] temp=row2;
-
-        row2=row1;
-        row1=temp;
-
-        newMatrix.matrixArray[index2]=row2;
-        newMatrix.matrixArray[index1]=row1;
-
-        return newMatrix;
+        return new MatrixBuilder(this).swapRows(index1,index2).build();
     }
 
     /**
@@ -779,20 +1098,18 @@ public class Matrix{
      * @return a new matrix in which the specified row is scaled by a factor.
      */
     public Matrix scaleRow(int rowIndex,double factor){
-        Matrix newMatrix=new Matrix(this);
-        for(int i=0;i<AMOUNT_OF_COLUMNS;i++){
-            newMatrix.matrixArray[rowIndex][i]*=factor;
-        }
-        return newMatrix;
+        return new MatrixBuilder(this).scaleRow(rowIndex,factor).build();
     }
 
-    // TODO: document this
+    /**
+     * Creates and returns a new matrix in which a multiple of one row is added to another row.
+     * @param row the index of the row that is to be changed
+     * @param otherRow the index of the row whose multiple is to be added to {@code row}
+     * @param scale the factor by which {@code otherRow} is multiplied before it is added
+     * @return a new matrix in which {@code scale} times {@code otherRow} is added to {@code row}
+     */
     public Matrix addScaledOtherRow(int row, int otherRow, double scale){
-        double[][] newMatrix=matrixArray.clone();
-        for(int column=0;column<AMOUNT_OF_COLUMNS;column++){
-            newMatrix[row][column]+=(newMatrix[otherRow][column]*scale);
-        }
-        return new Matrix(newMatrix,AUGMENT_INDEX);
+        return new MatrixBuilder(this).addScaledOtherRow(row,otherRow,scale).build();
     }
 
 }
@@ -0,0 +1,363 @@
+package LinearAlgebra;
+
+import LinearAlgebra.Exceptions.IncompatibleMatrixMultiplicationException;
+import LinearAlgebra.Exceptions.UndecomposableMatrixException;
+import LinearAlgebra.Exceptions.UninvertibleMatrixException;
+
+
+/**
+ * This class holds many small matrices of the same size in one array, so that thousands of tiny
+ * systems can be multiplied, decomposed, solved and inverted without creating a {@link Matrix}
+ * for each one. The matrices are stored one after another, and the entries of each matrix are
+ * stored one row after another, so matrix k starts at index {@code k*rows*columns} of the array
+ * and is contiguous in memory.<br />
+ * Each operation works through the whole batch in one loop with no allocation per matrix, and it
+ * can split the batch into ranges of matrices that are worked on in parallel by a
+ * {@link ParallelismPolicy}. The work of a batched operation is the work of one matrix times the
+ * amount of matrices, so a batch of many small matrices can be worth running in parallel even
+ * though a single one never is.<br />
+ * Unlike a Matrix, a batch can be changed after it is constructed, so that it can be reused as
+ * the input of a pipeline; the operations never change the batch that they are called on.
+ * @author Mark Angelot
+ * @since March 30, 2024
+ */
+public final class MatrixBatch{
+//--Fields--//
+
+    /** This array holds the entries of every matrix, one matrix after another. */
+    final double[] ENTRIES;
+    /** This holds how many matrices are in the batch. */
+    public final int AMOUNT_OF_MATRICES;
+    /** This holds how many rows are in each matrix. */
+    public final int AMOUNT_OF_ROWS;
+    /** This holds how many columns are in each matrix. */
+    public final int AMOUNT_OF_COLUMNS;
+
+//--Constructors--//
+
+    /**
+     * Constructs a batch of matrices of the specified size in which every entry is 0.
+     * @param amountOfMatrices the amount of matrices in the batch
+     * @param rows the amount of rows in each matrix
+     * @param columns the amount of columns in each matrix
+     * @throws IllegalArgumentException if any of the arguments is negative or zero, or if the
+     * batch would have too many entries to fit in one array
+     */
+    public MatrixBatch(int amountOfMatrices,int rows,int columns){
+        this(amountOfMatrices,rows,columns,new double[checkedSize(amountOfMatrices,rows,columns)]);
+    }
+
+    /**
+     * Constructs a batch that holds copies of the passed matrices, in the same order.
+     * @param matrices the matrices that are to be copied into the batch
+     * @throws IllegalArgumentException if no matrices are passed or if they are not all the
+     * same size
+     */
+    public MatrixBatch(Matrix... matrices){
+        this(matrices.length,(matrices.length==0)?0:matrices[0].AMOUNT_OF_ROWS,
+                (matrices.length==0)?0:matrices[0].AMOUNT_OF_COLUMNS);
+        for(int k=0;k<matrices.length;k++){
+            setMatrix(k,matrices[k]);
+        }
+    }
+
+    /**
+     * Constructs a batch that uses the passed array as its entries without copying it.
+     */
+    MatrixBatch(int amountOfMatrices,int rows,int columns,double[] entries){
+        checkedSize(amountOfMatrices,rows,columns);
+        ENTRIES=entries;
+        AMOUNT_OF_MATRICES=amountOfMatrices;
+        AMOUNT_OF_ROWS=rows;
+        AMOUNT_OF_COLUMNS=columns;
+    }
+
+    /**
+     * Creates a batch whose entries are the passed array, without copying it. The array holds
+     * one matrix after another, and the entries of each matrix one row after another. Changes to
+     * the array are seen by the batch and the other way around, so data that is already in this
+     * layout can be worked on without being copied.
+     * @param rows the amount of rows in each matrix
+     * @param columns the amount of columns in each matrix
+     * @param entries the entries of every matrix
+     * @return a batch of {@code entries.length/(rows*columns)} matrices
+     * @throws IllegalArgumentException if {@code rows} or {@code columns} is negative or zero,
+     * or if the length of the array is not a positive multiple of {@code rows*columns}
+     */
+    public static MatrixBatch wrap(int rows,int columns,double[] entries){
+        if(rows<1 || columns<1){
+            throw new IllegalArgumentException("Matrix must have positive, nonzero dimensions");
+        }
+        final long matrixSize=((long)rows*columns);
+        if(entries.length==0 || (entries.length%matrixSize)!=0){
+            throw new IllegalArgumentException("An array of "+entries.length+" entries does not "+
+                    "hold a whole number of "+rows+"×"+columns+" matrices");
+        }
+        return new MatrixBatch((int)(entries.length/matrixSize),rows,columns,entries);
+    }
+
+    private static int checkedSize(int amountOfMatrices,int rows,int columns){
+        if(amountOfMatrices<1){
+            throw new IllegalArgumentException("A batch must have at least one matrix");
+        }
+        if(rows<1 || columns<1){
+            throw new IllegalArgumentException("Matrix must have positive, nonzero dimensions");
+        }
+        final long size=((long)amountOfMatrices*rows*columns);
+        if(size>Integer.MAX_VALUE){
+            throw new IllegalArgumentException(amountOfMatrices+" "+rows+"×"+columns+
+                    " matrices have too many entries to be stored in one array");
+        }
+        return (int)size;
+    }
+
+//--Getters and Setters--//
+
+    /**
+     * @param matrix the index of the matrix in the batch
+     * @param row the row in which to find the entry
+     * @param column the column in which to find the entry
+     * @return the entry at the passed row and column of the passed matrix
+     */
+    public double getEntry(int matrix,int row,int column){
+        return ENTRIES[indexOf(matrix,row,column)];
+    }
+
+    /**
+     * Sets the entry at the passed row and column of the passed matrix to the passed value.
+     * @param matrix the index of the matrix in the batch
+     * @param row the row of the entry
+     * @param column the column of the entry
+     * @param newValue the new value of the entry
+     * @return this batch
+     */
+    public MatrixBatch setEntry(int matrix,int row,int column,double newValue){
+        ENTRIES[indexOf(matrix,row,column)]=newValue;
+        return this;
+    }
+
+    /**
+     * @param index the index of the matrix in the batch
+     * @return a copy of the matrix at the passed index
+     */
+    public Matrix getMatrix(int index){
+        checkIndex(index);
+        final int size=(AMOUNT_OF_ROWS*AMOUNT_OF_COLUMNS);
+        double[] entries=new double[size];
+        System.arraycopy(ENTRIES,(index*size),entries,0,size);
+        return new Matrix(AMOUNT_OF_ROWS,AMOUNT_OF_COLUMNS,Matrix.DEFAULT_AUGMENT_INDEX,entries);
+    }
+
+    /**
+     * Copies the entries of a matrix into the batch at the passed index.
+     * @param index the index of the matrix in the batch
+     * @param matrix the matrix whose entries are copied
+     * @return this batch
+     * @throws IllegalArgumentException if the matrix is not the same size as the matrices in
+     * the batch
+     */
+    public MatrixBatch setMatrix(int index,Matrix matrix){
+        checkIndex(index);
+        if(matrix.AMOUNT_OF_ROWS!=AMOUNT_OF_ROWS || matrix.AMOUNT_OF_COLUMNS!=AMOUNT_OF_COLUMNS){
+            throw new IllegalArgumentException("A "+matrix.getDimensions()+" matrix cannot be "+
+                    "put in a batch of "+getDimensions()+" matrices");
+        }
+        final int start=(index*AMOUNT_OF_ROWS*AMOUNT_OF_COLUMNS);
+        for(int row=0;row<AMOUNT_OF_ROWS;row++){
+            matrix.copyRowInto(row,ENTRIES,(start+row*AMOUNT_OF_COLUMNS));
+        }
+        return this;
+    }
+
+    /**
+     * @return the array that holds the entries of every matrix. This is not a copy, so changes to
+     * the array are seen by the batch.
+     */
+    public double[] getEntries(){
+        return ENTRIES;
+    }
+
+    /**
+     * @return the dimensions of each matrix in the batch, in the form "rows×columns"
+     */
+    public String getDimensions(){
+        return AMOUNT_OF_ROWS+"×"+AMOUNT_OF_COLUMNS;
+    }
+
+    @Override
+    public String toString(){
+        return "A batch of "+AMOUNT_OF_MATRICES+" "+getDimensions()+" matrices";
+    }
+
+    private int indexOf(int matrix,int row,int column){
+        checkIndex(matrix);
+        if(row<0 || row>=AMOUNT_OF_ROWS || column<0 || column>=AMOUNT_OF_COLUMNS){
+            throw new IndexOutOfBoundsException("("+row+", "+column+") is outside a "+
+                    getDimensions()+" matrix");
+        }
+        return ((matrix*AMOUNT_OF_ROWS+row)*AMOUNT_OF_COLUMNS+column);
+    }
+
+    private void checkIndex(int index){
+        if(index<0 || index>=AMOUNT_OF_MATRICES){
+            throw new IndexOutOfBoundsException(index+" is outside a batch of "+
+                    AMOUNT_OF_MATRICES+" matrices");
+        }
+    }
+
+//--Properties--//
+
+    /**
+     * @return true if the matrices in this batch are square, or false otherwise
+     */
+    public boolean isSquare(){
+        return (AMOUNT_OF_ROWS==AMOUNT_OF_COLUMNS);
+    }
+
+//--Multiplication--//
+
+    /**
+     * Multiplies every matrix in this batch by the matrix at the same index in another batch. The
+     * batch is split across threads if it is large enough for the
+     * {@link ParallelismPolicy#getDefault() default policy}.
+     * @param batch the batch of matrices on the right of each product. If it has only one matrix,
+     *              every matrix in this batch is multiplied by that matrix.
+     * @return a batch of the products
+     * @throws IncompatibleMatrixMultiplicationException if the matrices in this batch do not have
+     * as many columns as the matrices in the other batch have rows
+     * @throws IllegalArgumentException if the other batch has more than one matrix, but not as
+     * many as this batch
+     */
+    public MatrixBatch dotProduct(MatrixBatch batch)
+            throws IncompatibleMatrixMultiplicationException{
+        return dotProduct(batch,ParallelismPolicy.getDefault());
+    }
+
+    /**
+     * Multiplies every matrix in this batch by the matrix at the same index in another batch.
+     * @param batch the batch of matrices on the right of each product. If it has only one matrix,
+     *              every matrix in this batch is multiplied by that matrix.
+     * @param policy decides whether the batch is split into ranges of matrices that are
+     *               multiplied in parallel
+     * @return a batch of the products
+     * @throws IncompatibleMatrixMultiplicationException if the matrices in this batch do not have
+     * as many columns as the matrices in the other batch have rows
+     * @throws IllegalArgumentException if the other batch has more than one matrix, but not as
+     * many as this batch
+     */
+    public MatrixBatch dotProduct(MatrixBatch batch,ParallelismPolicy policy)
+            throws IncompatibleMatrixMultiplicationException{
+        if(AMOUNT_OF_COLUMNS!=batch.AMOUNT_OF_ROWS){
+            throw new IncompatibleMatrixMultiplicationException("Matrices of incompatible "+
+                    "dimensions attempted to be multiplied. A "+getDimensions()+" matrix cannot "+
+                    "be multiplied by a "+batch.getDimensions()+" matrix.");
+        }
+        if(batch.AMOUNT_OF_MATRICES!=1 && batch.AMOUNT_OF_MATRICES!=AMOUNT_OF_MATRICES){
+            throw new IllegalArgumentException("A batch of "+AMOUNT_OF_MATRICES+" matrices "+
+                    "cannot be multiplied by a batch of "+batch.AMOUNT_OF_MATRICES);
+        }
+        final int rows=AMOUNT_OF_ROWS;
+        final int inner=AMOUNT_OF_COLUMNS;
+        final int columns=batch.AMOUNT_OF_COLUMNS;
+        final int rightSize=(batch.AMOUNT_OF_MATRICES==1)?0:(inner*columns);
+        final double[] left=ENTRIES;
+        final double[] right=batch.ENTRIES;
+        double[] product=new double[(AMOUNT_OF_MATRICES*rows*columns)];
+        policy.forEachRange(AMOUNT_OF_MATRICES,((long)rows*inner*columns),(first,last)->{
+            for(int k=first;k<last;k++){
+                final int leftStart=(k*rows*inner);
+                final int rightStart=(k*rightSize);
+                final int productStart=(k*rows*columns);
+                for(int row=0;row<rows;row++){
+                    final int productOffset=(productStart+row*columns);
+                    for(int i=0;i<inner;i++){
+                        final double entry=left[(leftStart+row*inner+i)];
+                        final int rightOffset=(rightStart+i*columns);
+                        for(int column=0;column<columns;column++){
+                            product[(productOffset+column)]+=entry*right[(rightOffset+column)];
+                        }
+                    }
+                }
+            }
+        });
+        return new MatrixBatch(AMOUNT_OF_MATRICES,rows,columns,product);
+    }
+
+//--Solving--//
+
+    /**
+     * Calculates the LU decomposition of every matrix in this batch, splitting the batch across
+     * threads if it is large enough for the {@link ParallelismPolicy#getDefault() default
+     * policy}.
+     * @return the decompositions of the matrices in this batch
+     * @throws UndecomposableMatrixException if the matrices in this batch are not square
+     */
+    public BatchLUDecomposition decomposeLU() throws UndecomposableMatrixException{
+        return decomposeLU(ParallelismPolicy.getDefault());
+    }
+
+    /**
+     * Calculates the LU decomposition of every matrix in this batch. The decomposition can then
+     * solve and invert the whole batch with the same policy.
+     * @param policy decides whether the batch is split into ranges of matrices that are
+     *               decomposed in parallel
+     * @return the decompositions of the matrices in this batch
+     * @throws UndecomposableMatrixException if the matrices in this batch are not square
+     */
+    public BatchLUDecomposition decomposeLU(ParallelismPolicy policy)
+            throws UndecomposableMatrixException{
+        return new BatchLUDecomposition(this,policy);
+    }
+
+    /**
+     * Calculates and returns the determinant of every matrix in this batch with an LU
+     * decomposition.
+     * @return an array whose entry k is the determinant of matrix k
+     * @throws UndecomposableMatrixException if the matrices in this batch are not square
+     */
+    public double[] determinants() throws UndecomposableMatrixException{
+        if(!isSquare()){
+            throw new UndecomposableMatrixException("Only square matrices have determinants, but "+
+                    "this batch holds "+getDimensions()+" matrices");
+        }
+        return decomposeLU().determinants();
+    }
+
+    /**
+     * Solves A<sub>k</sub>·X<sub>k</sub>=B<sub>k</sub> for every matrix A<sub>k</sub> in this
+     * batch, where B<sub>k</sub> is the matrix at the same index in the passed batch.
+     * @param batch the right-hand sides, which can have any amount of columns
+     * @return a batch of the solutions, which are the same size as the right-hand sides
+     * @throws UninvertibleMatrixException if the matrices in this batch are not square, or if
+     * any of them is singular
+     * @throws IllegalArgumentException if the right-hand sides do not have as many rows as the
+     * matrices in this batch, or if there are not as many of them as there are matrices
+     */
+    public MatrixBatch solve(MatrixBatch batch) throws UninvertibleMatrixException{
+        return decomposeForInverse().solve(batch);
+    }
+
+    /**
+     * Calculates and returns the inverse of every matrix in this batch.
+     * @return a batch of the inverses
+     * @throws UninvertibleMatrixException if the matrices in this batch are not square, or if
+     * any of them is singular
+     */
+    public MatrixBatch inverse() throws UninvertibleMatrixException{
+        return decomposeForInverse().inverse();
+    }
+
+    private BatchLUDecomposition decomposeForInverse() throws UninvertibleMatrixException{
+        if(!isSquare()){
+            throw new UninvertibleMatrixException("This batch holds "+getDimensions()+
+                    " matrices, so they cannot be inverted. Only square matrices can be inverted.");
+        }
+        try{
+            return decomposeLU();
+        }
+        catch(UndecomposableMatrixException e){
+            // this is impossible, because the matrices were just checked to be square
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package LinearAlgebra;
+
+/**
+ * This class is a mutable workspace for building a {@link Matrix}. Unlike a Matrix, whose
+ * operations each create and return a new matrix, the row operations of this class change the
+ * entries in place, so an algorithm that performs many row operations does not create a new
+ * matrix for each one.<br />
+ * When the entries are final, {@link #build()} turns them into an immutable Matrix without
+ * copying them. If this builder is changed after that, it first copies its entries so that the
+ * Matrix that was built does not change.
+ * @author Mark Angelot
+ * @since January 14, 2024
+ */
+public class MatrixBuilder{
+//--Fields--//
+
+    /** This array contains the entries of the matrix that is being built, one row after
+     * another. The entry at (row, column) is at index {@code row*AMOUNT_OF_COLUMNS+column}. */
+    private double[] entries;
+    /** This is true if {@link #entries} belongs to a Matrix that was built, in which case it has
+     * to be copied before it is changed. */
+    private boolean isShared;
+    /** This is the index at which the augmentation begins, or -1 if the matrix that is being
+     * built is not augmented. */
+    private final int AUGMENT_INDEX;
+    /** This holds how many rows are in the matrix that is being built. */
+    public final int AMOUNT_OF_ROWS;
+    /** This holds how many columns are in the matrix that is being built. */
+    public final int AMOUNT_OF_COLUMNS;
+
+//--Constructors--//
+
+    /**
+     * Constructs a builder for an unaugmented matrix of the specified size, whose entries all
+     * start as 0.
+     * @param rows the amount of rows in the matrix
+     * @param columns the amount of columns in the matrix
+     * @throws IllegalArgumentException if {@code rows} or {@code columns} is negative or zero
+     */
+    public MatrixBuilder(int rows,int columns){
+        this(rows,columns,Matrix.DEFAULT_AUGMENT_INDEX);
+    }
+
+    /**
+     * Constructs a builder for an augmented matrix of the specified size, whose entries all start
+     * as 0.
+     * @param rows the amount of rows in the matrix
+     * @param columns the amount of columns in the matrix
+     * @param augmentIndex the index after which the augmentation begins
+     * @throws IllegalArgumentException if {@code rows} or {@code columns} is negative or zero
+     */
+    public MatrixBuilder(int rows,int columns,int augmentIndex){
+        if(rows<1 || columns<1){
+            throw new IllegalArgumentException("Matrix must have positive, nonzero dimensions");
+        }
+        entries=new double[(rows*columns)];
+        AUGMENT_INDEX=augmentIndex;
+        AMOUNT_OF_ROWS=rows;
+        AMOUNT_OF_COLUMNS=columns;
+    }
+
+    /**
+     * Constructs a builder whose entries start as a copy of the entries of a matrix.
+     * @param matrix the matrix whose entries are to be copied into this builder
+     */
+    public MatrixBuilder(Matrix matrix){
+        entries=matrix.denseEntries(true);
+        AUGMENT_INDEX=matrix.getAugmentIndex();
+        AMOUNT_OF_ROWS=matrix.AMOUNT_OF_ROWS;
+        AMOUNT_OF_COLUMNS=matrix.AMOUNT_OF_COLUMNS;
+    }
+
+//--Getters and Setters--//
+
+    /**
+     * @param row the row in which to find the entry
+     * @param column the column in which to find the entry
+     * @return the entry at the passed row and column
+     */
+    public double getEntry(int row,int column){
+        return entries[(row*AMOUNT_OF_COLUMNS+column)];
+    }
+
+    /**
+     * Sets an entry to a new value.
+     * @param row the row in which the new entry is to go
+     * @param column the column in which the new entry is to go
+     * @param newValue the new value of the entry
+     * @return this builder
+     */
+    public MatrixBuilder setEntry(int row,int column,double newValue){
+        ensureWritable();
+        entries[(row*AMOUNT_OF_COLUMNS+column)]=newValue;
+        return this;
+    }
+
+    /**
+     * Copies the entries of a matrix into this builder, with the top-left entry of the matrix
+     * going to the passed row and column.
+     * @param row the row at which the top of the matrix is to go
+     * @param column the column at which the left side of the matrix is to go
+     * @param matrix the matrix whose entries are to be copied
+     * @return this builder
+     */
+    public MatrixBuilder setBlock(int row,int column,Matrix matrix){
+        ensureWritable();
+        for(int i=0;i<matrix.AMOUNT_OF_ROWS;i++){
+            matrix.copyRowInto(i,entries,((row+i)*AMOUNT_OF_COLUMNS+column));
+        }
+        return this;
+    }
+
+//--Row Operations--//
+
+    /**
+     * Swaps the row at {@code index1} with the row at {@code index2}.
+     * @param index1 the index of the row that is to be swapped with the row at {@code index2}
+     * @param index2 the index of the row that is to be swapped with the row at {@code index1}
+     * @return this builder
+     */
+    public MatrixBuilder swapRows(int index1,int index2){
+        if(index1==index2){
+            return this;
+        }
+        ensureWritable();
+        final int offset1=(index1*AMOUNT_OF_COLUMNS);
+        final int offset2=(index2*AMOUNT_OF_COLUMNS);
+        for(int column=0;column<AMOUNT_OF_COLUMNS;column++){
+            double temp=entries[(offset1+column)];
+            entries[(offset1+column)]=entries[(offset2+column)];
+            entries[(offset2+column)]=temp;
+        }
+        return this;
+    }
+
+    /**
+     * Scales the specified row by a factor.
+     * @param rowIndex the index of the row that is to be scaled by the passed factor
+     * @param factor the factor by which the row at the passed index is to be scaled
+     * @return this builder
+     */
+    public MatrixBuilder scaleRow(int rowIndex,double factor){
+        ensureWritable();
+        final int offset=(rowIndex*AMOUNT_OF_COLUMNS);
+        ArrayKernels.scale(entries,offset,factor,entries,offset,AMOUNT_OF_COLUMNS);
+        return this;
+    }
+
+    /**
+     * Adds a multiple of one row to another row.
+     * @param row the index of the row that is to be changed
+     * @param otherRow the index of the row whose multiple is to be added to {@code row}
+     * @param scale the factor by which {@code otherRow} is multiplied before it is added
+     * @return this builder
+     */
+    public MatrixBuilder addScaledOtherRow(int row,int otherRow,double scale){
+        ensureWritable();
+        addScaledOtherRow(row,otherRow,scale,0);
+        return this;
+    }
+
+    /**
+     * Adds a multiple of one row to another row, starting at the passed column. This is useful
+     * for elimination, where the entries to the left of the pivot are already known to be 0.
+     */
+    private void addScaledOtherRow(int row,int otherRow,double scale,int startingColumn){
+        ArrayKernels.axpy(scale,entries,(otherRow*AMOUNT_OF_COLUMNS+startingColumn),
+                entries,(row*AMOUNT_OF_COLUMNS+startingColumn),(AMOUNT_OF_COLUMNS-startingColumn));
+    }
+
+//--Algorithms--//
+
+    /**
+     * Reduces the entries of this builder to reduced row echelon form using Gauss-Jordan
+     * elimination. In every column, the row with the entry of the greatest magnitude is swapped
+     * into the pivot position, the pivot row is scaled so that the pivot is 1, and the entries
+     * above and below the pivot are made 0. Entries that are within rounding error of 0 are set
+     * to 0 so that they are not used as pivots. All of this is done in place.
+     * @return this builder
+     */
+    public MatrixBuilder reduceToRowEchelonForm(){
+        ensureWritable();
+        double greatestMagnitude=0;
+        for(double entry:entries){
+            greatestMagnitude=Math.max(greatestMagnitude,Math.abs(entry));
+        }
+        final double tolerance=
+                (Math.ulp(1.0)*Math.max(AMOUNT_OF_ROWS,AMOUNT_OF_COLUMNS)*greatestMagnitude);
+
+        int pivotRow=0;
+        for(int column=0;column<AMOUNT_OF_COLUMNS && pivotRow<AMOUNT_OF_ROWS;column++){
+            int greatestRow=pivotRow;
+            for(int row=(pivotRow+1);row<AMOUNT_OF_ROWS;row++){
+                if(Math.abs(getEntry(row,column))>Math.abs(getEntry(greatestRow,column))){
+                    greatestRow=row;
+                }
+            }
+            if(Math.abs(getEntry(greatestRow,column))<=tolerance){
+                // There is no pivot in this column, so it is cleared and the next column is tried
+                for(int row=pivotRow;row<AMOUNT_OF_ROWS;row++){
+                    entries[(row*AMOUNT_OF_COLUMNS+column)]=0;
+                }
+                continue;
+            }
+            swapRows(pivotRow,greatestRow);
+
+            final int pivotOffset=(pivotRow*AMOUNT_OF_COLUMNS);
+            final double reciprocal=(1.0/entries[(pivotOffset+column)]);
+            ArrayKernels.scale(entries,(pivotOffset+column),reciprocal,
+                    entries,(pivotOffset+column),(AMOUNT_OF_COLUMNS-column));
+            entries[(pivotOffset+column)]=1; // this avoids a rounding error in the pivot itself
+
+            for(int row=0;row<AMOUNT_OF_ROWS;row++){
+                double entry=getEntry(row,column);
+                if(row!=pivotRow && entry!=0){
+                    addScaledOtherRow(row,pivotRow,-entry,column);
+                    entries[(row*AMOUNT_OF_COLUMNS+column)]=0;
+                }
+            }
+            pivotRow++;
+        }
+        return this;
+    }
+
+//--Building--//
+
+    /**
+     * Creates and returns an immutable matrix with the entries in this builder. The entries are
+     * not copied. If this builder is changed afterward, it makes its own copy of the entries
+     * first, so the returned matrix never changes.
+     * @return a matrix with the entries in this builder
+     */
+    public Matrix build(){
+        isShared=true;
+        return new Matrix(AMOUNT_OF_ROWS,AMOUNT_OF_COLUMNS,AUGMENT_INDEX,entries);
+    }
+
+    /**
+     * Copies {@link #entries} if it belongs to a Matrix that was built, so that the Matrix does
+     * not change when this builder does.
+     */
+    private void ensureWritable(){
+        if(isShared){
+            entries=entries.clone();
+            isShared=false;
+        }
+    }
+}
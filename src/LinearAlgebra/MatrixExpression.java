@@ -0,0 +1,442 @@
+package LinearAlgebra;
+
+import LinearAlgebra.Exceptions.IncompatibleMatrixMultiplicationException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class records operations on matrices instead of calculating them right away. A chain such
+ * as {@code a.plus(b).scaledBy(2).minus(c)} on {@link Matrix} creates a whole new matrix at every
+ * step, and reads every entry again at every step. The same chain on an expression, such as
+ * {@code a.lazy().plus(b).scaledBy(2).minus(c).evaluate()}, only creates the final matrix.<br />
+ * Sums, differences, scaling and transposing are all linear, so any chain of them is a sum of
+ * the original matrices, each one multiplied by a number and possibly transposed: the chain
+ * above is 2a+2b-c. When an expression is evaluated, it is first reduced to that sum, and then
+ * the sum is calculated in one pass over tiles of the result, so each entry of the result is
+ * written once while the matching entries of every matrix are read once. Transposed matrices
+ * are read as views, so they are never copied.<br />
+ * Products are calculated when they are evaluated, but their operands are reduced the same way
+ * first. Numbers that scale either operand are moved onto the product, and a transposed operand
+ * on the left, as in {@code a.lazy().transpose().dotProduct(b)}, is multiplied by a kernel that
+ * reads the rows of a directly instead of copying its transpose. An operand that is a sum of
+ * several matrices is evaluated into one matrix before it is multiplied.<br />
+ * The sizes of the matrices are checked when each operation is recorded, but no entries are
+ * read until {@link #evaluate()} is called, so the matrices in an expression are not copied and
+ * evaluating the same expression twice calculates it twice. The result of a sum is augmented
+ * at the same column as its matrices if they are all augmented at that column, and is not
+ * augmented otherwise; transposed matrices are never augmented. This class is immutable.
+ * @author Mark Angelot
+ * @since May 4, 2024
+ */
+public abstract class MatrixExpression{
+//--Fields--//
+
+    /** This is how many rows of the result are calculated at a time. */
+    private static final int BAND_HEIGHT=32;
+    /** This is how many columns of the result are calculated at a time. A tile of the result
+     * that is BAND_HEIGHT×TILE_WIDTH should fit in the L2 cache, next to a tile of each
+     * matrix in the sum. */
+    private static final int TILE_WIDTH=256;
+
+    /** This holds how many rows are in the result of this expression. */
+    public final int AMOUNT_OF_ROWS;
+    /** This holds how many columns are in the result of this expression. */
+    public final int AMOUNT_OF_COLUMNS;
+
+//--Constructors--//
+
+    private MatrixExpression(int rows,int columns){
+        AMOUNT_OF_ROWS=rows;
+        AMOUNT_OF_COLUMNS=columns;
+    }
+
+    /**
+     * Creates an expression that holds one matrix. {@link Matrix#lazy()} does the same thing.
+     * @param matrix the matrix that is to be held
+     * @return an expression whose result is the passed matrix
+     */
+    public static MatrixExpression of(Matrix matrix){
+        return new Leaf(matrix);
+    }
+
+//--Operations--//
+
+    /**
+     * @param expression the expression that is to be added to this expression
+     * @return an expression for the sum of this expression and the passed expression
+     * @throws IllegalArgumentException if the two expressions do not have the same size
+     */
+    public MatrixExpression plus(MatrixExpression expression){
+        checkSameSize(expression);
+        return new Sum(this,expression,1);
+    }
+
+    /**
+     * @param matrix the matrix that is to be added to this expression
+     * @return an expression for the sum of this expression and the passed matrix
+     * @throws IllegalArgumentException if this expression and the matrix do not have the same
+     * size
+     */
+    public MatrixExpression plus(Matrix matrix){
+        return plus(of(matrix));
+    }
+
+    /**
+     * @param expression the expression that is to be subtracted from this expression
+     * @return an expression for the difference of this expression and the passed expression
+     * @throws IllegalArgumentException if the two expressions do not have the same size
+     */
+    public MatrixExpression minus(MatrixExpression expression){
+        checkSameSize(expression);
+        return new Sum(this,expression,-1);
+    }
+
+    /**
+     * @param matrix the matrix that is to be subtracted from this expression
+     * @return an expression for the difference of this expression and the passed matrix
+     * @throws IllegalArgumentException if this expression and the matrix do not have the same
+     * size
+     */
+    public MatrixExpression minus(Matrix matrix){
+        return minus(of(matrix));
+    }
+
+    /**
+     * @param scalar the number by which every entry is to be multiplied
+     * @return an expression for this expression multiplied by the passed number
+     */
+    public MatrixExpression scaledBy(double scalar){
+        return new Scaled(this,scalar);
+    }
+
+    /**
+     * @return an expression for the transpose of this expression
+     */
+    public MatrixExpression transpose(){
+        return new Transposed(this);
+    }
+
+    /**
+     * @param expression the expression by which this expression is to be multiplied
+     * @return an expression for the product of this expression and the passed expression
+     * @throws IncompatibleMatrixMultiplicationException if the amount of columns in this
+     * expression does not match the amount of rows in the passed expression
+     */
+    public MatrixExpression dotProduct(MatrixExpression expression)
+            throws IncompatibleMatrixMultiplicationException{
+        if(AMOUNT_OF_COLUMNS!=expression.AMOUNT_OF_ROWS){
+            throw new IncompatibleMatrixMultiplicationException("Matrices of incompatible "+
+                    "dimensions attempted to be multiplied. A "+getDimensions()+" matrix cannot "+
+                    "be multiplied by a "+expression.getDimensions()+" matrix. The amount of "+
+                    "columns in the first matrix must match the amount of rows in the second "+
+                    "matrix");
+        }
+        return new Product(this,expression);
+    }
+
+    /**
+     * @param matrix the matrix by which this expression is to be multiplied
+     * @return an expression for the product of this expression and the passed matrix
+     * @throws IncompatibleMatrixMultiplicationException if the amount of columns in this
+     * expression does not match the amount of rows in the passed matrix
+     */
+    public MatrixExpression dotProduct(Matrix matrix)
+            throws IncompatibleMatrixMultiplicationException{
+        return dotProduct(of(matrix));
+    }
+
+    /**
+     * @return the dimensions of the result of this expression in an "m×n" format
+     */
+    public String getDimensions(){
+        return AMOUNT_OF_ROWS+"×"+AMOUNT_OF_COLUMNS;
+    }
+
+    private void checkSameSize(MatrixExpression expression){
+        if(AMOUNT_OF_ROWS!=expression.AMOUNT_OF_ROWS ||
+           AMOUNT_OF_COLUMNS!=expression.AMOUNT_OF_COLUMNS){
+            throw new IllegalArgumentException("A "+expression.getDimensions()+" matrix cannot "+
+                    "be added to or subtracted from a "+getDimensions()+" matrix");
+        }
+    }
+
+//--Evaluation--//
+
+    /**
+     * Calculates the result of this expression, using the
+     * {@link ParallelismPolicy#getDefault() default parallelism policy}.
+     * @return the result of this expression
+     */
+    public Matrix evaluate(){
+        return evaluate(ParallelismPolicy.getDefault());
+    }
+
+    /**
+     * Calculates the result of this expression. If the result is one matrix of the expression,
+     * or its transpose, without being scaled, that matrix or a transposed view of it is returned
+     * and nothing is copied. Otherwise, the returned matrix is new and stores its rows one after
+     * another.
+     * @param policy decides whether the products and the final sum are calculated in parallel
+     * @return the result of this expression
+     */
+    public Matrix evaluate(ParallelismPolicy policy){
+        List<Term> terms=new ArrayList<>();
+        collectTerms(1,false,terms,policy);
+        return sum(terms,policy);
+    }
+
+    /**
+     * Reduces this expression to a sum of matrices that are each multiplied by a number, and
+     * adds those matrices to the passed list. Products are calculated here.
+     * @param coefficient the number by which the result of this expression is multiplied
+     * @param transposed true if the transpose of the result of this expression is wanted
+     * @param terms the list to which the matrices in the sum are added
+     * @param policy decides whether the products are calculated in parallel
+     */
+    abstract void collectTerms(double coefficient,boolean transposed,List<Term> terms,
+                               ParallelismPolicy policy);
+
+    /**
+     * Calculates a sum of matrices that are each multiplied by a number in one pass. Terms that
+     * are views of the same entries are combined first, so {@code a.lazy().plus(a)} only reads
+     * a once.
+     */
+    private static Matrix sum(List<Term> terms,ParallelismPolicy policy){
+        List<Term> combined=new ArrayList<>();
+        for(Term term:terms){
+            boolean isNew=true;
+            for(int i=0;i<combined.size() && isNew;i++){
+                Term other=combined.get(i);
+                if(other.hasSameEntriesAs(term)){
+                    combined.set(i,new Term(other.MATRIX,(other.COEFFICIENT+term.COEFFICIENT)));
+                    isNew=false;
+                }
+            }
+            if(isNew){
+                combined.add(term);
+            }
+        }
+        if(combined.size()==1 && combined.get(0).COEFFICIENT==1){
+            return combined.get(0).MATRIX;
+        }
+
+        final Matrix first=combined.get(0).MATRIX;
+        final int rows=first.AMOUNT_OF_ROWS;
+        final int columns=first.AMOUNT_OF_COLUMNS;
+        final double[] result=new double[(rows*columns)];
+        final int amountOfBands=((rows+BAND_HEIGHT-1)/BAND_HEIGHT);
+        final long workPerBand=((long)BAND_HEIGHT*columns*combined.size());
+        policy.forEachRange(amountOfBands,workPerBand,(firstBand,lastBand)->{
+            for(int band=firstBand;band<lastBand;band++){
+                final int firstRow=(band*BAND_HEIGHT);
+                final int lastRow=Math.min((firstRow+BAND_HEIGHT),rows);
+                for(int columnStart=0;columnStart<columns;columnStart+=TILE_WIDTH){
+                    final int columnEnd=Math.min((columnStart+TILE_WIDTH),columns);
+                    for(Term term:combined){
+                        term.addTileTo(result,columns,firstRow,lastRow,columnStart,columnEnd);
+                    }
+                }
+            }
+        });
+        return new Matrix(rows,columns,commonAugmentIndex(combined),result);
+    }
+
+    /**
+     * @return the augment index of the matrices in a sum if they all have the same one, so that
+     * scaling an augmented matrix keeps it augmented the way {@link Matrix#scaledBy(double)}
+     * does, or {@link Matrix#DEFAULT_AUGMENT_INDEX} otherwise
+     */
+    private static int commonAugmentIndex(List<Term> terms){
+        final int augmentIndex=terms.get(0).MATRIX.getAugmentIndex();
+        for(Term term:terms){
+            if(term.MATRIX.getAugmentIndex()!=augmentIndex){
+                return Matrix.DEFAULT_AUGMENT_INDEX;
+            }
+        }
+        return augmentIndex;
+    }
+
+    /**
+     * Reduces an operand of a product to a single matrix and the number by which it is
+     * multiplied, evaluating it into a new matrix if it is a sum of several matrices.
+     */
+    private static Term operand(MatrixExpression expression,ParallelismPolicy policy){
+        List<Term> terms=new ArrayList<>();
+        expression.collectTerms(1,false,terms,policy);
+        if(terms.size()==1){
+            return terms.get(0);
+        }
+        return new Term(sum(terms,policy),1);
+    }
+
+    /**
+     * This class holds a matrix in a sum, and the number by which it is multiplied.
+     */
+    static final class Term{
+        final Matrix MATRIX;
+        final double COEFFICIENT;
+
+        Term(Matrix matrix,double coefficient){
+            MATRIX=matrix;
+            COEFFICIENT=coefficient;
+        }
+
+        boolean hasSameEntriesAs(Term other){
+            Matrix a=MATRIX;
+            Matrix b=other.MATRIX;
+            return (a.matrixArray==b.matrixArray && a.OFFSET==b.OFFSET &&
+                    a.ROW_STRIDE==b.ROW_STRIDE && a.COLUMN_STRIDE==b.COLUMN_STRIDE &&
+                    a.AMOUNT_OF_ROWS==b.AMOUNT_OF_ROWS && a.AMOUNT_OF_COLUMNS==b.AMOUNT_OF_COLUMNS);
+        }
+
+        /**
+         * Adds this term to a tile of the result, which stores its rows one after another.
+         */
+        void addTileTo(double[] result,int columns,int firstRow,int lastRow,int columnStart,
+                       int columnEnd){
+            final double[] entries=MATRIX.matrixArray;
+            final int rowStride=MATRIX.ROW_STRIDE;
+            final int columnStride=MATRIX.COLUMN_STRIDE;
+            if(columnStride==1){
+                for(int row=firstRow;row<lastRow;row++){
+                    ArrayKernels.axpy(COEFFICIENT,entries,(MATRIX.OFFSET+row*rowStride+
+                            columnStart),result,(row*columns+columnStart),(columnEnd-columnStart));
+                }
+                return;
+            }
+            // The matrix is a transposed view, so its entries are read down each column of the
+            // tile, which is along a row of the matrix that it was taken from
+            for(int column=columnStart;column<columnEnd;column++){
+                final int start=(MATRIX.OFFSET+column*columnStride);
+                for(int row=firstRow;row<lastRow;row++){
+                    result[(row*columns+column)]+=(COEFFICIENT*entries[(start+row*rowStride)]);
+                }
+            }
+        }
+    }
+
+//--Nodes--//
+
+    /**
+     * This expression holds one matrix.
+     */
+    private static final class Leaf extends MatrixExpression{
+        private final Matrix MATRIX;
+
+        Leaf(Matrix matrix){
+            super(matrix.AMOUNT_OF_ROWS,matrix.AMOUNT_OF_COLUMNS);
+            MATRIX=matrix;
+        }
+
+        @Override
+        void collectTerms(double coefficient,boolean transposed,List<Term> terms,
+                          ParallelismPolicy policy){
+            terms.add(new Term(transposed?MATRIX.transpose():MATRIX,coefficient));
+        }
+    }
+
+    /**
+     * This expression is the sum of two expressions, or their difference if the sign is -1.
+     */
+    private static final class Sum extends MatrixExpression{
+        private final MatrixExpression LEFT;
+        private final MatrixExpression RIGHT;
+        private final int SIGN;
+
+        Sum(MatrixExpression left,MatrixExpression right,int sign){
+            super(left.AMOUNT_OF_ROWS,left.AMOUNT_OF_COLUMNS);
+            LEFT=left;
+            RIGHT=right;
+            SIGN=sign;
+        }
+
+        @Override
+        void collectTerms(double coefficient,boolean transposed,List<Term> terms,
+                          ParallelismPolicy policy){
+            LEFT.collectTerms(coefficient,transposed,terms,policy);
+            RIGHT.collectTerms((SIGN*coefficient),transposed,terms,policy);
+        }
+    }
+
+    /**
+     * This expression is an expression multiplied by a number.
+     */
+    private static final class Scaled extends MatrixExpression{
+        private final MatrixExpression EXPRESSION;
+        private final double SCALAR;
+
+        Scaled(MatrixExpression expression,double scalar){
+            super(expression.AMOUNT_OF_ROWS,expression.AMOUNT_OF_COLUMNS);
+            EXPRESSION=expression;
+            SCALAR=scalar;
+        }
+
+        @Override
+        void collectTerms(double coefficient,boolean transposed,List<Term> terms,
+                          ParallelismPolicy policy){
+            EXPRESSION.collectTerms((SCALAR*coefficient),transposed,terms,policy);
+        }
+    }
+
+    /**
+     * This expression is the transpose of an expression.
+     */
+    private static final class Transposed extends MatrixExpression{
+        private final MatrixExpression EXPRESSION;
+
+        Transposed(MatrixExpression expression){
+            super(expression.AMOUNT_OF_COLUMNS,expression.AMOUNT_OF_ROWS);
+            EXPRESSION=expression;
+        }
+
+        @Override
+        void collectTerms(double coefficient,boolean transposed,List<Term> terms,
+                          ParallelismPolicy policy){
+            EXPRESSION.collectTerms(coefficient,!transposed,terms,policy);
+        }
+    }
+
+    /**
+     * This expression is the product of two expressions.
+     */
+    private static final class Product extends MatrixExpression{
+        private final MatrixExpression LEFT;
+        private final MatrixExpression RIGHT;
+
+        Product(MatrixExpression left,MatrixExpression right){
+            super(left.AMOUNT_OF_ROWS,right.AMOUNT_OF_COLUMNS);
+            LEFT=left;
+            RIGHT=right;
+        }
+
+        @Override
+        void collectTerms(double coefficient,boolean transposed,List<Term> terms,
+                          ParallelismPolicy policy){
+            Term left=operand(LEFT,policy);
+            Term right=operand(RIGHT,policy);
+            Matrix product=multiply(left.MATRIX,right.MATRIX,policy);
+            // The transpose of the product is a view, so it is never calculated as BᵀAᵀ
+            terms.add(new Term(transposed?product.transpose():product,
+                    (coefficient*left.COEFFICIENT*right.COEFFICIENT)));
+        }
+
+        private static Matrix multiply(Matrix left,Matrix right,ParallelismPolicy policy){
+            if(left.ROW_STRIDE==1 && left.COLUMN_STRIDE!=1 && right.COLUMN_STRIDE==1){
+                // The left matrix is the transpose of a matrix with contiguous rows
+                return new Matrix(left.AMOUNT_OF_ROWS,right.AMOUNT_OF_COLUMNS,
+                        Matrix.DEFAULT_AUGMENT_INDEX,MultiplicationKernel.multiplyTransposed(
+                        left.matrixArray,left.OFFSET,left.COLUMN_STRIDE,right.matrixArray,
+                        right.OFFSET,right.ROW_STRIDE,left.AMOUNT_OF_COLUMNS,
+                        left.AMOUNT_OF_ROWS,right.AMOUNT_OF_COLUMNS,policy));
+            }
+            try{
+                return left.dotProduct(right,policy);
+            }
+            catch(IncompatibleMatrixMultiplicationException e){
+                // The sizes were checked when this product was recorded
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
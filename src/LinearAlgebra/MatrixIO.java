@@ -0,0 +1,250 @@
+package LinearAlgebra;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This class reads and writes matrices in a compact binary format, which stores every entry
+ * exactly and can be read back at the speed of the disk. A file starts with a header of
+ * {@value #HEADER_SIZE} bytes, which holds these little-endian ints:
+ * <table>
+ *     <tr><th>Position</th><th>Contents</th></tr>
+ *     <tr><td>0</td><td>the magic number, which is the bytes "LAMX"</td></tr>
+ *     <tr><td>4</td><td>the version of the format, which is {@value #VERSION}</td></tr>
+ *     <tr><td>8</td><td>the layout: {@value #ROW_MAJOR} for row-major, or {@value #TILED} for
+ *     the tiles of a {@link MappedMatrix}</td></tr>
+ *     <tr><td>12</td><td>the amount of rows</td></tr>
+ *     <tr><td>16</td><td>the amount of columns</td></tr>
+ *     <tr><td>20</td><td>the augment index, or -1 if the matrix is not augmented</td></tr>
+ *     <tr><td>24</td><td>the height of each tile (0 in row-major layout)</td></tr>
+ *     <tr><td>28</td><td>the width of each tile (0 in row-major layout)</td></tr>
+ * </table>
+ * The rest of the header is 0s, and the entries follow it as little-endian doubles. Because the
+ * header is a multiple of 8 bytes long, every entry is aligned in the file.<br />
+ * Files are read and written through a {@link FileChannel} in large buffers, so reading a matrix
+ * into the heap copies each entry once. {@link #map(Path)} does not copy anything: it maps the
+ * entries of a file as a {@link MappedMatrix}, which is the way to load a matrix that does not
+ * fit in the heap.
+ * @author Mark Angelot
+ * @since March 16, 2024
+ */
+public final class MatrixIO{
+//--Fields--//
+
+    /** This is the first 4 bytes of every file, "LAMX", read as a little-endian int. */
+    private static final int MAGIC_NUMBER=0x584D414C;
+    /** This is the version of the format that this class writes. */
+    public static final int VERSION=1;
+    /** This is the length of the header in bytes. */
+    public static final int HEADER_SIZE=64;
+    /** In this layout, the entries are stored one row after another. */
+    public static final int ROW_MAJOR=0;
+    /** In this layout, the entries are stored in tiles, as they are by a
+     * {@link MappedMatrixBuilder}. */
+    public static final int TILED=1;
+    /** This is the size of the buffer through which the entries are read and written. */
+    private static final int BUFFER_SIZE=(1<<20);
+
+    private MatrixIO(){}
+
+//--Writing--//
+
+    /**
+     * Writes a matrix to a file in row-major layout. If the file already exists, it is replaced.
+     * The augment index is saved with the entries, so an augmented matrix is read back augmented.
+     * @param matrix the matrix that is to be written. This can be a {@link Vector}.
+     * @param file the file to which the matrix is written
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Matrix matrix,Path file) throws IOException{
+        try(FileChannel channel=FileChannel.open(file,StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,StandardOpenOption.TRUNCATE_EXISTING)){
+            writeFully(channel,header(ROW_MAJOR,matrix.AMOUNT_OF_ROWS,matrix.AMOUNT_OF_COLUMNS,
+                    matrix.getAugmentIndex(),0,0));
+            final double[] entries=matrix.denseEntries(false);
+            ByteBuffer buffer=ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            final int entriesPerBuffer=(BUFFER_SIZE/Double.BYTES);
+            for(int start=0;start<entries.length;start+=entriesPerBuffer){
+                final int length=Math.min(entriesPerBuffer,(entries.length-start));
+                buffer.clear();
+                buffer.asDoubleBuffer().put(entries,start,length);
+                buffer.limit(length*Double.BYTES);
+                writeFully(channel,buffer);
+            }
+        }
+    }
+
+    /**
+     * Creates a file for a matrix in tiled layout and returns a builder that writes the matrix
+     * straight to the file. This is the way to write a matrix that does not fit in the heap; once
+     * it is built, the file can be mapped again later with {@link #map(Path)}.
+     * @param file the file to which the matrix is written. If it already exists, it is replaced.
+     * @param rows the amount of rows in the matrix
+     * @param columns the amount of columns in the matrix
+     * @param tileSize the amount of rows and columns in each tile
+     * @return a builder whose entries are written to the file
+     * @throws IOException if the file cannot be written
+     * @throws IllegalArgumentException if {@code rows}, {@code columns} or {@code tileSize} is
+     * negative or zero
+     */
+    public static MappedMatrixBuilder create(Path file,int rows,int columns,int tileSize)
+            throws IOException{
+        MappedTiles.checkDimensions(rows,columns,tileSize,tileSize);
+        try(FileChannel channel=FileChannel.open(file,StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,StandardOpenOption.TRUNCATE_EXISTING)){
+            writeFully(channel,header(TILED,rows,columns,Matrix.DEFAULT_AUGMENT_INDEX,
+                    Math.min(tileSize,rows),Math.min(tileSize,columns)));
+        }
+        return new MappedMatrixBuilder(file,HEADER_SIZE,rows,columns,tileSize,tileSize);
+    }
+
+    private static ByteBuffer header(int layout,int rows,int columns,int augmentIndex,
+                                     int tileHeight,int tileWidth){
+        ByteBuffer header=ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC_NUMBER).putInt(VERSION).putInt(layout).putInt(rows).putInt(columns)
+                .putInt(augmentIndex).putInt(tileHeight).putInt(tileWidth);
+        header.clear();
+        return header;
+    }
+
+    private static void writeFully(FileChannel channel,ByteBuffer buffer) throws IOException{
+        while(buffer.hasRemaining()){
+            channel.write(buffer);
+        }
+    }
+
+//--Reading--//
+
+    /**
+     * Reads a matrix from a file into the heap.
+     * @param file the file from which the matrix is read
+     * @return the matrix in the file
+     * @throws IOException if the file cannot be read, is not in this format, or is too short
+     */
+    public static Matrix read(Path file) throws IOException{
+        try(FileChannel channel=FileChannel.open(file,StandardOpenOption.READ)){
+            Header header=readHeader(channel,file);
+            if(header.LAYOUT==TILED){
+                return MappedMatrix.open(file,HEADER_SIZE,header.ROWS,header.COLUMNS,
+                        header.TILE_HEIGHT,header.TILE_WIDTH).toMatrix();
+            }
+            final long amountOfEntries=((long)header.ROWS*header.COLUMNS);
+            if(amountOfEntries>Integer.MAX_VALUE){
+                throw new IOException("A "+header.ROWS+"×"+header.COLUMNS+" matrix has too many "+
+                        "entries to be read into the heap; map it instead");
+            }
+            double[] entries=new double[(int)amountOfEntries];
+            ByteBuffer buffer=ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            int start=0;
+            while(start<entries.length){
+                final int length=Math.min((BUFFER_SIZE/Double.BYTES),(entries.length-start));
+                buffer.clear().limit(length*Double.BYTES);
+                while(buffer.hasRemaining()){
+                    if(channel.read(buffer)<0){
+                        throw new EOFException(file+" ends after "+start+" of its "+
+                                entries.length+" entries");
+                    }
+                }
+                buffer.flip();
+                buffer.asDoubleBuffer().get(entries,start,length);
+                start+=length;
+            }
+            return new Matrix(header.ROWS,header.COLUMNS,header.AUGMENT_INDEX,entries);
+        }
+    }
+
+    /**
+     * Reads a vector from a file into the heap.
+     * @param file the file from which the vector is read
+     * @return the vector in the file
+     * @throws IOException if the file cannot be read, is not in this format, is too short, or
+     * holds a matrix with more than one column
+     */
+    public static Vector readVector(Path file) throws IOException{
+        Matrix matrix=read(file);
+        if(matrix.AMOUNT_OF_COLUMNS!=1){
+            throw new IOException(file+" holds a "+matrix.getDimensions()+" matrix, not a vector");
+        }
+        return new Vector(matrix.AMOUNT_OF_ROWS,matrix.matrixArray,0,1);
+    }
+
+    /**
+     * Maps the entries of a file as a {@link MappedMatrix} without reading them. The operating
+     * system reads each part of the file the first time it is used, so this returns immediately
+     * no matter how large the matrix is. Matrices in either layout can be mapped; the augment
+     * index is not kept, because a MappedMatrix is never augmented.
+     * @param file the file that is to be mapped
+     * @return the matrix in the file
+     * @throws IOException if the file cannot be read, is not in this format, or is too short
+     */
+    public static MappedMatrix map(Path file) throws IOException{
+        Header header;
+        try(FileChannel channel=FileChannel.open(file,StandardOpenOption.READ)){
+            header=readHeader(channel,file);
+        }
+        if(header.LAYOUT==TILED){
+            return MappedMatrix.open(file,HEADER_SIZE,header.ROWS,header.COLUMNS,
+                    header.TILE_HEIGHT,header.TILE_WIDTH);
+        }
+        // Tiles that are as wide as the matrix are rows, so a row-major file is a tiled file with
+        // one tile in each band. The bands are kept short enough to be mapped.
+        final long rowBytes=((long)header.COLUMNS*Double.BYTES);
+        final int bandHeight=(int)Math.max(1,Math.min(MappedMatrix.DEFAULT_TILE_SIZE,
+                (MappedTiles.MAXIMUM_CHUNK_BYTES/rowBytes)));
+        return MappedMatrix.open(file,HEADER_SIZE,header.ROWS,header.COLUMNS,bandHeight,
+                header.COLUMNS);
+    }
+
+    private static Header readHeader(FileChannel channel,Path file) throws IOException{
+        ByteBuffer buffer=ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        while(buffer.hasRemaining()){
+            if(channel.read(buffer)<0){
+                throw new EOFException(file+" is too short to have a matrix header");
+            }
+        }
+        buffer.flip();
+        if(buffer.getInt()!=MAGIC_NUMBER){
+            throw new IOException(file+" is not a matrix file");
+        }
+        final int version=buffer.getInt();
+        if(version!=VERSION){
+            throw new IOException(file+" has version "+version+" of the format, but only "+
+                    "version "+VERSION+" can be read");
+        }
+        Header header=new Header(buffer.getInt(),buffer.getInt(),buffer.getInt(),buffer.getInt(),
+                buffer.getInt(),buffer.getInt());
+        if((header.LAYOUT!=ROW_MAJOR && header.LAYOUT!=TILED) || header.ROWS<1 ||
+                header.COLUMNS<1 || (header.LAYOUT==TILED && (header.TILE_HEIGHT<1 ||
+                header.TILE_WIDTH<1))){
+            throw new IOException(file+" has a corrupted header");
+        }
+        return header;
+    }
+
+    /**
+     * This class holds the fields of a header after the magic number and the version.
+     */
+    private static final class Header{
+        private final int LAYOUT;
+        private final int ROWS;
+        private final int COLUMNS;
+        private final int AUGMENT_INDEX;
+        private final int TILE_HEIGHT;
+        private final int TILE_WIDTH;
+
+        private Header(int layout,int rows,int columns,int augmentIndex,int tileHeight,
+                       int tileWidth){
+            LAYOUT=layout;
+            ROWS=rows;
+            COLUMNS=columns;
+            AUGMENT_INDEX=augmentIndex;
+            TILE_HEIGHT=tileHeight;
+            TILE_WIDTH=tileWidth;
+        }
+    }
+}
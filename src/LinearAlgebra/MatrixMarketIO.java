@@ -0,0 +1,398 @@
+package LinearAlgebra;
+
+import java.io.BufferedWriter;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * This class reads and writes matrices in the Matrix Market exchange format ({@code .mtx}), in
+ * which most published sparse matrices are distributed. A file starts with a header line such as
+ * {@code %%MatrixMarket matrix coordinate real general}, followed by comment lines that start
+ * with {@code %} and then a line with the size of the matrix. In coordinate format, the size line
+ * holds the amount of rows, columns and entries, and every line after it holds the row, the
+ * column and the value of one entry, counting from 1. In array format, the size line holds the
+ * amount of rows and columns, and every entry follows on its own line, one column after another.
+ * <br />
+ * Real, integer and pattern (where every entry that is listed is 1) matrices can be read, in
+ * general, symmetric and skew-symmetric form; only the lower triangle of a symmetric or
+ * skew-symmetric matrix is stored, and the upper triangle is filled in when it is read. Complex
+ * matrices cannot be read.<br />
+ * Files are streamed through a small buffer and each number is parsed straight from its bytes,
+ * so no line is ever made into a String. The entries of a coordinate file that is large enough
+ * for a {@link ParallelismPolicy} are split into pieces at line breaks and parsed at the same
+ * time, each into its own triplets, which are then built into a {@link SparseMatrix} with a
+ * {@link SparseMatrixBuilder}.
+ * @author Mark Angelot
+ * @since March 23, 2024
+ */
+public final class MatrixMarketIO{
+//--Fields--//
+
+    /** This is the size of the buffer through which files are written. */
+    private static final int BUFFER_SIZE=(1<<16);
+
+    private static final int GENERAL=0;
+    private static final int SYMMETRIC=1;
+    private static final int SKEW_SYMMETRIC=2;
+
+    private MatrixMarketIO(){}
+
+//--Reading--//
+
+    /**
+     * Reads a sparse matrix from a Matrix Market file. The file is parsed in parallel if it is
+     * large enough for the {@link ParallelismPolicy#getDefault() default policy}.
+     * @param file the file from which the matrix is read
+     * @return the matrix in the file, in compressed sparse row layout
+     * @throws IOException if the file cannot be read or is not a Matrix Market file of a real
+     * matrix
+     */
+    public static SparseMatrix readSparse(Path file) throws IOException{
+        return readSparse(file,ParallelismPolicy.getDefault());
+    }
+
+    /**
+     * Reads a sparse matrix from a Matrix Market file. A file in array format is read as a dense
+     * matrix first, without parallelism, and then compressed.
+     * @param file the file from which the matrix is read
+     * @param policy decides whether the entries are parsed in parallel. The work of parsing a
+     *               file is its size in bytes.
+     * @return the matrix in the file, in compressed sparse row layout
+     * @throws IOException if the file cannot be read or is not a Matrix Market file of a real
+     * matrix
+     */
+    public static SparseMatrix readSparse(Path file,ParallelismPolicy policy) throws IOException{
+        try(FileChannel channel=FileChannel.open(file,StandardOpenOption.READ)){
+            Header header=readHeader(channel,file);
+            if(!header.IS_COORDINATE){
+                return new SparseMatrix(readArray(channel,file,header));
+            }
+            return readCoordinates(channel,file,header,policy);
+        }
+    }
+
+    /**
+     * Reads a dense matrix from a Matrix Market file. The file is parsed in parallel if it is in
+     * coordinate format and large enough for the
+     * {@link ParallelismPolicy#getDefault() default policy}.
+     * @param file the file from which the matrix is read
+     * @return the matrix in the file
+     * @throws IOException if the file cannot be read or is not a Matrix Market file of a real
+     * matrix, or if the matrix has too many entries to be dense
+     */
+    public static Matrix read(Path file) throws IOException{
+        return read(file,ParallelismPolicy.getDefault());
+    }
+
+    /**
+     * Reads a dense matrix from a Matrix Market file.
+     * @param file the file from which the matrix is read
+     * @param policy decides whether the entries of a file in coordinate format are parsed in
+     *               parallel. The work of parsing a file is its size in bytes.
+     * @return the matrix in the file
+     * @throws IOException if the file cannot be read or is not a Matrix Market file of a real
+     * matrix, or if the matrix has too many entries to be dense
+     */
+    public static Matrix read(Path file,ParallelismPolicy policy) throws IOException{
+        try(FileChannel channel=FileChannel.open(file,StandardOpenOption.READ)){
+            Header header=readHeader(channel,file);
+            checkDenseSize(file,header);
+            if(header.IS_COORDINATE){
+                return readCoordinates(channel,file,header,policy).toMatrix();
+            }
+            return readArray(channel,file,header);
+        }
+    }
+
+    private static Header readHeader(FileChannel channel,Path file) throws IOException{
+        TextScanner scanner=new TextScanner(channel,0,channel.size());
+        final String[] words=scanner.nextLine().trim().toLowerCase(Locale.ROOT).split("\\s+");
+        if(words.length!=5 || !words[0].equals("%%matrixmarket") || !words[1].equals("matrix")){
+            throw new IOException(file+" is not a Matrix Market file of a matrix");
+        }
+        final String format=words[2];
+        final String field=words[3];
+        final String symmetryName=words[4];
+        if(!format.equals("coordinate") && !format.equals("array")){
+            throw new IOException(file+" has the unknown format \""+format+"\"");
+        }
+        if(field.equals("complex")){
+            throw new IOException(file+" holds a complex matrix, which cannot be read");
+        }
+        if(!field.equals("real") && !field.equals("integer") && !field.equals("double") &&
+                !field.equals("pattern")){
+            throw new IOException(file+" has the unknown field \""+field+"\"");
+        }
+        final boolean isCoordinate=format.equals("coordinate");
+        final boolean isPattern=field.equals("pattern");
+        if(isPattern && !isCoordinate){
+            throw new IOException(file+" is a pattern matrix in array format");
+        }
+        final int symmetry;
+        // A real Hermitian matrix is symmetric
+        if(symmetryName.equals("symmetric") || symmetryName.equals("hermitian")){
+            symmetry=SYMMETRIC;
+        }
+        else if(symmetryName.equals("skew-symmetric")){
+            symmetry=SKEW_SYMMETRIC;
+        }
+        else if(symmetryName.equals("general")){
+            symmetry=GENERAL;
+        }
+        else{
+            throw new IOException(file+" has the unknown symmetry \""+symmetryName+"\"");
+        }
+
+        while(scanner.skipBlankLines() && scanner.peek()=='%'){
+            scanner.skipLine();
+        }
+        if(scanner.peek()==-1){
+            throw new EOFException(file+" ends before the size of its matrix");
+        }
+        final long rows=scanner.nextLong();
+        scanner.skipWhitespace();
+        final long columns=scanner.nextLong();
+        long amountOfEntries=(rows*columns);
+        if(isCoordinate){
+            scanner.skipWhitespace();
+            amountOfEntries=scanner.nextLong();
+        }
+        scanner.skipLine();
+        if(rows<1 || columns<1 || rows>Integer.MAX_VALUE || columns>Integer.MAX_VALUE ||
+                amountOfEntries<0){
+            throw new IOException(file+" has a matrix of impossible size "+rows+"×"+columns);
+        }
+        if(symmetry!=GENERAL && rows!=columns){
+            throw new IOException(file+" has a symmetric matrix that is not square");
+        }
+        return new Header(isCoordinate,isPattern,symmetry,(int)rows,(int)columns,amountOfEntries,
+                scanner.position());
+    }
+
+    private static void checkDenseSize(Path file,Header header) throws IOException{
+        if(((long)header.ROWS*header.COLUMNS)>Integer.MAX_VALUE){
+            throw new IOException(file+" holds a "+header.ROWS+"×"+header.COLUMNS+" matrix, "+
+                    "which has too many entries to be dense");
+        }
+    }
+
+    /**
+     * Reads the entries of a file in array format, which are listed one column after another.
+     */
+    private static Matrix readArray(FileChannel channel,Path file,Header header)
+            throws IOException{
+        checkDenseSize(file,header);
+        final int rows=header.ROWS;
+        final int columns=header.COLUMNS;
+        double[] entries=new double[(rows*columns)];
+        TextScanner scanner=new TextScanner(channel,header.DATA_START,channel.size());
+        for(int column=0;column<columns;column++){
+            // Only the lower triangle of a symmetric matrix is listed, and a skew-symmetric
+            // matrix does not list its diagonal, which is 0
+            final int firstRow=(header.SYMMETRY==GENERAL)?0:
+                    (header.SYMMETRY==SYMMETRIC)?column:(column+1);
+            for(int row=firstRow;row<rows;row++){
+                if(!scanner.skipBlankLines()){
+                    throw new EOFException(file+" ends before the entry at ("+row+", "+column+
+                            ")");
+                }
+                final double value=scanner.nextDouble();
+                entries[(row*columns+column)]=value;
+                if(header.SYMMETRY!=GENERAL){
+                    entries[(column*columns+row)]=(header.SYMMETRY==SYMMETRIC)?value:-value;
+                }
+            }
+        }
+        return new Matrix(rows,columns,Matrix.DEFAULT_AUGMENT_INDEX,entries);
+    }
+
+    /**
+     * Reads the entries of a file in coordinate format, in parallel if the policy allows it.
+     */
+    private static SparseMatrix readCoordinates(FileChannel channel,Path file,Header header,
+                                                ParallelismPolicy policy) throws IOException{
+        List<Triplets> pieces=TextScanner.parse(channel,header.DATA_START,channel.size(),policy,
+                (scanner)->parseTriplets(scanner,header));
+        long amountOfLines=0;
+        long amountOfTriplets=0;
+        for(Triplets piece:pieces){
+            amountOfLines+=piece.amountOfLines;
+            amountOfTriplets+=piece.size;
+        }
+        if(amountOfLines!=header.AMOUNT_OF_ENTRIES){
+            throw new IOException(file+" should list "+header.AMOUNT_OF_ENTRIES+" entries, but it "+
+                    "lists "+amountOfLines);
+        }
+        if(amountOfTriplets>Integer.MAX_VALUE){
+            throw new IOException(file+" has too many entries to be read into the heap");
+        }
+        SparseMatrixBuilder builder=new SparseMatrixBuilder(header.ROWS,header.COLUMNS,
+                (int)amountOfTriplets);
+        for(Triplets piece:pieces){
+            builder.addEntries(piece.rows,piece.columns,piece.values,piece.size);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Parses every entry in one piece of a file in coordinate format.
+     */
+    private static Triplets parseTriplets(TextScanner scanner,Header header) throws IOException{
+        Triplets triplets=new Triplets();
+        while(scanner.skipBlankLines()){
+            if(scanner.peek()=='%'){
+                scanner.skipLine();
+                continue;
+            }
+            final long linePosition=scanner.position();
+            final long row=scanner.nextLong();
+            scanner.skipWhitespace();
+            final long column=scanner.nextLong();
+            double value=1;
+            if(!header.IS_PATTERN){
+                scanner.skipWhitespace();
+                value=scanner.nextDouble();
+            }
+            scanner.skipWhitespace();
+            final int c=scanner.peek();
+            if(c!='\n' && c!=-1){
+                throw new IOException("The entry at byte "+linePosition+" has too many fields");
+            }
+            if(row<1 || row>header.ROWS || column<1 || column>header.COLUMNS){
+                throw new IOException("The entry at byte "+linePosition+" is at ("+row+", "+
+                        column+"), which is outside a "+header.ROWS+"×"+header.COLUMNS+
+                        " matrix");
+            }
+            triplets.add((int)(row-1),(int)(column-1),value);
+            if(header.SYMMETRY!=GENERAL && row!=column){
+                triplets.add((int)(column-1),(int)(row-1),
+                        (header.SYMMETRY==SYMMETRIC)?value:-value);
+            }
+            triplets.amountOfLines++;
+        }
+        return triplets;
+    }
+
+    /**
+     * This class holds the fields of the header and the size line of a file.
+     */
+    private static final class Header{
+        private final boolean IS_COORDINATE;
+        private final boolean IS_PATTERN;
+        private final int SYMMETRY;
+        private final int ROWS;
+        private final int COLUMNS;
+        /** This is how many entries are listed in the file. */
+        private final long AMOUNT_OF_ENTRIES;
+        /** This is the position in the file of the line after the size line. */
+        private final long DATA_START;
+
+        private Header(boolean isCoordinate,boolean isPattern,int symmetry,int rows,int columns,
+                       long amountOfEntries,long dataStart){
+            IS_COORDINATE=isCoordinate;
+            IS_PATTERN=isPattern;
+            SYMMETRY=symmetry;
+            ROWS=rows;
+            COLUMNS=columns;
+            AMOUNT_OF_ENTRIES=amountOfEntries;
+            DATA_START=dataStart;
+        }
+    }
+
+    /**
+     * This class holds the triplets that were parsed from one piece of a file.
+     */
+    private static final class Triplets{
+        private int[] rows=new int[1024];
+        private int[] columns=new int[1024];
+        private double[] values=new double[1024];
+        private int size;
+        /** This is how many lines were parsed, which is less than the amount of triplets if
+         * the matrix is symmetric. */
+        private long amountOfLines;
+
+        private void add(int row,int column,double value){
+            if(size==values.length){
+                final int newCapacity=(values.length+(values.length>>1));
+                rows=Arrays.copyOf(rows,newCapacity);
+                columns=Arrays.copyOf(columns,newCapacity);
+                values=Arrays.copyOf(values,newCapacity);
+            }
+            rows[size]=row;
+            columns[size]=column;
+            values[size]=value;
+            size++;
+        }
+    }
+
+//--Writing--//
+
+    /**
+     * Writes a sparse matrix to a file in coordinate format, listing every stored entry. If the
+     * file already exists, it is replaced. Every value is written with as many digits as it takes
+     * to read it back exactly.
+     * @param matrix the matrix that is to be written
+     * @param file the file to which the matrix is written
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(SparseMatrix matrix,Path file) throws IOException{
+        try(Writer writer=open(file)){
+            writer.write("%%MatrixMarket matrix coordinate real general\n");
+            writer.write(matrix.AMOUNT_OF_ROWS+" "+matrix.AMOUNT_OF_COLUMNS+" "+
+                    matrix.getAmountOfStoredEntries()+"\n");
+            final int lines=matrix.IS_COMPRESSED_BY_COLUMNS?matrix.AMOUNT_OF_COLUMNS:
+                    matrix.AMOUNT_OF_ROWS;
+            for(int line=0;line<lines;line++){
+                for(int k=matrix.POINTERS[line];k<matrix.POINTERS[(line+1)];k++){
+                    final int row=matrix.IS_COMPRESSED_BY_COLUMNS?matrix.INDICES[k]:line;
+                    final int column=matrix.IS_COMPRESSED_BY_COLUMNS?line:matrix.INDICES[k];
+                    writer.write(Integer.toString(row+1));
+                    writer.write(' ');
+                    writer.write(Integer.toString(column+1));
+                    writer.write(' ');
+                    writer.write(Double.toString(matrix.VALUES[k]));
+                    writer.write('\n');
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes a dense matrix to a file in array format. If the file already exists, it is
+     * replaced. Every entry is written with as many digits as it takes to read it back exactly.
+     * The augment index is not saved, so an augmented matrix is read back unaugmented.
+     * @param matrix the matrix that is to be written. This can be a {@link Vector}.
+     * @param file the file to which the matrix is written
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Matrix matrix,Path file) throws IOException{
+        final double[] entries=matrix.denseEntries(false);
+        final int rows=matrix.AMOUNT_OF_ROWS;
+        final int columns=matrix.AMOUNT_OF_COLUMNS;
+        try(Writer writer=open(file)){
+            writer.write("%%MatrixMarket matrix array real general\n");
+            writer.write(rows+" "+columns+"\n");
+            for(int column=0;column<columns;column++){
+                for(int row=0;row<rows;row++){
+                    writer.write(Double.toString(entries[(row*columns+column)]));
+                    writer.write('\n');
+                }
+            }
+        }
+    }
+
+    private static Writer open(Path file) throws IOException{
+        return new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(file),
+                StandardCharsets.US_ASCII),BUFFER_SIZE);
+    }
+}
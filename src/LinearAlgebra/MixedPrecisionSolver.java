@@ -0,0 +1,232 @@
+package LinearAlgebra;
+
+import LinearAlgebra.Exceptions.UndecomposableMatrixException;
+import LinearAlgebra.Exceptions.UninvertibleMatrixException;
+
+/**
+ * This solver solves dense systems Ax=b to the accuracy of a double while doing the O(n³) work
+ * of the decomposition in single precision. A is rounded to floats and decomposed once into a
+ * {@link FloatLUDecomposition}, which gives a first solution x with the accuracy of a float.
+ * Then, in each iteration of refinement:
+ * <ol>
+ *     <li>the residual r=b-Ax is calculated in double precision with the original A,</li>
+ *     <li>the correction d is found by solving Ad=r with the single-precision factors, and</li>
+ *     <li>x is replaced by x+d in double precision.</li>
+ * </ol>
+ * Each iteration takes O(n²) time, and each one gains about as many correct digits as a float
+ * has, as long as the condition number of A is well below 10⁸ (the reciprocal of the precision
+ * of a float). Refinement stops once the residual is small enough that x is the exact solution of
+ * a system whose matrix differs from A by no more than the tolerance, relative to A; the default
+ * tolerance is the precision of a double times √n, which is about what an
+ * {@link LUDecomposition} in double precision achieves.<br />
+ * If A is too ill-conditioned for this to work, the residual stops going down, or the rounded A
+ * is singular. In that case, this solver falls back to an {@link LUDecomposition} in double
+ * precision, which is calculated the first time that it is needed and then kept. Either way, the
+ * returned solution has the accuracy of a double; {@link IterativeSolution#getIterations()}
+ * tells how many iterations of refinement were done, and is 0 after a fallback.<br />
+ * This solver keeps a reference to A, which must not be changed afterward. Solving a system does
+ * not change the settings of this solver, so one solver can solve many systems, even on several
+ * threads at once as long as its settings are not changed meanwhile.
+ * @author Mark Angelot
+ * @since April 6, 2024
+ */
+public class MixedPrecisionSolver{
+//--Fields--//
+
+    /** This is the maximum amount of iterations of a solver whose maximum has not been set. */
+    public static final int DEFAULT_MAXIMUM_ITERATIONS=30;
+
+    /** This array holds the entries of A in double precision, one row after another. */
+    private final double[] A;
+    /** This is the decomposition of A after it was rounded to floats, or null if the rounded A
+     * is singular. */
+    private final FloatLUDecomposition FLOAT_LU;
+    /** This is the largest sum of the magnitudes of the entries in a row of A. */
+    private final double NORM_OF_A;
+    /** This holds how many rows and columns are in A. */
+    public final int DIMENSION;
+
+    private double tolerance;
+    private int maximumIterations=DEFAULT_MAXIMUM_ITERATIONS;
+    /** This is the decomposition of A in double precision, which is only calculated once it is
+     * needed. */
+    private volatile LUDecomposition fallback;
+
+//--Constructors--//
+
+    /**
+     * Constructs a solver for systems with the passed matrix, and decomposes the matrix in single
+     * precision.
+     * @param matrix the matrix A of the systems that are to be solved
+     * @throws UndecomposableMatrixException if the matrix is not square
+     */
+    public MixedPrecisionSolver(Matrix matrix) throws UndecomposableMatrixException{
+        if(!matrix.isSquare()){
+            throw new UndecomposableMatrixException(matrix);
+        }
+        final int n=matrix.AMOUNT_OF_ROWS;
+        DIMENSION=n;
+        A=matrix.denseEntries(false);
+        double norm=0;
+        for(int row=0;row<n;row++){
+            double sum=0;
+            for(int column=0;column<n;column++){
+                sum+=Math.abs(A[(row*n+column)]);
+            }
+            norm=Math.max(norm,sum);
+        }
+        NORM_OF_A=norm;
+        tolerance=(Math.ulp(1.0)*Math.sqrt(n));
+
+        // Entries beyond the range of a float round to infinity, which makes the first residual
+        // not a number, so refinement gives up and falls back on its own
+        FloatLUDecomposition floatLU=new FloatLUDecomposition(matrix);
+        FLOAT_LU=floatLU.isSingular()?null:floatLU;
+    }
+
+//--Getters and Setters--//
+
+    /**
+     * Sets the tolerance of this solver. Refinement stops once the largest entry of the residual
+     * b-Ax is at most the tolerance times the largest entry of x times the largest sum of the
+     * magnitudes of the entries in a row of A.
+     * @param tolerance the new tolerance
+     * @return this solver
+     * @throws IllegalArgumentException if {@code tolerance} is negative or not a number
+     */
+    public MixedPrecisionSolver setTolerance(double tolerance){
+        if(!(tolerance>=0)){
+            throw new IllegalArgumentException("Tolerance must be a nonnegative number");
+        }
+        this.tolerance=tolerance;
+        return this;
+    }
+
+    /**
+     * @param maximumIterations the most iterations of refinement that this solver performs
+     *                          before it falls back to double precision
+     * @return this solver
+     * @throws IllegalArgumentException if {@code maximumIterations} is negative
+     */
+    public MixedPrecisionSolver setMaximumIterations(int maximumIterations){
+        if(maximumIterations<0){
+            throw new IllegalArgumentException("Maximum amount of iterations cannot be negative");
+        }
+        this.maximumIterations=maximumIterations;
+        return this;
+    }
+
+    public double getTolerance(){
+        return tolerance;
+    }
+
+    public int getMaximumIterations(){
+        return maximumIterations;
+    }
+
+//--Solving--//
+
+    /**
+     * Solves the system Ax=b to the accuracy of a double.
+     * @param vector the right-hand side b
+     * @return the solution, and how many iterations of refinement it took
+     * @throws IllegalArgumentException if the height of the vector does not match the dimension
+     * of A
+     * @throws UninvertibleMatrixException if A is singular in double precision
+     */
+    public IterativeSolution solve(Vector vector) throws UninvertibleMatrixException{
+        final int n=DIMENSION;
+        if(vector.AMOUNT_OF_ROWS!=n){
+            throw new IllegalArgumentException("A system with a "+n+"×"+n+" matrix cannot be "+
+                    "solved for a right-hand side with "+vector.AMOUNT_OF_ROWS+" rows");
+        }
+        double[] b=vector.asArray();
+        final double lengthOfB=Math.sqrt(ArrayKernels.sumOfSquares(b,0,n));
+        if(lengthOfB==0){
+            return new IterativeSolution(new double[n],0,0,true);
+        }
+        if(FLOAT_LU!=null){
+            IterativeSolution solution=refine(b,lengthOfB);
+            if(solution!=null){
+                return solution;
+            }
+        }
+        double[] x=fallback().solve(vector).asArray();
+        double[] r=new double[n];
+        residual(b,x,r);
+        return new IterativeSolution(x,0,
+                (Math.sqrt(ArrayKernels.sumOfSquares(r,0,n))/lengthOfB),true);
+    }
+
+    /**
+     * Performs iterative refinement from the single-precision solution.
+     * @return the refined solution, or null if refinement did not reach the tolerance
+     */
+    private IterativeSolution refine(double[] b,double lengthOfB)
+            throws UninvertibleMatrixException{
+        final int n=DIMENSION;
+        double[] x=new double[n];
+        double[] r=b.clone();
+        float[] correction=new float[n];
+        double previousResidual=Double.POSITIVE_INFINITY;
+        for(int iteration=0;iteration<=maximumIterations;iteration++){
+            final double largestResidual=largestMagnitude(r);
+            if(iteration>0){
+                if(largestResidual<=(tolerance*NORM_OF_A*largestMagnitude(x))){
+                    return new IterativeSolution(x,iteration,
+                            (Math.sqrt(ArrayKernels.sumOfSquares(r,0,n))/lengthOfB),true);
+                }
+                if(!(largestResidual<(0.5*previousResidual))){
+                    // Refinement has stopped making progress, so A is too ill-conditioned
+                    return null;
+                }
+            }
+            if(largestResidual==0){
+                return new IterativeSolution(x,iteration,0,true);
+            }
+            previousResidual=largestResidual;
+            // r is scaled so that its largest entry is 1 before it is rounded to floats, so that
+            // small residuals do not underflow
+            FLOAT_LU.solve(r,(1.0/largestResidual),correction);
+            for(int i=0;i<n;i++){
+                x[i]+=(largestResidual*correction[i]);
+            }
+            residual(b,x,r);
+        }
+        return null;
+    }
+
+    /**
+     * Calculates the residual b-Ax in double precision into {@code residual}.
+     */
+    private void residual(double[] b,double[] x,double[] residual){
+        final int n=DIMENSION;
+        for(int row=0;row<n;row++){
+            residual[row]=(b[row]-ArrayKernels.dot(A,(row*n),x,0,n));
+        }
+    }
+
+    private static double largestMagnitude(double[] entries){
+        double largest=0;
+        for(double entry:entries){
+            largest=Math.max(largest,Math.abs(entry));
+        }
+        return largest;
+    }
+
+    private LUDecomposition fallback(){
+        LUDecomposition decomposition=fallback;
+        if(decomposition==null){
+            try{
+                decomposition=new LUDecomposition(new Matrix(DIMENSION,DIMENSION,
+                        Matrix.DEFAULT_AUGMENT_INDEX,A));
+            }
+            catch(UndecomposableMatrixException e){
+                // A was checked to be square when this solver was constructed
+                throw new IllegalStateException(e);
+            }
+            fallback=decomposition;
+        }
+        return decomposition;
+    }
+}
@@ -0,0 +1,375 @@
+package LinearAlgebra;
+
+/**
+ * This class holds the loops that multiply two matrices together. Walking down a column of the
+ * right-hand matrix misses the cache on every entry, so the right-hand matrix is first packed as
+ * its transpose into one contiguous array. The product is then calculated in blocks so that a
+ * panel of the packed matrix stays in the cache while every row of the left-hand matrix is
+ * multiplied by it.
+ * @author Mark Angelot
+ * @since January 6, 2024
+ */
+final class MultiplicationKernel{
+    /** Products with fewer multiplications than this are calculated with the naive loop, because
+     * packing the right-hand matrix would take longer than the multiplication itself. */
+    private static final long NAIVE_THRESHOLD=32L*32*32;
+    /** This is how many entries of a row are multiplied at a time. A row of the left-hand matrix
+     * this long should fit in the L1 cache. */
+    private static final int INNER_BLOCK=256;
+    /** This is how many columns of the product are calculated at a time. A panel of the packed
+     * matrix that is INNER_BLOCK×COLUMN_BLOCK should fit in the L2 cache. */
+    private static final int COLUMN_BLOCK=64;
+
+    /** This is how many columns of a product of {@link FloatMatrix FloatMatrices} are
+     * calculated at a time. An INNER_BLOCK×FLOAT_COLUMN_BLOCK panel of floats takes as much
+     * memory as an INNER_BLOCK×(2·FLOAT_COLUMN_BLOCK) panel of doubles would. */
+    private static final int FLOAT_COLUMN_BLOCK=256;
+    /** This is how many columns of a product are calculated at a time by
+     * {@link #multiplyTransposed}, which adds whole rows of the right-hand matrix instead of
+     * packing it. */
+    private static final int TRANSPOSED_COLUMN_BLOCK=128;
+
+    private MultiplicationKernel(){}
+
+    /**
+     * Multiplies a matrix by an array of matrix entries. The entries of the first matrix, and of
+     * the returned product, are stored one row after another with no gaps between the rows. The
+     * second matrix can be any matrix, including a view.
+     * @param left the entries of the first matrix in the multiplication
+     * @param rows the amount of rows in the first matrix
+     * @param inner the amount of columns in the first matrix, which is also the amount of rows
+     *              in the second matrix
+     * @param right the second matrix in the multiplication
+     * @param policy decides whether the rows of the product are split into bands that are
+     *               calculated in parallel
+     * @return the entries of the product of the two matrices
+     */
+    static double[] multiply(double[] left,int rows,int inner,Matrix right,
+                             ParallelismPolicy policy){
+        final int columns=right.AMOUNT_OF_COLUMNS;
+        final long work=((long)rows*inner*columns);
+        double[] product=new double[(rows*columns)];
+
+        if(work<NAIVE_THRESHOLD){
+            multiplyNaively(left,rows,inner,right.denseEntries(false),columns,product);
+            return product;
+        }
+        multiplyBlock(left,0,inner,packTransposed(right),rows,inner,columns,product,0,columns,
+                policy);
+        return product;
+    }
+
+    /**
+     * Multiplies a block of a larger array of matrix entries by a packed matrix, and writes the
+     * product into a block of another larger array. This is how {@link StrassenKernel}
+     * multiplies the small blocks at the bottom of its recursion.
+     * @param left the array that holds the first matrix in the multiplication
+     * @param leftOffset the index in {@code left} of the top-left entry of the first matrix
+     * @param leftStride the distance in {@code left} between an entry and the entry below it
+     * @param packed the second matrix in the multiplication, packed by {@link #packTransposed}
+     * @param rows the amount of rows in the first matrix
+     * @param inner the amount of columns in the first matrix
+     * @param columns the amount of columns in the second matrix
+     * @param product the array that holds the block into which the product is written. The
+     *                block must be filled with 0s.
+     * @param productOffset the index in {@code product} of the top-left entry of the block
+     * @param productStride the distance in {@code product} between an entry and the entry
+     *                      below it
+     * @param policy decides whether the rows of the product are split into bands that are
+     *               calculated in parallel
+     */
+    static void multiplyBlock(double[] left,int leftOffset,int leftStride,double[] packed,
+                              int rows,int inner,int columns,double[] product,int productOffset,
+                              int productStride,ParallelismPolicy policy){
+        // Bands hold whole pairs of rows, because the kernel calculates two rows at a time
+        policy.forEachRange(((rows+1)/2),(2L*inner*columns),(firstPair,lastPair)->
+                multiplyRows(left,leftOffset,leftStride,packed,inner,columns,product,productOffset,
+                        productStride,(2*firstPair),Math.min((2*lastPair),rows)));
+    }
+
+    /**
+     * Multiplies the transpose of a matrix by another matrix without building the transpose.
+     * Row i of Aᵀ·B is the sum over k of A[k][i] times row k of B, so each row of the product is
+     * built from whole rows of B, and A is read down its columns only a block at a time. Both
+     * matrices must have contiguous rows, and the product is stored one row after another.
+     * @param left the array that holds A, whose transpose is the first matrix in the
+     *             multiplication
+     * @param leftOffset the index in {@code left} of the top-left entry of A
+     * @param leftStride the distance in {@code left} between an entry of A and the entry below
+     *                   it
+     * @param right the array that holds B, the second matrix in the multiplication
+     * @param rightOffset the index in {@code right} of the top-left entry of B
+     * @param rightStride the distance in {@code right} between an entry of B and the entry below
+     *                    it
+     * @param inner the amount of rows in A and B
+     * @param rows the amount of columns in A, which is the amount of rows in the product
+     * @param columns the amount of columns in B
+     * @param policy decides whether the rows of the product are split into bands that are
+     *               calculated in parallel
+     * @return the entries of the product Aᵀ·B
+     */
+    static double[] multiplyTransposed(double[] left,int leftOffset,int leftStride,
+                                       double[] right,int rightOffset,int rightStride,int inner,
+                                       int rows,int columns,ParallelismPolicy policy){
+        double[] product=new double[(rows*columns)];
+        policy.forEachRange(rows,((long)inner*columns),(firstRow,lastRow)->{
+            for(int innerStart=0;innerStart<inner;innerStart+=INNER_BLOCK){
+                final int innerEnd=Math.min((innerStart+INNER_BLOCK),inner);
+                for(int columnStart=0;columnStart<columns;columnStart+=TRANSPOSED_COLUMN_BLOCK){
+                    final int width=(Math.min((columnStart+TRANSPOSED_COLUMN_BLOCK),columns)-
+                            columnStart);
+                    for(int row=firstRow;row<lastRow;row++){
+                        final int productOffset=(row*columns+columnStart);
+                        for(int k=innerStart;k<innerEnd;k++){
+                            final double entry=left[(leftOffset+k*leftStride+row)];
+                            if(entry!=0){
+                                ArrayKernels.axpy(entry,right,(rightOffset+k*rightStride+
+                                        columnStart),product,productOffset,width);
+                            }
+                        }
+                    }
+                }
+            }
+        });
+        return product;
+    }
+
+    /**
+     * Multiplies two arrays of matrix entries together with a triple loop. The loops are ordered
+     * so that the innermost loop moves along a row of {@code right} instead of down a column.
+     * @param left the entries of the first matrix in the multiplication
+     * @param rows the amount of rows in the first matrix
+     * @param inner the amount of columns in the first matrix
+     * @param right the entries of the second matrix in the multiplication
+     * @param columns the amount of columns in the second matrix
+     * @param product the array into which the product is written. It must be filled with 0s.
+     */
+    static void multiplyNaively(double[] left,int rows,int inner,double[] right,int columns,
+                                double[] product){
+        for(int row=0;row<rows;row++){
+            final int leftOffset=(row*inner);
+            final int productOffset=(row*columns);
+            for(int k=0;k<inner;k++){
+                double entry=left[(leftOffset+k)];
+                final int rightOffset=(k*columns);
+                for(int column=0;column<columns;column++){
+                    product[(productOffset+column)]+=(entry*right[(rightOffset+column)]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies the transpose of a matrix into one contiguous array. The entry at (row, column) of
+     * the original matrix ends up at index {@code column*rows+row}, so each column of the
+     * original matrix can be read from start to finish without jumping around in memory.
+     * @param right the matrix that is to be packed. If this is a transposed view, the packed
+     *              array is filled in the order in which its entries are stored.
+     * @return an array with the entries of the transpose of the passed matrix, one row after
+     * another
+     */
+    static double[] packTransposed(Matrix right){
+        final int rows=right.AMOUNT_OF_ROWS;
+        final int columns=right.AMOUNT_OF_COLUMNS;
+        final double[] entries=right.matrixArray;
+        final int rowStride=right.ROW_STRIDE;
+        final int columnStride=right.COLUMN_STRIDE;
+        double[] packed=new double[(rows*columns)];
+        if(rowStride<columnStride){
+            // Going down a column is moving forward through memory, so read one column at a time
+            for(int column=0;column<columns;column++){
+                final int start=(right.OFFSET+column*columnStride);
+                final int packedOffset=(column*rows);
+                for(int row=0;row<rows;row++){
+                    packed[(packedOffset+row)]=entries[(start+row*rowStride)];
+                }
+            }
+            return packed;
+        }
+        for(int row=0;row<rows;row++){
+            final int start=(right.OFFSET+row*rowStride);
+            for(int column=0;column<columns;column++){
+                packed[(column*rows+row)]=entries[(start+column*columnStride)];
+            }
+        }
+        return packed;
+    }
+
+    /**
+     * Calculates a band of rows of the product of two matrices. The product is calculated in
+     * tiles of two rows by four columns, each entry with its own sum, so that every entry read
+     * from {@code left} or {@code packed} is used more than once while it is in a register.
+     * @param left the array that holds the first matrix in the multiplication
+     * @param leftOffset the index in {@code left} of the top-left entry of the first matrix
+     * @param leftStride the distance in {@code left} between an entry and the entry below it
+     * @param packed the second matrix in the multiplication, packed by {@link #packTransposed}
+     * @param inner the amount of columns in the first matrix, which is also the amount of rows in
+     *              the second matrix
+     * @param columns the amount of columns in the second matrix
+     * @param product the array into which the product is written. It must be filled with 0s.
+     * @param productOffset the index in {@code product} of the top-left entry of the product
+     * @param productStride the distance in {@code product} between an entry and the entry below
+     *                      it
+     * @param firstRow the index of the first row of the product that is to be calculated
+     * @param lastRow the index after the last row of the product that is to be calculated
+     */
+    static void multiplyRows(double[] left,int leftOffset,int leftStride,double[] packed,
+                             int inner,int columns,double[] product,int productOffset,
+                             int productStride,int firstRow,int lastRow){
+        for(int innerStart=0;innerStart<inner;innerStart+=INNER_BLOCK){
+            final int innerEnd=Math.min((innerStart+INNER_BLOCK),inner);
+            for(int columnStart=0;columnStart<columns;columnStart+=COLUMN_BLOCK){
+                final int columnEnd=Math.min((columnStart+COLUMN_BLOCK),columns);
+                int row=firstRow;
+                for(;row+1<lastRow;row+=2){
+                    multiplyTwoRows(left,(leftOffset+row*leftStride),leftStride,packed,inner,
+                            innerStart,innerEnd,product,(productOffset+row*productStride),
+                            productStride,columnStart,columnEnd);
+                }
+                if(row<lastRow){
+                    multiplyOneRow(left,(leftOffset+row*leftStride),packed,inner,innerStart,
+                            innerEnd,product,(productOffset+row*productStride),columnStart,
+                            columnEnd);
+                }
+            }
+        }
+    }
+
+    private static void multiplyTwoRows(double[] left,int leftOffset,int leftStride,
+                                        double[] packed,int inner,int innerStart,int innerEnd,
+                                        double[] product,int productOffset,int productStride,
+                                        int columnStart,int columnEnd){
+        final int leftOffset0=leftOffset;
+        final int leftOffset1=(leftOffset+leftStride);
+        final int productOffset0=productOffset;
+        final int productOffset1=(productOffset+productStride);
+        int column=columnStart;
+        for(;column+3<columnEnd;column+=4){
+            final int offset0=(column*inner);
+            final int offset1=(offset0+inner);
+            final int offset2=(offset1+inner);
+            final int offset3=(offset2+inner);
+            double sum00=0,sum01=0,sum02=0,sum03=0;
+            double sum10=0,sum11=0,sum12=0,sum13=0;
+            for(int k=innerStart;k<innerEnd;k++){
+                double entry0=left[(leftOffset0+k)];
+                double entry1=left[(leftOffset1+k)];
+                double packed0=packed[(offset0+k)];
+                double packed1=packed[(offset1+k)];
+                double packed2=packed[(offset2+k)];
+                double packed3=packed[(offset3+k)];
+                sum00+=(entry0*packed0);
+                sum01+=(entry0*packed1);
+                sum02+=(entry0*packed2);
+                sum03+=(entry0*packed3);
+                sum10+=(entry1*packed0);
+                sum11+=(entry1*packed1);
+                sum12+=(entry1*packed2);
+                sum13+=(entry1*packed3);
+            }
+            product[(productOffset0+column)]+=sum00;
+            product[(productOffset0+column+1)]+=sum01;
+            product[(productOffset0+column+2)]+=sum02;
+            product[(productOffset0+column+3)]+=sum03;
+            product[(productOffset1+column)]+=sum10;
+            product[(productOffset1+column+1)]+=sum11;
+            product[(productOffset1+column+2)]+=sum12;
+            product[(productOffset1+column+3)]+=sum13;
+        }
+        for(;column<columnEnd;column++){
+            final int offset=(column*inner);
+            double sum0=0,sum1=0;
+            for(int k=innerStart;k<innerEnd;k++){
+                double packedEntry=packed[(offset+k)];
+                sum0+=(left[(leftOffset0+k)]*packedEntry);
+                sum1+=(left[(leftOffset1+k)]*packedEntry);
+            }
+            product[(productOffset0+column)]+=sum0;
+            product[(productOffset1+column)]+=sum1;
+        }
+    }
+
+    private static void multiplyOneRow(double[] left,int leftOffset,double[] packed,int inner,
+                                       int innerStart,int innerEnd,double[] product,
+                                       int productOffset,int columnStart,int columnEnd){
+        int column=columnStart;
+        for(;column+3<columnEnd;column+=4){
+            final int offset0=(column*inner);
+            final int offset1=(offset0+inner);
+            final int offset2=(offset1+inner);
+            final int offset3=(offset2+inner);
+            double sum0=0,sum1=0,sum2=0,sum3=0;
+            for(int k=innerStart;k<innerEnd;k++){
+                double entry=left[(leftOffset+k)];
+                sum0+=(entry*packed[(offset0+k)]);
+                sum1+=(entry*packed[(offset1+k)]);
+                sum2+=(entry*packed[(offset2+k)]);
+                sum3+=(entry*packed[(offset3+k)]);
+            }
+            product[(productOffset+column)]+=sum0;
+            product[(productOffset+column+1)]+=sum1;
+            product[(productOffset+column+2)]+=sum2;
+            product[(productOffset+column+3)]+=sum3;
+        }
+        for(;column<columnEnd;column++){
+            final int offset=(column*inner);
+            double sum=0;
+            for(int k=innerStart;k<innerEnd;k++){
+                sum+=(left[(leftOffset+k)]*packed[(offset+k)]);
+            }
+            product[(productOffset+column)]+=sum;
+        }
+    }
+
+    /**
+     * Multiplies two arrays of floats that hold matrix entries one row after another. Unlike the
+     * product of two doubles, this does not pack the right-hand matrix: each row of the product
+     * is built up by adding a multiple of one row of the right-hand matrix at a time
+     * ({@link ArrayKernels#axpy(float,float[],int,float[],int,int)}), which moves along rows of
+     * both matrices and uses the full width of a vector register.
+     * @param left the entries of the first matrix in the multiplication
+     * @param rows the amount of rows in the first matrix
+     * @param inner the amount of columns in the first matrix, which is also the amount of rows
+     *              in the second matrix
+     * @param right the entries of the second matrix in the multiplication
+     * @param columns the amount of columns in the second matrix
+     * @param policy decides whether the rows of the product are split into bands that are
+     *               calculated in parallel
+     * @return the entries of the product of the two matrices
+     */
+    static float[] multiply(float[] left,int rows,int inner,float[] right,int columns,
+                            ParallelismPolicy policy){
+        float[] product=new float[(rows*columns)];
+        policy.forEachRange(rows,((long)inner*columns),(firstRow,lastRow)->
+                multiplyRows(left,right,inner,columns,product,firstRow,lastRow));
+        return product;
+    }
+
+    /**
+     * Calculates a band of rows of the product of two arrays of floats. The product is
+     * calculated in blocks so that an INNER_BLOCK×FLOAT_COLUMN_BLOCK panel of {@code right}
+     * stays in the cache while every row of the band is multiplied by it.
+     * @param firstRow the index of the first row of the product that is to be calculated
+     * @param lastRow the index after the last row of the product that is to be calculated
+     */
+    static void multiplyRows(float[] left,float[] right,int inner,int columns,float[] product,
+                             int firstRow,int lastRow){
+        for(int innerStart=0;innerStart<inner;innerStart+=INNER_BLOCK){
+            final int innerEnd=Math.min((innerStart+INNER_BLOCK),inner);
+            for(int columnStart=0;columnStart<columns;columnStart+=FLOAT_COLUMN_BLOCK){
+                final int width=(Math.min((columnStart+FLOAT_COLUMN_BLOCK),columns)-columnStart);
+                for(int row=firstRow;row<lastRow;row++){
+                    final int leftOffset=(row*inner);
+                    final int productOffset=(row*columns+columnStart);
+                    for(int k=innerStart;k<innerEnd;k++){
+                        final float entry=left[(leftOffset+k)];
+                        if(entry!=0){
+                            ArrayKernels.axpy(entry,right,(k*columns+columnStart),
+                                    product,productOffset,width);
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package LinearAlgebra;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * This class decides whether an operation is split across several threads, and which threads
+ * are used to do it. An operation only runs in parallel if it has at least as much work as the
+ * sequential threshold, because splitting up a small operation takes longer than doing it on one
+ * thread. This class is immutable.<br />
+ * A policy can be passed to an operation directly, such as
+ * {@link Matrix#dotProduct(Matrix,ParallelismPolicy)}, or set as the default policy with
+ * {@link #setDefault(ParallelismPolicy)} to be used by every operation that isn't passed one.
+ * @author Mark Angelot
+ * @since January 9, 2024
+ */
+public final class ParallelismPolicy{
+//--Fields--//
+
+    /** This is the default sequential threshold. It is the amount of multiplications in the
+     * product of two 128×128 matrices. */
+    public static final long DEFAULT_SEQUENTIAL_THRESHOLD=128L*128*128;
+
+    /** This policy runs every operation on the calling thread. */
+    public static final ParallelismPolicy SEQUENTIAL=new ParallelismPolicy(null,Long.MAX_VALUE);
+
+    /** This is the policy that is used by operations that are not passed a policy. */
+    private static volatile ParallelismPolicy defaultPolicy=SEQUENTIAL;
+
+    /** This is the pool in which parallel operations are run. This is null if this policy is
+     * sequential. */
+    private final ForkJoinPool POOL;
+    /** Operations with less work than this are run on the calling thread. */
+    private final long SEQUENTIAL_THRESHOLD;
+
+//--Constructors--//
+
+    /**
+     * Constructs a policy that runs operations in the passed pool.
+     * @param pool the pool in which parallel operations are to be run
+     * @param sequentialThreshold the least amount of work that an operation needs in order to be
+     *                            run in parallel. For multiplication, this is the amount of
+     *                            multiplications of entries.
+     * @throws IllegalArgumentException if {@code sequentialThreshold} is negative
+     */
+    public ParallelismPolicy(ForkJoinPool pool,long sequentialThreshold){
+        if(sequentialThreshold<0){
+            throw new IllegalArgumentException("Sequential threshold cannot be negative");
+        }
+        POOL=pool;
+        SEQUENTIAL_THRESHOLD=(pool==null)?Long.MAX_VALUE:sequentialThreshold;
+    }
+
+    /**
+     * Creates and returns a policy that runs operations in the common pool with the
+     * {@link #DEFAULT_SEQUENTIAL_THRESHOLD default sequential threshold}.
+     * @return a policy that runs operations in the common pool
+     */
+    public static ParallelismPolicy usingCommonPool(){
+        return new ParallelismPolicy(ForkJoinPool.commonPool(),DEFAULT_SEQUENTIAL_THRESHOLD);
+    }
+
+//--Getters and Setters--//
+
+    /**
+     * @return the policy that is used by operations that are not passed a policy. This is
+     * {@link #SEQUENTIAL} unless it is changed with {@link #setDefault(ParallelismPolicy)}.
+     */
+    public static ParallelismPolicy getDefault(){
+        return defaultPolicy;
+    }
+
+    /**
+     * Sets the policy that is to be used by operations that are not passed a policy.
+     * @param policy the new default policy
+     * @throws NullPointerException if {@code policy} is null
+     */
+    public static void setDefault(ParallelismPolicy policy){
+        if(policy==null){
+            throw new NullPointerException("The default policy cannot be null");
+        }
+        defaultPolicy=policy;
+    }
+
+    /**
+     * @return the pool in which parallel operations are run, or null if this policy is sequential
+     */
+    public ForkJoinPool getPool(){
+        return POOL;
+    }
+
+    /**
+     * @return the least amount of work that an operation needs in order to be run in parallel
+     */
+    public long getSequentialThreshold(){
+        return SEQUENTIAL_THRESHOLD;
+    }
+
+    /**
+     * @return the amount of threads that work on a parallel operation, which is 1 if this policy
+     * is sequential
+     */
+    public int getParallelism(){
+        return (POOL==null)?1:POOL.getParallelism();
+    }
+
+//--Properties--//
+
+    /**
+     * @param work the amount of work in an operation
+     * @return true if an operation with this much work should be run in parallel, or false if it
+     * should be run on the calling thread
+     */
+    public boolean shouldParallelize(long work){
+        return (POOL!=null && POOL.getParallelism()>1 && work>=SEQUENTIAL_THRESHOLD);
+    }
+
+//--Splitting--//
+
+    /**
+     * This is an operation on a range of independent items, such as the matrices in a batch or
+     * the bands of rows in a product.
+     */
+    interface RangeOperation{
+        /**
+         * @param first the index of the first item in the range
+         * @param last the index after the last item in the range
+         */
+        void apply(int first,int last);
+    }
+
+    /**
+     * Applies an operation to every item in a range of independent items. If the items have
+     * enough work in total for this policy, they are split into about four ranges per thread,
+     * which are worked on in parallel.
+     * @param amountOfItems the amount of items
+     * @param workPerItem the amount of work that the operation does on one item
+     * @param operation the operation that is applied to each range of the items
+     */
+    void forEachRange(int amountOfItems,long workPerItem,RangeOperation operation){
+        if(amountOfItems<2 || !shouldParallelize(amountOfItems*workPerItem)){
+            operation.apply(0,amountOfItems);
+            return;
+        }
+        final int rangeSize=Math.max(1,(amountOfItems/(getParallelism()*4)));
+        POOL.invoke(new RangeTask(operation,0,amountOfItems,rangeSize));
+    }
+
+    /**
+     * This task applies an operation to a range of items. Ranges that are larger than the range
+     * size are split in half, and the halves are worked on in parallel.
+     */
+    private static final class RangeTask extends RecursiveAction{
+        private final RangeOperation operation;
+        private final int first;
+        private final int last;
+        private final int rangeSize;
+
+        RangeTask(RangeOperation operation,int first,int last,int rangeSize){
+            this.operation=operation;
+            this.first=first;
+            this.last=last;
+            this.rangeSize=rangeSize;
+        }
+
+        @Override
+        protected void compute(){
+            if((last-first)<=rangeSize){
+                operation.apply(first,last);
+                return;
+            }
+            final int middle=(first+((last-first)/2));
+            invokeAll(
+                new RangeTask(operation,first,middle,rangeSize),
+                new RangeTask(operation,middle,last,rangeSize)
+            );
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package LinearAlgebra;
+
+/**
+ * A preconditioner is an approximation M of a matrix A whose systems are much cheaper to solve
+ * than the systems of A. An iterative solver that solves Mz=r in every iteration usually needs
+ * far fewer iterations, because M⁻¹A is much closer to the identity matrix than A is.
+ * @author Mark Angelot
+ * @since March 2, 2024
+ * @see JacobiPreconditioner
+ * @see ILUPreconditioner
+ */
+public interface Preconditioner{
+    /** This preconditioner is the identity matrix, so using it is the same as using no
+     * preconditioner. */
+    Preconditioner NONE=(residual,result)->System.arraycopy(residual,0,result,0,residual.length);
+
+    /**
+     * Solves the system Mz=r, where M is this preconditioner.
+     * @param residual the right-hand side r. This must not be changed.
+     * @param result the array into which the solution z is written
+     */
+    void apply(double[] residual,double[] result);
+}
@@ -0,0 +1,548 @@
+package LinearAlgebra;
+
+import LinearAlgebra.Exceptions.UndecomposableMatrixException;
+import LinearAlgebra.Exceptions.UninvertibleMatrixException;
+
+import java.util.Arrays;
+
+/**
+ * This class holds the QR decomposition of a matrix with at least as many rows as columns. The
+ * QR decomposition of an m×n matrix A is an m×n matrix Q whose columns are orthonormal and an
+ * n×n upper triangular matrix R such that A=Q·R. Multiplying by Q does not change the length of
+ * a vector, so the least-squares solution of an overdetermined system Ax≈b, which is the x that
+ * makes the length of b-Ax as small as possible, is the solution of R·x=Qᵀ·b. Unlike solving the
+ * normal equations AᵀA·x=Aᵀb, this does not square the condition number of A.<br />
+ * The decomposition is calculated with Householder reflections, which are stable without
+ * pivoting. Q is never stored as a matrix; instead, each reflection is stored as the vector that
+ * it reflects across, below the main diagonal of R. The reflections are grouped in panels of
+ * {@value #BLOCK_SIZE} columns, and each panel is applied to the rest of the matrix at once in
+ * its compact WY form I-V·T·Vᵀ, where the columns of V are the vectors of the reflections and T
+ * is a small upper triangular matrix. This reads each row of the matrix once per panel instead
+ * of once per column.<br />
+ * For tall matrices, such as 10⁶×200, even one pass per panel has to go through the whole
+ * matrix, one panel at a time. If a {@link ParallelismPolicy} allows it, the decomposition is
+ * instead calculated as a tall-skinny QR (TSQR): the rows are split into blocks that are
+ * decomposed in parallel, and the R factors of the blocks are then stacked on top of each other
+ * and decomposed once more. The R factor of that last decomposition is the R factor of the
+ * whole matrix, and Q is the product of the Q factors of the blocks and the Q factor of the
+ * stacked Rs. The time it takes goes down with the amount of cores, no matter how few columns
+ * there are. This class is immutable.
+ * @author Mark Angelot
+ * @since April 20, 2024
+ */
+public class QRDecomposition{
+//--Fields--//
+
+    /** This is how many reflections are grouped into each panel. */
+    private static final int BLOCK_SIZE=32;
+
+    /** This array holds the decompositions of the blocks of rows, one row after another. In each
+     * block, the entries on and above the main diagonal belong to R, and the entries below it
+     * are the vectors of the reflections, whose first entry is an implicit 1. */
+    private final double[] qr;
+    /** The block at index i starts at row {@code blockStarts[i]} and ends before row
+     * {@code blockStarts[i+1]}. Without TSQR, there is one block. */
+    private final int[] blockStarts;
+    /** These are the decompositions of the blocks of rows, which share {@link #qr}. */
+    private final Householder[] blocks;
+    /** This is the decomposition of the stacked R factors of the blocks, or null if there is
+     * only one block. */
+    private final Householder stackedRs;
+    /** This holds how many rows are in the decomposed matrix. */
+    public final int AMOUNT_OF_ROWS;
+    /** This holds how many columns are in the decomposed matrix. */
+    public final int AMOUNT_OF_COLUMNS;
+    private final ParallelismPolicy POLICY;
+
+//--Constructors--//
+
+    /**
+     * Calculates the QR decomposition of a matrix on one thread.
+     * @param matrix the matrix that is to be decomposed
+     * @throws UndecomposableMatrixException if the matrix has more columns than rows
+     */
+    public QRDecomposition(Matrix matrix) throws UndecomposableMatrixException{
+        this(matrix,ParallelismPolicy.SEQUENTIAL);
+    }
+
+    /**
+     * Calculates the QR decomposition of a matrix. If the matrix is large enough for the passed
+     * policy and has at least four times as many rows as columns, the rows are split into
+     * blocks that are decomposed in parallel (TSQR). The solutions calculated with either
+     * decomposition are the same up to rounding errors, but the signs of the rows of R, and of
+     * the columns of Q, can differ.
+     * @param matrix the matrix that is to be decomposed
+     * @param policy decides whether the matrix is decomposed in parallel, and is also used to
+     *               apply Q in parallel when solving
+     * @throws UndecomposableMatrixException if the matrix has more columns than rows
+     */
+    public QRDecomposition(Matrix matrix,ParallelismPolicy policy)
+            throws UndecomposableMatrixException{
+        final int m=matrix.AMOUNT_OF_ROWS;
+        final int n=matrix.AMOUNT_OF_COLUMNS;
+        if(m<n){
+            throw new UndecomposableMatrixException("This is a "+matrix.getDimensions()+
+                    " matrix so it does not have a QR decomposition. Only matrices with at "+
+                    "least as many rows as columns can be decomposed.");
+        }
+        AMOUNT_OF_ROWS=m;
+        AMOUNT_OF_COLUMNS=n;
+        POLICY=policy;
+        qr=matrix.denseEntries(true);
+
+        final long work=(2L*m*n*n);
+        int amountOfBlocks=1;
+        if(policy.shouldParallelize(work)){
+            // Each block needs at least as many rows as columns, and more blocks than threads
+            // lets threads that finish early take over the work of the others
+            amountOfBlocks=(int)Math.min((2L*policy.getParallelism()),(m/(4L*n)));
+            amountOfBlocks=Math.max(amountOfBlocks,1);
+        }
+        blockStarts=new int[(amountOfBlocks+1)];
+        for(int i=0;i<=amountOfBlocks;i++){
+            blockStarts[i]=(int)(((long)m*i)/amountOfBlocks);
+        }
+        blocks=new Householder[amountOfBlocks];
+        for(int i=0;i<amountOfBlocks;i++){
+            blocks[i]=new Householder(qr,(blockStarts[i]*n),(blockStarts[i+1]-blockStarts[i]),n);
+        }
+        policy.forEachRange(amountOfBlocks,(work/amountOfBlocks),(first,last)->{
+            for(int i=first;i<last;i++){
+                blocks[i].decompose();
+            }
+        });
+
+        if(amountOfBlocks==1){
+            stackedRs=null;
+            return;
+        }
+        double[] stacked=new double[(amountOfBlocks*n*n)];
+        for(int i=0;i<amountOfBlocks;i++){
+            final int blockOffset=(blockStarts[i]*n);
+            for(int row=0;row<n;row++){
+                System.arraycopy(qr,(blockOffset+row*n+row),stacked,((i*n+row)*n+row),(n-row));
+            }
+        }
+        stackedRs=new Householder(stacked,0,(amountOfBlocks*n),n);
+        stackedRs.decompose();
+    }
+
+//--Getters--//
+
+    /**
+     * @return the upper triangular factor R, which has as many rows and columns as the decomposed
+     * matrix has columns
+     */
+    public Matrix getR(){
+        final int n=AMOUNT_OF_COLUMNS;
+        final Householder top=topDecomposition();
+        double[] r=new double[(n*n)];
+        for(int row=0;row<n;row++){
+            System.arraycopy(top.ENTRIES,(top.OFFSET+row*n+row),r,(row*n+row),(n-row));
+        }
+        return new Matrix(n,n,Matrix.DEFAULT_AUGMENT_INDEX,r);
+    }
+
+    /**
+     * Calculates and returns the factor Q, whose columns are orthonormal. It has as many rows as
+     * the decomposed matrix, so it takes as much memory as the decomposed matrix; to multiply by
+     * Qᵀ, as solving does, Q does not need to be calculated.
+     * @return the factor Q, which has the same size as the decomposed matrix
+     */
+    public Matrix getQ(){
+        final int n=AMOUNT_OF_COLUMNS;
+        double[] q=new double[(AMOUNT_OF_ROWS*n)];
+        double[] identity=new double[(n*n)];
+        for(int i=0;i<n;i++){
+            identity[(i*n+i)]=1;
+        }
+        applyQ(identity,q,n);
+        return new Matrix(AMOUNT_OF_ROWS,n,Matrix.DEFAULT_AUGMENT_INDEX,q);
+    }
+
+    /**
+     * @return the decomposition whose R factor is the R factor of the whole matrix
+     */
+    private Householder topDecomposition(){
+        return (stackedRs==null)?blocks[0]:stackedRs;
+    }
+
+//--Properties--//
+
+    /**
+     * A matrix has full column rank if none of its columns is a linear combination of the
+     * others. This is the case if no entry on the main diagonal of R is within a few rounding
+     * errors of 0, relative to the largest entry on the main diagonal.
+     * @return true if the decomposed matrix has full column rank, or false otherwise
+     */
+    public boolean isFullRank(){
+        final int n=AMOUNT_OF_COLUMNS;
+        final Householder top=topDecomposition();
+        double largest=0;
+        double smallest=Double.POSITIVE_INFINITY;
+        for(int i=0;i<n;i++){
+            final double entry=Math.abs(top.ENTRIES[(top.OFFSET+i*n+i)]);
+            largest=Math.max(largest,entry);
+            smallest=Math.min(smallest,entry);
+        }
+        return (smallest>(Math.ulp(1.0)*Math.max(AMOUNT_OF_ROWS,n)*largest));
+    }
+
+//--Solving--//
+
+    /**
+     * Finds the least-squares solution of the system A·x≈b, where A is the decomposed matrix,
+     * which is the x that makes the length of b-A·x as small as possible. If A is square, this
+     * is the exact solution. This runs in O(m·n) time.
+     * @param vector the right-hand side b of the system
+     * @return the least-squares solution x of the system
+     * @throws IllegalArgumentException if the height of the vector does not match the amount of
+     * rows in the decomposed matrix
+     * @throws UninvertibleMatrixException if the decomposed matrix does not have full column
+     * rank, so that the least-squares solution is not unique
+     */
+    public Vector solve(Vector vector) throws UninvertibleMatrixException{
+        checkHeight(vector);
+        double[] solution=solve(vector.asArray(),1);
+        return new Vector(AMOUNT_OF_COLUMNS,solution,0,1);
+    }
+
+    /**
+     * Finds the least-squares solution of the system A·X≈B for every column of B at once.
+     * @param matrix the right-hand side B of the system
+     * @return the least-squares solution X of the system, which has as many rows as the
+     * decomposed matrix has columns, and as many columns as B
+     * @throws IllegalArgumentException if the amount of rows in the matrix does not match the
+     * amount of rows in the decomposed matrix
+     * @throws UninvertibleMatrixException if the decomposed matrix does not have full column
+     * rank, so that the least-squares solution is not unique
+     */
+    public Matrix solve(Matrix matrix) throws UninvertibleMatrixException{
+        checkHeight(matrix);
+        final int columns=matrix.AMOUNT_OF_COLUMNS;
+        double[] solution=solve(matrix.denseEntries(true),columns);
+        return new Matrix(AMOUNT_OF_COLUMNS,columns,Matrix.DEFAULT_AUGMENT_INDEX,solution);
+    }
+
+    /**
+     * Calculates the length of the residual b-A·x of the least-squares solution x, without
+     * calculating x. This is the length of the part of Qᵀ·b below its first n entries.
+     * @param vector the right-hand side b of the system
+     * @return the length of the residual of the least-squares solution
+     * @throws IllegalArgumentException if the height of the vector does not match the amount of
+     * rows in the decomposed matrix
+     */
+    public double residualNorm(Vector vector){
+        checkHeight(vector);
+        final int n=AMOUNT_OF_COLUMNS;
+        double[] b=vector.asArray();
+        double[] top=applyQTranspose(b,1);
+        if(stackedRs==null){
+            return Math.sqrt(ArrayKernels.sumOfSquares(b,n,(AMOUNT_OF_ROWS-n)));
+        }
+        // With TSQR, the residual is the rest of the stacked Rs' part, and the rows of each block
+        // below its first n
+        double sumOfSquares=ArrayKernels.sumOfSquares(top,n,(top.length-n));
+        for(int i=0;i<blocks.length;i++){
+            final int start=(blockStarts[i]+n);
+            sumOfSquares+=ArrayKernels.sumOfSquares(b,start,(blockStarts[i+1]-start));
+        }
+        return Math.sqrt(sumOfSquares);
+    }
+
+    /**
+     * Solves R·X=(Qᵀ·B) for the first n rows of Qᵀ·B.
+     * @param b the right-hand side, one row after another, which is overwritten
+     * @param columns the amount of columns in the right-hand side
+     * @return the solution, one row after another
+     */
+    private double[] solve(double[] b,int columns) throws UninvertibleMatrixException{
+        if(!isFullRank()){
+            throw new UninvertibleMatrixException("The matrix does not have full column rank, "+
+                    "so the least-squares solution is not unique");
+        }
+        final int n=AMOUNT_OF_COLUMNS;
+        double[] top=applyQTranspose(b,columns);
+        double[] solution=new double[(n*columns)];
+        System.arraycopy(top,0,solution,0,(n*columns));
+        final Householder r=topDecomposition();
+        // Back substitution with R
+        for(int row=(n-1);row>=0;row--){
+            final int rOffset=(r.OFFSET+row*n);
+            final int rowOffset=(row*columns);
+            for(int k=(row+1);k<n;k++){
+                final double multiplier=r.ENTRIES[(rOffset+k)];
+                if(multiplier!=0){
+                    ArrayKernels.axpy(-multiplier,solution,(k*columns),solution,rowOffset,
+                            columns);
+                }
+            }
+            ArrayKernels.scale(solution,rowOffset,(1.0/r.ENTRIES[(rOffset+row)]),
+                    solution,rowOffset,columns);
+        }
+        return solution;
+    }
+
+    /**
+     * Multiplies B by Qᵀ, one block at a time.
+     * @param b the entries of B, one row after another, which are overwritten with the product
+     *          of each block's Qᵀ and its rows of B
+     * @param columns the amount of columns in B
+     * @return an array whose first n rows are the first n rows of Qᵀ·B. Without TSQR, this is
+     * {@code b} itself; with TSQR, it holds the product of the Qᵀ of the stacked Rs and the
+     * stacked first n rows of each block.
+     */
+    private double[] applyQTranspose(double[] b,int columns){
+        final int n=AMOUNT_OF_COLUMNS;
+        final long work=(4L*AMOUNT_OF_ROWS*n*columns/blocks.length);
+        POLICY.forEachRange(blocks.length,work,(first,last)->{
+            for(int i=first;i<last;i++){
+                blocks[i].applyTranspose(b,(blockStarts[i]*columns),columns);
+            }
+        });
+        if(stackedRs==null){
+            return b;
+        }
+        double[] stacked=new double[(blocks.length*n*columns)];
+        for(int i=0;i<blocks.length;i++){
+            System.arraycopy(b,(blockStarts[i]*columns),stacked,(i*n*columns),(n*columns));
+        }
+        stackedRs.applyTranspose(stacked,0,columns);
+        return stacked;
+    }
+
+    /**
+     * Multiplies Q by an n×k matrix X.
+     * @param x the entries of X, one row after another, which are not changed
+     * @param product the array into which the m×k product is written. It must be filled with
+     *                0s.
+     * @param columns the amount of columns k in X
+     */
+    private void applyQ(double[] x,double[] product,int columns){
+        final int n=AMOUNT_OF_COLUMNS;
+        if(stackedRs==null){
+            System.arraycopy(x,0,product,0,(n*columns));
+        }
+        else{
+            double[] stacked=new double[(blocks.length*n*columns)];
+            System.arraycopy(x,0,stacked,0,(n*columns));
+            stackedRs.apply(stacked,0,columns);
+            for(int i=0;i<blocks.length;i++){
+                System.arraycopy(stacked,(i*n*columns),product,(blockStarts[i]*columns),
+                        (n*columns));
+            }
+        }
+        final long work=(4L*AMOUNT_OF_ROWS*n*columns/blocks.length);
+        POLICY.forEachRange(blocks.length,work,(first,last)->{
+            for(int i=first;i<last;i++){
+                blocks[i].apply(product,(blockStarts[i]*columns),columns);
+            }
+        });
+    }
+
+    private void checkHeight(Matrix matrix){
+        if(matrix.AMOUNT_OF_ROWS!=AMOUNT_OF_ROWS){
+            throw new IllegalArgumentException("A system with a "+AMOUNT_OF_ROWS+"×"+
+                    AMOUNT_OF_COLUMNS+" matrix cannot be solved for a right-hand side with "+
+                    matrix.AMOUNT_OF_ROWS+" rows");
+        }
+    }
+
+//--Householder Reflections--//
+
+    /**
+     * This class decomposes one block of rows that is stored one row after another inside a
+     * larger array, and multiplies other matrices by its Q or Qᵀ. The reflections of each panel
+     * are applied together in their compact WY form I-V·T·Vᵀ, which works on whole rows at a
+     * time so that a row-major array is read in order.
+     */
+    private static final class Householder{
+        private final double[] ENTRIES;
+        private final int OFFSET;
+        private final int ROWS;
+        private final int COLUMNS;
+        /** This holds the T factor of each panel, one row after another. */
+        private final double[][] T;
+
+        Householder(double[] entries,int offset,int rows,int columns){
+            ENTRIES=entries;
+            OFFSET=offset;
+            ROWS=rows;
+            COLUMNS=columns;
+            T=new double[((columns+BLOCK_SIZE-1)/BLOCK_SIZE)][];
+        }
+
+        /**
+         * Decomposes the block in place, one panel at a time.
+         */
+        void decompose(){
+            for(int panel=0;panel<T.length;panel++){
+                final int start=(panel*BLOCK_SIZE);
+                final int width=Math.min(BLOCK_SIZE,(COLUMNS-start));
+                double[] t=new double[(width*width)];
+                decomposePanel(start,width,t);
+                T[panel]=t;
+                final int trailing=(COLUMNS-start-width);
+                if(trailing>0){
+                    applyPanel(start,width,t,true,ENTRIES,(OFFSET+start+width),COLUMNS,trailing);
+                }
+            }
+        }
+
+        /**
+         * Decomposes the columns of one panel with one reflection each, and builds the T factor
+         * of the panel as each reflection is added.
+         */
+        private void decomposePanel(int start,int width,double[] t){
+            double[] w=new double[width];
+            for(int j=0;j<width;j++){
+                final int column=(start+j);
+                final int diagonal=(OFFSET+column*COLUMNS+column);
+                double sumOfSquares=0;
+                for(int row=(column+1);row<ROWS;row++){
+                    final double entry=ENTRIES[(OFFSET+row*COLUMNS+column)];
+                    sumOfSquares+=(entry*entry);
+                }
+                final double alpha=ENTRIES[diagonal];
+                double tau=0;
+                if(sumOfSquares!=0){
+                    // Reflect the column onto a multiple of the first unit vector, with the sign
+                    // chosen so that alpha-beta does not cancel
+                    final double beta=-Math.copySign(Math.sqrt((alpha*alpha)+sumOfSquares),alpha);
+                    tau=((beta-alpha)/beta);
+                    final double scale=(1.0/(alpha-beta));
+                    for(int row=(column+1);row<ROWS;row++){
+                        ENTRIES[(OFFSET+row*COLUMNS+column)]*=scale;
+                    }
+                    ENTRIES[diagonal]=beta;
+                }
+                t[(j*width+j)]=tau;
+                if(tau==0){
+                    continue;
+                }
+
+                // Apply the reflection to the rest of the panel: w=vᵀ·A, then A=A-tau·v·w
+                final int rest=(width-j-1);
+                if(rest>0){
+                    Arrays.fill(w,0,rest,0);
+                    ArrayKernels.axpy(1.0,ENTRIES,(diagonal+1),w,0,rest);
+                    for(int row=(column+1);row<ROWS;row++){
+                        final int rowOffset=(OFFSET+row*COLUMNS);
+                        ArrayKernels.axpy(ENTRIES[(rowOffset+column)],ENTRIES,(rowOffset+column+1),
+                                w,0,rest);
+                    }
+                    ArrayKernels.axpy(-tau,w,0,ENTRIES,(diagonal+1),rest);
+                    for(int row=(column+1);row<ROWS;row++){
+                        final int rowOffset=(OFFSET+row*COLUMNS);
+                        final double v=ENTRIES[(rowOffset+column)];
+                        if(v!=0){
+                            ArrayKernels.axpy((-tau*v),w,0,ENTRIES,(rowOffset+column+1),rest);
+                        }
+                    }
+                }
+
+                // The new column of T is -tau·T·(Vᵀ·v) over the reflections before this one
+                if(j>0){
+                    double[] z=new double[j];
+                    ArrayKernels.axpy(1.0,ENTRIES,(diagonal-j),z,0,j);
+                    for(int row=(column+1);row<ROWS;row++){
+                        final int rowOffset=(OFFSET+row*COLUMNS);
+                        ArrayKernels.axpy(ENTRIES[(rowOffset+column)],ENTRIES,(rowOffset+start),
+                                z,0,j);
+                    }
+                    for(int i=0;i<j;i++){
+                        t[(i*width+j)]=(-tau*ArrayKernels.dot(t,(i*width+i),z,i,(j-i)));
+                    }
+                }
+            }
+        }
+
+        /**
+         * Multiplies a block B of another array by the reflections of one panel, as
+         * B=(I-V·T·Vᵀ)·B, or by their transpose, as B=(I-V·Tᵀ·Vᵀ)·B. The rows of B match the
+         * rows of this block.
+         * @param start the index of the first column of the panel
+         * @param width the amount of columns in the panel
+         * @param t the T factor of the panel
+         * @param transpose true to multiply by the transpose of the reflections
+         * @param b the array that holds B
+         * @param bOffset the index in {@code b} of the top-left entry of B
+         * @param bStride the distance in {@code b} between an entry of B and the entry below it
+         * @param columns the amount of columns in B
+         */
+        private void applyPanel(int start,int width,double[] t,boolean transpose,double[] b,
+                                int bOffset,int bStride,int columns){
+            // W=Vᵀ·B, one row of B at a time
+            double[] w=new double[(width*columns)];
+            for(int row=start;row<ROWS;row++){
+                final int vOffset=(OFFSET+row*COLUMNS+start);
+                final int bRow=(bOffset+row*bStride);
+                final int last=Math.min(width,(row-start+1));
+                for(int p=0;p<last;p++){
+                    final double v=((row-start)==p)?1.0:ENTRIES[(vOffset+p)];
+                    if(v!=0){
+                        ArrayKernels.axpy(v,b,bRow,w,(p*columns),columns);
+                    }
+                }
+            }
+            // W=T·W or W=Tᵀ·W, in an order that only reads rows of W that have not been
+            // replaced yet
+            if(transpose){
+                for(int p=(width-1);p>=0;p--){
+                    ArrayKernels.scale(w,(p*columns),t[(p*width+p)],w,(p*columns),columns);
+                    for(int q=0;q<p;q++){
+                        final double entry=t[(q*width+p)];
+                        if(entry!=0){
+                            ArrayKernels.axpy(entry,w,(q*columns),w,(p*columns),columns);
+                        }
+                    }
+                }
+            }
+            else{
+                for(int p=0;p<width;p++){
+                    ArrayKernels.scale(w,(p*columns),t[(p*width+p)],w,(p*columns),columns);
+                    for(int q=(p+1);q<width;q++){
+                        final double entry=t[(p*width+q)];
+                        if(entry!=0){
+                            ArrayKernels.axpy(entry,w,(q*columns),w,(p*columns),columns);
+                        }
+                    }
+                }
+            }
+            // B=B-V·W, one row of B at a time
+            for(int row=start;row<ROWS;row++){
+                final int vOffset=(OFFSET+row*COLUMNS+start);
+                final int bRow=(bOffset+row*bStride);
+                final int last=Math.min(width,(row-start+1));
+                for(int p=0;p<last;p++){
+                    final double v=((row-start)==p)?1.0:ENTRIES[(vOffset+p)];
+                    if(v!=0){
+                        ArrayKernels.axpy(-v,w,(p*columns),b,bRow,columns);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Replaces the rows of B that match this block with Qᵀ·B.
+         */
+        void applyTranspose(double[] b,int bOffset,int columns){
+            for(int panel=0;panel<T.length;panel++){
+                final int start=(panel*BLOCK_SIZE);
+                final int width=Math.min(BLOCK_SIZE,(COLUMNS-start));
+                applyPanel(start,width,T[panel],true,b,bOffset,columns,columns);
+            }
+        }
+
+        /**
+         * Replaces the rows of B that match this block with Q·B.
+         */
+        void apply(double[] b,int bOffset,int columns){
+            for(int panel=(T.length-1);panel>=0;panel--){
+                final int start=(panel*BLOCK_SIZE);
+                final int width=Math.min(BLOCK_SIZE,(COLUMNS-start));
+                applyPanel(start,width,T[panel],false,b,bOffset,columns,columns);
+            }
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package LinearAlgebra;
+
+/**
+ * A residual listener is told the residual of an {@link IterativeSolver} after each iteration,
+ * which can be used to log or plot how quickly the solver converges.
+ * @author Mark Angelot
+ * @since March 2, 2024
+ */
+@FunctionalInterface
+public interface ResidualListener{
+    /**
+     * This is called after every iteration of an iterative solver.
+     * @param iteration how many iterations have been completed, starting from 1
+     * @param relativeResidual the length of the residual b-Ax divided by the length of b
+     */
+    void iterationCompleted(int iteration,double relativeResidual);
+}
@@ -0,0 +1,165 @@
+package LinearAlgebra;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * This class holds the versions of the loops in {@link ArrayKernels} that use the JDK Vector
+ * API. Each loop works on as many entries at a time as fit in the widest vector register of the
+ * processor (8 with AVX-512, 4 with AVX2), and then finishes the last few entries one at a
+ * time.<br />
+ * This class must only be used after {@link ArrayKernels} has checked that the
+ * jdk.incubator.vector module is present, because loading it without the module fails.
+ * @author Mark Angelot
+ * @since February 17, 2024
+ */
+final class SimdArrayKernels{
+    private static final VectorSpecies<Double> SPECIES=DoubleVector.SPECIES_PREFERRED;
+    /** This holds twice as many floats as {@link #SPECIES} holds doubles. */
+    private static final VectorSpecies<Float> FLOAT_SPECIES=FloatVector.SPECIES_PREFERRED;
+
+    private SimdArrayKernels(){}
+
+    /**
+     * @return how many doubles fit in one vector
+     */
+    static int laneCount(){
+        return SPECIES.length();
+    }
+
+//--Elementwise Operations--//
+
+    static void add(double[] a,double[] b,double[] destination,int length){
+        final int bound=SPECIES.loopBound(length);
+        int i=0;
+        for(;i<bound;i+=SPECIES.length()){
+            DoubleVector.fromArray(SPECIES,a,i)
+                    .add(DoubleVector.fromArray(SPECIES,b,i))
+                    .intoArray(destination,i);
+        }
+        for(;i<length;i++){
+            destination[i]=(a[i]+b[i]);
+        }
+    }
+
+    static void subtract(double[] a,double[] b,double[] destination,int length){
+        final int bound=SPECIES.loopBound(length);
+        int i=0;
+        for(;i<bound;i+=SPECIES.length()){
+            DoubleVector.fromArray(SPECIES,a,i)
+                    .sub(DoubleVector.fromArray(SPECIES,b,i))
+                    .intoArray(destination,i);
+        }
+        for(;i<length;i++){
+            destination[i]=(a[i]-b[i]);
+        }
+    }
+
+    static void scale(double[] source,int sourceOffset,double scalar,double[] destination,
+                      int destinationOffset,int length){
+        final int bound=SPECIES.loopBound(length);
+        int i=0;
+        for(;i<bound;i+=SPECIES.length()){
+            DoubleVector.fromArray(SPECIES,source,(sourceOffset+i))
+                    .mul(scalar)
+                    .intoArray(destination,(destinationOffset+i));
+        }
+        for(;i<length;i++){
+            destination[(destinationOffset+i)]=(scalar*source[(sourceOffset+i)]);
+        }
+    }
+
+    static void axpy(double alpha,double[] x,int xOffset,double[] y,int yOffset,int length){
+        final DoubleVector alphas=DoubleVector.broadcast(SPECIES,alpha);
+        final int bound=SPECIES.loopBound(length);
+        int i=0;
+        for(;i<bound;i+=SPECIES.length()){
+            DoubleVector.fromArray(SPECIES,x,(xOffset+i))
+                    .fma(alphas,DoubleVector.fromArray(SPECIES,y,(yOffset+i)))
+                    .intoArray(y,(yOffset+i));
+        }
+        for(;i<length;i++){
+            y[(yOffset+i)]+=(alpha*x[(xOffset+i)]);
+        }
+    }
+
+    static void axpy(float alpha,float[] x,int xOffset,float[] y,int yOffset,int length){
+        final FloatVector alphas=FloatVector.broadcast(FLOAT_SPECIES,alpha);
+        final int bound=FLOAT_SPECIES.loopBound(length);
+        int i=0;
+        for(;i<bound;i+=FLOAT_SPECIES.length()){
+            FloatVector.fromArray(FLOAT_SPECIES,x,(xOffset+i))
+                    .fma(alphas,FloatVector.fromArray(FLOAT_SPECIES,y,(yOffset+i)))
+                    .intoArray(y,(yOffset+i));
+        }
+        for(;i<length;i++){
+            y[(yOffset+i)]+=(alpha*x[(xOffset+i)]);
+        }
+    }
+
+//--Reductions--//
+
+    /**
+     * Calculates a dot product with two vectors of partial sums, so that two fused
+     * multiply-adds can be in flight at once. The lanes are only added together at the end.
+     */
+    static double dot(double[] a,int aOffset,double[] b,int bOffset,int length){
+        final int lanes=SPECIES.length();
+        final int bound=(length-(length%(2*lanes)));
+        DoubleVector sum0=DoubleVector.zero(SPECIES);
+        DoubleVector sum1=DoubleVector.zero(SPECIES);
+        int i=0;
+        for(;i<bound;i+=(2*lanes)){
+            sum0=DoubleVector.fromArray(SPECIES,a,(aOffset+i))
+                    .fma(DoubleVector.fromArray(SPECIES,b,(bOffset+i)),sum0);
+            sum1=DoubleVector.fromArray(SPECIES,a,(aOffset+i+lanes))
+                    .fma(DoubleVector.fromArray(SPECIES,b,(bOffset+i+lanes)),sum1);
+        }
+        double sum=sum0.add(sum1).reduceLanes(VectorOperators.ADD);
+        for(;i<length;i++){
+            sum+=(a[(aOffset+i)]*b[(bOffset+i)]);
+        }
+        return sum;
+    }
+
+    static float dot(float[] a,int aOffset,float[] b,int bOffset,int length){
+        final int lanes=FLOAT_SPECIES.length();
+        final int bound=(length-(length%(2*lanes)));
+        FloatVector sum0=FloatVector.zero(FLOAT_SPECIES);
+        FloatVector sum1=FloatVector.zero(FLOAT_SPECIES);
+        int i=0;
+        for(;i<bound;i+=(2*lanes)){
+            sum0=FloatVector.fromArray(FLOAT_SPECIES,a,(aOffset+i))
+                    .fma(FloatVector.fromArray(FLOAT_SPECIES,b,(bOffset+i)),sum0);
+            sum1=FloatVector.fromArray(FLOAT_SPECIES,a,(aOffset+i+lanes))
+                    .fma(FloatVector.fromArray(FLOAT_SPECIES,b,(bOffset+i+lanes)),sum1);
+        }
+        float sum=sum0.add(sum1).reduceLanes(VectorOperators.ADD);
+        for(;i<length;i++){
+            sum+=(a[(aOffset+i)]*b[(bOffset+i)]);
+        }
+        return sum;
+    }
+
+    static double sumOfSquares(double[] a,int offset,int length){
+        final int lanes=SPECIES.length();
+        final int bound=(length-(length%(2*lanes)));
+        DoubleVector sum0=DoubleVector.zero(SPECIES);
+        DoubleVector sum1=DoubleVector.zero(SPECIES);
+        int i=0;
+        for(;i<bound;i+=(2*lanes)){
+            DoubleVector entries0=DoubleVector.fromArray(SPECIES,a,(offset+i));
+            DoubleVector entries1=DoubleVector.fromArray(SPECIES,a,(offset+i+lanes));
+            sum0=entries0.fma(entries0,sum0);
+            sum1=entries1.fma(entries1,sum1);
+        }
+        double sum=sum0.add(sum1).reduceLanes(VectorOperators.ADD);
+        for(;i<length;i++){
+            final double entry=a[(offset+i)];
+            sum+=(entry*entry);
+        }
+        return sum;
+    }
+}
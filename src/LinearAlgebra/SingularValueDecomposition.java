@@ -0,0 +1,551 @@
+package LinearAlgebra;
+
+import LinearAlgebra.Exceptions.IncompatibleMatrixMultiplicationException;
+import LinearAlgebra.Exceptions.UndecomposableMatrixException;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * This class holds the singular value decomposition (SVD) of a matrix. The SVD of an m×n matrix
+ * A is a list of k=min(m,n) singular values σ₁≥σ₂≥...≥σₖ≥0, and two matrices U (m×k) and V (n×k)
+ * whose columns are orthonormal, such that A=U·Σ·Vᵀ, where Σ is the diagonal matrix of the
+ * singular values. The singular values tell how much A stretches vectors in each direction, so
+ * they give the rank of A (how many are not 0), its 2-norm (σ₁), its condition number (σ₁/σₖ),
+ * and the best approximations of A with a lower rank (keeping only the largest singular
+ * values).<br />
+ * The full decomposition is calculated with the one-sided Jacobi method: the columns of the
+ * matrix are rotated in pairs until every pair is orthogonal, at which point their lengths are
+ * the singular values. This is slower than bidiagonalization, but simpler, and it finds even the
+ * smallest singular values to nearly full relative accuracy. Matrices with more rows than
+ * columns are first reduced to their square R factor with a {@link QRDecomposition}, so the
+ * rotations only work on n×n entries; matrices with more columns than rows are decomposed
+ * through their transpose. The decomposition takes O(m·n²) time, plus O(n³) per sweep of
+ * rotations, of which there are usually fewer than 10.<br />
+ * For large matrices of which only the largest singular values are needed, use
+ * {@link #randomized(Matrix,int)} instead, which takes O(m·n·k) time for the k largest
+ * singular values. This class is immutable.
+ * @author Mark Angelot
+ * @since April 27, 2024
+ */
+public class SingularValueDecomposition{
+//--Fields--//
+
+    /** The Jacobi method gives up after this many sweeps, which it never needs in practice. */
+    private static final int MAXIMUM_SWEEPS=60;
+    /** This is how many more directions than singular values {@link #randomized(Matrix,int)}
+     * samples. */
+    public static final int DEFAULT_OVERSAMPLING=10;
+    /** This is how many times {@link #randomized(Matrix,int)} multiplies by AᵀA to separate the
+     * largest singular values from the rest. */
+    public static final int DEFAULT_POWER_ITERATIONS=2;
+
+    /** This holds the singular values from greatest to least. */
+    private final double[] singularValues;
+    /** This array holds the columns of U, one after another. */
+    private final double[] uTranspose;
+    /** This array holds the columns of V, one after another. */
+    private final double[] vTranspose;
+    /** This holds how many rows are in the decomposed matrix. */
+    public final int AMOUNT_OF_ROWS;
+    /** This holds how many columns are in the decomposed matrix. */
+    public final int AMOUNT_OF_COLUMNS;
+
+//--Constructors--//
+
+    /**
+     * Calculates the full singular value decomposition of a matrix.
+     * @param matrix the matrix that is to be decomposed
+     */
+    public SingularValueDecomposition(Matrix matrix){
+        this(matrix,ParallelismPolicy.SEQUENTIAL);
+    }
+
+    /**
+     * Calculates the full singular value decomposition of a matrix. The passed policy is used
+     * for the {@link QRDecomposition} of a matrix with more rows than columns, and for
+     * multiplying by its Q factor; the rotations always run on one thread.
+     * @param matrix the matrix that is to be decomposed
+     * @param policy decides whether the QR decomposition and multiplication are calculated in
+     *               parallel
+     */
+    public SingularValueDecomposition(Matrix matrix,ParallelismPolicy policy){
+        AMOUNT_OF_ROWS=matrix.AMOUNT_OF_ROWS;
+        AMOUNT_OF_COLUMNS=matrix.AMOUNT_OF_COLUMNS;
+        if(AMOUNT_OF_ROWS<AMOUNT_OF_COLUMNS){
+            // A=U·Σ·Vᵀ if and only if Aᵀ=V·Σ·Uᵀ
+            SingularValueDecomposition transpose=
+                    new SingularValueDecomposition(matrix.transpose(),policy);
+            singularValues=transpose.singularValues;
+            uTranspose=transpose.vTranspose;
+            vTranspose=transpose.uTranspose;
+            return;
+        }
+        final int m=AMOUNT_OF_ROWS;
+        final int n=AMOUNT_OF_COLUMNS;
+
+        // The rotations work on the columns of R, which are stored as the rows of Rᵀ
+        QRDecomposition qr=null;
+        double[] columns;
+        if(m>n){
+            try{
+                qr=new QRDecomposition(matrix,policy);
+            }
+            catch(UndecomposableMatrixException e){
+                // This matrix has at least as many rows as columns
+                throw new IllegalStateException(e);
+            }
+            columns=qr.getR().transpose().denseEntries(true);
+        }
+        else{
+            columns=matrix.transpose().denseEntries(true);
+        }
+        double[] v=new double[(n*n)];
+        for(int i=0;i<n;i++){
+            v[(i*n+i)]=1;
+        }
+        orthogonalizeColumns(columns,n,n,v,n);
+
+        double[] sigma=new double[n];
+        for(int j=0;j<n;j++){
+            sigma[j]=Math.sqrt(ArrayKernels.sumOfSquares(columns,(j*n),n));
+            if(sigma[j]!=0){
+                ArrayKernels.scale(columns,(j*n),(1.0/sigma[j]),columns,(j*n),n);
+            }
+        }
+        completeBasis(columns,sigma,n);
+        int[] order=descendingOrder(sigma);
+        singularValues=permute(sigma,order,1);
+        vTranspose=permute(v,order,n);
+        // These are the left singular vectors of R, or of the matrix itself if it was not reduced
+        double[] leftSingularVectorsOfR=permute(columns,order,n);
+        if(qr==null){
+            uTranspose=leftSingularVectorsOfR;
+        }
+        else{
+            // U=Q·U_R, so Uᵀ=U_Rᵀ·Qᵀ
+            uTranspose=multiply(new Matrix(n,n,Matrix.DEFAULT_AUGMENT_INDEX,leftSingularVectorsOfR),
+                    qr.getQ().transpose(),policy);
+        }
+    }
+
+    /**
+     * Constructs a decomposition from singular values and vectors that have already been
+     * calculated, such as those of {@link #randomized(Matrix,int)}.
+     */
+    private SingularValueDecomposition(int rows,int columns,double[] singularValues,
+                                       double[] uTranspose,double[] vTranspose){
+        AMOUNT_OF_ROWS=rows;
+        AMOUNT_OF_COLUMNS=columns;
+        this.singularValues=singularValues;
+        this.uTranspose=uTranspose;
+        this.vTranspose=vTranspose;
+    }
+
+    /**
+     * Calculates the {@code rank} largest singular values of a matrix, and their singular
+     * vectors, with a randomized algorithm, using {@link #DEFAULT_OVERSAMPLING} extra samples,
+     * {@link #DEFAULT_POWER_ITERATIONS} power iterations and the
+     * {@link ParallelismPolicy#getDefault() default parallelism policy}. See
+     * {@link #randomized(Matrix,int,int,int,ParallelismPolicy,Random)}.
+     * @param matrix the matrix that is to be decomposed
+     * @param rank how many singular values are to be calculated
+     * @return a decomposition with {@code rank} singular values
+     * @throws IllegalArgumentException if {@code rank} is less than 1 or greater than the amount
+     * of rows or columns in the matrix
+     */
+    public static SingularValueDecomposition randomized(Matrix matrix,int rank){
+        return randomized(matrix,rank,DEFAULT_OVERSAMPLING,DEFAULT_POWER_ITERATIONS,
+                ParallelismPolicy.getDefault(),new Random());
+    }
+
+    /**
+     * Calculates the {@code rank} largest singular values of a matrix, and their singular
+     * vectors, with the randomized algorithm of Halko, Martinsson and Tropp, "Finding Structure
+     * with Randomness" (2011). The matrix is multiplied by l={@code rank+oversampling} random
+     * vectors, which mostly land in the directions of its largest singular values, and the
+     * products are made orthonormal with a {@link QRDecomposition} to get an m×l matrix Q. The
+     * small l×n matrix Qᵀ·A is then decomposed completely, and its singular vectors are
+     * multiplied by Q. Every step takes O(m·n·l) time or less, and the matrix is only read in
+     * products with {@link Matrix#dotProduct(Matrix,ParallelismPolicy)}.<br />
+     * The results are exact if the rank of the matrix is at most l. Otherwise, the singular
+     * values are slightly too small, by an amount that depends on how quickly the singular
+     * values after the {@code rank}th one drop off. Each power iteration multiplies by AᵀA once
+     * more before Q is calculated, which raises the singular values to a higher power and so
+     * makes them drop off faster, at the cost of two more products with the matrix.
+     * @param matrix the matrix that is to be decomposed
+     * @param rank how many singular values are to be calculated
+     * @param oversampling how many more random vectors than singular values are used. About 10
+     *                     is usually enough.
+     * @param powerIterations how many times the samples are multiplied by AᵀA. 1 or 2 is
+     *                        usually enough, unless the singular values barely drop off.
+     * @param policy decides whether the products and QR decompositions are calculated in
+     *               parallel
+     * @param random the source of the random vectors. Passing a Random with a fixed seed makes
+     *               the result the same every time.
+     * @return a decomposition with {@code rank} singular values
+     * @throws IllegalArgumentException if {@code rank} is less than 1 or greater than the amount
+     * of rows or columns in the matrix, or if {@code oversampling} or {@code powerIterations} is
+     * negative
+     */
+    public static SingularValueDecomposition randomized(Matrix matrix,int rank,int oversampling,
+                                                        int powerIterations,
+                                                        ParallelismPolicy policy,Random random){
+        final int m=matrix.AMOUNT_OF_ROWS;
+        final int n=matrix.AMOUNT_OF_COLUMNS;
+        if(rank<1 || rank>Math.min(m,n)){
+            throw new IllegalArgumentException("A "+matrix.getDimensions()+" matrix has between "+
+                    "1 and "+Math.min(m,n)+" singular values, so "+rank+" of them cannot be "+
+                    "calculated");
+        }
+        if(oversampling<0 || powerIterations<0){
+            throw new IllegalArgumentException("The oversampling and the amount of power "+
+                    "iterations cannot be negative");
+        }
+        final int samples=(int)Math.min(((long)rank+oversampling),Math.min(m,n));
+        double[] gaussian=new double[(n*samples)];
+        for(int i=0;i<gaussian.length;i++){
+            gaussian[i]=random.nextGaussian();
+        }
+
+        Matrix q=orthonormalize(new Matrix(m,samples,Matrix.DEFAULT_AUGMENT_INDEX,
+                multiply(matrix,new Matrix(n,samples,Matrix.DEFAULT_AUGMENT_INDEX,gaussian),
+                        policy)),policy);
+        for(int i=0;i<powerIterations;i++){
+            // Orthonormalizing after every product keeps the small singular values from being
+            // rounded away
+            Matrix z=orthonormalize(new Matrix(n,samples,Matrix.DEFAULT_AUGMENT_INDEX,
+                    multiply(matrix.transpose(),q,policy)),policy);
+            q=orthonormalize(new Matrix(m,samples,Matrix.DEFAULT_AUGMENT_INDEX,
+                    multiply(matrix,z,policy)),policy);
+        }
+
+        Matrix b=new Matrix(samples,n,Matrix.DEFAULT_AUGMENT_INDEX,
+                multiply(q.transpose(),matrix,policy));
+        SingularValueDecomposition small=new SingularValueDecomposition(b,policy);
+        // U=Q·U_B, so Uᵀ=U_Bᵀ·Qᵀ. Only the first rank columns of U_B are needed.
+        Matrix leadingVectors=new Matrix(rank,samples,Matrix.DEFAULT_AUGMENT_INDEX,
+                Arrays.copyOf(small.uTranspose,(rank*samples)));
+        return new SingularValueDecomposition(m,n,
+                Arrays.copyOf(small.singularValues,rank),
+                multiply(leadingVectors,q.transpose(),policy),
+                Arrays.copyOf(small.vTranspose,(rank*n)));
+    }
+
+    private static Matrix orthonormalize(Matrix matrix,ParallelismPolicy policy){
+        try{
+            return new QRDecomposition(matrix,policy).getQ();
+        }
+        catch(UndecomposableMatrixException e){
+            // The amount of samples is never more than the amount of rows or columns
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static double[] multiply(Matrix left,Matrix right,ParallelismPolicy policy){
+        try{
+            return left.dotProduct(right,policy).denseEntries(false);
+        }
+        catch(IncompatibleMatrixMultiplicationException e){
+            // Every product in this class has matching dimensions
+            throw new IllegalStateException(e);
+        }
+    }
+
+//--Jacobi Rotations--//
+
+    /**
+     * Rotates pairs of columns until every pair is orthogonal to within rounding errors. The
+     * columns are stored one after another, so every rotation works on two contiguous arrays.
+     * The same rotations are applied to the columns of V.
+     * @param columns the columns that are to be made orthogonal, one after another
+     * @param count the amount of columns
+     * @param length the amount of entries in each column
+     * @param v the columns of V, one after another
+     * @param vLength the amount of entries in each column of V
+     */
+    private static void orthogonalizeColumns(double[] columns,int count,int length,double[] v,
+                                             int vLength){
+        final double tolerance=(Math.ulp(1.0)*Math.sqrt(length));
+        double[] sumsOfSquares=new double[count];
+        for(int sweep=0;sweep<MAXIMUM_SWEEPS;sweep++){
+            for(int j=0;j<count;j++){
+                sumsOfSquares[j]=ArrayKernels.sumOfSquares(columns,(j*length),length);
+            }
+            boolean hasRotated=false;
+            for(int i=0;i<(count-1);i++){
+                for(int j=(i+1);j<count;j++){
+                    final double alpha=sumsOfSquares[i];
+                    final double beta=sumsOfSquares[j];
+                    if(alpha==0 || beta==0){
+                        continue;
+                    }
+                    final double gamma=ArrayKernels.dot(columns,(i*length),columns,(j*length),
+                            length);
+                    if(Math.abs(gamma)<=(tolerance*Math.sqrt(alpha)*Math.sqrt(beta))){
+                        continue;
+                    }
+                    hasRotated=true;
+                    // This rotation makes the two columns orthogonal, with the smaller angle of
+                    // the two that do
+                    final double zeta=((beta-alpha)/(2*gamma));
+                    final double t=(Math.copySign(1.0,zeta)/(Math.abs(zeta)+Math.hypot(1.0,zeta)));
+                    final double cosine=(1.0/Math.sqrt(1+(t*t)));
+                    final double sine=(cosine*t);
+                    rotate(columns,(i*length),(j*length),length,cosine,sine);
+                    rotate(v,(i*vLength),(j*vLength),vLength,cosine,sine);
+                    sumsOfSquares[i]=(alpha-(t*gamma));
+                    sumsOfSquares[j]=(beta+(t*gamma));
+                }
+            }
+            if(!hasRotated){
+                return;
+            }
+        }
+    }
+
+    private static void rotate(double[] entries,int offset1,int offset2,int length,double cosine,
+                               double sine){
+        for(int k=0;k<length;k++){
+            final double x=entries[(offset1+k)];
+            final double y=entries[(offset2+k)];
+            entries[(offset1+k)]=((cosine*x)-(sine*y));
+            entries[(offset2+k)]=((sine*x)+(cosine*y));
+        }
+    }
+
+    /**
+     * Replaces each column whose singular value is 0, which is also 0, with a unit vector that
+     * is orthogonal to all the other columns, so that the columns of U are orthonormal even if
+     * the decomposed matrix does not have full rank.
+     */
+    private static void completeBasis(double[] columns,double[] sigma,int length){
+        for(int j=0;j<sigma.length;j++){
+            if(sigma[j]!=0){
+                continue;
+            }
+            for(int k=0;k<length;k++){
+                final int offset=(j*length);
+                Arrays.fill(columns,offset,(offset+length),0);
+                columns[(offset+k)]=1;
+                // Subtracting the projections twice keeps the result orthogonal even after
+                // cancellation
+                for(int pass=0;pass<2;pass++){
+                    for(int i=0;i<sigma.length;i++){
+                        if(i!=j && (sigma[i]!=0 || i<j)){
+                            final double projection=ArrayKernels.dot(columns,(i*length),columns,
+                                    offset,length);
+                            ArrayKernels.axpy(-projection,columns,(i*length),columns,offset,
+                                    length);
+                        }
+                    }
+                }
+                final double norm=Math.sqrt(ArrayKernels.sumOfSquares(columns,offset,length));
+                if(norm>0.5){
+                    ArrayKernels.scale(columns,offset,(1.0/norm),columns,offset,length);
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the indices of the passed values, in order from the greatest value to the least
+     */
+    private static int[] descendingOrder(double[] values){
+        Integer[] order=new Integer[values.length];
+        for(int i=0;i<order.length;i++){
+            order[i]=i;
+        }
+        Arrays.sort(order,(i,j)->Double.compare(values[j],values[i]));
+        int[] indices=new int[order.length];
+        for(int i=0;i<order.length;i++){
+            indices[i]=order[i];
+        }
+        return indices;
+    }
+
+    /**
+     * @return the rows of length {@code rowLength} of {@code entries}, in the passed order
+     */
+    private static double[] permute(double[] entries,int[] order,int rowLength){
+        double[] permuted=new double[(order.length*rowLength)];
+        for(int i=0;i<order.length;i++){
+            System.arraycopy(entries,(order[i]*rowLength),permuted,(i*rowLength),rowLength);
+        }
+        return permuted;
+    }
+
+//--Getters--//
+
+    /**
+     * @return the singular values, from greatest to least
+     */
+    public double[] getSingularValues(){
+        return singularValues.clone();
+    }
+
+    /**
+     * @return the matrix U, whose columns are the left singular vectors, in the same order as
+     * the singular values. This is a transposed view of the stored vectors.
+     */
+    public Matrix getU(){
+        return new Matrix(singularValues.length,AMOUNT_OF_ROWS,Matrix.DEFAULT_AUGMENT_INDEX,
+                uTranspose).transpose();
+    }
+
+    /**
+     * @return the matrix V, whose columns are the right singular vectors, in the same order as
+     * the singular values. This is a transposed view of the stored vectors.
+     */
+    public Matrix getV(){
+        return new Matrix(singularValues.length,AMOUNT_OF_COLUMNS,Matrix.DEFAULT_AUGMENT_INDEX,
+                vTranspose).transpose();
+    }
+
+    /**
+     * @return the diagonal matrix Σ of the singular values
+     */
+    public Matrix getS(){
+        return Matrix.generateDiagonalMatrix(singularValues);
+    }
+
+//--Properties--//
+
+    /**
+     * @return the default tolerance below which a singular value counts as 0, which is the
+     * greatest singular value times the precision of a double times the greater of the amount
+     * of rows and columns
+     */
+    public double defaultTolerance(){
+        return (singularValues[0]*Math.ulp(1.0)*Math.max(AMOUNT_OF_ROWS,AMOUNT_OF_COLUMNS));
+    }
+
+    /**
+     * Estimates the rank of the decomposed matrix, which is how many of its columns are linearly
+     * independent, as the amount of singular values above the {@link #defaultTolerance()}. For a
+     * decomposition from {@link #randomized(Matrix,int)}, this is at most the amount of
+     * singular values that were calculated.
+     * @return the estimated rank of the decomposed matrix
+     */
+    public int rank(){
+        return rank(defaultTolerance());
+    }
+
+    /**
+     * @param tolerance the greatest singular value that counts as 0, which should be about as
+     *                  large as the errors in the entries of the matrix
+     * @return the amount of singular values that are greater than the tolerance
+     */
+    public int rank(double tolerance){
+        int rank=0;
+        while(rank<singularValues.length && singularValues[rank]>tolerance){
+            rank++;
+        }
+        return rank;
+    }
+
+    /**
+     * @return the 2-norm of the decomposed matrix, which is the most that it can stretch a
+     * vector: its greatest singular value
+     */
+    public double norm(){
+        return singularValues[0];
+    }
+
+    /**
+     * @return the condition number of the decomposed matrix, which is its greatest singular
+     * value divided by its least. This is infinite if the least singular value is 0.
+     */
+    public double conditionNumber(){
+        return (singularValues[0]/singularValues[(singularValues.length-1)]);
+    }
+
+//--Solving--//
+
+    /**
+     * Calculates the Moore-Penrose pseudo-inverse A⁺=V·Σ⁺·Uᵀ of the decomposed matrix, where Σ⁺
+     * has the reciprocals of the singular values above the {@link #defaultTolerance()}, and 0s
+     * in place of the rest. A⁺·b is the least-squares solution of A·x≈b with the least length,
+     * even if A does not have full rank.
+     * @return the pseudo-inverse of the decomposed matrix, which is n×m
+     */
+    public Matrix pseudoInverse(){
+        return pseudoInverse(defaultTolerance());
+    }
+
+    /**
+     * Calculates the pseudo-inverse of the decomposed matrix, treating the singular values up to
+     * the passed tolerance as 0. A greater tolerance gives a more stable, but less exact,
+     * pseudo-inverse.
+     * @param tolerance the greatest singular value that counts as 0
+     * @return the pseudo-inverse of the decomposed matrix, which is n×m
+     */
+    public Matrix pseudoInverse(double tolerance){
+        final int rank=rank(tolerance);
+        final int m=AMOUNT_OF_ROWS;
+        final int n=AMOUNT_OF_COLUMNS;
+        if(rank==0){
+            return new Matrix(n,m);
+        }
+        double[] scaled=new double[(rank*m)];
+        for(int i=0;i<rank;i++){
+            ArrayKernels.scale(uTranspose,(i*m),(1.0/singularValues[i]),scaled,(i*m),m);
+        }
+        Matrix v=new Matrix(rank,n,Matrix.DEFAULT_AUGMENT_INDEX,
+                Arrays.copyOf(vTranspose,(rank*n))).transpose();
+        return new Matrix(n,m,Matrix.DEFAULT_AUGMENT_INDEX,
+                multiply(v,new Matrix(rank,m,Matrix.DEFAULT_AUGMENT_INDEX,scaled),
+                        ParallelismPolicy.getDefault()));
+    }
+
+    /**
+     * Finds the least-squares solution of A·x≈b with the least length, which is A⁺·b, without
+     * calculating A⁺. This runs in O((m+n)·k) time.
+     * @param vector the right-hand side b
+     * @return the solution x
+     * @throws IllegalArgumentException if the height of the vector does not match the amount of
+     * rows in the decomposed matrix
+     */
+    public Vector solve(Vector vector){
+        final int m=AMOUNT_OF_ROWS;
+        final int n=AMOUNT_OF_COLUMNS;
+        if(vector.AMOUNT_OF_ROWS!=m){
+            throw new IllegalArgumentException("A system with a "+m+"×"+n+" matrix cannot be "+
+                    "solved for a right-hand side with "+vector.AMOUNT_OF_ROWS+" rows");
+        }
+        double[] b=vector.asArray();
+        double[] solution=new double[n];
+        final int rank=rank();
+        for(int i=0;i<rank;i++){
+            final double coefficient=(ArrayKernels.dot(uTranspose,(i*m),b,0,m)/singularValues[i]);
+            ArrayKernels.axpy(coefficient,vTranspose,(i*n),solution,0,n);
+        }
+        return new Vector(n,solution,0,1);
+    }
+
+    /**
+     * Calculates the best approximation of the decomposed matrix with at most the passed rank,
+     * which is U·Σ·Vᵀ with only the {@code rank} greatest singular values. This is how a large
+     * matrix is compressed: the approximation only needs (m+n+1)·rank numbers.
+     * @param rank the most singular values that are to be kept
+     * @return the best approximation of the decomposed matrix with at most the passed rank
+     */
+    public Matrix lowRankApproximation(int rank){
+        rank=Math.max(0,Math.min(rank,singularValues.length));
+        final int m=AMOUNT_OF_ROWS;
+        final int n=AMOUNT_OF_COLUMNS;
+        if(rank==0){
+            return new Matrix(m,n);
+        }
+        double[] scaled=new double[(rank*n)];
+        for(int i=0;i<rank;i++){
+            ArrayKernels.scale(vTranspose,(i*n),singularValues[i],scaled,(i*n),n);
+        }
+        Matrix u=new Matrix(rank,m,Matrix.DEFAULT_AUGMENT_INDEX,
+                Arrays.copyOf(uTranspose,(rank*m))).transpose();
+        return new Matrix(m,n,Matrix.DEFAULT_AUGMENT_INDEX,
+                multiply(u,new Matrix(rank,n,Matrix.DEFAULT_AUGMENT_INDEX,scaled),
+                        ParallelismPolicy.getDefault()));
+    }
+}
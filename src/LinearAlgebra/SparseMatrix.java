@@ -0,0 +1,571 @@
+package LinearAlgebra;
+
+import LinearAlgebra.Exceptions.IncompatibleMatrixMultiplicationException;
+import LinearAlgebra.Exceptions.UndecomposableMatrixException;
+import LinearAlgebra.Exceptions.UninvertibleMatrixException;
+
+import java.util.Arrays;
+
+/**
+ * This class represents a matrix in which most of the entries are 0. Only the entries that are
+ * not 0 are stored, so the memory that a sparse matrix takes grows with the amount of stored
+ * entries instead of with the amount of rows times the amount of columns.<br />
+ * The entries are stored in one of two compressed layouts. In compressed sparse row (CSR)
+ * layout, the entries are stored one row after another: the entries of row i are at the indices
+ * from {@code POINTERS[i]} to {@code POINTERS[i+1]} of {@link #VALUES}, and {@link #INDICES}
+ * holds the column of each of them. Compressed sparse column (CSC) layout is the same with rows
+ * and columns switched. Within each row (or column), the entries are sorted by their column (or
+ * row), and no position is stored twice.<br />
+ * The CSC layout of a matrix is the CSR layout of its transpose, so {@link #transpose()} does not
+ * copy anything, just like the transpose of a {@link Matrix}. Sparse matrices are built with a
+ * {@link SparseMatrixBuilder}, or from a dense matrix. This class is immutable.<br />
+ * A sparse matrix is a {@link LinearOperator}, so its systems can be solved with the iterative
+ * solvers, such as {@link ConjugateGradientSolver}, without ever storing it densely.
+ * @author Mark Angelot
+ * @since February 24, 2024
+ */
+public final class SparseMatrix implements LinearOperator{
+//--Fields--//
+
+    /** Entry i of this array is the index in {@link #VALUES} of the first entry of line i (a row
+     * in CSR layout, or a column in CSC layout). The last entry is the amount of stored
+     * entries. */
+    final int[] POINTERS;
+    /** This array holds the column (in CSR layout) or the row (in CSC layout) of each stored
+     * entry. */
+    final int[] INDICES;
+    /** This array holds the value of each stored entry. */
+    final double[] VALUES;
+    /** This is true if the entries are stored in CSC layout, or false if they are stored in CSR
+     * layout. */
+    final boolean IS_COMPRESSED_BY_COLUMNS;
+    /** This holds how many rows are in this matrix. */
+    public final int AMOUNT_OF_ROWS;
+    /** This holds how many columns are in this matrix. */
+    public final int AMOUNT_OF_COLUMNS;
+
+//--Constructors--//
+
+    /**
+     * Constructs a sparse matrix that uses the passed arrays, without copying them. The arrays
+     * must follow the layout described in the documentation of this class.
+     * @param rows the amount of rows in the matrix
+     * @param columns the amount of columns in the matrix
+     * @param pointers the index of the first entry of each line, followed by the amount of
+     *                 entries
+     * @param indices the column (in CSR layout) or row (in CSC layout) of each entry
+     * @param values the value of each entry
+     * @param isCompressedByColumns true for CSC layout, or false for CSR layout
+     */
+    SparseMatrix(int rows,int columns,int[] pointers,int[] indices,double[] values,
+                 boolean isCompressedByColumns){
+        POINTERS=pointers;
+        INDICES=indices;
+        VALUES=values;
+        IS_COMPRESSED_BY_COLUMNS=isCompressedByColumns;
+        AMOUNT_OF_ROWS=rows;
+        AMOUNT_OF_COLUMNS=columns;
+    }
+
+    /**
+     * Constructs a sparse matrix in CSR layout with the entries of a dense matrix that are not 0.
+     * @param matrix the matrix whose entries are to be stored
+     */
+    public SparseMatrix(Matrix matrix){
+        AMOUNT_OF_ROWS=matrix.AMOUNT_OF_ROWS;
+        AMOUNT_OF_COLUMNS=matrix.AMOUNT_OF_COLUMNS;
+        IS_COMPRESSED_BY_COLUMNS=false;
+        POINTERS=new int[(AMOUNT_OF_ROWS+1)];
+        int count=0;
+        for(int row=0;row<AMOUNT_OF_ROWS;row++){
+            for(int column=0;column<AMOUNT_OF_COLUMNS;column++){
+                if(matrix.getEntry(row,column)!=0){
+                    count++;
+                }
+            }
+            POINTERS[(row+1)]=count;
+        }
+        INDICES=new int[count];
+        VALUES=new double[count];
+        int k=0;
+        for(int row=0;row<AMOUNT_OF_ROWS;row++){
+            for(int column=0;column<AMOUNT_OF_COLUMNS;column++){
+                double entry=matrix.getEntry(row,column);
+                if(entry!=0){
+                    INDICES[k]=column;
+                    VALUES[k]=entry;
+                    k++;
+                }
+            }
+        }
+    }
+
+//--Getters--//
+
+    /**
+     * Finds and returns the entry at the passed row and column. The entry is found with a binary
+     * search of its row (or column), so this takes {@code log(n)} time.
+     * @param row the row in which to find the entry
+     * @param column the column in which to find the entry
+     * @return the entry at the passed row and column, which is 0 if it is not stored
+     * @throws IndexOutOfBoundsException if the row or the column is outside this matrix
+     */
+    public double getEntry(int row,int column){
+        if(row<0 || row>=AMOUNT_OF_ROWS || column<0 || column>=AMOUNT_OF_COLUMNS){
+            throw new IndexOutOfBoundsException("("+row+", "+column+") is outside a "+
+                    getDimensions()+" matrix");
+        }
+        final int line=IS_COMPRESSED_BY_COLUMNS?column:row;
+        final int index=IS_COMPRESSED_BY_COLUMNS?row:column;
+        int position=Arrays.binarySearch(INDICES,POINTERS[line],POINTERS[(line+1)],index);
+        return (position<0)?0:VALUES[position];
+    }
+
+    @Override
+    public int getAmountOfRows(){
+        return AMOUNT_OF_ROWS;
+    }
+
+    @Override
+    public int getAmountOfColumns(){
+        return AMOUNT_OF_COLUMNS;
+    }
+
+    /**
+     * @return a new array with the entries on the main diagonal of this matrix
+     */
+    double[] diagonal(){
+        double[] diagonal=new double[Math.min(AMOUNT_OF_ROWS,AMOUNT_OF_COLUMNS)];
+        final int lines=IS_COMPRESSED_BY_COLUMNS?AMOUNT_OF_COLUMNS:AMOUNT_OF_ROWS;
+        for(int line=0;line<Math.min(lines,diagonal.length);line++){
+            for(int k=POINTERS[line];k<POINTERS[(line+1)];k++){
+                if(INDICES[k]==line){
+                    diagonal[line]=VALUES[k];
+                }
+            }
+        }
+        return diagonal;
+    }
+
+    /**
+     * @return how many entries are stored in this matrix. Every entry that is not stored is 0.
+     */
+    public int getAmountOfStoredEntries(){
+        return VALUES.length;
+    }
+
+    /**
+     * @return true if the entries are stored in CSC layout, or false if they are stored in CSR
+     * layout
+     */
+    public boolean isCompressedByColumns(){
+        return IS_COMPRESSED_BY_COLUMNS;
+    }
+
+    /**
+     * @return the dimensions of this matrix in an "m×n" format (where m is the amount of rows
+     * and n is the amount of columns)
+     */
+    public String getDimensions(){
+        return AMOUNT_OF_ROWS+"×"+AMOUNT_OF_COLUMNS;
+    }
+
+    @Override
+    public String toString(){
+        return "Sparse "+getDimensions()+" matrix with "+VALUES.length+" stored entries in "+
+                (IS_COMPRESSED_BY_COLUMNS?"CSC":"CSR")+" layout";
+    }
+
+//--Conversions--//
+
+    /**
+     * Returns the transpose of this matrix. The transpose shares the arrays of this matrix: the
+     * CSR layout of this matrix is the CSC layout of its transpose, and the other way around.
+     * @return the transpose of this matrix
+     */
+    public SparseMatrix transpose(){
+        return new SparseMatrix(AMOUNT_OF_COLUMNS,AMOUNT_OF_ROWS,POINTERS,INDICES,VALUES,
+                !IS_COMPRESSED_BY_COLUMNS);
+    }
+
+    /**
+     * @return this matrix if it is in CSR layout, or a copy of it in CSR layout otherwise
+     */
+    public SparseMatrix toCompressedRows(){
+        return IS_COMPRESSED_BY_COLUMNS?switchLayout():this;
+    }
+
+    /**
+     * @return this matrix if it is in CSC layout, or a copy of it in CSC layout otherwise
+     */
+    public SparseMatrix toCompressedColumns(){
+        return IS_COMPRESSED_BY_COLUMNS?this:switchLayout();
+    }
+
+    /**
+     * Copies the entries of this matrix into the other layout with a counting sort. Going
+     * through the lines in order puts the entries of each new line in order as well.
+     * @return a copy of this matrix in the other layout
+     */
+    private SparseMatrix switchLayout(){
+        final int lines=IS_COMPRESSED_BY_COLUMNS?AMOUNT_OF_COLUMNS:AMOUNT_OF_ROWS;
+        final int newLines=IS_COMPRESSED_BY_COLUMNS?AMOUNT_OF_ROWS:AMOUNT_OF_COLUMNS;
+        final int n=VALUES.length;
+        int[] pointers=countingSortStarts(INDICES,n,newLines);
+        int[] cursors=Arrays.copyOf(pointers,newLines);
+        int[] indices=new int[n];
+        double[] values=new double[n];
+        for(int line=0;line<lines;line++){
+            for(int k=POINTERS[line];k<POINTERS[(line+1)];k++){
+                final int destination=cursors[INDICES[k]]++;
+                indices[destination]=line;
+                values[destination]=VALUES[k];
+            }
+        }
+        return new SparseMatrix(AMOUNT_OF_ROWS,AMOUNT_OF_COLUMNS,pointers,indices,values,
+                !IS_COMPRESSED_BY_COLUMNS);
+    }
+
+    /**
+     * @return a dense matrix with the same entries as this matrix
+     */
+    public Matrix toMatrix(){
+        double[] entries=new double[(AMOUNT_OF_ROWS*AMOUNT_OF_COLUMNS)];
+        final int lines=IS_COMPRESSED_BY_COLUMNS?AMOUNT_OF_COLUMNS:AMOUNT_OF_ROWS;
+        for(int line=0;line<lines;line++){
+            for(int k=POINTERS[line];k<POINTERS[(line+1)];k++){
+                if(IS_COMPRESSED_BY_COLUMNS){
+                    entries[(INDICES[k]*AMOUNT_OF_COLUMNS+line)]=VALUES[k];
+                }
+                else{
+                    entries[(line*AMOUNT_OF_COLUMNS+INDICES[k])]=VALUES[k];
+                }
+            }
+        }
+        return new Matrix(AMOUNT_OF_ROWS,AMOUNT_OF_COLUMNS,Matrix.DEFAULT_AUGMENT_INDEX,entries);
+    }
+
+    /**
+     * Counts how many times each key appears and turns the counts into the index at which each
+     * key starts once the keys are sorted.
+     * @param keys the keys, each of which is from 0 to {@code amountOfKeys-1}
+     * @param length how many keys are to be counted
+     * @param amountOfKeys how many different keys there can be
+     * @return an array whose entry i is the amount of keys less than i. The last entry is
+     * {@code length}.
+     */
+    static int[] countingSortStarts(int[] keys,int length,int amountOfKeys){
+        int[] starts=new int[(amountOfKeys+1)];
+        for(int k=0;k<length;k++){
+            starts[(keys[k]+1)]++;
+        }
+        for(int i=0;i<amountOfKeys;i++){
+            starts[(i+1)]+=starts[i];
+        }
+        return starts;
+    }
+
+//--Multiplication--//
+
+    /**
+     * Creates and returns the product of this matrix and a vector. The
+     * {@link ParallelismPolicy#getDefault() default parallelism policy} decides whether the
+     * product is calculated in parallel.
+     * @param vector the vector by which this matrix is to be multiplied
+     * @return the product of this matrix and the passed vector
+     * @throws IncompatibleMatrixMultiplicationException if the amount of columns in this matrix
+     * does not match the height of the vector
+     */
+    public Vector dotProduct(Vector vector) throws IncompatibleMatrixMultiplicationException{
+        return dotProduct(vector,ParallelismPolicy.getDefault());
+    }
+
+    /**
+     * Creates and returns the product of this matrix and a vector. In CSR layout, each entry of
+     * the product is the dot product of a row with the vector, so if the matrix has enough
+     * stored entries for the passed policy, the rows are split into bands with about the same
+     * amount of entries that are calculated in parallel. In CSC layout, each column is scaled
+     * and added to the product, which is always done on the calling thread.
+     * @param vector the vector by which this matrix is to be multiplied
+     * @param policy decides whether the product is calculated in parallel
+     * @return the product of this matrix and the passed vector
+     * @throws IncompatibleMatrixMultiplicationException if the amount of columns in this matrix
+     * does not match the height of the vector
+     */
+    public Vector dotProduct(Vector vector,ParallelismPolicy policy)
+            throws IncompatibleMatrixMultiplicationException{
+        if(AMOUNT_OF_COLUMNS!=vector.AMOUNT_OF_ROWS){
+            throw incompatibleWith(vector.getDimensions());
+        }
+        Vector product=new Vector(AMOUNT_OF_ROWS);
+        multiply(vector.matrixArray,vector.OFFSET,vector.ROW_STRIDE,product.matrixArray,policy);
+        return product;
+    }
+
+    /**
+     * Multiplies a vector by this matrix without creating any objects, for use by the iterative
+     * solvers. The {@link ParallelismPolicy#getDefault() default parallelism policy} decides
+     * whether the product is calculated in parallel.
+     * @param vector the entries of the vector that is to be multiplied
+     * @param product the array into which the product is written
+     */
+    @Override
+    public void apply(double[] vector,double[] product){
+        if(IS_COMPRESSED_BY_COLUMNS){
+            Arrays.fill(product,0,AMOUNT_OF_ROWS,0);
+        }
+        multiply(vector,0,1,product,ParallelismPolicy.getDefault());
+    }
+
+    /**
+     * Multiplies this matrix by the vector whose entry i is {@code x[xOffset+i*xStride]} and
+     * writes the product into {@code product}, which must be filled with 0s.
+     */
+    void multiply(double[] x,int xOffset,int xStride,double[] product,ParallelismPolicy policy){
+        if(IS_COMPRESSED_BY_COLUMNS){
+            for(int column=0;column<AMOUNT_OF_COLUMNS;column++){
+                final double entry=x[(xOffset+column*xStride)];
+                if(entry==0){
+                    continue;
+                }
+                for(int k=POINTERS[column];k<POINTERS[(column+1)];k++){
+                    product[INDICES[k]]+=(VALUES[k]*entry);
+                }
+            }
+        }
+        else if(AMOUNT_OF_ROWS>1){
+            // The bands are split by stored entries instead of rows, so that each band has about
+            // the same amount of work. A band holds the rows whose entries start in its range,
+            // and the first and last bands also hold the rows with no entries at either end.
+            policy.forEachRange(VALUES.length,1,(firstEntry,lastEntry)->{
+                final int firstRow=(firstEntry==0)?0:rowStartingAt(firstEntry);
+                final int lastRow=(lastEntry==VALUES.length)?AMOUNT_OF_ROWS:
+                        rowStartingAt(lastEntry);
+                multiplyRows(x,xOffset,xStride,product,firstRow,lastRow);
+            });
+        }
+        else{
+            multiplyRows(x,xOffset,xStride,product,0,AMOUNT_OF_ROWS);
+        }
+    }
+
+    /**
+     * @return a row of this matrix, which must be in CSR layout, whose stored entries start at
+     * the passed index, or else the first row whose stored entries start after it
+     */
+    private int rowStartingAt(int entry){
+        final int row=Arrays.binarySearch(POINTERS,0,(AMOUNT_OF_ROWS+1),entry);
+        return (row<0)?(-row-1):row;
+    }
+
+    /**
+     * Calculates a band of entries of the product of this matrix, which must be in CSR layout,
+     * and a vector.
+     */
+    private void multiplyRows(double[] x,int xOffset,int xStride,double[] product,int firstRow,
+                              int lastRow){
+        for(int row=firstRow;row<lastRow;row++){
+            double sum=0;
+            for(int k=POINTERS[row];k<POINTERS[(row+1)];k++){
+                sum+=(VALUES[k]*x[(xOffset+INDICES[k]*xStride)]);
+            }
+            product[row]=sum;
+        }
+    }
+
+    /**
+     * Creates and returns the product of this matrix and a dense matrix. Each stored entry at
+     * (i, k) adds a multiple of row k of the dense matrix to row i of the product, so the dense
+     * matrix and the product are only ever read and written a whole row at a time, whichever
+     * layout this matrix is in.
+     * @param matrix the dense matrix by which this matrix is to be multiplied
+     * @return the product of this matrix and the passed matrix
+     * @throws IncompatibleMatrixMultiplicationException if the amount of columns in this matrix
+     * does not match the amount of rows in the passed matrix
+     */
+    public Matrix dotProduct(Matrix matrix) throws IncompatibleMatrixMultiplicationException{
+        if(AMOUNT_OF_COLUMNS!=matrix.AMOUNT_OF_ROWS){
+            throw incompatibleWith(matrix.getDimensions());
+        }
+        final int columns=matrix.AMOUNT_OF_COLUMNS;
+        final double[] right=matrix.denseEntries(false);
+        double[] product=new double[(AMOUNT_OF_ROWS*columns)];
+        final int lines=IS_COMPRESSED_BY_COLUMNS?AMOUNT_OF_COLUMNS:AMOUNT_OF_ROWS;
+        for(int line=0;line<lines;line++){
+            for(int k=POINTERS[line];k<POINTERS[(line+1)];k++){
+                final int row=IS_COMPRESSED_BY_COLUMNS?INDICES[k]:line;
+                final int inner=IS_COMPRESSED_BY_COLUMNS?line:INDICES[k];
+                ArrayKernels.axpy(VALUES[k],right,(inner*columns),product,(row*columns),columns);
+            }
+        }
+        return new Matrix(AMOUNT_OF_ROWS,columns,Matrix.DEFAULT_AUGMENT_INDEX,product);
+    }
+
+    private IncompatibleMatrixMultiplicationException incompatibleWith(String dimensions){
+        return new IncompatibleMatrixMultiplicationException("Matrices of incompatible "+
+                "dimensions attempted to be multiplied. A "+getDimensions()+" matrix cannot be "+
+                "multiplied by a "+dimensions+" matrix. The amount of columns in the first "+
+                "matrix must match the amount of rows in the second matrix");
+    }
+
+//--Solving--//
+
+    /**
+     * Solves the system Lx=b, where L is the lower triangle of this matrix, by forward
+     * substitution. Stored entries above the diagonal are ignored, so this can also be used with
+     * the lower triangle of any square matrix. This takes time in proportion to the amount of
+     * stored entries.
+     * @param vector the right-hand side b of the system
+     * @return the solution x of the system
+     * @throws UninvertibleMatrixException if this matrix is not square, or if an entry on its
+     * diagonal is 0 or not stored
+     * @throws IllegalArgumentException if the height of the vector does not match the amount of
+     * rows in this matrix
+     */
+    public Vector solveLowerTriangular(Vector vector) throws UninvertibleMatrixException{
+        return solveTriangular(vector,true);
+    }
+
+    /**
+     * Solves the system Ux=b, where U is the upper triangle of this matrix, by back
+     * substitution. Stored entries below the diagonal are ignored, so this can also be used with
+     * the upper triangle of any square matrix. This takes time in proportion to the amount of
+     * stored entries.
+     * @param vector the right-hand side b of the system
+     * @return the solution x of the system
+     * @throws UninvertibleMatrixException if this matrix is not square, or if an entry on its
+     * diagonal is 0 or not stored
+     * @throws IllegalArgumentException if the height of the vector does not match the amount of
+     * rows in this matrix
+     */
+    public Vector solveUpperTriangular(Vector vector) throws UninvertibleMatrixException{
+        return solveTriangular(vector,false);
+    }
+
+    private Vector solveTriangular(Vector vector,boolean lower) throws UninvertibleMatrixException{
+        if(AMOUNT_OF_ROWS!=AMOUNT_OF_COLUMNS){
+            throw new UninvertibleMatrixException("This is a "+getDimensions()+" matrix, but "+
+                    "only square triangular systems can be solved");
+        }
+        if(vector.AMOUNT_OF_ROWS!=AMOUNT_OF_ROWS){
+            throw new IllegalArgumentException("A system with a "+getDimensions()+
+                    " matrix cannot be solved for a vector with "+vector.AMOUNT_OF_ROWS+
+                    " entries");
+        }
+        Vector solution=new Vector(vector.asArray());
+        if(!substitute(solution.matrixArray,lower,false)){
+            throw new UninvertibleMatrixException("The triangular matrix has a 0 on its "+
+                    "diagonal, so the system does not have a unique solution");
+        }
+        return solution;
+    }
+
+    /**
+     * Replaces b with the solution x of a triangular system with the lower or upper triangle of
+     * this matrix, which must be square. In CSR layout, each entry of x is found from the
+     * entries before it (or after it) in its row. In CSC layout, each entry of x is found and
+     * then its column is subtracted from the rest of b.
+     * @param b the right-hand side, which is replaced with the solution
+     * @param lower true to use the lower triangle, or false to use the upper triangle
+     * @param unitDiagonal true to treat every diagonal entry as 1 without reading it
+     * @return false if a diagonal entry is 0 or not stored, in which case b is left partly
+     * solved, or true otherwise
+     */
+    boolean substitute(double[] b,boolean lower,boolean unitDiagonal){
+        final int n=AMOUNT_OF_ROWS;
+        for(int step=0;step<n;step++){
+            final int line=lower?step:(n-1-step);
+            double diagonal=unitDiagonal?1:0;
+            if(IS_COMPRESSED_BY_COLUMNS){
+                for(int k=POINTERS[line];k<POINTERS[(line+1)];k++){
+                    if(INDICES[k]==line && !unitDiagonal){
+                        diagonal=VALUES[k];
+                    }
+                }
+                if(diagonal==0){
+                    return false;
+                }
+                final double x=(b[line]/diagonal);
+                b[line]=x;
+                for(int k=POINTERS[line];k<POINTERS[(line+1)];k++){
+                    final int row=INDICES[k];
+                    if(lower?(row>line):(row<line)){
+                        b[row]-=(VALUES[k]*x);
+                    }
+                }
+            }
+            else{
+                double sum=b[line];
+                for(int k=POINTERS[line];k<POINTERS[(line+1)];k++){
+                    final int column=INDICES[k];
+                    if(lower?(column<line):(column>line)){
+                        sum-=(VALUES[k]*b[column]);
+                    }
+                    else if(column==line && !unitDiagonal){
+                        diagonal=VALUES[k];
+                    }
+                }
+                if(diagonal==0){
+                    return false;
+                }
+                b[line]=(sum/diagonal);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Calculates the incomplete LU factorization with no fill-in, ILU(0), of this matrix. This is
+     * Gaussian elimination without pivoting in which every entry that is not stored in this
+     * matrix is left as 0, so the factors have exactly the same stored entries as this matrix.
+     * The entries are eliminated one row at a time (the IKJ order), and {@code positions} maps
+     * each column of the current row to the index of its stored entry so that each update is
+     * found without a search.
+     * @return a matrix in CSR layout that holds the strictly lower triangle of L (whose diagonal
+     * is all 1s) and the upper triangle of U
+     * @throws UndecomposableMatrixException if this matrix is not square, or if a diagonal entry
+     * is not stored or becomes 0 during the elimination
+     */
+    SparseMatrix incompleteLU() throws UndecomposableMatrixException{
+        if(AMOUNT_OF_ROWS!=AMOUNT_OF_COLUMNS){
+            throw new UndecomposableMatrixException("This is a "+getDimensions()+" matrix so "+
+                    "it cannot be decomposed. Only square matrices can be decomposed.");
+        }
+        final SparseMatrix rows=toCompressedRows();
+        final int[] pointers=rows.POINTERS;
+        final int[] indices=rows.INDICES;
+        final double[] values=rows.VALUES.clone();
+        final int n=AMOUNT_OF_ROWS;
+        int[] diagonalPositions=new int[n];
+        int[] positions=new int[n];
+        Arrays.fill(positions,-1);
+        for(int row=0;row<n;row++){
+            final int start=pointers[row];
+            final int end=pointers[(row+1)];
+            for(int k=start;k<end;k++){
+                positions[indices[k]]=k;
+            }
+            for(int k=start;k<end && indices[k]<row;k++){
+                final int pivotRow=indices[k];
+                final int pivotPosition=diagonalPositions[pivotRow];
+                final double multiplier=(values[k]/values[pivotPosition]);
+                values[k]=multiplier;
+                for(int m=(pivotPosition+1);m<pointers[(pivotRow+1)];m++){
+                    final int position=positions[indices[m]];
+                    if(position>=0){
+                        values[position]-=(multiplier*values[m]);
+                    }
+                }
+            }
+            if(positions[row]<0 || values[positions[row]]==0){
+                throw new UndecomposableMatrixException("The pivot in row "+row+" is 0, so "+
+                        "this matrix has no incomplete LU factorization");
+            }
+            diagonalPositions[row]=positions[row];
+            for(int k=start;k<end;k++){
+                positions[indices[k]]=-1;
+            }
+        }
+        return new SparseMatrix(n,n,pointers,indices,values,false);
+    }
+}
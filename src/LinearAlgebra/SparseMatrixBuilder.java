@@ -0,0 +1,202 @@
+package LinearAlgebra;
+
+import java.util.Arrays;
+
+/**
+ * This class collects the entries of a {@link SparseMatrix} as (row, column, value) triplets, in
+ * any order, and then compresses them into a SparseMatrix. If the same position is added more
+ * than once, the values are added together, which is what assembling a finite element or finite
+ * difference system needs.<br />
+ * The triplets are kept in three growable arrays, so adding an entry does not create an object.
+ * Building sorts the triplets with two counting sorts (first by the minor index, then by the
+ * major index), so it takes time in proportion to the amount of entries plus the amount of rows
+ * and columns instead of {@code n log(n)}. Building does not change this builder, so more
+ * entries can be added and another matrix can be built afterwards.
+ * @author Mark Angelot
+ * @since February 24, 2024
+ */
+public class SparseMatrixBuilder{
+//--Fields--//
+
+    /** This is how many triplets the arrays have room for when no capacity is passed. */
+    private static final int DEFAULT_CAPACITY=16;
+
+    /** This array holds the row of each triplet that has been added. */
+    private int[] rowIndices;
+    /** This array holds the column of each triplet that has been added. */
+    private int[] columnIndices;
+    /** This array holds the value of each triplet that has been added. */
+    private double[] values;
+    /** This is how many triplets have been added. */
+    private int amountOfEntries;
+    /** This holds how many rows are in the matrix that is being built. */
+    public final int AMOUNT_OF_ROWS;
+    /** This holds how many columns are in the matrix that is being built. */
+    public final int AMOUNT_OF_COLUMNS;
+
+//--Constructors--//
+
+    /**
+     * Constructs a builder for a sparse matrix of the specified size, with no entries yet.
+     * @param rows the amount of rows in the matrix
+     * @param columns the amount of columns in the matrix
+     * @throws IllegalArgumentException if {@code rows} or {@code columns} is negative or zero
+     */
+    public SparseMatrixBuilder(int rows,int columns){
+        this(rows,columns,DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs a builder for a sparse matrix of the specified size, with room for the passed
+     * amount of entries before its arrays have to grow.
+     * @param rows the amount of rows in the matrix
+     * @param columns the amount of columns in the matrix
+     * @param expectedEntries how many entries are expected to be added
+     * @throws IllegalArgumentException if {@code rows} or {@code columns} is negative or zero, or
+     * if {@code expectedEntries} is negative
+     */
+    public SparseMatrixBuilder(int rows,int columns,int expectedEntries){
+        if(rows<1 || columns<1){
+            throw new IllegalArgumentException("Matrix must have positive, nonzero dimensions");
+        }
+        if(expectedEntries<0){
+            throw new IllegalArgumentException("The expected amount of entries cannot be "+
+                    "negative");
+        }
+        rowIndices=new int[expectedEntries];
+        columnIndices=new int[expectedEntries];
+        values=new double[expectedEntries];
+        AMOUNT_OF_ROWS=rows;
+        AMOUNT_OF_COLUMNS=columns;
+    }
+
+//--Adding Entries--//
+
+    /**
+     * Adds a value to the entry at the passed row and column. If a value has already been added
+     * at this position, the two values are added together when the matrix is built.
+     * @param row the row of the entry
+     * @param column the column of the entry
+     * @param value the value that is to be added to the entry
+     * @return this builder
+     * @throws IndexOutOfBoundsException if the row or the column is outside the matrix
+     */
+    public SparseMatrixBuilder addEntry(int row,int column,double value){
+        if(row<0 || row>=AMOUNT_OF_ROWS || column<0 || column>=AMOUNT_OF_COLUMNS){
+            throw new IndexOutOfBoundsException("("+row+", "+column+") is outside a "+
+                    AMOUNT_OF_ROWS+"×"+AMOUNT_OF_COLUMNS+" matrix");
+        }
+        if(amountOfEntries==values.length){
+            int newCapacity=Math.max(DEFAULT_CAPACITY,(values.length+(values.length>>1)));
+            rowIndices=Arrays.copyOf(rowIndices,newCapacity);
+            columnIndices=Arrays.copyOf(columnIndices,newCapacity);
+            values=Arrays.copyOf(values,newCapacity);
+        }
+        rowIndices[amountOfEntries]=row;
+        columnIndices[amountOfEntries]=column;
+        values[amountOfEntries]=value;
+        amountOfEntries++;
+        return this;
+    }
+
+    /**
+     * Adds the first {@code count} triplets of three arrays at once. The positions must already
+     * have been checked.
+     */
+    void addEntries(int[] rows,int[] columns,double[] entries,int count){
+        if((amountOfEntries+count)>values.length){
+            int newCapacity=Math.max((amountOfEntries+count),(values.length+(values.length>>1)));
+            rowIndices=Arrays.copyOf(rowIndices,newCapacity);
+            columnIndices=Arrays.copyOf(columnIndices,newCapacity);
+            values=Arrays.copyOf(values,newCapacity);
+        }
+        System.arraycopy(rows,0,rowIndices,amountOfEntries,count);
+        System.arraycopy(columns,0,columnIndices,amountOfEntries,count);
+        System.arraycopy(entries,0,values,amountOfEntries,count);
+        amountOfEntries+=count;
+    }
+
+    /**
+     * @return how many triplets have been added, counting each position as many times as it was
+     * added
+     */
+    public int getAmountOfEntries(){
+        return amountOfEntries;
+    }
+
+//--Building--//
+
+    /**
+     * Builds a sparse matrix in compressed sparse row layout, which is the best layout for
+     * multiplying the matrix by a vector and for solving a lower-triangular system by rows.
+     * @return a sparse matrix with the entries that were added to this builder
+     */
+    public SparseMatrix build(){
+        return compress(rowIndices,columnIndices,AMOUNT_OF_ROWS,AMOUNT_OF_COLUMNS,false);
+    }
+
+    /**
+     * Builds a sparse matrix in compressed sparse column layout, which is the best layout for
+     * taking out single columns and for multiplying the transpose of the matrix by a vector.
+     * @return a sparse matrix with the entries that were added to this builder
+     */
+    public SparseMatrix buildCompressedByColumns(){
+        return compress(columnIndices,rowIndices,AMOUNT_OF_COLUMNS,AMOUNT_OF_ROWS,true);
+    }
+
+    /**
+     * Sorts the triplets into lines (rows, or columns if {@code byColumns} is true), sorts the
+     * entries of each line, and adds together the entries that are at the same position.
+     * @param major the index of the line of each triplet
+     * @param minor the index of each triplet within its line
+     * @param majorCount the amount of lines
+     * @param minorCount the length of each line
+     * @param byColumns true if the lines are columns, or false if they are rows
+     * @return the compressed matrix
+     */
+    private SparseMatrix compress(int[] major,int[] minor,int majorCount,int minorCount,
+                                  boolean byColumns){
+        final int n=amountOfEntries;
+        // Sorting by the minor index first and then stably by the major index leaves every line
+        // sorted, without comparing any two entries
+        int[] byMinor=new int[n];
+        int[] cursors=SparseMatrix.countingSortStarts(minor,n,minorCount);
+        for(int k=0;k<n;k++){
+            byMinor[cursors[minor[k]]++]=k;
+        }
+        int[] starts=SparseMatrix.countingSortStarts(major,n,majorCount);
+        cursors=Arrays.copyOf(starts,majorCount);
+        int[] order=new int[n];
+        for(int k=0;k<n;k++){
+            final int triplet=byMinor[k];
+            order[cursors[major[triplet]]++]=triplet;
+        }
+
+        int[] pointers=new int[(majorCount+1)];
+        int[] indices=new int[n];
+        double[] entries=new double[n];
+        int count=0;
+        for(int line=0;line<majorCount;line++){
+            pointers[line]=count;
+            final int lineStart=count;
+            for(int k=starts[line];k<starts[(line+1)];k++){
+                final int triplet=order[k];
+                if(count>lineStart && indices[(count-1)]==minor[triplet]){
+                    entries[(count-1)]+=values[triplet];
+                }
+                else{
+                    indices[count]=minor[triplet];
+                    entries[count]=values[triplet];
+                    count++;
+                }
+            }
+        }
+        pointers[majorCount]=count;
+        if(count<n){
+            indices=Arrays.copyOf(indices,count);
+            entries=Arrays.copyOf(entries,count);
+        }
+        return new SparseMatrix(AMOUNT_OF_ROWS,AMOUNT_OF_COLUMNS,pointers,indices,entries,
+                byColumns);
+    }
+}
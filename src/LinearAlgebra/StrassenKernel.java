@@ -0,0 +1,251 @@
+package LinearAlgebra;
+
+/**
+ * This class multiplies two matrices with the Winograd variant of Strassen's algorithm. Each
+ * level of the recursion splits both matrices into four quadrants and finds the four quadrants of
+ * the product with 7 products of quadrants and 15 additions, instead of the 8 products of the
+ * classical algorithm, so the whole multiplication takes about O(n^2.81) time instead of O(n³).
+ * Once the quadrants are no larger than the cutoff, they are multiplied with the blocked kernel
+ * in {@link MultiplicationKernel}.<br />
+ * The products and additions are scheduled as in Boyer, Dumas, Pernet and Zhou, "Memory
+ * efficient scheduling of Strassen-Winograd's matrix multiplication algorithm" (2009), which
+ * writes the 7 products straight into the quadrants of the product and needs only two
+ * temporary quadrants per level. Those temporaries are allocated once per level when the
+ * multiplication starts, and every call at that level reuses them, so for square matrices the
+ * workspace adds up to about two thirds of the size of one matrix no matter how deep the
+ * recursion goes.<br />
+ * The sizes of the matrices are padded with 0s up to a multiple of 2<sup>L</sup>, where L is the
+ * amount of levels, so that every quadrant can be split evenly. This adds fewer than
+ * 2<sup>L</sup> rows and columns, which is small next to the size of a matrix that is large
+ * enough to use this algorithm.
+ * @author Mark Angelot
+ * @since April 13, 2024
+ */
+final class StrassenKernel{
+//--Fields--//
+
+    /** This is how many times the matrices are split into quadrants. */
+    private final int LEVELS;
+    /** The temporary quadrant X of each level. It holds a sum of quadrants of the first matrix,
+     * and later the product of the top-left quadrants. */
+    private final double[][] X;
+    /** The temporary quadrant Y of each level. It holds a sum of quadrants of the second
+     * matrix. */
+    private final double[][] Y;
+    /** This holds the packed transpose of the right-hand block at the bottom of the
+     * recursion. */
+    private final double[] PACKED;
+    private final ParallelismPolicy POLICY;
+
+//--Constructors--//
+
+    private StrassenKernel(int levels,int rows,int inner,int columns,ParallelismPolicy policy){
+        LEVELS=levels;
+        POLICY=policy;
+        X=new double[levels][];
+        Y=new double[levels][];
+        for(int level=0;level<levels;level++){
+            rows/=2;
+            inner/=2;
+            columns/=2;
+            X[level]=new double[(rows*Math.max(inner,columns))];
+            Y[level]=new double[(inner*columns)];
+        }
+        PACKED=new double[(inner*columns)];
+    }
+
+//--Multiplication--//
+
+    /**
+     * Multiplies two matrices with the Winograd variant of Strassen's algorithm. The entries of
+     * both matrices, and of the returned product, are stored one row after another.
+     * @param left the entries of the first matrix in the multiplication
+     * @param rows the amount of rows in the first matrix
+     * @param inner the amount of columns in the first matrix, which is also the amount of rows
+     *              in the second matrix
+     * @param right the entries of the second matrix in the multiplication
+     * @param columns the amount of columns in the second matrix
+     * @param cutoff the recursion stops once the amount of rows, inner columns or columns of a
+     *               quadrant is at most this. If that is already true of the matrices
+     *               themselves, they are multiplied classically.
+     * @param policy decides whether the products at the bottom of the recursion are calculated
+     *               in parallel
+     * @return the entries of the product of the two matrices
+     */
+    static double[] multiply(double[] left,int rows,int inner,double[] right,int columns,
+                             int cutoff,ParallelismPolicy policy){
+        int levels=0;
+        int smallest=Math.min(rows,Math.min(inner,columns));
+        while(smallest>cutoff){
+            smallest=((smallest+1)/2);
+            levels++;
+        }
+        if(levels==0){
+            double[] packed=new double[(inner*columns)];
+            packTransposed(right,0,columns,inner,columns,packed);
+            double[] product=new double[(rows*columns)];
+            MultiplicationKernel.multiplyBlock(left,0,inner,packed,rows,inner,columns,product,0,
+                    columns,policy);
+            return product;
+        }
+
+        final int paddedRows=roundUp(rows,levels);
+        final int paddedInner=roundUp(inner,levels);
+        final int paddedColumns=roundUp(columns,levels);
+        double[] paddedLeft=pad(left,rows,inner,paddedRows,paddedInner);
+        double[] paddedRight=pad(right,inner,columns,paddedInner,paddedColumns);
+        double[] product=new double[(paddedRows*paddedColumns)];
+        new StrassenKernel(levels,paddedRows,paddedInner,paddedColumns,policy).multiply(
+                paddedLeft,0,paddedInner,paddedRight,0,paddedColumns,product,0,paddedColumns,
+                paddedRows,paddedInner,paddedColumns,0);
+        if(paddedRows==rows && paddedColumns==columns){
+            return product;
+        }
+        double[] trimmed=new double[(rows*columns)];
+        for(int row=0;row<rows;row++){
+            System.arraycopy(product,(row*paddedColumns),trimmed,(row*columns),columns);
+        }
+        return trimmed;
+    }
+
+    /**
+     * @return the least multiple of 2 to the power of {@code levels} that is at least
+     * {@code size}
+     */
+    private static int roundUp(int size,int levels){
+        final int multiple=(1<<levels);
+        return (((size+multiple-1)/multiple)*multiple);
+    }
+
+    /**
+     * @return the passed entries with rows and columns of 0s added to the bottom and right, or
+     * the passed array itself if no padding is needed
+     */
+    private static double[] pad(double[] entries,int rows,int columns,int paddedRows,
+                                int paddedColumns){
+        if(rows==paddedRows && columns==paddedColumns){
+            return entries;
+        }
+        double[] padded=new double[(paddedRows*paddedColumns)];
+        for(int row=0;row<rows;row++){
+            System.arraycopy(entries,(row*columns),padded,(row*paddedColumns),columns);
+        }
+        return padded;
+    }
+
+    /**
+     * Calculates C=A·B, where A, B and C are blocks of larger arrays. Each block is described
+     * by the index of its top-left entry and the distance between an entry and the entry below
+     * it. The amount of rows, inner columns and columns must each be divisible by 2 to the power
+     * of the amount of levels that are left.
+     */
+    private void multiply(double[] a,int aOffset,int aStride,double[] b,int bOffset,int bStride,
+                          double[] c,int cOffset,int cStride,int rows,int inner,int columns,
+                          int level){
+        if(level==LEVELS){
+            multiplyClassically(a,aOffset,aStride,b,bOffset,bStride,c,cOffset,cStride,rows,
+                    inner,columns);
+            return;
+        }
+        final int m=(rows/2);
+        final int k=(inner/2);
+        final int n=(columns/2);
+        final int a11=aOffset,a12=(aOffset+k),a21=(aOffset+m*aStride),a22=(a21+k);
+        final int b11=bOffset,b12=(bOffset+n),b21=(bOffset+k*bStride),b22=(b21+n);
+        final int c11=cOffset,c12=(cOffset+n),c21=(cOffset+m*cStride),c22=(c21+n);
+        final double[] x=X[level];
+        final double[] y=Y[level];
+        final int next=(level+1);
+
+        // The comments name each step as in the paper: S and T are sums of quadrants of A and
+        // B, P are the 7 products, and U are the partial sums that become the quadrants of C
+        subtract(a,a11,aStride,a,a21,aStride,x,0,k,m,k);        // S3=A11-A21 in X
+        subtract(b,b22,bStride,b,b12,bStride,y,0,n,k,n);        // T3=B22-B12 in Y
+        multiply(x,0,k,y,0,n,c,c21,cStride,m,k,n,next);         // P7=S3·T3 in C21
+        add(a,a21,aStride,a,a22,aStride,x,0,k,m,k);             // S1=A21+A22 in X
+        subtract(b,b12,bStride,b,b11,bStride,y,0,n,k,n);        // T1=B12-B11 in Y
+        multiply(x,0,k,y,0,n,c,c22,cStride,m,k,n,next);         // P5=S1·T1 in C22
+        subtract(x,0,k,a,a11,aStride,x,0,k,m,k);                // S2=S1-A11 in X
+        subtract(b,b22,bStride,y,0,n,y,0,n,k,n);                // T2=B22-T1 in Y
+        multiply(x,0,k,y,0,n,c,c12,cStride,m,k,n,next);         // P6=S2·T2 in C12
+        subtract(a,a12,aStride,x,0,k,x,0,k,m,k);                // S4=A12-S2 in X
+        multiply(x,0,k,b,b22,bStride,c,c11,cStride,m,k,n,next); // P3=S4·B22 in C11
+        multiply(a,a11,aStride,b,b11,bStride,x,0,n,m,k,n,next); // P1=A11·B11 in X
+        add(x,0,n,c,c12,cStride,c,c12,cStride,m,n);             // U2=P1+P6 in C12
+        add(c,c12,cStride,c,c21,cStride,c,c21,cStride,m,n);     // U3=U2+P7 in C21
+        add(c,c12,cStride,c,c22,cStride,c,c12,cStride,m,n);     // U4=U2+P5 in C12
+        add(c,c21,cStride,c,c22,cStride,c,c22,cStride,m,n);     // U7=U3+P5 in C22
+        add(c,c12,cStride,c,c11,cStride,c,c12,cStride,m,n);     // U5=U4+P3 in C12
+        subtract(y,0,n,b,b21,bStride,y,0,n,k,n);                // T4=T2-B21 in Y
+        multiply(a,a22,aStride,y,0,n,c,c11,cStride,m,k,n,next); // P4=A22·T4 in C11
+        subtract(c,c21,cStride,c,c11,cStride,c,c21,cStride,m,n); // U6=U3-P4 in C21
+        multiply(a,a12,aStride,b,b21,bStride,c,c11,cStride,m,k,n,next); // P2=A12·B21 in C11
+        add(x,0,n,c,c11,cStride,c,c11,cStride,m,n);              // U1=P1+P2 in C11
+    }
+
+    /**
+     * Calculates C=A·B at the bottom of the recursion with the blocked kernel, overwriting
+     * whatever was in C before.
+     */
+    private void multiplyClassically(double[] a,int aOffset,int aStride,double[] b,int bOffset,
+                                     int bStride,double[] c,int cOffset,int cStride,int rows,
+                                     int inner,int columns){
+        packTransposed(b,bOffset,bStride,inner,columns,PACKED);
+        for(int row=0;row<rows;row++){
+            final int offset=(cOffset+row*cStride);
+            for(int column=0;column<columns;column++){
+                c[(offset+column)]=0;
+            }
+        }
+        MultiplicationKernel.multiplyBlock(a,aOffset,aStride,PACKED,rows,inner,columns,c,
+                cOffset,cStride,POLICY);
+    }
+
+    /**
+     * Copies the transpose of a block into the start of {@code packed}, in the layout that
+     * {@link MultiplicationKernel#packTransposed} uses.
+     */
+    private static void packTransposed(double[] entries,int offset,int stride,int rows,
+                                       int columns,double[] packed){
+        for(int row=0;row<rows;row++){
+            final int start=(offset+row*stride);
+            for(int column=0;column<columns;column++){
+                packed[(column*rows+row)]=entries[(start+column)];
+            }
+        }
+    }
+
+    /**
+     * Sets the block at {@code destinationOffset} to the sum of two blocks. The destination can
+     * be one of the two blocks.
+     */
+    private static void add(double[] a,int aOffset,int aStride,double[] b,int bOffset,
+                            int bStride,double[] destination,int destinationOffset,
+                            int destinationStride,int rows,int columns){
+        for(int row=0;row<rows;row++){
+            final int aStart=(aOffset+row*aStride);
+            final int bStart=(bOffset+row*bStride);
+            final int destinationStart=(destinationOffset+row*destinationStride);
+            for(int column=0;column<columns;column++){
+                destination[(destinationStart+column)]=(a[(aStart+column)]+b[(bStart+column)]);
+            }
+        }
+    }
+
+    /**
+     * Sets the block at {@code destinationOffset} to the difference of two blocks. The
+     * destination can be one of the two blocks.
+     */
+    private static void subtract(double[] a,int aOffset,int aStride,double[] b,int bOffset,
+                                 int bStride,double[] destination,int destinationOffset,
+                                 int destinationStride,int rows,int columns){
+        for(int row=0;row<rows;row++){
+            final int aStart=(aOffset+row*aStride);
+            final int bStart=(bOffset+row*bStride);
+            final int destinationStart=(destinationOffset+row*destinationStride);
+            for(int column=0;column<columns;column++){
+                destination[(destinationStart+column)]=(a[(aStart+column)]-b[(bStart+column)]);
+            }
+        }
+    }
+}
@@ -0,0 +1,493 @@
+package LinearAlgebra;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * This class reads the numbers in a range of a text file for {@link CsvIO} and
+ * {@link MatrixMarketIO}. The file is read through a small buffer with positional reads, so the
+ * text is never turned into Strings, and several scanners can read different ranges of the same
+ * channel at once.<br />
+ * Numbers are parsed straight from the bytes into a decimal mantissa and exponent. If the mantissa
+ * is below 2<sup>53</sup> and the exponent is at most 22, the number is converted exactly with
+ * one multiplication or division by a power of ten (Clinger's fast path). Otherwise, a mantissa
+ * of at most 18 digits is multiplied by a 128-bit approximation of the power of ten, which is
+ * enough to round correctly unless the product is too close to halfway between two doubles
+ * (the Eisel-Lemire algorithm); this covers the 17 digits that {@link Double#toString(double)}
+ * writes. Only the rare numbers that neither path can convert, including NaN, Infinity and
+ * subnormal numbers, are converted by {@link Double#parseDouble(String)}, so every number is
+ * converted to the closest double.
+ * @author Mark Angelot
+ * @since March 23, 2024
+ */
+final class TextScanner{
+//--Fields--//
+
+    private static final int BUFFER_SIZE=(1<<16);
+    /** No number can be longer than this many bytes. */
+    private static final int MAXIMUM_TOKEN_LENGTH=512;
+    /** These are the powers of ten that are exactly representable as doubles. */
+    private static final double[] POWERS_OF_TEN={
+            1e0,1e1,1e2,1e3,1e4,1e5,1e6,1e7,1e8,1e9,1e10,1e11,
+            1e12,1e13,1e14,1e15,1e16,1e17,1e18,1e19,1e20,1e21,1e22
+    };
+    /** Integers below this are exactly representable as doubles. */
+    private static final long EXACT_MANTISSA_LIMIT=(1L<<53);
+    /** This is the smallest decimal exponent of a nonzero double, counting its 18 digits. */
+    private static final int SMALLEST_POWER_OF_FIVE=-342;
+    /** This is the largest decimal exponent of a finite double. */
+    private static final int LARGEST_POWER_OF_FIVE=308;
+    /** Entries 2k and 2k+1 are the high and low 64 bits of the 128 most significant bits of
+     * 5<sup>k+{@value #SMALLEST_POWER_OF_FIVE}</sup>, rounded up for negative powers. */
+    private static final long[] POWERS_OF_FIVE=powersOfFive();
+
+    private final FileChannel CHANNEL;
+    /** This is the position in the file after the last byte that this scanner reads. */
+    private final long END;
+    private final ByteBuffer BUFFER=ByteBuffer.allocate(BUFFER_SIZE);
+    private final byte[] BYTES=BUFFER.array();
+    /** This is the position in the file of the byte after the last byte in the buffer. */
+    private long filePosition;
+    /** This is the index in the buffer of the next byte. */
+    private int position;
+    /** This is the index in the buffer after the last byte that has been read. */
+    private int limit;
+
+//--Constructors--//
+
+    /**
+     * Constructs a scanner that reads part of a file.
+     * @param channel the channel of the file
+     * @param start the position in the file of the first byte that is read
+     * @param end the position in the file after the last byte that is read
+     */
+    TextScanner(FileChannel channel,long start,long end){
+        CHANNEL=channel;
+        END=end;
+        filePosition=start;
+    }
+
+//--Reading Bytes--//
+
+    /**
+     * Makes sure that the buffer holds at least the passed amount of bytes after the current
+     * position, unless the range ends first.
+     * @return true if at least one byte is left
+     */
+    private boolean fill(int count) throws IOException{
+        if((limit-position)>=count){
+            return true;
+        }
+        System.arraycopy(BYTES,position,BYTES,0,(limit-position));
+        limit-=position;
+        position=0;
+        while(limit<count && filePosition<END){
+            BUFFER.limit((int)Math.min(BYTES.length,(limit+(END-filePosition))));
+            BUFFER.position(limit);
+            final int read=CHANNEL.read(BUFFER,filePosition);
+            if(read<0){
+                break;
+            }
+            filePosition+=read;
+            limit+=read;
+        }
+        return (limit>position);
+    }
+
+    /**
+     * @return the position in the file of the next byte
+     */
+    long position(){
+        return (filePosition-(limit-position));
+    }
+
+    /**
+     * @return the next byte without moving past it, or -1 if the range has ended
+     */
+    int peek() throws IOException{
+        if(position==limit && !fill(1)){
+            return -1;
+        }
+        return (BYTES[position]&0xFF);
+    }
+
+    /**
+     * Moves past the next byte, which must have been looked at with {@link #peek()}.
+     */
+    void skip(){
+        position++;
+    }
+
+    /**
+     * Moves past spaces and carriage returns, but not tabs, which can separate values.
+     */
+    void skipSpaces() throws IOException{
+        int c;
+        while((c=peek())==' ' || c=='\r'){
+            position++;
+        }
+    }
+
+    /**
+     * Moves past spaces, tabs and carriage returns.
+     */
+    void skipWhitespace() throws IOException{
+        int c;
+        while((c=peek())==' ' || c=='\t' || c=='\r'){
+            position++;
+        }
+    }
+
+    /**
+     * Moves past whitespace and empty lines.
+     * @return true if there is anything left in the range
+     */
+    boolean skipBlankLines() throws IOException{
+        int c;
+        while((c=peek())==' ' || c=='\t' || c=='\r' || c=='\n'){
+            position++;
+        }
+        return (c!=-1);
+    }
+
+    /**
+     * Moves past the rest of the current line, including the line feed at its end.
+     */
+    void skipLine() throws IOException{
+        int c;
+        while((c=peek())!=-1){
+            position++;
+            if(c=='\n'){
+                return;
+            }
+        }
+    }
+
+    /**
+     * Reads the rest of the current line as text. This is only for header lines, which are short.
+     * @return the line, without its line ending
+     */
+    String nextLine() throws IOException{
+        StringBuilder line=new StringBuilder();
+        int c;
+        while((c=peek())!=-1){
+            position++;
+            if(c=='\n'){
+                break;
+            }
+            if(c!='\r'){
+                line.append((char)c);
+            }
+        }
+        return line.toString();
+    }
+
+//--Parsing Numbers--//
+
+    /**
+     * Parses the integer at the current position.
+     * @return the integer
+     * @throws IOException if there is no integer at the current position
+     */
+    long nextLong() throws IOException{
+        fill(MAXIMUM_TOKEN_LENGTH);
+        final int start=position;
+        int i=position;
+        boolean negative=false;
+        if(i<limit && (BYTES[i]=='-' || BYTES[i]=='+')){
+            negative=(BYTES[i]=='-');
+            i++;
+        }
+        final int firstDigit=i;
+        long value=0;
+        while(i<limit && BYTES[i]>='0' && BYTES[i]<='9' && (i-firstDigit)<18){
+            value=(value*10+(BYTES[i]-'0'));
+            i++;
+        }
+        if(i==firstDigit || (i<limit && BYTES[i]>='0' && BYTES[i]<='9')){
+            throw malformed(start,i);
+        }
+        position=i;
+        return negative?-value:value;
+    }
+
+    /**
+     * Parses the number at the current position.
+     * @return the closest double to the number
+     * @throws IOException if there is no number at the current position
+     */
+    double nextDouble() throws IOException{
+        fill(MAXIMUM_TOKEN_LENGTH);
+        final int start=position;
+        int i=position;
+        boolean negative=false;
+        if(i<limit && (BYTES[i]=='-' || BYTES[i]=='+')){
+            negative=(BYTES[i]=='-');
+            i++;
+        }
+        long mantissa=0;
+        int significantDigits=0;
+        int exponent=0;
+        boolean hasDigits=false;
+        boolean isExact=true;
+        for(;i<limit && BYTES[i]>='0' && BYTES[i]<='9';i++){
+            hasDigits=true;
+            if(significantDigits<18){
+                mantissa=(mantissa*10+(BYTES[i]-'0'));
+                if(mantissa!=0){
+                    significantDigits++;
+                }
+            }
+            else{
+                exponent++;
+                isExact&=(BYTES[i]=='0');
+            }
+        }
+        if(i<limit && BYTES[i]=='.'){
+            i++;
+            for(;i<limit && BYTES[i]>='0' && BYTES[i]<='9';i++){
+                hasDigits=true;
+                if(significantDigits<18){
+                    mantissa=(mantissa*10+(BYTES[i]-'0'));
+                    if(mantissa!=0){
+                        significantDigits++;
+                    }
+                    exponent--;
+                }
+                else{
+                    isExact&=(BYTES[i]=='0');
+                }
+            }
+        }
+        if(!hasDigits){
+            return parseSlowly(start);
+        }
+        if(i<limit && (BYTES[i]=='e' || BYTES[i]=='E')){
+            i++;
+            boolean negativeExponent=false;
+            if(i<limit && (BYTES[i]=='-' || BYTES[i]=='+')){
+                negativeExponent=(BYTES[i]=='-');
+                i++;
+            }
+            final int firstDigit=i;
+            int writtenExponent=0;
+            for(;i<limit && BYTES[i]>='0' && BYTES[i]<='9';i++){
+                // Larger exponents than this overflow or underflow anyway
+                writtenExponent=Math.min(100000,(writtenExponent*10+(BYTES[i]-'0')));
+            }
+            if(i==firstDigit){
+                throw malformed(start,i);
+            }
+            exponent+=negativeExponent?-writtenExponent:writtenExponent;
+        }
+        position=i;
+        if(isExact){
+            double value;
+            if(mantissa<EXACT_MANTISSA_LIMIT && exponent>=-22 && exponent<=22){
+                value=(exponent>=0)?(mantissa*POWERS_OF_TEN[exponent]):
+                        (mantissa/POWERS_OF_TEN[-exponent]);
+            }
+            else{
+                value=multiplyByPowerOfTen(mantissa,exponent);
+            }
+            if(!Double.isNaN(value)){
+                return negative?-value:value;
+            }
+        }
+        return parseSlowly(start);
+    }
+
+    /**
+     * Converts {@code mantissa*10^exponent} to the closest double with the Eisel-Lemire
+     * algorithm.
+     * @param mantissa the decimal mantissa, which has at most 18 digits
+     * @param exponent the decimal exponent
+     * @return the closest double, or NaN if it cannot be found this way
+     */
+    private static double multiplyByPowerOfTen(long mantissa,int exponent){
+        if(mantissa==0){
+            return 0;
+        }
+        if(exponent<SMALLEST_POWER_OF_FIVE || exponent>LARGEST_POWER_OF_FIVE){
+            return Double.NaN;
+        }
+        final int leadingZeros=Long.numberOfLeadingZeros(mantissa);
+        final long normalized=(mantissa<<leadingZeros);
+        final int index=(2*(exponent-SMALLEST_POWER_OF_FIVE));
+        long high=multiplyHighUnsigned(normalized,POWERS_OF_FIVE[index]);
+        long low=(normalized*POWERS_OF_FIVE[index]);
+        // 55 bits of the product are needed: 53 for the double, one to round and one in case
+        // the top bit is 0. If all the bits below those are 1, the lower half of the power of
+        // five could carry into them.
+        if((high&0x1FF)==0x1FF){
+            final long carry=multiplyHighUnsigned(normalized,POWERS_OF_FIVE[(index+1)]);
+            low+=carry;
+            if(Long.compareUnsigned(carry,low)>0){
+                high++;
+            }
+            if((high&0x1FF)==0x1FF && low==-1L){
+                return Double.NaN;
+            }
+        }
+        final int upperBit=(int)(high>>>63);
+        long significand=(high>>>(upperBit+9));
+        final int binaryExponent=((((152170+65536)*exponent)>>16)+63+upperBit-leadingZeros+1023);
+        if(binaryExponent<=0){
+            // Subnormal numbers are left to Double.parseDouble
+            return Double.NaN;
+        }
+        // A product that is exactly halfway between two doubles rounds to the even one
+        if(Long.compareUnsigned(low,1)<=0 && exponent>=-4 && exponent<=23 && (significand&3)==1 &&
+                (significand<<(upperBit+9))==high){
+            significand&=~1L;
+        }
+        significand+=(significand&1);
+        significand>>>=1;
+        int biasedExponent=binaryExponent;
+        if(significand>=(1L<<53)){
+            significand=(1L<<52);
+            biasedExponent++;
+        }
+        if(biasedExponent>=0x7FF){
+            return Double.NaN;
+        }
+        return Double.longBitsToDouble(((long)biasedExponent<<52)|(significand&~(1L<<52)));
+    }
+
+    private static long multiplyHighUnsigned(long a,long b){
+        return (Math.multiplyHigh(a,b)+((a>>63)&b)+((b>>63)&a));
+    }
+
+    private static long[] powersOfFive(){
+        long[] powers=new long[(2*(LARGEST_POWER_OF_FIVE-SMALLEST_POWER_OF_FIVE+1))];
+        final BigInteger twoTo128=BigInteger.ONE.shiftLeft(128);
+        for(int q=SMALLEST_POWER_OF_FIVE;q<=LARGEST_POWER_OF_FIVE;q++){
+            BigInteger power;
+            if(q<0){
+                final BigInteger divisor=BigInteger.valueOf(5).pow(-q);
+                final int bits=divisor.bitLength();
+                // The quotient is rounded up so that the power is never underestimated
+                final int shift=(q>=-27)?(bits+127):(2*bits+128);
+                power=BigInteger.ONE.shiftLeft(shift).divide(divisor).add(BigInteger.ONE);
+            }
+            else{
+                power=BigInteger.valueOf(5).pow(q);
+            }
+            if(power.bitLength()<128){
+                power=power.shiftLeft(128-power.bitLength());
+            }
+            while(power.compareTo(twoTo128)>=0){
+                power=power.shiftRight(power.bitLength()-128);
+            }
+            final int index=(2*(q-SMALLEST_POWER_OF_FIVE));
+            powers[index]=power.shiftRight(64).longValue();
+            powers[(index+1)]=power.longValue();
+        }
+        return powers;
+    }
+
+    /**
+     * Parses the token that starts at the passed index with {@link Double#parseDouble(String)}.
+     */
+    private double parseSlowly(int start) throws IOException{
+        int i=start;
+        while(i<limit && (Character.isLetterOrDigit(BYTES[i]) || BYTES[i]=='+' || BYTES[i]=='-' ||
+                BYTES[i]=='.')){
+            i++;
+        }
+        try{
+            final double value=Double.parseDouble(
+                    new String(BYTES,start,(i-start),StandardCharsets.ISO_8859_1));
+            position=i;
+            return value;
+        }catch(NumberFormatException e){
+            throw malformed(start,i);
+        }
+    }
+
+    private IOException malformed(int start,int end){
+        final int tokenEnd=Math.max(end,Math.min(limit,(start+1)));
+        return new IOException("Expected a number at byte "+(filePosition-(limit-start))+
+                " but found \""+new String(BYTES,start,(tokenEnd-start),
+                StandardCharsets.ISO_8859_1)+"\"");
+    }
+
+//--Parsing in Parallel--//
+
+    /**
+     * This is a parser of the lines in one range of a file.
+     * @param <T> the type of the result of parsing a range
+     */
+    interface RangeParser<T>{
+        T parse(TextScanner scanner) throws IOException;
+    }
+
+    /**
+     * Parses a range of a file. If the range is large enough for the passed policy, it is split
+     * into about four pieces per thread, each of which starts at the beginning of a line, and
+     * the pieces are parsed in parallel.
+     * @param channel the channel of the file
+     * @param start the position in the file of the first byte that is parsed
+     * @param end the position in the file after the last byte that is parsed
+     * @param policy decides whether the range is parsed in parallel. The work of parsing is the
+     *               amount of bytes.
+     * @param parser the parser of each piece
+     * @return the result of parsing each piece, in the order in which the pieces are in the file
+     * @throws IOException if the file cannot be read or a piece cannot be parsed
+     */
+    static <T> List<T> parse(FileChannel channel,long start,long end,ParallelismPolicy policy,
+                             RangeParser<T> parser) throws IOException{
+        List<T> results=new ArrayList<>();
+        if(!policy.shouldParallelize(end-start)){
+            results.add(parser.parse(new TextScanner(channel,start,end)));
+            return results;
+        }
+        final int pieces=(policy.getParallelism()*4);
+        long[] boundaries=new long[(pieces+1)];
+        boundaries[0]=start;
+        for(int k=1;k<pieces;k++){
+            final long guess=Math.max(boundaries[(k-1)],(start+(end-start)*k/pieces));
+            TextScanner scanner=new TextScanner(channel,guess,end);
+            if(guess>start){
+                // The piece starts after the line feed that ends the line the guess is in
+                TextScanner before=new TextScanner(channel,(guess-1),end);
+                if(before.peek()!='\n'){
+                    scanner.skipLine();
+                }
+            }
+            boundaries[k]=scanner.position();
+        }
+        boundaries[pieces]=end;
+        List<Callable<T>> tasks=new ArrayList<>();
+        for(int k=0;k<pieces;k++){
+            final long pieceStart=boundaries[k];
+            final long pieceEnd=boundaries[(k+1)];
+            tasks.add(()->parser.parse(new TextScanner(channel,pieceStart,pieceEnd)));
+        }
+        for(Future<T> future:policy.getPool().invokeAll(tasks)){
+            try{
+                results.add(future.get());
+            }catch(ExecutionException e){
+                if(e.getCause() instanceof IOException){
+                    throw (IOException)e.getCause();
+                }
+                if(e.getCause() instanceof RuntimeException){
+                    throw (RuntimeException)e.getCause();
+                }
+                throw new IOException(e.getCause());
+            }catch(InterruptedException e){
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while parsing",e);
+            }
+        }
+        return results;
+    }
+}
@@ -0,0 +1,322 @@
+package LinearAlgebra;
+
+import LinearAlgebra.Exceptions.IncompatibleMatrixMultiplicationException;
+import LinearAlgebra.Exceptions.UninvertibleMatrixException;
+
+/**
+ * This class represents a square matrix whose entries are all 0 either above its main diagonal
+ * (a lower triangular matrix) or below it (an upper triangular matrix). Only the n(n+1)/2
+ * entries of the triangle are stored, one row after another with no gaps, so each row of the
+ * triangle is contiguous: row i of a lower triangular matrix holds its columns from 0 to i, and
+ * row i of an upper triangular matrix holds its columns from i to n-1.<br />
+ * A triangular system is solved by substitution in O(n²) time, instead of the O(n³) time that
+ * {@link Matrix#solveWithGaussianElimination()} takes, and each step of the substitution is a
+ * dot product with a contiguous row. The factors of an {@link LUDecomposition} or a
+ * {@link CholeskyDecomposition} are triangular, so wrapping them in this class keeps them at
+ * about half of their dense size. This class is immutable.
+ * @author Mark Angelot
+ * @since May 11, 2024
+ */
+public final class TriangularMatrix implements LinearOperator{
+//--Fields--//
+
+    /** This array holds the entries of the triangle, one row after another. */
+    private final double[] ENTRIES;
+    /** This is true if the entries above the main diagonal are 0, or false if the entries below
+     * it are 0. */
+    private final boolean IS_LOWER;
+    /** This holds how many rows and columns are in this matrix. */
+    public final int DIMENSION;
+
+//--Constructors--//
+
+    /**
+     * Constructs a triangular matrix from the lower or upper triangle of a square matrix. The
+     * entries on the other side of the main diagonal are ignored, so this can take the L or U
+     * factor out of a matrix that holds both.
+     * @param matrix the matrix whose triangle is to be stored
+     * @param isLower true to store the main diagonal and the entries below it, or false to store
+     *                the main diagonal and the entries above it
+     * @throws IllegalArgumentException if the matrix is not square
+     */
+    public TriangularMatrix(Matrix matrix,boolean isLower){
+        if(!matrix.isSquare()){
+            throw new IllegalArgumentException("This is a "+matrix.getDimensions()+" matrix, but "+
+                    "only square matrices can be triangular");
+        }
+        final int n=matrix.AMOUNT_OF_ROWS;
+        DIMENSION=n;
+        IS_LOWER=isLower;
+        ENTRIES=new double[checkedSize(n)];
+        for(int row=0;row<n;row++){
+            final int first=firstColumn(row);
+            final int offset=rowOffset(row);
+            for(int column=first;column<=lastColumn(row);column++){
+                ENTRIES[(offset+column-first)]=matrix.getEntry(row,column);
+            }
+        }
+    }
+
+    /**
+     * Constructs a triangular matrix that uses the passed array, without copying it.
+     * @param dimension the amount of rows and columns in the matrix
+     * @param isLower true if the matrix is lower triangular
+     * @param entries the entries of the triangle, one row after another
+     */
+    TriangularMatrix(int dimension,boolean isLower,double[] entries){
+        DIMENSION=dimension;
+        IS_LOWER=isLower;
+        ENTRIES=entries;
+    }
+
+    /**
+     * @return the amount of entries in a triangle with the passed amount of rows
+     * @throws IllegalArgumentException if the dimension is less than 1, or if the triangle has
+     * too many entries to fit in one array
+     */
+    private static int checkedSize(int dimension){
+        if(dimension<1){
+            throw new IllegalArgumentException("A matrix must have at least one row and one "+
+                    "column");
+        }
+        final long size=((long)dimension*(dimension+1)/2);
+        if(size>Integer.MAX_VALUE){
+            throw new IllegalArgumentException("A "+dimension+"×"+dimension+" triangle has too "+
+                    "many entries to be stored in one array");
+        }
+        return (int)size;
+    }
+
+    /**
+     * @return the index in {@link #ENTRIES} of the first stored entry of a row
+     */
+    private int rowOffset(int row){
+        if(IS_LOWER){
+            return (int)((long)row*(row+1)/2);
+        }
+        return (int)((long)row*DIMENSION-(long)row*(row-1)/2);
+    }
+
+    /**
+     * @return the column of the first stored entry of a row
+     */
+    private int firstColumn(int row){
+        return IS_LOWER?0:row;
+    }
+
+    /**
+     * @return the column of the last stored entry of a row
+     */
+    private int lastColumn(int row){
+        return IS_LOWER?row:(DIMENSION-1);
+    }
+
+//--Getters--//
+
+    /**
+     * @param row the row of the entry
+     * @param column the column of the entry
+     * @return the entry at the passed row and column, which is 0 if it is outside the triangle
+     * @throws IndexOutOfBoundsException if the row or the column is outside this matrix
+     */
+    public double getEntry(int row,int column){
+        if(row<0 || row>=DIMENSION || column<0 || column>=DIMENSION){
+            throw new IndexOutOfBoundsException("("+row+", "+column+") is outside a "+
+                    getDimensions()+" matrix");
+        }
+        if(column<firstColumn(row) || column>lastColumn(row)){
+            return 0;
+        }
+        return ENTRIES[(rowOffset(row)+column-firstColumn(row))];
+    }
+
+    /**
+     * @return true if the entries above the main diagonal are 0, or false if the entries below
+     * it are 0
+     */
+    public boolean isLower(){
+        return IS_LOWER;
+    }
+
+    @Override
+    public int getAmountOfRows(){
+        return DIMENSION;
+    }
+
+    @Override
+    public int getAmountOfColumns(){
+        return DIMENSION;
+    }
+
+    /**
+     * @return the dimensions of this matrix in an "n×n" format
+     */
+    public String getDimensions(){
+        return DIMENSION+"×"+DIMENSION;
+    }
+
+    @Override
+    public String toString(){
+        return (IS_LOWER?"Lower":"Upper")+" triangular "+getDimensions()+" matrix";
+    }
+
+//--Conversions--//
+
+    /**
+     * @return a dense matrix with the same entries as this matrix
+     */
+    public Matrix toMatrix(){
+        final int n=DIMENSION;
+        double[] entries=new double[(n*n)];
+        for(int row=0;row<n;row++){
+            final int first=firstColumn(row);
+            System.arraycopy(ENTRIES,rowOffset(row),entries,(row*n+first),
+                    (lastColumn(row)-first+1));
+        }
+        return new Matrix(n,n,Matrix.DEFAULT_AUGMENT_INDEX,entries);
+    }
+
+    /**
+     * Creates and returns the transpose of this matrix, which is upper triangular if this
+     * matrix is lower triangular, and the other way around. The rows of the transpose are the
+     * columns of this matrix, so the entries are copied into the new order in O(n²) time.
+     * @return the transpose of this matrix
+     */
+    public TriangularMatrix transpose(){
+        final int n=DIMENSION;
+        TriangularMatrix transpose=new TriangularMatrix(n,!IS_LOWER,new double[ENTRIES.length]);
+        for(int row=0;row<n;row++){
+            final int first=firstColumn(row);
+            final int offset=rowOffset(row);
+            for(int column=first;column<=lastColumn(row);column++){
+                transpose.ENTRIES[(transpose.rowOffset(column)+row-transpose.firstColumn(column))]=
+                        ENTRIES[(offset+column-first)];
+            }
+        }
+        return transpose;
+    }
+
+//--Properties--//
+
+    /**
+     * @return the determinant of this matrix, which is the product of the entries on its main
+     * diagonal
+     */
+    public double determinant(){
+        double determinant=1;
+        for(int i=0;i<DIMENSION;i++){
+            determinant*=ENTRIES[(rowOffset(i)+i-firstColumn(i))];
+        }
+        return determinant;
+    }
+
+//--Multiplication--//
+
+    /**
+     * Creates and returns the product of this matrix and a vector in O(n²) time.
+     * @param vector the vector by which this matrix is to be multiplied
+     * @return the product of this matrix and the passed vector
+     * @throws IncompatibleMatrixMultiplicationException if the dimension of this matrix does not
+     * match the height of the vector
+     */
+    public Vector dotProduct(Vector vector) throws IncompatibleMatrixMultiplicationException{
+        if(vector.AMOUNT_OF_ROWS!=DIMENSION){
+            throw new IncompatibleMatrixMultiplicationException("A "+getDimensions()+" matrix "+
+                    "cannot be multiplied by a "+vector.getDimensions()+" vector");
+        }
+        double[] product=new double[DIMENSION];
+        apply(vector.denseEntries(false),product);
+        return new Vector(DIMENSION,product,0,1);
+    }
+
+    /**
+     * Multiplies a vector by this matrix. Each entry of the product is the dot product of the
+     * stored part of a row with the matching entries of the vector.
+     * @param vector the entries of the vector that is to be multiplied
+     * @param product the array into which the product is written
+     */
+    @Override
+    public void apply(double[] vector,double[] product){
+        for(int row=0;row<DIMENSION;row++){
+            final int first=firstColumn(row);
+            product[row]=ArrayKernels.dot(ENTRIES,rowOffset(row),vector,first,
+                    (lastColumn(row)-first+1));
+        }
+    }
+
+//--Solving--//
+
+    /**
+     * Solves the system T·x=b by forward substitution if this matrix is lower triangular, or by
+     * back substitution if it is upper triangular, in O(n²) time.
+     * @param vector the right-hand side b of the system
+     * @return the solution x of the system
+     * @throws IllegalArgumentException if the height of the vector does not match the dimension
+     * of this matrix
+     * @throws UninvertibleMatrixException if an entry on the main diagonal is 0
+     */
+    public Vector solve(Vector vector) throws UninvertibleMatrixException{
+        checkHeight(vector.AMOUNT_OF_ROWS);
+        double[] solution=vector.denseEntries(true);
+        final int n=DIMENSION;
+        for(int step=0;step<n;step++){
+            final int row=IS_LOWER?step:(n-1-step);
+            final int offset=rowOffset(row);
+            final double diagonal=ENTRIES[(offset+row-firstColumn(row))];
+            if(diagonal==0){
+                throw new UninvertibleMatrixException("The triangular matrix has a 0 on its "+
+                        "diagonal, so the system does not have a unique solution");
+            }
+            // The entries of the solution that this row depends on are already known
+            final double sum=IS_LOWER?ArrayKernels.dot(ENTRIES,offset,solution,0,row):
+                    ArrayKernels.dot(ENTRIES,(offset+1),solution,(row+1),(n-row-1));
+            solution[row]=((solution[row]-sum)/diagonal);
+        }
+        return new Vector(n,solution,0,1);
+    }
+
+    /**
+     * Solves the system T·X=B for every column of B at once, by subtracting multiples of whole
+     * rows of the solution instead of solving for one column at a time.
+     * @param matrix the right-hand side B of the system
+     * @return the solution X of the system, which has the same size as B
+     * @throws IllegalArgumentException if the amount of rows in the matrix does not match the
+     * dimension of this matrix
+     * @throws UninvertibleMatrixException if an entry on the main diagonal is 0
+     */
+    public Matrix solve(Matrix matrix) throws UninvertibleMatrixException{
+        checkHeight(matrix.AMOUNT_OF_ROWS);
+        final int n=DIMENSION;
+        final int columns=matrix.AMOUNT_OF_COLUMNS;
+        double[] solution=matrix.denseEntries(true);
+        for(int step=0;step<n;step++){
+            final int row=IS_LOWER?step:(n-1-step);
+            final int offset=rowOffset(row);
+            final int first=firstColumn(row);
+            final double diagonal=ENTRIES[(offset+row-first)];
+            if(diagonal==0){
+                throw new UninvertibleMatrixException("The triangular matrix has a 0 on its "+
+                        "diagonal, so the system does not have a unique solution");
+            }
+            final int rowOffset=(row*columns);
+            final int start=IS_LOWER?0:(row+1);
+            final int end=IS_LOWER?row:n;
+            for(int k=start;k<end;k++){
+                final double multiplier=ENTRIES[(offset+k-first)];
+                if(multiplier!=0){
+                    ArrayKernels.axpy(-multiplier,solution,(k*columns),solution,rowOffset,
+                            columns);
+                }
+            }
+            ArrayKernels.scale(solution,rowOffset,(1.0/diagonal),solution,rowOffset,columns);
+        }
+        return new Matrix(n,columns,Matrix.DEFAULT_AUGMENT_INDEX,solution);
+    }
+
+    private void checkHeight(int rows){
+        if(rows!=DIMENSION){
+            throw new IllegalArgumentException("A system with a "+getDimensions()+" matrix "+
+                    "cannot be solved for a right-hand side with "+rows+" rows");
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package LinearAlgebra;
+
+import LinearAlgebra.Exceptions.IncompatibleMatrixMultiplicationException;
+import LinearAlgebra.Exceptions.UninvertibleMatrixException;
+
+/**
+ * This class represents a square matrix whose only entries that are not 0 are on its main
+ * diagonal and the diagonals right above and below it. Such matrices come from finite
+ * differences in one dimension, cubic splines, and implicit time steps of diffusion. Only the
+ * three diagonals are stored, in three arrays, so an n×n tridiagonal matrix takes 3n numbers
+ * instead of n².<br />
+ * Systems are solved with the Thomas algorithm, which is Gaussian elimination without pivoting
+ * that only touches the three diagonals, so it takes O(n) time: a system with a million rows is
+ * solved in milliseconds. Without pivoting, the Thomas algorithm is only guaranteed to be
+ * stable if the matrix is diagonally dominant (each diagonal entry is at least as large as the
+ * sum of the magnitudes of the other entries in its row) or symmetric positive-definite, which
+ * is true of the matrices above. For other tridiagonal matrices, {@link #toBandMatrix()} gives a
+ * {@link BandMatrix}, whose LU decomposition pivots. This class is immutable.
+ * @author Mark Angelot
+ * @since May 11, 2024
+ */
+public final class TridiagonalMatrix implements LinearOperator{
+//--Fields--//
+
+    /** Entry i of this array is the entry at (i+1, i). */
+    private final double[] LOWER;
+    /** Entry i of this array is the entry at (i, i). */
+    private final double[] DIAGONAL;
+    /** Entry i of this array is the entry at (i, i+1). */
+    private final double[] UPPER;
+    /** This holds how many rows and columns are in this matrix. */
+    public final int DIMENSION;
+
+    /** This is the elimination of this matrix, which is only calculated once it is needed. */
+    private volatile Factors factors;
+
+//--Constructors--//
+
+    /**
+     * Constructs a tridiagonal matrix with the passed diagonals, which are copied.
+     * @param lower the entries below the main diagonal, from the top row down
+     * @param diagonal the entries on the main diagonal
+     * @param upper the entries above the main diagonal, from the top row down
+     * @throws IllegalArgumentException if the main diagonal is empty, or if the other diagonals
+     * do not have one entry fewer than it
+     */
+    public TridiagonalMatrix(double[] lower,double[] diagonal,double[] upper){
+        final int n=diagonal.length;
+        if(n<1){
+            throw new IllegalArgumentException("A matrix must have at least one row and one "+
+                    "column");
+        }
+        if(lower.length!=(n-1) || upper.length!=(n-1)){
+            throw new IllegalArgumentException("A "+n+"×"+n+" tridiagonal matrix has "+(n-1)+
+                    " entries above and below its main diagonal, but "+lower.length+" and "+
+                    upper.length+" were passed");
+        }
+        DIMENSION=n;
+        LOWER=lower.clone();
+        DIAGONAL=diagonal.clone();
+        UPPER=upper.clone();
+    }
+
+    /**
+     * Constructs a tridiagonal matrix from the three middle diagonals of a square matrix. The
+     * other entries are ignored.
+     * @param matrix the matrix whose diagonals are to be stored
+     * @throws IllegalArgumentException if the matrix is not square
+     */
+    public TridiagonalMatrix(Matrix matrix){
+        if(!matrix.isSquare()){
+            throw new IllegalArgumentException("This is a "+matrix.getDimensions()+" matrix, but "+
+                    "only square matrices can be tridiagonal");
+        }
+        final int n=matrix.AMOUNT_OF_ROWS;
+        DIMENSION=n;
+        LOWER=new double[(n-1)];
+        DIAGONAL=new double[n];
+        UPPER=new double[(n-1)];
+        for(int i=0;i<n;i++){
+            DIAGONAL[i]=matrix.getEntry(i,i);
+            if(i<(n-1)){
+                LOWER[i]=matrix.getEntry((i+1),i);
+                UPPER[i]=matrix.getEntry(i,(i+1));
+            }
+        }
+    }
+
+//--Getters--//
+
+    /**
+     * @param row the row of the entry
+     * @param column the column of the entry
+     * @return the entry at the passed row and column, which is 0 if it is outside the three
+     * diagonals
+     * @throws IndexOutOfBoundsException if the row or the column is outside this matrix
+     */
+    public double getEntry(int row,int column){
+        if(row<0 || row>=DIMENSION || column<0 || column>=DIMENSION){
+            throw new IndexOutOfBoundsException("("+row+", "+column+") is outside a "+
+                    getDimensions()+" matrix");
+        }
+        if(row==column){
+            return DIAGONAL[row];
+        }
+        if(row==(column+1)){
+            return LOWER[column];
+        }
+        if(column==(row+1)){
+            return UPPER[row];
+        }
+        return 0;
+    }
+
+    /**
+     * @return a copy of the entries below the main diagonal, from the top row down
+     */
+    public double[] getLowerDiagonal(){
+        return LOWER.clone();
+    }
+
+    /**
+     * @return a copy of the entries on the main diagonal
+     */
+    public double[] getDiagonal(){
+        return DIAGONAL.clone();
+    }
+
+    /**
+     * @return a copy of the entries above the main diagonal, from the top row down
+     */
+    public double[] getUpperDiagonal(){
+        return UPPER.clone();
+    }
+
+    @Override
+    public int getAmountOfRows(){
+        return DIMENSION;
+    }
+
+    @Override
+    public int getAmountOfColumns(){
+        return DIMENSION;
+    }
+
+    /**
+     * @return the dimensions of this matrix in an "n×n" format
+     */
+    public String getDimensions(){
+        return DIMENSION+"×"+DIMENSION;
+    }
+
+    @Override
+    public String toString(){
+        return "Tridiagonal "+getDimensions()+" matrix";
+    }
+
+//--Conversions--//
+
+    /**
+     * @return a dense matrix with the same entries as this matrix
+     */
+    public Matrix toMatrix(){
+        final int n=DIMENSION;
+        double[] entries=new double[(n*n)];
+        for(int i=0;i<n;i++){
+            entries[(i*n+i)]=DIAGONAL[i];
+            if(i<(n-1)){
+                entries[((i+1)*n+i)]=LOWER[i];
+                entries[(i*n+i+1)]=UPPER[i];
+            }
+        }
+        return new Matrix(n,n,Matrix.DEFAULT_AUGMENT_INDEX,entries);
+    }
+
+    /**
+     * @return a band matrix with one diagonal on each side of the main diagonal, which has the
+     * same entries as this matrix
+     */
+    public BandMatrix toBandMatrix(){
+        return new BandMatrix(1,1,new double[][]{LOWER,DIAGONAL,UPPER});
+    }
+
+    /**
+     * @return the transpose of this matrix, whose diagonals above and below the main diagonal
+     * are switched
+     */
+    public TridiagonalMatrix transpose(){
+        return new TridiagonalMatrix(UPPER,DIAGONAL,LOWER);
+    }
+
+//--Properties--//
+
+    /**
+     * Calculates the determinant of this matrix in O(n) time with the recurrence
+     * d<sub>i</sub>=a<sub>i</sub>·d<sub>i-1</sub>-b<sub>i-1</sub>·c<sub>i-1</sub>·d<sub>i-2</sub>,
+     * where d<sub>i</sub> is the determinant of the top-left (i+1)×(i+1) block, a is the main
+     * diagonal, and b and c are the diagonals below and above it.
+     * @return the determinant of this matrix
+     */
+    public double determinant(){
+        double previous=1;
+        double current=DIAGONAL[0];
+        for(int i=1;i<DIMENSION;i++){
+            final double next=((DIAGONAL[i]*current)-(LOWER[(i-1)]*UPPER[(i-1)]*previous));
+            previous=current;
+            current=next;
+        }
+        return current;
+    }
+
+//--Multiplication--//
+
+    /**
+     * Creates and returns the product of this matrix and a vector in O(n) time.
+     * @param vector the vector by which this matrix is to be multiplied
+     * @return the product of this matrix and the passed vector
+     * @throws IncompatibleMatrixMultiplicationException if the dimension of this matrix does not
+     * match the height of the vector
+     */
+    public Vector dotProduct(Vector vector) throws IncompatibleMatrixMultiplicationException{
+        if(vector.AMOUNT_OF_ROWS!=DIMENSION){
+            throw new IncompatibleMatrixMultiplicationException("A "+getDimensions()+" matrix "+
+                    "cannot be multiplied by a "+vector.getDimensions()+" vector");
+        }
+        double[] product=new double[DIMENSION];
+        apply(vector.denseEntries(false),product);
+        return new Vector(DIMENSION,product,0,1);
+    }
+
+    @Override
+    public void apply(double[] vector,double[] product){
+        final int n=DIMENSION;
+        if(n==1){
+            product[0]=(DIAGONAL[0]*vector[0]);
+            return;
+        }
+        product[0]=((DIAGONAL[0]*vector[0])+(UPPER[0]*vector[1]));
+        for(int i=1;i<(n-1);i++){
+            product[i]=((LOWER[(i-1)]*vector[(i-1)])+(DIAGONAL[i]*vector[i])+
+                    (UPPER[i]*vector[(i+1)]));
+        }
+        product[(n-1)]=((LOWER[(n-2)]*vector[(n-2)])+(DIAGONAL[(n-1)]*vector[(n-1)]));
+    }
+
+//--Solving--//
+
+    /**
+     * Solves the system T·x=b with the Thomas algorithm in O(n) time. The first pass eliminates
+     * the diagonal below the main diagonal from the top row down, and the second pass solves
+     * the remaining upper bidiagonal system from the bottom row up. The pivots of the
+     * elimination only depend on this matrix, so they are calculated the first time that a
+     * system is solved and then kept; after that, neither pass divides.
+     * @param vector the right-hand side b of the system
+     * @return the solution x of the system
+     * @throws IllegalArgumentException if the height of the vector does not match the dimension
+     * of this matrix
+     * @throws UninvertibleMatrixException if a pivot is 0, which happens if this matrix is
+     * singular, but can also happen to a matrix that is not diagonally dominant
+     */
+    public Vector solve(Vector vector) throws UninvertibleMatrixException{
+        final int n=DIMENSION;
+        if(vector.AMOUNT_OF_ROWS!=n){
+            throw new IllegalArgumentException("A system with a "+getDimensions()+" matrix "+
+                    "cannot be solved for a right-hand side with "+vector.AMOUNT_OF_ROWS+" rows");
+        }
+        Factors decomposition=factors();
+        if(decomposition.IS_SINGULAR){
+            throw new UninvertibleMatrixException("A pivot of the tridiagonal matrix is 0, so "+
+                    "its system cannot be solved without pivoting");
+        }
+        final double[] reciprocals=decomposition.RECIPROCAL_PIVOTS;
+        final double[] upper=decomposition.UPPER;
+        double[] solution=vector.denseEntries(true);
+        solution[0]*=reciprocals[0];
+        for(int i=1;i<n;i++){
+            solution[i]=((solution[i]-(LOWER[(i-1)]*solution[(i-1)]))*reciprocals[i]);
+        }
+        for(int i=(n-2);i>=0;i--){
+            solution[i]-=(upper[i]*solution[(i+1)]);
+        }
+        return new Vector(n,solution,0,1);
+    }
+
+    private Factors factors(){
+        Factors decomposition=factors;
+        if(decomposition==null){
+            decomposition=new Factors(this);
+            factors=decomposition;
+        }
+        return decomposition;
+    }
+
+    /**
+     * This class holds the result of eliminating the diagonal below the main diagonal, which
+     * leaves an upper bidiagonal matrix. Row i of that matrix is divided by its pivot, so its
+     * diagonal entry is 1 and the entry to its right is {@code UPPER[i]}.
+     */
+    private static final class Factors{
+        /** Entry i of this array is 1 divided by the pivot of row i. */
+        final double[] RECIPROCAL_PIVOTS;
+        /** Entry i of this array is the entry at (i, i+1) divided by the pivot of row i. */
+        final double[] UPPER;
+        /** This is true if a pivot is 0. */
+        final boolean IS_SINGULAR;
+
+        Factors(TridiagonalMatrix matrix){
+            final int n=matrix.DIMENSION;
+            RECIPROCAL_PIVOTS=new double[n];
+            UPPER=new double[(n-1)];
+            double pivot=matrix.DIAGONAL[0];
+            boolean isSingular=false;
+            for(int i=0;i<n && !isSingular;i++){
+                if(pivot==0){
+                    isSingular=true;
+                    continue;
+                }
+                RECIPROCAL_PIVOTS[i]=(1.0/pivot);
+                if(i<(n-1)){
+                    UPPER[i]=(matrix.UPPER[i]*RECIPROCAL_PIVOTS[i]);
+                    pivot=(matrix.DIAGONAL[(i+1)]-(matrix.LOWER[i]*UPPER[i]));
+                }
+            }
+            IS_SINGULAR=isSingular;
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package LinearAlgebra;
 
-import LinearAlgebra.Exceptions.IncompatibleMatrixMultiplicationException;
 import LinearAlgebra.Exceptions.IncompatibleVectorMultiplicationException;
 
 /**
@@ -18,7 +17,7 @@ public class Vector extends Matrix{
     public Vector(double... entries){
         super(entries.length,1);
         for(int i=0;i<entries.length;i++){
-            matrixArray[i][0]=entries[i];
+            matrixArray[indexOf(i,0)]=entries[i];
         }
     }
 
@@ -30,6 +29,18 @@ public class Vector extends Matrix{
         super(height,1);
     }
 
+    /**
+     * Constructs a vector that is a view of the passed array. The entry at index i of this vector
+     * is the entry at index {@code offset+i*stride} of the array.
+     * @param height the amount of entries in this vector
+     * @param entries the array that holds the entries of this vector
+     * @param offset the index in the array of the first entry
+     * @param stride the distance in the array between an entry and the next entry
+     */
+    Vector(int height,double[] entries,int offset,int stride){
+        super(height,1,DEFAULT_AUGMENT_INDEX,entries,offset,stride,1);
+    }
+
     /**
      * @param index the index at which to find the entry
      * @return the entry at the passed index
@@ -43,11 +54,43 @@ public class Vector extends Matrix{
      * @return the length of this vector
      */
     public double length(){
-        double sumOfSquares=0;
-        for(double entry:matrixArray[0]){
-            sumOfSquares=entry*entry;
+        return Math.sqrt(squaredLength());
+    }
+
+    /**
+     * Calculates and returns the length of this vector. If {@code compensated} is true, the sum of
+     * the squares is calculated with compensated summation, which is slower but stays accurate for
+     * long vectors.
+     * @param compensated whether to use compensated summation
+     * @return the length of this vector
+     */
+    public double length(boolean compensated){
+        return Math.sqrt(squaredLength(compensated));
+    }
+
+    /**
+     * Calculates and returns the square of the length of this vector, which is the sum of the
+     * squares of its entries. This is the same as the dot product of this vector with itself, and
+     * it is cheaper than {@link #length()} when only lengths are being compared.
+     * @return the square of the length of this vector
+     */
+    public double squaredLength(){
+        return ArrayKernels.sumOfSquares(matrixArray,OFFSET,ROW_STRIDE,AMOUNT_OF_ROWS);
+    }
+
+    /**
+     * Calculates and returns the square of the length of this vector. If {@code compensated} is
+     * true, the sum is calculated with compensated summation, which is slower but stays accurate
+     * for long vectors.
+     * @param compensated whether to use compensated summation
+     * @return the square of the length of this vector
+     */
+    public double squaredLength(boolean compensated){
+        if(!compensated){
+            return squaredLength();
         }
-        return Math.sqrt(sumOfSquares);
+        return ArrayKernels.compensatedDot(matrixArray,OFFSET,ROW_STRIDE,matrixArray,OFFSET,
+                ROW_STRIDE,AMOUNT_OF_ROWS);
     }
 
     /**
@@ -65,16 +108,40 @@ public class Vector extends Matrix{
     }
 
     /**
+     * Calculates the dot product directly from the entries of both vectors, without creating any
+     * objects.
      * @param vector the vector with which to multiply this vector
      * @return the dot product of this vector and the passed vector.
+     * @throws IncompatibleVectorMultiplicationException if this vector and the passed vector are
+     * of different dimensions.
      */
     public double dotProduct(Vector vector) throws IncompatibleVectorMultiplicationException{
-        try{
-            return(this.transpose().dotProduct(vector)).getEntry(0,0);
+        return dotProduct(vector,false);
+    }
+
+    /**
+     * Calculates the dot product directly from the entries of both vectors, without creating any
+     * objects. If {@code compensated} is true, the products are added up with compensated
+     * summation, which is slower but as accurate as if the sum had been calculated with twice the
+     * precision of a double. This matters for long vectors and for vectors that are nearly
+     * orthogonal, where most of the products cancel each other out.
+     * @param vector the vector with which to multiply this vector
+     * @param compensated whether to use compensated summation
+     * @return the dot product of this vector and the passed vector.
+     * @throws IncompatibleVectorMultiplicationException if this vector and the passed vector are
+     * of different dimensions.
+     */
+    public double dotProduct(Vector vector,boolean compensated)
+            throws IncompatibleVectorMultiplicationException{
+        if(AMOUNT_OF_ROWS!=vector.AMOUNT_OF_ROWS){
+            throw new IncompatibleVectorMultiplicationException(this,vector);
         }
-        catch(IncompatibleMatrixMultiplicationException e){
-            throw new IncompatibleVectorMultiplicationException(e);
+        if(compensated){
+            return ArrayKernels.compensatedDot(matrixArray,OFFSET,ROW_STRIDE,vector.matrixArray,
+                    vector.OFFSET,vector.ROW_STRIDE,AMOUNT_OF_ROWS);
         }
+        return ArrayKernels.dot(matrixArray,OFFSET,ROW_STRIDE,vector.matrixArray,vector.OFFSET,
+                vector.ROW_STRIDE,AMOUNT_OF_ROWS);
     }
 
     /**
@@ -89,18 +156,27 @@ public class Vector extends Matrix{
     }
 
     /**
-     * Calculates and returns a vector that is the projection of this vector and another vector.
-     * @param otherVector // TODO: finish documenting this
-     * @return a vector that is the projection of this vector and another vector
+     * Calculates and returns a vector that is the projection of this vector onto another vector.
+     * The projection is the other vector scaled by the dot product of the two vectors divided by
+     * the squared length of the other vector, so only two reductions and the new vector are
+     * needed.
+     * @param otherVector the vector onto which this vector is projected
+     * @return a vector that is the projection of this vector onto the other vector
      * @throws IncompatibleVectorMultiplicationException if this vector and the other vector are
      * of different dimensions.
      */
     public Vector projectionOnto(Vector otherVector) throws IncompatibleVectorMultiplicationException{
-        return new Vector(
-            otherVector.scaledBy(
-                this.dotProduct(otherVector) /
-                otherVector.dotProduct(otherVector)
-            ).getColumn(0)
-        );
+        final double scale=(dotProduct(otherVector)/otherVector.squaredLength());
+        Vector projection=new Vector(AMOUNT_OF_ROWS);
+        if(otherVector.ROW_STRIDE==1){
+            ArrayKernels.scale(otherVector.matrixArray,otherVector.OFFSET,scale,
+                    projection.matrixArray,0,AMOUNT_OF_ROWS);
+        }
+        else{
+            for(int i=0;i<AMOUNT_OF_ROWS;i++){
+                projection.matrixArray[i]=(scale*otherVector.getEntry(i));
+            }
+        }
+        return projection;
     }
 }
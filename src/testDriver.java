@@ -1,9 +1,51 @@
 import LinearAlgebra.Exceptions.IncompatibleMatrixAugmentationException;
+import LinearAlgebra.Exceptions.IncompatibleMatrixMultiplicationException;
+import LinearAlgebra.Exceptions.IncompatibleVectorMultiplicationException;
 import LinearAlgebra.Exceptions.IndeterminableMatrixException;
+import LinearAlgebra.Exceptions.UndecomposableMatrixException;
 import LinearAlgebra.Exceptions.UninvertibleMatrixException;
+import LinearAlgebra.BandMatrix;
+import LinearAlgebra.BiCGSTABSolver;
+import LinearAlgebra.CholeskyDecomposition;
+import LinearAlgebra.ConjugateGradientSolver;
+import LinearAlgebra.CsvIO;
+import LinearAlgebra.DiagonalMatrix;
+import LinearAlgebra.GMRESSolver;
+import LinearAlgebra.ILUPreconditioner;
+import LinearAlgebra.IdentityMatrix;
+import LinearAlgebra.IterativeSolution;
+import LinearAlgebra.IterativeSolver;
+import LinearAlgebra.JacobiPreconditioner;
+import LinearAlgebra.EigenDecomposition;
+import LinearAlgebra.FloatLUDecomposition;
+import LinearAlgebra.FloatMatrix;
+import LinearAlgebra.LDLDecomposition;
+import LinearAlgebra.LUDecomposition;
+import LinearAlgebra.MappedMatrix;
+import LinearAlgebra.MappedMatrixBuilder;
 import LinearAlgebra.Matrix;
+import LinearAlgebra.MatrixBatch;
+import LinearAlgebra.MatrixBuilder;
+import LinearAlgebra.MatrixExpression;
+import LinearAlgebra.MatrixIO;
+import LinearAlgebra.MatrixMarketIO;
+import LinearAlgebra.MixedPrecisionSolver;
+import LinearAlgebra.ParallelismPolicy;
+import LinearAlgebra.QRDecomposition;
+import LinearAlgebra.SingularValueDecomposition;
+import LinearAlgebra.SparseMatrix;
+import LinearAlgebra.SparseMatrixBuilder;
+import LinearAlgebra.TriangularMatrix;
+import LinearAlgebra.TridiagonalMatrix;
 import LinearAlgebra.Vector;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
 /**
  * @author Mark Angelot
  * @since November 24, 2023
@@ -24,6 +66,71 @@ public class testDriver{
         }
     }
 
+    private static void testDeterminantAgainstCofactorExpansion(){
+        for(int n=1;n<=7;n++){
+            Matrix matrix=Matrix.generateRandomMatrix(n,n);
+            try{
+                double determinant=matrix.determinant();
+                double cofactorDeterminant=matrix.determinantByCofactorExpansion();
+                double tolerance=1e-9*Math.max(1,Math.abs(cofactorDeterminant));
+                System.out.println(n+"×"+n+": LU="+determinant+", cofactor="+cofactorDeterminant+
+                        ((Math.abs(determinant-cofactorDeterminant)<=tolerance)?"":" MISMATCH"));
+                System.out.println("    sign="+matrix.signOfDeterminant()+
+                        ", log|det|="+matrix.logDeterminant());
+            }catch(IndeterminableMatrixException e){
+                System.err.println(e.getMessage());
+            }
+        }
+    }
+
+    private static void testBlockedMultiplication(){
+        int[][] sizes={{3,4,5},{67,130,45},{300,257,301}};
+        for(int[] size:sizes){
+            Matrix left=Matrix.generateRandomMatrix(size[0],size[1]);
+            Matrix right=Matrix.generateRandomMatrix(size[1],size[2]);
+            try{
+                Matrix product=left.dotProduct(right);
+                double greatestError=0;
+                for(int row=0;row<size[0];row++){
+                    for(int column=0;column<size[2];column++){
+                        double expected=0;
+                        for(int k=0;k<size[1];k++){
+                            expected+=left.getEntry(row,k)*right.getEntry(k,column);
+                        }
+                        greatestError=Math.max(greatestError,
+                                Math.abs(expected-product.getEntry(row,column)));
+                    }
+                }
+                System.out.println(left.getDimensions()+" · "+right.getDimensions()+
+                        ": greatest error "+greatestError);
+            }catch(IncompatibleMatrixMultiplicationException e){
+                e.printStackTrace(System.err);
+            }
+        }
+    }
+
+    private static void testParallelMultiplication(){
+        Matrix left=Matrix.generateRandomMatrix(517,300);
+        Matrix right=Matrix.generateRandomMatrix(300,411);
+        try{
+            Matrix sequentialProduct=left.dotProduct(right,ParallelismPolicy.SEQUENTIAL);
+            Matrix parallelProduct=left.dotProduct(right,ParallelismPolicy.usingCommonPool());
+            double greatestDifference=0;
+            for(int row=0;row<sequentialProduct.AMOUNT_OF_ROWS;row++){
+                for(int column=0;column<sequentialProduct.AMOUNT_OF_COLUMNS;column++){
+                    greatestDifference=Math.max(greatestDifference,Math.abs(
+                            sequentialProduct.getEntry(row,column)-
+                            parallelProduct.getEntry(row,column)
+                    ));
+                }
+            }
+            System.out.println("Greatest difference between sequential and parallel products: "+
+                    greatestDifference);
+        }catch(IncompatibleMatrixMultiplicationException e){
+            e.printStackTrace(System.err);
+        }
+    }
+
     private static void test2DArrayConstructor(){
         Matrix matrix=new Matrix(new double[][]{
                 new double[]{1, 2, 3, 4, 5},
@@ -58,6 +165,61 @@ public class testDriver{
         }
     }
 
+    private static void testMatrixBuilder(){
+        Matrix matrix=new Matrix(new double[][]{
+                new double[]{1, 2, 3},
+                new double[]{4, 5, 6},
+                new double[]{7, 8, 10}
+        });
+        MatrixBuilder builder=new MatrixBuilder(matrix);
+        builder.swapRows(0,2).scaleRow(1,2).addScaledOtherRow(2,0,-0.5);
+        Matrix built=builder.build();
+        System.out.println("Row operations in place: "+built.equals(
+                matrix.swapRows(0,2).scaleRow(1,2).addScaledOtherRow(2,0,-0.5)));
+
+        // Changing the builder after build() must not change the matrix that was built
+        builder.setEntry(0,0,99).scaleRow(1,-1);
+        System.out.println("Built matrix unchanged: "+(built.getEntry(0,0)==7)+
+                ", builder changed: "+(builder.getEntry(0,0)==99)+", original unchanged: "+
+                (matrix.getEntry(0,0)==1));
+
+        // The second row is 3 times the first, except for rounding errors. Elimination leaves
+        // entries of about 1e-16 in it, which would be used as pivots without the tolerance
+        double[] first={0.1, 0.3, 1};
+        double[] second=new double[3];
+        for(int i=0;i<3;i++){
+            second[i]=(3*first[i]);
+        }
+        Matrix reduced=new Matrix(new double[][]{first,second},2).solveWithGaussianElimination();
+        System.out.println("Near-singular system:\n"+reduced+"\nsecond row is 0: "+
+                (reduced.getEntry(1,0)==0 && reduced.getEntry(1,1)==0 &&
+                reduced.getEntry(1,2)==0));
+        try{
+            System.out.println("Regular system: "+maximumDifference(matrix.augmentedWith(
+                    Matrix.generateIdentityMatrix(3)).solveWithGaussianElimination()
+                    .submatrix(0,3,3,6),matrix.inverse()));
+        }catch(IncompatibleMatrixAugmentationException|UninvertibleMatrixException e){
+            e.printStackTrace(System.err);
+        }
+    }
+
+    private static void testMismatchedSums(){
+        Matrix matrix=Matrix.generateRandomMatrix(2,3);
+        for(Matrix other:new Matrix[]{Matrix.generateRandomMatrix(3,2),
+                Matrix.generateRandomMatrix(2,2)}){
+            try{
+                matrix.plus(other);
+            }catch(IllegalArgumentException e){
+                System.out.println(e.getMessage());
+            }
+            try{
+                matrix.minus(other);
+            }catch(IllegalArgumentException e){
+                System.out.println(e.getMessage());
+            }
+        }
+    }
+
     private static void testSubmatrix(){
         Matrix matrix=new Matrix(new double[][]{
                 new double[]{1, 2, 3, 4, 5},
@@ -67,6 +229,25 @@ public class testDriver{
         System.out.println(matrix.submatrix(1,1,3,5));
     }
 
+    private static void testViews(){
+        Matrix matrix=new Matrix(new double[][]{
+                new double[]{1, 2, 3, 4, 5},
+                new double[]{6, 7, 8, 9, 10},
+                new double[]{11,12,13,14,15}
+        });
+        Matrix view=matrix.transpose().submatrix(1,0,4,2);
+        System.out.println("Rows 1-3 and columns 0-1 of the transpose:\n"+view);
+        System.out.println("The same view copied:\n"+view.copy());
+        System.out.println("Transpose of the view:\n"+view.transpose());
+        System.out.println("Column 2 as a vector:\n"+matrix.getColumnView(2));
+        System.out.println("Row 1 as a vector:\n"+matrix.getRowView(1));
+        try{
+            System.out.println("View times its transpose:\n"+view.dotProduct(view.transpose()));
+        }catch(IncompatibleMatrixMultiplicationException e){
+            e.printStackTrace(System.err);
+        }
+    }
+
     private static void testPivots(){
         Matrix matrix=new Matrix(new double[][]{
                 new double[]{1, 2, 3, 4, 5},
@@ -76,6 +257,756 @@ public class testDriver{
         System.out.println(matrix.solveWithGaussianElimination());
     }
 
+    private static void testLUDecomposition(){
+        Matrix matrix=Matrix.generateRandomMatrix(6,6);
+        Matrix rightHandSides=Matrix.generateRandomMatrix(6,3);
+        try{
+            LUDecomposition decomposition=new LUDecomposition(matrix);
+            Matrix solution=decomposition.solve(rightHandSides);
+            System.out.println("A·X-B (should be all 0s):\n"+
+                    matrix.dotProduct(solution).minus(rightHandSides));
+            Vector b=new Vector(1,2,3,4,5,6);
+            System.out.println("A·x-b (should be all 0s):\n"+
+                    matrix.dotProduct(decomposition.solve(b)).minus(b));
+            System.out.println("A·A⁻¹ (should be the identity matrix):\n"+
+                    matrix.dotProduct(decomposition.inverse()));
+            System.out.println("Determinant: "+decomposition.determinant()+", cofactor expansion: "+
+                    matrix.determinantByCofactorExpansion());
+        }catch(UndecomposableMatrixException|UninvertibleMatrixException|
+               IncompatibleMatrixMultiplicationException|IndeterminableMatrixException e){
+            e.printStackTrace(System.err);
+        }
+    }
+
+    private static void testSymmetricDecompositions(){
+        for(int n:new int[]{5,300}){
+            try{
+                Matrix random=Matrix.generateRandomMatrix(n,n);
+                Matrix matrix=random.transpose().dotProduct(random)
+                        .plus(Matrix.generateIdentityMatrix(n).scaledBy(n));
+                Vector b=new Vector(Matrix.generateRandomMatrix(n,1).getColumn(0));
+                CholeskyDecomposition cholesky=new CholeskyDecomposition(matrix);
+                LDLDecomposition ldl=new LDLDecomposition(matrix);
+                System.out.println(n+"×"+n+" symmetric: "+matrix.isSymmetric()+
+                        ", positive-definite: "+cholesky.isPositiveDefinite()+" and "+
+                        ldl.isPositiveDefinite());
+                System.out.println("    log(det) from Cholesky: "+cholesky.logDeterminant()+
+                        ", from LDLᵀ: "+ldl.logDeterminant()+", from LU: "+
+                        matrix.logDeterminant());
+                System.out.println("    |A·x-b| from Cholesky: "+
+                        matrix.dotProduct(cholesky.solve(b)).minus(b).getColumnView(0).length()+
+                        ", from LDLᵀ: "+
+                        matrix.dotProduct(ldl.solve(b)).minus(b).getColumnView(0).length());
+            }catch(UndecomposableMatrixException|UninvertibleMatrixException|
+                   IncompatibleMatrixMultiplicationException|IndeterminableMatrixException e){
+                e.printStackTrace(System.err);
+            }
+        }
+        try{
+            Matrix indefinite=new Matrix(new double[][]{
+                    new double[]{1, 2},
+                    new double[]{2, 1}
+            });
+            System.out.println("Indefinite matrix is positive-definite: "+
+                    new CholeskyDecomposition(indefinite).isPositiveDefinite()+
+                    ", determinant from LDLᵀ: "+new LDLDecomposition(indefinite).determinant());
+        }catch(UndecomposableMatrixException e){
+            e.printStackTrace(System.err);
+        }
+        try{
+            // This matrix is not singular, but its first pivot is 0
+            new LDLDecomposition(new Matrix(new double[][]{
+                    new double[]{0, 1},
+                    new double[]{1, 0}
+            }));
+        }catch(UndecomposableMatrixException e){
+            System.out.println(e.getMessage());
+        }
+    }
+
+    private static void testEigenDecomposition(){
+        for(int n:new int[]{6,300}){
+            try{
+                Matrix random=Matrix.generateRandomMatrix(n,n);
+                Matrix symmetric=random.plus(random.transpose());
+                for(Matrix matrix:new Matrix[]{symmetric,random}){
+                    EigenDecomposition eigen=new EigenDecomposition(matrix);
+                    // A·V should equal V·D, even when some eigenvalues are complex
+                    Matrix residual=matrix.dotProduct(eigen.getV())
+                            .minus(eigen.getV().dotProduct(eigen.getD()));
+                    double greatestError=0;
+                    for(int row=0;row<n;row++){
+                        for(int column=0;column<n;column++){
+                            greatestError=Math.max(greatestError,
+                                    Math.abs(residual.getEntry(row,column)));
+                        }
+                    }
+                    System.out.println(n+"×"+n+(eigen.isSymmetric()?" symmetric":" general")+
+                            ": complex eigenvalues: "+eigen.hasComplexEigenvalues()+
+                            ", greatest entry of A·V-V·D: "+greatestError);
+                }
+                // eigenvalues() skips the eigenvectors, which should not change the eigenvalues
+                double[] withVectors=new EigenDecomposition(symmetric).getRealEigenvalues();
+                double[] withoutVectors=symmetric.eigenvalues();
+                double greatestDifference=0;
+                for(int i=0;i<n;i++){
+                    greatestDifference=Math.max(greatestDifference,
+                            Math.abs(withVectors[i]-withoutVectors[i]));
+                }
+                System.out.println(n+"×"+n+" symmetric: greatest difference of the eigenvalues "+
+                        "without eigenvectors: "+greatestDifference);
+            }catch(UndecomposableMatrixException|IncompatibleMatrixMultiplicationException e){
+                e.printStackTrace(System.err);
+            }
+        }
+        try{
+            Matrix matrix=new Matrix(new double[][]{
+                    new double[]{2, 1},
+                    new double[]{1, 2}
+            });
+            System.out.println("Eigenvalues: "+Arrays.toString(matrix.eigenvalues()));
+            for(Vector eigenvector:matrix.eigenvectors()){
+                System.out.println(eigenvector.transpose());
+            }
+        }catch(UndecomposableMatrixException e){
+            e.printStackTrace(System.err);
+        }
+    }
+
+    private static void testArrayKernels(){
+        // Run this with and without --add-modules jdk.incubator.vector to check both versions
+        for(int n:new int[]{3,17,1001}){
+            Matrix left=Matrix.generateRandomMatrix(n,1);
+            Matrix right=Matrix.generateRandomMatrix(n,1);
+            Vector first=left.getColumnView(0);
+            Vector second=right.getColumnView(0);
+            double expectedDot=0;
+            double expectedSumOfSquares=0;
+            for(int i=0;i<n;i++){
+                expectedDot+=first.getEntry(i)*second.getEntry(i);
+                expectedSumOfSquares+=first.getEntry(i)*first.getEntry(i);
+            }
+            try{
+                System.out.println(n+" entries: dot product "+first.dotProduct(second)+
+                        " (expected "+expectedDot+"), length "+first.length()+
+                        " (expected "+Math.sqrt(expectedSumOfSquares)+")");
+                System.out.println("    (a+b)-b-a is all 0s: "+left.plus(right).minus(right)
+                        .minus(left).equals(new Matrix(n,1))+", 2a-a-a is all 0s: "+
+                        left.scaledBy(2).minus(left).minus(left).equals(new Matrix(n,1)));
+            }catch(IncompatibleVectorMultiplicationException e){
+                e.printStackTrace(System.err);
+            }
+        }
+    }
+
+    private static void testVectorReductions(){
+        // The products cancel each other out, so the plain sum loses the 1 and gives 0
+        Vector first=new Vector(1e16,1,-1e16);
+        Vector second=new Vector(1,1,1);
+        // A column of a bigger matrix is a view whose entries are not next to each other
+        Matrix matrix=Matrix.generateRandomMatrix(50,50);
+        Vector column=matrix.getColumnView(3);
+        Vector copy=new Vector(column.asArray());
+        try{
+            System.out.println("Plain dot product "+first.dotProduct(second)+
+                    ", compensated dot product "+first.dotProduct(second,true)+" (expected 1.0)");
+            System.out.println("Strided dot product "+column.dotProduct(column)+
+                    ", squared length "+column.squaredLength()+", length squared "+
+                    Math.pow(copy.length(),2));
+            System.out.println("Projection of (3, 4) onto (2, 0): "+
+                    Arrays.toString(new Vector(3,4).projectionOnto(new Vector(2,0)).asArray()));
+            first.dotProduct(new Vector(1,1));
+        }catch(IncompatibleVectorMultiplicationException e){
+            System.out.println(e.getMessage());
+        }
+    }
+
+    private static void testSparseMatrix(){
+        // The matrix of the 1D Laplacian, with one entry added twice to check that they are summed
+        int n=1000;
+        SparseMatrixBuilder builder=new SparseMatrixBuilder(n,n,(3*n));
+        for(int i=n-1;i>=0;i--){
+            builder.addEntry(i,i,1);
+            builder.addEntry(i,i,1);
+            if(i>0){
+                builder.addEntry(i,(i-1),-1);
+            }
+            if(i<n-1){
+                builder.addEntry(i,(i+1),-1);
+            }
+        }
+        SparseMatrix rows=builder.build();
+        SparseMatrix columns=builder.buildCompressedByColumns();
+        Matrix dense=rows.toMatrix();
+        Vector x=Matrix.generateRandomMatrix(n,1).getColumnView(0);
+        Matrix block=Matrix.generateRandomMatrix(n,5);
+        try{
+            System.out.println(rows+", "+columns+", entry (3, 2) is "+rows.getEntry(3,2)+
+                    ", entry (3, 7) is "+rows.getEntry(3,7));
+            System.out.println("CSR product matches: "+rows.dotProduct(x).equals(dense.dotProduct(x))+
+                    ", CSC product matches: "+columns.dotProduct(x).equals(dense.dotProduct(x))+
+                    ", parallel product matches: "+rows.dotProduct(x,
+                    ParallelismPolicy.usingCommonPool()).equals(dense.dotProduct(x)));
+            System.out.println("Sparse-dense product matches: "+
+                    rows.dotProduct(block).equals(dense.dotProduct(block))+
+                    ", dense-sparse product matches: "+block.transpose().dotProduct(columns)
+                    .equals(block.transpose().dotProduct(dense))+
+                    ", transpose matches: "+rows.transpose().toMatrix().equals(dense.transpose())+
+                    ", layouts match: "+rows.toCompressedColumns().toMatrix()
+                    .equals(columns.toCompressedRows().toMatrix()));
+            MatrixBuilder lowerTriangle=new MatrixBuilder(n,n);
+            MatrixBuilder upperTriangle=new MatrixBuilder(n,n);
+            for(int i=0;i<n;i++){
+                for(int j=0;j<n;j++){
+                    (j<=i?lowerTriangle:upperTriangle).setEntry(i,j,dense.getEntry(i,j));
+                }
+                upperTriangle.setEntry(i,i,dense.getEntry(i,i));
+            }
+            Vector lower=rows.solveLowerTriangular(x);
+            Vector upper=columns.solveUpperTriangular(x);
+            System.out.println("Lower triangular residual: "+lowerTriangle.build().dotProduct(lower)
+                    .minus(x).getColumnView(0).length()+", upper triangular residual: "+
+                    upperTriangle.build().dotProduct(upper).minus(x).getColumnView(0).length());
+        }catch(IncompatibleMatrixMultiplicationException|UninvertibleMatrixException e){
+            e.printStackTrace(System.err);
+        }
+    }
+
+    private static void testIterativeSolvers(){
+        // The 5-point Laplacian on a 100×100 grid is symmetric positive-definite. Adding a
+        // convection term to it makes it nonsymmetric.
+        int gridSize=100;
+        int n=gridSize*gridSize;
+        SparseMatrixBuilder symmetric=new SparseMatrixBuilder(n,n,(5*n));
+        SparseMatrixBuilder nonsymmetric=new SparseMatrixBuilder(n,n,(5*n));
+        for(int i=0;i<gridSize;i++){
+            for(int j=0;j<gridSize;j++){
+                int row=i*gridSize+j;
+                symmetric.addEntry(row,row,4);
+                nonsymmetric.addEntry(row,row,4);
+                int[] neighbors={(i>0)?row-gridSize:-1,(i<gridSize-1)?row+gridSize:-1,
+                        (j>0)?row-1:-1,(j<gridSize-1)?row+1:-1};
+                for(int k=0;k<neighbors.length;k++){
+                    if(neighbors[k]>=0){
+                        symmetric.addEntry(row,neighbors[k],-1);
+                        nonsymmetric.addEntry(row,neighbors[k],(k%2==0)?-1.4:-0.6);
+                    }
+                }
+            }
+        }
+        SparseMatrix laplacian=symmetric.build();
+        SparseMatrix convection=nonsymmetric.build();
+        Vector b=Matrix.generateRandomMatrix(n,1).getColumnView(0);
+        try{
+            IterativeSolver[] solvers={
+                    new ConjugateGradientSolver().setMaximumIterations(2000),
+                    new ConjugateGradientSolver().setPreconditioner(
+                            new JacobiPreconditioner(laplacian)),
+                    new ConjugateGradientSolver().setPreconditioner(
+                            new ILUPreconditioner(laplacian)),
+                    new BiCGSTABSolver().setPreconditioner(new ILUPreconditioner(convection)),
+                    new GMRESSolver(50).setPreconditioner(new ILUPreconditioner(convection))
+            };
+            for(int i=0;i<solvers.length;i++){
+                SparseMatrix matrix=(i<3)?laplacian:convection;
+                IterativeSolution solution=solvers[i].solve(matrix,b);
+                System.out.println(solvers[i].getClass().getSimpleName()+": "+solution+
+                        ", true relative residual "+b.minus(matrix.dotProduct(
+                        solution.getSolution())).getColumnView(0).length()/b.length());
+            }
+            // A dense matrix is also an operator
+            Matrix dense=Matrix.generateRandomMatrix(50,50).plus(
+                    Matrix.generateIdentityMatrix(50).scaledBy(1000));
+            Vector denseB=Matrix.generateRandomMatrix(50,1).getColumnView(0);
+            int[] calls={0};
+            IterativeSolution solution=new GMRESSolver()
+                    .setResidualListener((iteration,residual)->calls[0]++)
+                    .solve(dense,denseB);
+            System.out.println("Dense GMRES: "+solution+", listener called "+calls[0]+
+                    " times, true relative residual "+denseB.minus(dense.dotProduct(
+                    solution.getSolution())).getColumnView(0).length()/denseB.length());
+        }catch(UndecomposableMatrixException|IncompatibleMatrixMultiplicationException e){
+            e.printStackTrace(System.err);
+        }
+    }
+
+    private static void testMappedMatrix(){
+        // Tiles of 7×7 do not divide the matrices evenly, so the edge tiles are checked as well
+        Matrix left=Matrix.generateRandomMatrix(50,37);
+        Matrix right=Matrix.generateRandomMatrix(37,23);
+        try{
+            Path directory=Files.createTempDirectory("mapped");
+            MappedMatrixBuilder leftBuilder=new MappedMatrixBuilder(directory.resolve("left"),50,
+                    37,7);
+            MappedMatrixBuilder rightBuilder=new MappedMatrixBuilder(directory.resolve("right"),37,
+                    23,7);
+            MappedMatrix mappedLeft=leftBuilder.setBlock(0,0,left).build();
+            MappedMatrix mappedRight=rightBuilder.setBlock(0,0,right).build();
+            System.out.println("Round trip matches: "+mappedLeft.toMatrix().equals(left)+
+                    ", block matches: "+mappedLeft.getBlock(5,9,20,11)
+                    .equals(left.submatrix(5,9,25,20)));
+            System.out.println("Transpose matches: "+mappedLeft.transpose(directory
+                    .resolve("transpose")).toMatrix().equals(left.transpose())+
+                    ", product matches: "+mappedLeft.dotProduct(mappedRight,directory
+                    .resolve("product")).toMatrix().equals(left.dotProduct(right)));
+            MappedMatrixBuilder rows=new MappedMatrixBuilder(directory.resolve("rows"),50,37,7);
+            rows.setBlock(0,0,left).swapRows(3,40).scaleRow(3,2).addScaledOtherRow(40,3,-0.5);
+            System.out.println("Row operations match: "+rows.build().toMatrix().equals(
+                    left.swapRows(3,40).scaleRow(3,2).addScaledOtherRow(40,3,-0.5)));
+            Vector x=Matrix.generateRandomMatrix(37,1).getColumnView(0);
+            double[] product=new double[50];
+            mappedLeft.apply(x.asArray(),product);
+            System.out.println("Operator product matches: "+
+                    Arrays.equals(product,left.dotProduct(x).getColumn(0)));
+            // Invalid dimensions must not truncate a file that is already there
+            Path existing=directory.resolve("existing");
+            Files.write(existing,new byte[]{1,2,3});
+            try{
+                new MappedMatrixBuilder(existing,0,5);
+            }catch(IllegalArgumentException e){
+                System.out.println(e.getMessage()+", file kept: "+(Files.size(existing)==3));
+            }
+        }catch(IOException|IncompatibleMatrixMultiplicationException e){
+            e.printStackTrace(System.err);
+        }
+    }
+
+    private static void testMatrixIO(){
+        Matrix matrix=Matrix.generateRandomMatrix(300,200).scaledBy(Math.PI);
+        Vector vector=matrix.getColumnView(7);
+        try{
+            Path directory=Files.createTempDirectory("matrixIO");
+            Path matrixFile=directory.resolve("matrix.lamx");
+            Path transposeFile=directory.resolve("transpose.lamx");
+            Path vectorFile=directory.resolve("vector.lamx");
+            Path augmentedFile=directory.resolve("augmented.lamx");
+            Path tiledFile=directory.resolve("tiled.lamx");
+            MatrixIO.write(matrix,matrixFile);
+            MatrixIO.write(matrix.transpose(),transposeFile);
+            MatrixIO.write(vector,vectorFile);
+            MatrixIO.write(matrix.augmentedWith(vector),augmentedFile);
+            MatrixIO.create(tiledFile,300,200,64).setBlock(0,0,matrix).build();
+            System.out.println("Matrix: "+MatrixIO.read(matrixFile).equals(matrix)+
+                    ", transpose: "+MatrixIO.read(transposeFile).equals(matrix.transpose())+
+                    ", vector: "+MatrixIO.readVector(vectorFile).equals(vector)+
+                    ", augmented: "+MatrixIO.read(augmentedFile).isAugmented()+
+                    ", tiled: "+MatrixIO.read(tiledFile).equals(matrix));
+            System.out.println("Mapped row-major: "+MatrixIO.map(matrixFile).toMatrix()
+                    .equals(matrix)+", mapped tiled: "+MatrixIO.map(tiledFile).toMatrix()
+                    .equals(matrix));
+            MatrixIO.readVector(matrixFile);
+        }catch(IOException|IncompatibleMatrixAugmentationException e){
+            System.out.println(e.getMessage());
+        }
+    }
+
+    private static void testTextFormats(){
+        Matrix matrix=Matrix.generateRandomMatrix(300,200).scaledBy(-Math.E);
+        SparseMatrixBuilder builder=new SparseMatrixBuilder(2000,2000);
+        for(int i=0;i<2000;i++){
+            builder.addEntry(i,i,4.5);
+            builder.addEntry(i,((i*7919)%2000),(i*0.001-3));
+        }
+        SparseMatrix sparse=builder.build();
+        ParallelismPolicy parallel=new ParallelismPolicy(new ForkJoinPool(4),0);
+        try{
+            Path directory=Files.createTempDirectory("textFormats");
+            Path csvFile=directory.resolve("matrix.csv");
+            Path tsvFile=directory.resolve("matrix.tsv");
+            Path arrayFile=directory.resolve("matrix.mtx");
+            Path sparseFile=directory.resolve("sparse.mtx");
+            CsvIO.write(matrix,csvFile);
+            CsvIO.write(matrix,tsvFile,'\t');
+            MatrixMarketIO.write(matrix,arrayFile);
+            MatrixMarketIO.write(sparse,sparseFile);
+            System.out.println("CSV: "+CsvIO.read(csvFile).equals(matrix)+
+                    ", parallel CSV: "+CsvIO.read(csvFile,',',false,parallel).equals(matrix)+
+                    ", TSV: "+CsvIO.read(tsvFile,'\t',false,parallel).equals(matrix));
+            System.out.println("Array: "+MatrixMarketIO.read(arrayFile).equals(matrix)+
+                    ", coordinate: "+MatrixMarketIO.readSparse(sparseFile).toMatrix()
+                    .equals(sparse.toMatrix())+", parallel coordinate: "+
+                    MatrixMarketIO.readSparse(sparseFile,parallel).toMatrix()
+                    .equals(sparse.toMatrix()));
+
+            // Symmetric and pattern files only store the lower triangle
+            Path symmetricFile=directory.resolve("symmetric.mtx");
+            Files.writeString(symmetricFile,"%%MatrixMarket matrix coordinate pattern symmetric\n"+
+                    "% A comment\n3 3 3\n1 1\n3 1\n3 2\n");
+            System.out.println(MatrixMarketIO.read(symmetricFile));
+            Path headerFile=directory.resolve("header.csv");
+            Files.writeString(headerFile,"x; y\r\n1.5; -2e3\r\n\r\n.25; NaN\r\n");
+            System.out.println(CsvIO.read(headerFile,';',true,ParallelismPolicy.SEQUENTIAL));
+            Files.writeString(headerFile,"1,2,3\n4,5\n");
+            CsvIO.read(headerFile);
+        }catch(IOException e){
+            System.out.println(e.getMessage());
+        }
+        parallel.getPool().shutdown();
+    }
+
+    private static void testMatrixBatch(){
+        final int n=5;
+        Matrix[] matrices=new Matrix[1000];
+        Matrix[] rightHandSides=new Matrix[matrices.length];
+        for(int k=0;k<matrices.length;k++){
+            matrices[k]=Matrix.generateRandomMatrix(n,n).plus(Matrix.generateIdentityMatrix(n));
+            rightHandSides[k]=Matrix.generateRandomMatrix(n,2);
+        }
+        MatrixBatch batch=new MatrixBatch(matrices);
+        MatrixBatch batchOfRightHandSides=new MatrixBatch(rightHandSides);
+        ParallelismPolicy parallel=new ParallelismPolicy(new ForkJoinPool(4),0);
+        try{
+            MatrixBatch products=batch.dotProduct(batch,parallel);
+            MatrixBatch solutions=batch.decomposeLU(parallel).solve(batchOfRightHandSides,parallel);
+            MatrixBatch inverses=batch.inverse();
+            double[] determinants=batch.determinants();
+            double productError=0;
+            double solutionError=0;
+            double inverseError=0;
+            double determinantError=0;
+            for(int k=0;k<matrices.length;k++){
+                productError=Math.max(productError,maximumDifference(products.getMatrix(k),
+                        matrices[k].dotProduct(matrices[k])));
+                solutionError=Math.max(solutionError,maximumDifference(
+                        matrices[k].dotProduct(solutions.getMatrix(k)),rightHandSides[k]));
+                inverseError=Math.max(inverseError,maximumDifference(inverses.getMatrix(k),
+                        matrices[k].inverse()));
+                determinantError=Math.max(determinantError,Math.abs(determinants[k]-
+                        matrices[k].determinant())/Math.abs(determinants[k]));
+            }
+            System.out.println("Product error: "+productError+", solution residual: "+
+                    solutionError+", inverse error: "+inverseError+", determinant error: "+
+                    determinantError);
+            System.out.println(batch+", one product: "+
+                    batch.dotProduct(new MatrixBatch(Matrix.generateIdentityMatrix(n)))
+                            .getMatrix(7).equals(matrices[7]));
+            batch.setMatrix(3,new Matrix(n,n)).inverse();
+        }catch(IncompatibleMatrixMultiplicationException|UndecomposableMatrixException|
+               UninvertibleMatrixException|IndeterminableMatrixException e){
+            System.out.println(e.getMessage());
+        }
+        parallel.getPool().shutdown();
+    }
+
+    private static void testQRDecomposition(){
+        // A line fitted through points that are not quite on it
+        Matrix points=new Matrix(new double[][]{
+                new double[]{1,0},
+                new double[]{1,1},
+                new double[]{1,2},
+                new double[]{1,3}
+        });
+        Vector heights=new Vector(1,3.1,4.9,7);
+        Matrix tall=Matrix.generateRandomMatrix(4000,60).scaledBy(0.1);
+        Vector b=new Vector(Matrix.generateRandomMatrix(4000,1).getColumn(0));
+        ParallelismPolicy parallel=new ParallelismPolicy(new ForkJoinPool(4),0);
+        try{
+            QRDecomposition line=new QRDecomposition(points);
+            System.out.println("Intercept and slope: "+Arrays.toString(
+                    line.solve(heights).asArray())+", residual: "+line.residualNorm(heights));
+            System.out.println("Q·R equals A: "+maximumDifference(
+                    line.getQ().dotProduct(line.getR()),points));
+
+            QRDecomposition sequential=new QRDecomposition(tall);
+            QRDecomposition tsqr=new QRDecomposition(tall,parallel);
+            Vector x=sequential.solve(b);
+            Matrix normalEquations=tall.transpose().dotProduct(tall);
+            Vector fromNormalEquations=new LUDecomposition(normalEquations)
+                    .solve(new Vector(tall.transpose().dotProduct(b).getColumn(0)));
+            System.out.println("Against the normal equations: "+
+                    maximumDifference(x,fromNormalEquations)+", TSQR against sequential: "+
+                    maximumDifference(tsqr.solve(b),x)+", residuals: "+
+                    sequential.residualNorm(b)+" and "+tsqr.residualNorm(b));
+            Matrix q=tsqr.getQ();
+            System.out.println("TSQR Q·R equals A: "+maximumDifference(
+                    q.dotProduct(tsqr.getR()),tall)+", QᵀQ equals I: "+maximumDifference(
+                    q.transpose().dotProduct(q),Matrix.generateIdentityMatrix(60)));
+
+            Matrix dependent=points.augmentedWith(points.submatrix(0,0,4,1)).copy();
+            System.out.println("Full rank: "+new QRDecomposition(dependent).isFullRank());
+            new QRDecomposition(dependent).solve(heights);
+        }catch(UndecomposableMatrixException|UninvertibleMatrixException|
+               IncompatibleMatrixMultiplicationException|IncompatibleMatrixAugmentationException e){
+            System.out.println(e.getMessage());
+        }
+        try{
+            new QRDecomposition(points.transpose());
+        }catch(UndecomposableMatrixException e){
+            System.out.println(e.getMessage());
+        }
+        parallel.getPool().shutdown();
+    }
+
+    private static void testDiagonalTypes(){
+        final int n=300;
+        Matrix dense=Matrix.generateRandomMatrix(n,n);
+        double[] entries=Matrix.generateRandomMatrix(n,1).getColumn(0);
+        for(int i=0;i<n;i++){
+            entries[i]=((entries[i]+1)/10);
+        }
+        DiagonalMatrix diagonal=new DiagonalMatrix(entries);
+        Matrix denseDiagonal=Matrix.generateDiagonalMatrix(entries);
+        IdentityMatrix identity=new IdentityMatrix(n);
+        Vector b=new Vector(Matrix.generateRandomMatrix(n,1).getColumn(0));
+        try{
+            System.out.println(diagonal+": left "+maximumDifference(diagonal.dotProduct(dense),
+                    denseDiagonal.dotProduct(dense))+", right "+maximumDifference(
+                    dense.dotProduct(diagonal),dense.dotProduct(denseDiagonal))+", sum "+
+                    maximumDifference(dense.plus(diagonal),dense.plus(denseDiagonal))+
+                    ", difference "+maximumDifference(diagonal.minus(dense),
+                    denseDiagonal.minus(dense))+", solve "+maximumDifference(
+                    denseDiagonal.dotProduct(diagonal.solve(b)),b));
+            System.out.println("Inverse "+maximumDifference(diagonal.inverse().dotProduct(dense),
+                    denseDiagonal.inverse().dotProduct(dense))+", determinant "+
+                    (diagonal.determinant()/denseDiagonal.determinant())+" times the dense one");
+            System.out.println(identity+": folded away "+(dense.dotProduct(identity)==dense &&
+                    identity.dotProduct(dense)==dense && identity.dotProduct(diagonal)==diagonal &&
+                    identity.inverse()==identity)+", sum "+maximumDifference(
+                    dense.minus(identity),dense.minus(Matrix.generateIdentityMatrix(n)))+
+                    ", determinant "+identity.determinant());
+
+            new DiagonalMatrix(1,0,2).inverse();
+        }catch(IncompatibleMatrixMultiplicationException|UninvertibleMatrixException|
+               IndeterminableMatrixException e){
+            System.out.println(e.getMessage());
+        }
+    }
+
+    private static void testStructuredMatrices(){
+        final int n=200;
+        Matrix dense=Matrix.generateRandomMatrix(n,n).plus(
+                Matrix.generateIdentityMatrix(n).scaledBy(10*n)).scaledBy(1.0/n);
+        Vector b=new Vector(Matrix.generateRandomMatrix(n,1).getColumn(0));
+        try{
+            for(boolean isLower:new boolean[]{true,false}){
+                TriangularMatrix triangle=new TriangularMatrix(dense,isLower);
+                Matrix denseTriangle=triangle.toMatrix();
+                System.out.println(triangle+": residual "+maximumDifference(
+                        denseTriangle.dotProduct(triangle.solve(b)),b)+", product "+
+                        maximumDifference(triangle.dotProduct(b),denseTriangle.dotProduct(b))+
+                        ", several columns "+maximumDifference(denseTriangle.dotProduct(
+                        triangle.solve(dense)),dense)+", transpose "+triangle.transpose()
+                        .toMatrix().equals(denseTriangle.transpose()));
+            }
+
+            // The matrix of the second difference, which is diagonally dominant
+            final int points=1_000_000;
+            double[] offDiagonal=new double[(points-1)];
+            double[] diagonal=new double[points];
+            Arrays.fill(offDiagonal,-1);
+            Arrays.fill(diagonal,2.5);
+            TridiagonalMatrix tridiagonal=new TridiagonalMatrix(offDiagonal,diagonal,offDiagonal);
+            double[] ones=new double[points];
+            Arrays.fill(ones,1);
+            Vector right=new Vector(ones);
+            long start=System.nanoTime();
+            Vector x=tridiagonal.solve(right);
+            long time=(System.nanoTime()-start);
+            System.out.println("Tridiagonal solve with "+points+" rows in "+(time/1e6)+" ms, "+
+                    "residual "+maximumDifference(tridiagonal.dotProduct(x),right));
+            TridiagonalMatrix small=new TridiagonalMatrix(dense);
+            System.out.println("Tridiagonal against dense: "+maximumDifference(small.solve(b),
+                    new LUDecomposition(small.toMatrix()).solve(b))+", determinant "+
+                    small.determinant()+" and "+small.toMatrix().determinant()+
+                    ", as a band matrix: "+maximumDifference(small.toBandMatrix().solve(b),
+                    small.solve(b)));
+
+            // A band matrix that needs pivoting, because its diagonal is small
+            BandMatrix band=new BandMatrix(Matrix.generateRandomMatrix(n,n),3,5);
+            Matrix denseBand=band.toMatrix();
+            System.out.println(band+": residual "+maximumDifference(
+                    denseBand.dotProduct(band.solve(b)),b)+", against dense "+maximumDifference(
+                    band.solve(b),new LUDecomposition(denseBand).solve(b))+", determinant "+
+                    (band.determinant()/denseBand.determinant())+" times the dense one");
+
+            new TridiagonalMatrix(new double[]{1},new double[]{0,1},new double[]{1})
+                    .solve(new Vector(1,1));
+        }catch(IncompatibleMatrixMultiplicationException|UndecomposableMatrixException|
+               UninvertibleMatrixException|IndeterminableMatrixException e){
+            System.out.println(e.getMessage());
+        }
+    }
+
+    private static void testMatrixExpression(){
+        Matrix a=Matrix.generateRandomMatrix(300,200);
+        Matrix b=Matrix.generateRandomMatrix(300,200);
+        Matrix c=Matrix.generateRandomMatrix(300,200);
+        Matrix square=Matrix.generateRandomMatrix(200,200);
+        ParallelismPolicy parallel=new ParallelismPolicy(new ForkJoinPool(4),0);
+        try{
+            System.out.println("Fused chain: "+a.lazy().plus(b).scaledBy(2).minus(c).evaluate()
+                    .equals(a.plus(b).scaledBy(2).minus(c)));
+            System.out.println("Fused in parallel with a transpose: "+square.lazy().transpose()
+                    .plus(square).scaledBy(0.5).evaluate(parallel).equals(
+                    square.transpose().plus(square).scaledBy(0.5)));
+            System.out.println("a+a-2a: "+a.lazy().plus(a).minus(a.lazy().scaledBy(2))
+                    .evaluate().equals(new Matrix(300,200)));
+            System.out.println("Nothing to calculate: "+(a.lazy().transpose().transpose()
+                    .evaluate()==a));
+            Matrix augmented=new Matrix(new double[][]{
+                    new double[]{1, 2, 3},
+                    new double[]{4, 5, 6}
+            },2);
+            System.out.println("Scaled augmented matrix keeps its augment index: "+
+                    (augmented.lazy().scaledBy(2).evaluate().getAugmentIndex()==
+                    augmented.scaledBy(2).getAugmentIndex()));
+
+            Matrix product=a.transpose().dotProduct(b);
+            System.out.println("aᵀ·b: "+a.lazy().transpose().dotProduct(b).evaluate(parallel)
+                    .equals(product));
+            System.out.println("(3a)ᵀ·(b-c) and its transpose: "+maximumDifference(
+                    a.lazy().scaledBy(3).transpose().dotProduct(b.lazy().minus(c)).evaluate(),
+                    a.transpose().scaledBy(3).dotProduct(b.minus(c)))+", "+maximumDifference(
+                    a.lazy().transpose().dotProduct(b).transpose().evaluate(),
+                    product.transpose()));
+            System.out.println("Product plus a matrix: "+maximumDifference(
+                    a.lazy().dotProduct(square).plus(c).evaluate(),a.dotProduct(square).plus(c)));
+            a.lazy().dotProduct(b);
+        }catch(IncompatibleMatrixMultiplicationException e){
+            System.out.println(e.getMessage());
+        }
+        try{
+            a.lazy().plus(square);
+        }catch(IllegalArgumentException e){
+            System.out.println(e.getMessage());
+        }
+        parallel.getPool().shutdown();
+    }
+
+    private static void testSingularValueDecomposition(){
+        Matrix tall=Matrix.generateRandomMatrix(200,50).scaledBy(0.1);
+        Matrix wide=Matrix.generateRandomMatrix(30,80).scaledBy(0.1);
+        ParallelismPolicy parallel=new ParallelismPolicy(new ForkJoinPool(4),0);
+        try{
+            // A matrix of rank 20, which the randomized decomposition finds exactly
+            Matrix lowRank=Matrix.generateRandomMatrix(2000,20).scaledBy(0.1).dotProduct(
+                    Matrix.generateRandomMatrix(20,300).scaledBy(0.1));
+            for(Matrix matrix:new Matrix[]{tall,wide}){
+                SingularValueDecomposition svd=new SingularValueDecomposition(matrix,parallel);
+                Matrix u=svd.getU();
+                Matrix v=svd.getV();
+                System.out.println(matrix.getDimensions()+": U·Σ·Vᵀ equals A: "+
+                        maximumDifference(u.dotProduct(svd.getS()).dotProduct(v.transpose()),
+                                matrix)+", UᵀU equals I: "+maximumDifference(u.transpose()
+                        .dotProduct(u),Matrix.generateIdentityMatrix(u.AMOUNT_OF_COLUMNS))+
+                        ", VᵀV equals I: "+maximumDifference(v.transpose().dotProduct(v),
+                        Matrix.generateIdentityMatrix(v.AMOUNT_OF_COLUMNS))+", rank: "+
+                        svd.rank()+", condition number: "+svd.conditionNumber());
+            }
+
+            SingularValueDecomposition full=new SingularValueDecomposition(lowRank);
+            Matrix pseudoInverse=full.pseudoInverse();
+            System.out.println("Rank: "+full.rank()+", A·A⁺·A equals A: "+maximumDifference(
+                    lowRank.dotProduct(pseudoInverse).dotProduct(lowRank),lowRank));
+            Vector b=new Vector(Matrix.generateRandomMatrix(2000,1).getColumn(0));
+            System.out.println("solve() equals A⁺·b: "+maximumDifference(full.solve(b),
+                    new Vector(pseudoInverse.dotProduct(b).getColumn(0))));
+
+            SingularValueDecomposition randomized=SingularValueDecomposition.randomized(lowRank,
+                    20,10,1,parallel,new Random(1));
+            double[] exact=Arrays.copyOf(full.getSingularValues(),20);
+            double error=0;
+            for(int i=0;i<20;i++){
+                error=Math.max(error,Math.abs(randomized.getSingularValues()[i]-exact[i]));
+            }
+            System.out.println("Randomized singular values: "+error+", low-rank approximation: "+
+                    maximumDifference(randomized.lowRankApproximation(20),lowRank));
+            SingularValueDecomposition.randomized(wide,31);
+        }catch(IncompatibleMatrixMultiplicationException|IllegalArgumentException e){
+            System.out.println(e.getMessage());
+        }
+        parallel.getPool().shutdown();
+    }
+
+    private static void testStrassenMultiplication(){
+        // Odd, rectangular sizes with a small cutoff exercise the padding and several levels
+        Matrix left=Matrix.generateRandomMatrix(203,131).scaledBy(0.1);
+        Matrix right=Matrix.generateRandomMatrix(131,77).scaledBy(0.1);
+        ParallelismPolicy parallel=new ParallelismPolicy(new ForkJoinPool(4),0);
+        try{
+            Matrix product=left.dotProduct(right);
+            System.out.println("Strassen error with 3 levels: "+maximumDifference(
+                    left.dotProductByStrassen(right,16,ParallelismPolicy.SEQUENTIAL),product));
+            System.out.println("Strassen error in parallel: "+maximumDifference(
+                    left.dotProductByStrassen(right,8,parallel),product));
+            System.out.println("Below the cutoff: "+
+                    left.dotProductByStrassen(right).equals(product));
+            System.out.println("Transposed views: "+maximumDifference(
+                    right.transpose().dotProductByStrassen(left.transpose(),16,parallel),
+                    product.transpose()));
+            left.dotProductByStrassen(left);
+        }catch(IncompatibleMatrixMultiplicationException e){
+            System.out.println(e.getMessage());
+        }
+        parallel.getPool().shutdown();
+    }
+
+    private static void testFloatPrecision(){
+        final int n=300;
+        Matrix matrix=Matrix.generateRandomMatrix(n,n).plus(
+                Matrix.generateIdentityMatrix(n).scaledBy(n)).scaledBy(1.0/n);
+        Matrix other=Matrix.generateRandomMatrix(n,n).scaledBy(1.0/3);
+        FloatMatrix floatMatrix=new FloatMatrix(matrix);
+        ParallelismPolicy parallel=new ParallelismPolicy(new ForkJoinPool(4),0);
+        try{
+            Matrix product=matrix.dotProduct(other);
+            double productError=Math.max(
+                    maximumDifference(floatMatrix.dotProduct(new FloatMatrix(other)).toMatrix(),
+                            product),
+                    maximumDifference(floatMatrix.dotProduct(new FloatMatrix(other),parallel)
+                            .toMatrix(),product));
+            double transposeError=maximumDifference(floatMatrix.transpose().toMatrix(),
+                    matrix.transpose());
+            double inverseError=maximumDifference(floatMatrix.inverse().toMatrix(),
+                    matrix.inverse());
+            FloatMatrix reduced=new FloatMatrix(new float[][]{
+                    new float[]{2,1,-1,8},
+                    new float[]{-3,-1,2,-11},
+                    new float[]{-2,1,2,-3}
+            }).solveWithGaussianElimination();
+            System.out.println("Product error: "+productError+", transpose error: "+
+                    transposeError+", inverse error: "+inverseError+", determinant ratio: "+
+                    (floatMatrix.determinant()/matrix.determinant()));
+            System.out.println(reduced);
+
+            Vector b=new Vector(Matrix.generateRandomMatrix(n,1).getColumn(0));
+            Vector floatSolution=new FloatLUDecomposition(floatMatrix).solve(b);
+            IterativeSolution refined=new MixedPrecisionSolver(matrix).solve(b);
+            Vector doubleSolution=new LUDecomposition(matrix).solve(b);
+            System.out.println("Single precision error: "+
+                    maximumDifference(floatSolution,doubleSolution)+", refined error: "+
+                    maximumDifference(refined.getSolution(),doubleSolution)+", "+refined);
+
+            // A Hilbert matrix is too ill-conditioned for refinement, so the solver falls back
+            MatrixBuilder hilbert=new MatrixBuilder(12,12);
+            for(int row=0;row<12;row++){
+                for(int column=0;column<12;column++){
+                    hilbert.setEntry(row,column,(1.0/(row+column+1)));
+                }
+            }
+            double[] ones=new double[12];
+            Arrays.fill(ones,1);
+            System.out.println("Hilbert matrix: "+
+                    new MixedPrecisionSolver(hilbert.build()).solve(new Vector(ones)));
+            new MixedPrecisionSolver(new Matrix(3,3)).solve(new Vector(1,2,3));
+        }catch(IncompatibleMatrixMultiplicationException|UndecomposableMatrixException|
+               UninvertibleMatrixException|IndeterminableMatrixException e){
+            System.out.println(e.getMessage());
+        }
+        parallel.getPool().shutdown();
+    }
+
+    private static double maximumDifference(Matrix matrix1,Matrix matrix2){
+        double difference=0;
+        for(int row=0;row<matrix1.AMOUNT_OF_ROWS;row++){
+            for(int column=0;column<matrix1.AMOUNT_OF_COLUMNS;column++){
+                difference=Math.max(difference,
+                        Math.abs(matrix1.getEntry(row,column)-matrix2.getEntry(row,column)));
+            }
+        }
+        return difference;
+    }
+
     private static void testInverse(){
         Matrix matrix=new Matrix(new double[][]{
                 new double[]{1, 2, 3},